@@ -4,8 +4,6 @@ import com.pathplanner.lib.util.HolonomicPathFollowerConfig;
 import com.pathplanner.lib.util.PIDConstants;
 import com.pathplanner.lib.util.ReplanningConfig;
 
-import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.util.Units;
 
@@ -60,6 +58,29 @@ public final class Constants {
   public static final double MAX_VELOCITY_METERS_PER_SECOND = 4.5;
   public static final double MAX_ANGULAR_VELOCITY_RADIANS_PER_SECOND = 2.0 * Math.PI;
   
+  // Odometry
+  public static final boolean ODOMETRY_THREAD_ENABLED = true; // Sample on a dedicated thread instead of the 50 Hz loop
+  public static final double ODOMETRY_FREQUENCY_HZ = 200.0; // 100-250 Hz
+  // Drive and turn Talon feedback frame period, so each odometry sample sees new positions
+  public static final int ODOMETRY_STATUS_FRAME_PERIOD_MS = (int) Math.round(1000.0 / ODOMETRY_FREQUENCY_HZ);
+  
+  // Record the Limelight pose topics to a WPILog for offline replay (./gradlew replay)
+  public static final boolean REPLAY_LOGGING_ENABLED = true;
+  
+  // Module control
+  public enum ModuleControlMode {
+    ROBORIO, // Turn PID on the roboRIO at 50 Hz, drive open loop
+    ONBOARD // Turn position loop on the CANcoder and drive velocity loop, both on the TalonFXs
+  }
+  public static final ModuleControlMode MODULE_CONTROL_MODE = ModuleControlMode.ROBORIO;
+  // Onboard turn loop period: the CANcoder sends its position this often and the Talon
+  // runs the loop at the same period, so every loop sees a new reading
+  public static final int TURN_FEEDBACK_PERIOD_MS = 10;
+  public static final boolean CANCODER_CLOCKWISE_POSITIVE = false; // Remote CANcoder direction, onboard mode
+  public static final boolean TURN_SENSOR_PHASE = false; // Flip if positive turn output moves the CANcoder negative
+  public static final double CANCODER_POSITION_CONVERSION = 2.0 * Math.PI / 4096.0; // Remote CANcoder units to radians
+  public static final double DRIVE_STATIC_FEEDFORWARD = 0.02; // Percent output to overcome friction, onboard mode
+  
   // PID configuration class
   public static class PIDConfig {
     public final double kP;
@@ -92,31 +113,54 @@ public final class Constants {
     public static final String LIMELIGHT_BACK_NAME = "limelight-back";
     public static final String LIMELIGHT_LEFT_NAME = "limelight-left";
     
-    // Pipeline indices
-    public static final int APRILTAG_PIPELINE = 0;
-    public static final int RETROREFLECTIVE_PIPELINE = 1;
+    // Ingest mode: true queues frames from NetworkTables listeners as they arrive,
+    // false polls every camera on every scheduler loop
+    public static final boolean EVENT_DRIVEN_INGEST = true;
     
-    // Limelight mounting positions relative to robot center
-    // These are the transforms from robot center to each camera
-    public static final Pose2d LIMELIGHT_FRONT_TO_ROBOT = new Pose2d(
-        new Translation2d(WHEEL_BASE_METERS / 2.0 + 0.1, 0),
-        Rotation2d.fromDegrees(0)
-    );
+    // Frames that can be held between two scheduler loops (all cameras combined)
+    public static final int FRAME_QUEUE_CAPACITY = 32;
     
-    public static final Pose2d LIMELIGHT_RIGHT_TO_ROBOT = new Pose2d(
-        new Translation2d(0, -TRACK_WIDTH_METERS / 2.0 - 0.1),
-        Rotation2d.fromDegrees(-90)
-    );
+    // A camera with no new frame for this long is treated as having no target
+    public static final double FRAME_TIMEOUT_SECONDS = 0.25;
     
-    public static final Pose2d LIMELIGHT_BACK_TO_ROBOT = new Pose2d(
-        new Translation2d(-WHEEL_BASE_METERS / 2.0 - 0.1, 0),
-        Rotation2d.fromDegrees(180)
-    );
+    // Pose source: true reads MegaTag2 (botpose_orb_wpiblue) and feeds the robot heading
+    // to every camera each loop, false reads the legacy single-frame botpose
+    public static final boolean MEGATAG2_INGEST = true;
+    // MegaTag2 measurements are dropped while the robot spins faster than this
+    public static final double MEGATAG2_MAX_YAW_RATE_DEGREES_PER_SECOND = 720.0;
+    // MegaTag2 heading is our own gyro fed back, so the estimator should ignore it
+    public static final double MEGATAG2_STD_DEV_THETA = 9999999.0;
     
-    public static final Pose2d LIMELIGHT_LEFT_TO_ROBOT = new Pose2d(
-        new Translation2d(0, TRACK_WIDTH_METERS / 2.0 + 0.1),
-        Rotation2d.fromDegrees(90)
-    );
+    // Reef/human player centering chases trapezoid-profiled setpoints instead of raw proportional output
+    public static final boolean PROFILED_REEF_ALIGNMENT = false;
+    
+    // Pose-based reef alignment: robot center to tag when scoring, tag to branch, and when to stop
+    public static final double REEF_STANDOFF_METERS = 0.45;
+    public static final double REEF_BRANCH_OFFSET_METERS = 0.1643;
+    public static final double REEF_ALIGN_TRANSLATION_TOLERANCE_METERS = 0.02;
+    public static final double REEF_ALIGN_ROTATION_TOLERANCE_RADIANS = Math.toRadians(2.0);
+    
+    // Health metrics: struct topic and the window percentiles/frame rates are computed over
+    public static final String HEALTH_TOPIC = "Vision/Health";
+    public static final double METRICS_WINDOW_SECONDS = 1.0;
+    
+    // Crop each alignment camera around the targeted tag and pick its downscale from the tag's size,
+    // returning to full frame after this many loops without the camera reporting it
+    public static final boolean DYNAMIC_CROP = true;
+    public static final int CROP_LOST_LOOPS = 5;
+    // Crop half-size as a multiple of the tag's half-width, and the smallest half-size allowed (normalized)
+    public static final double CROP_MARGIN = 3.0;
+    public static final double CROP_MIN_HALF_SIZE = 0.15;
+    public static final String TUNING_FPS_TOPIC = "Vision/Tuning/FPS";
+    
+    // Limelight 3 field of view and AprilTag edge length, for predicting where a tag appears in the image
+    public static final double LIMELIGHT_HFOV_DEGREES = 62.5;
+    public static final double LIMELIGHT_VFOV_DEGREES = 48.9;
+    public static final double APRILTAG_SIZE_METERS = 0.1651;
+    
+    // Pipeline indices
+    public static final int APRILTAG_PIPELINE = 0;
+    public static final int RETROREFLECTIVE_PIPELINE = 1;
     
     // Standard deviations for vision measurements (how much to trust the vision)
     // Increase these values to trust vision less, decrease to trust vision more
@@ -124,8 +168,22 @@ public final class Constants {
     public static final double VISION_STD_DEV_Y = 0.5;
     public static final double VISION_STD_DEV_THETA = 0.5;
     
+    // Multi-camera fusion: measurements captured within this window of each other are fused into one;
+    // anything farther apart goes to the estimator separately at its own capture time
+    public static final double FUSION_WINDOW_SECONDS = 0.005;
+    // Measurements farther than this from odometry are rejected as outliers
+    public static final double FUSION_MAX_TRANSLATION_ERROR_METERS = 1.0;
+    public static final double FUSION_MAX_HEADING_ERROR_RADIANS = Math.toRadians(30);
+    // After this many loops of rejecting everything, trust vision over odometry again
+    public static final int FUSION_MAX_REJECTED_LOOPS = 25;
+    
+    // Decode the alignment cameras' JSON dumps on a background thread (LimelightResultsService)
+    public static final boolean JSON_RESULTS_ENABLED = true;
+    public static final double JSON_RESULTS_POLL_PERIOD_SECONDS = 0.02;
+    
     // AprilTag constants
     public static final double APRILTAG_APPROACH_DISTANCE_METERS = 0.10; // 10 centimeters
+    public static final int MAX_APRILTAG_ID = 22; // Highest tag ID on the field
   }
   
   // PathPlanner Constants
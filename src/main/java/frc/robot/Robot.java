@@ -3,10 +3,15 @@ package frc.robot;
 import com.pathplanner.lib.pathfinding.Pathfinding;
 import com.pathplanner.lib.util.PathPlannerLogging;
 
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import frc.robot.commands.JoystickStatusCommand;
+import frc.robot.replay.DriveStateLog;
+import frc.robot.replay.ReplayLog;
+import frc.robot.shared.PriorityTagScheduler;
 import frc.robot.subsystems.SwerveDriveSubsystem;
 import frc.robot.web.PIDTunerServer;
 
@@ -18,9 +23,20 @@ public class Robot extends TimedRobot {
 
   @Override
   public void robotInit() {
+    // Record the Limelight pose topics to a WPILog for offline replay; the drivetrain adds its own channels below
+    if (Constants.REPLAY_LOGGING_ENABLED) {
+      startReplayLog();
+    }
+    
     // Initialize robot container
     robotContainer = new RobotContainer();
     
+    // Record the drivetrain's odometry inputs alongside the pose topics
+    if (Constants.REPLAY_LOGGING_ENABLED) {
+      robotContainer.getDrivetrain().setDriveStateLog(
+        new DriveStateLog(DataLogManager.getLog(), ReplayLog.Channels.defaults()));
+    }
+    
     // Start PID tuner web server on port 8081
     pidTunerServer = new PIDTunerServer(8081);
     pidTunerServer.start();
@@ -41,27 +57,49 @@ public class Robot extends TimedRobot {
     joystickStatusCommand.schedule();
   }
 
+  /**
+   * Start the WPILog with only the NetworkTables topics the replay reads, rather
+   * than every value on the robot
+   */
+  private static void startReplayLog() {
+    DataLogManager.start();
+    DataLogManager.logNetworkTables(false);
+    for (String channel : ReplayLog.Channels.defaults().botpose()) {
+      // Channels are named "NT:/<camera>/<topic>", the same as DataLogManager names them
+      String topic = channel.substring("NT:".length());
+      NetworkTableInstance.getDefault().startEntryDataLog(DataLogManager.getLog(), topic, channel);
+    }
+  }
+  
   @Override
   public void robotPeriodic() {
     CommandScheduler.getInstance().run();
     
     // Update PID values if they've been changed through the web interface
     if (pidTunerServer.hasUpdates()) {
-      robotContainer.getDriveSubsystem().updatePIDValues(
-        pidTunerServer.getDrivePID(),
-        pidTunerServer.getTurnPID()
-      );
+      // Only the legacy drivetrain's modules take these gains
+      SwerveDriveSubsystem legacyDrive = robotContainer.getDriveSubsystem();
+      if (legacyDrive != null) {
+        legacyDrive.updatePIDValues(
+          pidTunerServer.getDrivePID(),
+          pidTunerServer.getTurnPID()
+        );
+      }
     }
   }
 
   @Override
-  public void disabledInit() {}
+  public void disabledInit() {
+    PriorityTagScheduler.getDefault().clear();
+  }
 
   @Override
   public void disabledPeriodic() {}
 
   @Override
   public void autonomousInit() {
+    // Targets left over from the last mode; the auto sets its own
+    PriorityTagScheduler.getDefault().clear();
     autonomousCommand = robotContainer.getAutonomousCommand();
 
     if (autonomousCommand != null) {
@@ -77,6 +115,7 @@ public class Robot extends TimedRobot {
     if (autonomousCommand != null) {
       autonomousCommand.cancel();
     }
+    PriorityTagScheduler.getDefault().clear();
   }
 
   @Override
@@ -1,5 +1,6 @@
 package frc.robot;
 
+import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.Joystick;
 import edu.wpi.first.wpilibj.XboxController;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
@@ -13,18 +14,35 @@ import frc.robot.Constants.JoystickConstants;
 import frc.robot.Constants.VisionConstants;
 import frc.robot.commands.DefaultDriveCommand;
 import frc.robot.commands.DriveToAprilTagCommand;
+import frc.robot.commands.RegisterCommands;
+import frc.robot.shared.CameraRegistry;
+import frc.robot.shared.LimelightResultsService;
+import frc.robot.shared.PriorityTagScheduler;
+import frc.robot.subsystems.Drivetrain;
 import frc.robot.subsystems.SwerveDriveSubsystem;
 import frc.robot.subsystems.VisionSubsystem;
+import frc.robot.subsystems.body.Wrist;
 import frc.robot.utils.PathPlannerUtils;
 
 public class RobotContainer {
-  // Subsystems
-  private final SwerveDriveSubsystem driveSubsystem = new SwerveDriveSubsystem();
+  // Subsystems; the drivetrain implementation comes from the "Drivetrain" preference.
+  // Only the selected one is built, and every command and binding drives it.
+  public static final Drivetrain drivetrain = Drivetrain.create(Drivetrain.getSelectedType());
   private final VisionSubsystem visionSubsystem = new VisionSubsystem();
   
+  // Tags from the alignment cameras' JSON dumps, decoded off the main loop
+  private final LimelightResultsService limelightResults = new LimelightResultsService(
+    NetworkTableInstance.getDefault(),
+    CameraRegistry.getDefault().names(CameraRegistry.Role.ALIGNMENT),
+    VisionConstants.JSON_RESULTS_POLL_PERIOD_SECONDS
+  );
+  
   // PathPlanner utilities
   private final PathPlannerUtils pathPlannerUtils;
   
+  // PathPlanner named commands, also the source of the reef alignment commands
+  private final RegisterCommands registerCommands = new RegisterCommands(Wrist.getInstance());
+  
   // Auto chooser
   private final SendableChooser<Command> autoChooser;
   
@@ -34,10 +52,21 @@ public class RobotContainer {
 
   public RobotContainer() {
     // Connect vision to drive subsystem
-    driveSubsystem.setVisionSubsystem(visionSubsystem);
+    drivetrain.setVisionSubsystem(visionSubsystem);
+    
+    // Crop the alignment cameras around whichever tag the scheduler is targeting
+    PriorityTagScheduler.getDefault().setTargetListener(visionSubsystem::setTargetAprilTag);
+    
+    if (VisionConstants.JSON_RESULTS_ENABLED) {
+      limelightResults.start();
+    }
     
     // Initialize PathPlanner utilities
-    pathPlannerUtils = new PathPlannerUtils(driveSubsystem);
+    pathPlannerUtils = new PathPlannerUtils(drivetrain);
+    
+    // Named commands have to exist before the autos that use them are loaded
+    registerCommands.register();
+    RegisterCommands.registerTargetTags();
     
     // Get auto chooser
     autoChooser = pathPlannerUtils.getAutoChooser();
@@ -47,8 +76,8 @@ public class RobotContainer {
     configureButtonBindings();
     
     // Set default command for the drive subsystem
-    driveSubsystem.setDefaultCommand(new DefaultDriveCommand(
-      driveSubsystem,
+    drivetrain.setDefaultCommand(new DefaultDriveCommand(
+      drivetrain,
       () -> -modifyAxis(driverController.getLeftY()) * Constants.MAX_VELOCITY_METERS_PER_SECOND,
       () -> -modifyAxis(driverController.getLeftX()) * Constants.MAX_VELOCITY_METERS_PER_SECOND,
       () -> -modifyAxis(driverController.getRightX()) * Constants.MAX_ANGULAR_VELOCITY_RADIANS_PER_SECOND
@@ -56,17 +85,23 @@ public class RobotContainer {
   }
 
   private void configureButtonBindings() {
-    // Reset gyro with Y button
+    // Point the field frame away from our alliance wall with Y button
     new JoystickButton(driverController, XboxController.Button.kY.value)
-      .onTrue(new InstantCommand(() -> driveSubsystem.resetPose(driveSubsystem.getPose().withRotation(new edu.wpi.first.math.geometry.Rotation2d()))));
+      .onTrue(new InstantCommand(() -> drivetrain.seedFieldCentric()));
     
     // Toggle vision-assisted pose estimation with X button
     new JoystickButton(driverController, XboxController.Button.kX.value)
       .onTrue(new InstantCommand(() -> {
         boolean currentState = SmartDashboard.getBoolean("Drive/Vision Enabled", true);
-        driveSubsystem.setVisionEnabled(!currentState);
+        drivetrain.setVisionEnabled(!currentState);
       }));
     
+    // Drive to the reef scoring poses from the field layout while the bumpers are held
+    new JoystickButton(driverController, XboxController.Button.kLeftBumper.value)
+      .whileTrue(registerCommands.alignLeftReefPose());
+    new JoystickButton(driverController, XboxController.Button.kRightBumper.value)
+      .whileTrue(registerCommands.alignRightReefPose());
+    
     // Configure joystick buttons for AprilTag navigation
     configureAprilTagButtons();
   }
@@ -82,7 +117,7 @@ public class RobotContainer {
       
       new JoystickButton(joystick, buttonIndex)
         .onTrue(new DriveToAprilTagCommand(
-          driveSubsystem,
+          drivetrain,
           visionSubsystem,
           pathPlannerUtils,
           tagId,
@@ -100,8 +135,26 @@ public class RobotContainer {
     return autoChooser.getSelected();
   }
   
+  /**
+   * Get the background-decoded Limelight tags, in alignment camera order
+   * 
+   * @return Results service; its snapshots stay null if JSON parsing is disabled
+   */
+  public LimelightResultsService getLimelightResults() {
+    return limelightResults;
+  }
+  
+  public Drivetrain getDrivetrain() {
+    return drivetrain;
+  }
+  
+  /**
+   * Get the legacy drive subsystem, for its module PID tuning
+   * 
+   * @return Legacy drive subsystem, or null when the CTRE drivetrain is selected
+   */
   public SwerveDriveSubsystem getDriveSubsystem() {
-    return driveSubsystem;
+    return drivetrain instanceof SwerveDriveSubsystem legacy ? legacy : null;
   }
   
   private static double modifyAxis(double value) {
@@ -1,10 +1,5 @@
 package frc.robot.bindings;
 
-import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
-import com.ctre.phoenix6.swerve.SwerveModule.SteerRequestType;
-import com.ctre.phoenix6.swerve.SwerveRequest;
-import com.ctre.phoenix6.swerve.SwerveRequest.FieldCentric;
-
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
@@ -14,15 +9,19 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.WaitUntilCommand;
 import frc.robot.RobotContainer;
+import frc.robot.Constants.VisionConstants;
+import frc.robot.commands.ReefPoseAlignCommand;
 import frc.robot.commands.UpdateSetpoints;
 import frc.robot.controllers.OI;
 import frc.robot.shared.Limelight;
 import frc.robot.shared.Logger;
+import frc.robot.shared.ReefAlignmentController;
+import frc.robot.shared.ReefPoseAlignment;
+import frc.robot.subsystems.Drivetrain;
 import frc.robot.subsystems.body.Elevator;
 import frc.robot.subsystems.body.BodyConstants.Setpoints;
 import frc.robot.subsystems.manipulator.AlgaeIntake;
 import frc.robot.subsystems.manipulator.CoralIntake;
-import frc.robot.subsystems.swerve.CommandSwerveDrivetrain;
 import frc.robot.subsystems.swerve.TunerConstants;
 
 public abstract class AbstractOperator {
@@ -31,20 +30,17 @@ public abstract class AbstractOperator {
     protected Limelight limelight;
     protected Elevator elevator;
 
-    public static CommandSwerveDrivetrain drivetrain = RobotContainer.drivetrain;
+    public static Drivetrain drivetrain = RobotContainer.drivetrain;
 
     private OI m_OI = OI.getInstance();
 
-    protected SwerveRequest.RobotCentric limelightDrive = new SwerveRequest.RobotCentric()
-        .withDeadband(TunerConstants.MaxSpeed * 0.02).withRotationalDeadband(TunerConstants.MaxAngularRate * 0.02) // Add a 4% deadband
-        .withDriveRequestType(DriveRequestType.Velocity)
-        .withSteerRequestType(SteerRequestType.Position); // Use open-loop control for drive motors
+    // Robot-centric drive deadbands for vision centering and fixed nudges
+    protected static final double LIMELIGHT_DEADBAND = TunerConstants.MaxSpeed * 0.02;
+    protected static final double LIMELIGHT_ROTATIONAL_DEADBAND = TunerConstants.MaxAngularRate * 0.02;
 
-    /* Setting up Bindings for necessary control of the swerve drive platform */
-    private SwerveRequest.FieldCentric drive = new SwerveRequest.FieldCentric()
-            .withDeadband(TunerConstants.MaxSpeed * 0.09).withRotationalDeadband(TunerConstants.MaxAngularRate * 0.09) // Add a 7% deadband
-            .withDriveRequestType(DriveRequestType.Velocity)
-            .withSteerRequestType(SteerRequestType.Position); // Use open-loop control for drive motors
+    // Field-centric drive deadbands for the driver's sticks
+    protected static final double DRIVER_DEADBAND = TunerConstants.MaxSpeed * 0.09;
+    protected static final double DRIVER_ROTATIONAL_DEADBAND = TunerConstants.MaxAngularRate * 0.09;
 
     public AbstractOperator(CoralIntake coralIntake, AlgaeIntake algaeIntake, Limelight limelight, Elevator elevator) {
         this.coralIntake = coralIntake;
@@ -114,36 +110,88 @@ public abstract class AbstractOperator {
         return new UpdateSetpoints(Setpoints.GroundAlgaeSetpoint);
     }
 
+    // Where each centering command puts the tag: area, area threshold, TX, TX threshold, RZ, RZ threshold
+    private static final ReefAlignmentController.Target LEFT_REEF = new ReefAlignmentController.Target(14, 0.1, 0, 0.16, 0, 0.25);
+    private static final ReefAlignmentController.Target RIGHT_REEF = new ReefAlignmentController.Target(14, 0.1, 0, 0.16, 0, 0.15);
+    private static final ReefAlignmentController.Target RIGHT_REEF_AUTO = new ReefAlignmentController.Target(13.8, 0.1, 6.5, 0.16, 0, 0.15);
+    private static final ReefAlignmentController.Target ALGAE = new ReefAlignmentController.Target(17.5, 0.1, -25.8, 0.16, 0, 0.15);
+    private static final ReefAlignmentController.Target LEFT_HUMAN_PLAYER = new ReefAlignmentController.Target(2.15, 0.1, 0.0, 0.75, 0.0, 1.0);
+    private static final ReefAlignmentController.Target RIGHT_HUMAN_PLAYER = new ReefAlignmentController.Target(2.2, 0.1, 0.0, 0.75, 0.0, 1.0);
+
+    /**
+     * Drive robot-centric toward a tag, reading the camera once per loop for all three axes
+     * @param cameraIndex Limelight index (Refer to {@link Limelight#staticLimelights})
+     * @param target Where to center the tag
+     * @param forwardScale Multiplier on the forward output
+     * @param strafeScale Multiplier on the strafe output
+     * @param rotationScale Multiplier on the rotation output
+     */
+    protected Command centerOnTag(int cameraIndex, ReefAlignmentController.Target target,
+            double forwardScale, double strafeScale, double rotationScale) {
+        ReefAlignmentController alignment = ReefAlignmentController.forCamera(cameraIndex, target, VisionConstants.PROFILED_REEF_ALIGNMENT);
+        return drivetrain.run(() -> {
+            alignment.calculate();
+            drivetrain.drive(
+                alignment.getForwardSpeed() * forwardScale, // Drive vertical with TA and PID
+                alignment.getStrafeSpeed() * strafeScale, // Drive horizontal with TX
+                alignment.getRotationRate() * rotationScale, // Drive counterclockwise with RZ
+                false, LIMELIGHT_DEADBAND, LIMELIGHT_ROTATIONAL_DEADBAND);
+        });
+    }
+
+    /**
+     * Drive robot-centric at fixed velocities
+     * @param xSpeed Forward speed (m/s)
+     * @param ySpeed Left speed (m/s)
+     * @param rotSpeed Counterclockwise rate (rad/s)
+     */
+    protected Command driveRobotCentric(double xSpeed, double ySpeed, double rotSpeed) {
+        return drivetrain.run(() ->
+            drivetrain.drive(xSpeed, ySpeed, rotSpeed, false, LIMELIGHT_DEADBAND, LIMELIGHT_ROTATIONAL_DEADBAND));
+    }
+
+    /**
+     * Drive field-centric from the driver's sticks. Pushing forward drives away from
+     * the driver's own alliance wall.
+     * @param oi Controllers to read
+     */
+    protected Command driveWithSticks(OI oi) {
+        return drivetrain.run(() ->
+            drivetrain.driveFromDriverStation(
+                -oi.getDriver().getLeftY() * TunerConstants.MaxSpeed, // Drive forward with negative Y (forward)
+                -oi.getDriver().getLeftX() * TunerConstants.MaxSpeed, // Drive left with negative X (left)
+                -oi.getDriver().getRightX() * TunerConstants.MaxAngularRate, // Drive counterclockwise with negative X (left)
+                DRIVER_DEADBAND, DRIVER_ROTATIONAL_DEADBAND));
+    }
+
     public Command centerLeftReef() {
-        return drivetrain.applyRequest(() ->
-            limelightDrive.withVelocityX(limelight.CenterTy(1, 0.1, 14) * Limelight.MaxSpeed) // Drive vertical with TY and TA and PID
-                .withVelocityY(limelight.CenterTx(1,0, 0.16) * Limelight.MaxSpeed) // Drive horizontal with TX
-                .withRotationalRate(limelight.CenterRotationRate(1, 0, 0.25) * Limelight.MaxSpeed) // Drive counterclockwise with RZ    
-        );
+        return centerOnTag(1, LEFT_REEF, Limelight.MaxSpeed, Limelight.MaxSpeed, Limelight.MaxSpeed);
     }
 
     public Command centerRightReef(){
-        return drivetrain.applyRequest(() ->
-            limelightDrive.withVelocityX((limelight.CenterTy(0, 0.1, 14) * Limelight.MaxSpeed)) // Drive vertical with TY and TA and PID
-                .withVelocityY((limelight.CenterTx(0,0, 0.16) * Limelight.MaxSpeed)) // Drive horizontal with TX
-                .withRotationalRate((limelight.CenterRotationRate(0, 0, 0.15) * Limelight.MaxSpeed)) // Drive counterclockwise with RZ    
-        ); 
+        return centerOnTag(0, RIGHT_REEF, Limelight.MaxSpeed, Limelight.MaxSpeed, Limelight.MaxSpeed);
+    }
+
+    /**
+     * Drive to the left branch scoring pose from the field layout and the fused pose
+     */
+    public Command alignLeftReefPose() {
+        return new ReefPoseAlignCommand(drivetrain, 1, ReefPoseAlignment.Branch.LEFT);
+    }
+
+    /**
+     * Drive to the right branch scoring pose from the field layout and the fused pose
+     */
+    public Command alignRightReefPose() {
+        return new ReefPoseAlignCommand(drivetrain, 0, ReefPoseAlignment.Branch.RIGHT);
     }
 
     public Command centerRightReefAuto(){
-        return drivetrain.applyRequest(() ->
-            limelightDrive.withVelocityX((limelight.CenterTy(0, 0.1, 13.8) * Limelight.MaxSpeed * 1.1)) // Drive vertical with TY and TA and PID
-                .withVelocityY((limelight.CenterTx(0, 6.5, 0.16) * Limelight.MaxSpeed * 1.2)) // Drive horizontal with TX
-                .withRotationalRate((limelight.CenterRotationRate(0, 0, 0.15) * Limelight.MaxSpeed * 1.2)) // Drive counterclockwise with RZ    
-        ); 
+        return centerOnTag(0, RIGHT_REEF_AUTO, Limelight.MaxSpeed * 1.1, Limelight.MaxSpeed * 1.2, Limelight.MaxSpeed * 1.2);
     }
 
     public Command centerAlgae(){
-        return drivetrain.applyRequest(() ->
-        limelightDrive.withVelocityX(limelight.CenterTy(1, 0.1, 17.5) * Limelight.MaxSpeed * 0.75) // Drive forward with negative Y (forward)
-            .withVelocityY(limelight.CenterTx(1, -25.8, 0.16) * Limelight.MaxSpeed * 0.75) // Drive left with negative X (left)
-            .withRotationalRate(limelight.CenterRotationRate(1, 0, 0.15) * Limelight.MaxSpeed) // Drive counterclockwise with negative X (left)
-        ); 
+        return centerOnTag(1, ALGAE, Limelight.MaxSpeed * 0.75, Limelight.MaxSpeed * 0.75, Limelight.MaxSpeed);
     }
 
     // public Command centerAlgaeBack(){
@@ -155,43 +203,23 @@ public abstract class AbstractOperator {
     // }
 
     public Command centerLeftHumanPlayer(){
-        return drivetrain.applyRequest(() ->
-            limelightDrive.withVelocityX((limelight.CenterTy(2, 0.1, 2.15) * 1.25)) // Drive forward with negative Y (forward)
-                .withVelocityY((limelight.CenterTx(2, 0.0, 0.75) * 1.25)) // Drive left with negative X (left)
-                .withRotationalRate((limelight.CenterRotationRate(2, 0.0, 1.0) * 1.25)) // Drive counterclockwise with negative X (left)
-        ); 
+        return centerOnTag(2, LEFT_HUMAN_PLAYER, 1.25, 1.25, 1.25);
     }
 
     public Command centerRightHumanPlayer(){
-        return drivetrain.applyRequest(() ->
-            limelightDrive.withVelocityX((limelight.CenterTy(3, 0.1, 2.2) * 1.25)) // Drive forward with negative Y (forward)
-                .withVelocityY((limelight.CenterTx(3, 0.0, 0.75) * 1.25)) // Drive left with negative X (left)
-                .withRotationalRate((limelight.CenterRotationRate(3, 0.0, 1.0) * 1.25)) // Drive counterclockwise with negative X (left)
-        ); 
+        return centerOnTag(3, RIGHT_HUMAN_PLAYER, 1.25, 1.25, 1.25);
     }
 
     public Command driveBack(){
-        return drivetrain.applyRequest(() ->
-                limelightDrive
-                    .withVelocityX(-0.4)
-                    .withVelocityY(0)
-                    .withRotationalRate(0.0));
+        return driveRobotCentric(-0.4, 0, 0.0);
     }
 
     public Command rotateRight(){
-        return drivetrain.applyRequest(() ->
-            limelightDrive.withVelocityX(0) // Drive forward with negative Y (forward)
-                .withVelocityY(0) // Drive left with negative X (left)
-                .withRotationalRate(1.5) // Drive counterclockwise with negative X (left)
-        ); 
+        return driveRobotCentric(0, 0, 1.5);
     }
 
     public Command rotateLeft(){
-        return drivetrain.applyRequest(() ->
-            limelightDrive.withVelocityX(0) // Drive forward with negative Y (forward)
-                .withVelocityY(0) // Drive left with negative X (left)
-                .withRotationalRate(-1.5) // Drive counterclockwise with negative X (left)
-        ); 
+        return driveRobotCentric(0, 0, -1.5);
     }
 
     public Command coralOut(){
@@ -1,8 +1,5 @@
 package frc.robot.bindings;
 
-import com.ctre.phoenix6.swerve.SwerveRequest.FieldCentric;
-import com.ctre.phoenix6.swerve.SwerveRequest.RobotCentric;
-
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 import edu.wpi.first.wpilibj2.command.ParallelDeadlineGroup;
@@ -21,27 +18,20 @@ import frc.robot.controllers.OI;
 import frc.robot.controllers.OperatorPanel;
 import frc.robot.subsystems.manipulator.AlgaeIntake;
 import frc.robot.subsystems.manipulator.CoralIntake;
-import frc.robot.subsystems.swerve.CommandSwerveDrivetrain;
 import frc.robot.subsystems.swerve.TunerConstants;
 
 public class DriverBindings extends AbstractOperator {
     
-    private CommandSwerveDrivetrain drivetrain;
-    private FieldCentric drive;
     private OI oi;
-    private RobotCentric limelightDrive;
     private CoralIntake coralIntake;
     private AlgaeIntake algaeIntake;
     private Climber climber;
     private Wrist m_wrist;
     private RunCommand m_SlowDownDrive = new RunCommand(()->TunerConstants.MaxSpeed = 0.4);
 
-    public DriverBindings(CommandSwerveDrivetrain drivetrain, FieldCentric drive, OI oi, RobotCentric limelightDrive, CoralIntake coralIntake, AlgaeIntake algaeIntake, Climber climber, Limelight limelight, Elevator elevator, Wrist wrist) {
+    public DriverBindings(OI oi, CoralIntake coralIntake, AlgaeIntake algaeIntake, Climber climber, Limelight limelight, Elevator elevator, Wrist wrist) {
         super(coralIntake, algaeIntake, limelight, elevator);
-        this.drivetrain = drivetrain;
-        this.drive = drive;
         this.oi = oi;
-        this.limelightDrive = limelightDrive;
         this.coralIntake = coralIntake;
         this.algaeIntake = algaeIntake;
         this.climber = climber;
@@ -54,11 +44,7 @@ public class DriverBindings extends AbstractOperator {
         // and Y is defined as to the left according to WPILib convention.
         drivetrain.setDefaultCommand(
             // Drivetrain will execute this command periodically
-            drivetrain.applyRequest(() ->
-                drive.withVelocityX(-oi.getDriver().getLeftY() * TunerConstants.MaxSpeed) // Drive forward with negative Y (forward)
-                    .withVelocityY(-oi.getDriver().getLeftX() * TunerConstants.MaxSpeed) // Drive left with negative X (left)
-                    .withRotationalRate(-oi.getDriver().getRightX() * TunerConstants.MaxAngularRate) // Drive counterclockwise with negative X (left)
-            )
+            driveWithSticks(oi)
         );  
 
         Driver.Auto.CenterLeft
@@ -85,40 +71,16 @@ public class DriverBindings extends AbstractOperator {
             .onFalse(stopAlgaeIntake());
 
         Driver.Auto.DriveUp
-            .whileTrue(
-                drivetrain.applyRequest(() ->
-                limelightDrive
-                        .withVelocityX(0.5)
-                        .withVelocityY(0)
-                        .withRotationalRate(0.0))
-        );
+            .whileTrue(driveRobotCentric(0.5, 0, 0.0));
 
         Driver.Auto.DriveDown
-            .whileTrue(
-                drivetrain.applyRequest(() ->
-                limelightDrive
-                        .withVelocityX(-0.5)
-                        .withVelocityY(0)
-                        .withRotationalRate(0.0))
-        );
+            .whileTrue(driveRobotCentric(-0.5, 0, 0.0));
 
         Driver.Auto.DriveLeft
-            .whileTrue(
-                drivetrain.applyRequest(() ->
-                limelightDrive
-                        .withVelocityX(0)
-                        .withVelocityY(0.5)
-                        .withRotationalRate(0))
-        );
+            .whileTrue(driveRobotCentric(0, 0.5, 0));
         
         Driver.Auto.DriveRight
-            .whileTrue(
-                drivetrain.applyRequest(() ->
-                limelightDrive
-                        .withVelocityX(0)
-                        .withVelocityY(-0.5)
-                        .withRotationalRate(0.0))
-        );
+            .whileTrue(driveRobotCentric(0, -0.5, 0.0));
 
         Driver.Climber.Speed
             .onTrue(new InstantCommand(()->TunerConstants.MaxSpeed = 4.74));
@@ -1,8 +1,5 @@
 package frc.robot.bindings;
 
-import com.ctre.phoenix6.swerve.SwerveRequest.FieldCentric;
-import com.ctre.phoenix6.swerve.SwerveRequest.RobotCentric;
-
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 import edu.wpi.first.wpilibj2.command.ParallelDeadlineGroup;
@@ -19,27 +16,20 @@ import frc.robot.controllers.OI;
 import frc.robot.controllers.OperatorPanel;
 import frc.robot.subsystems.manipulator.AlgaeIntake;
 import frc.robot.subsystems.manipulator.CoralIntake;
-import frc.robot.subsystems.swerve.CommandSwerveDrivetrain;
 import frc.robot.subsystems.swerve.TunerConstants;
 import frc.robot.controllers.SingleDriver;
 
 public class SingleDriverBindings extends AbstractOperator {
     
-    private CommandSwerveDrivetrain drivetrain;
-    private FieldCentric drive;
     private OI oi;
-    private RobotCentric limelightDrive;
     private CoralIntake coralIntake;
     private AlgaeIntake algaeIntake;
     private Climber climber;
     private RunCommand m_SlowDownDrive = new RunCommand(()->TunerConstants.MaxSpeed = 0.4);
 
-    public SingleDriverBindings(CommandSwerveDrivetrain drivetrain, FieldCentric drive, OI oi, RobotCentric limelightDrive, CoralIntake coralIntake, AlgaeIntake algaeIntake, Climber climber, Limelight limelight, Elevator elevator) {
+    public SingleDriverBindings(OI oi, CoralIntake coralIntake, AlgaeIntake algaeIntake, Climber climber, Limelight limelight, Elevator elevator) {
         super(coralIntake, algaeIntake, limelight, elevator);
-        this.drivetrain = drivetrain;
-        this.drive = drive;
         this.oi = oi;
-        this.limelightDrive = limelightDrive;
         this.coralIntake = coralIntake;
         this.algaeIntake = algaeIntake;
         this.climber = climber;
@@ -51,11 +41,7 @@ public class SingleDriverBindings extends AbstractOperator {
         // and Y is defined as to the left according to WPILib convention.
         drivetrain.setDefaultCommand(
             // Drivetrain will execute this command periodically
-            drivetrain.applyRequest(() ->
-                drive.withVelocityX(-oi.getDriver().getLeftY() * TunerConstants.MaxSpeed) // Drive forward with negative Y (forward)
-                    .withVelocityY(-oi.getDriver().getLeftX() * TunerConstants.MaxSpeed) // Drive left with negative X (left)
-                    .withRotationalRate(-oi.getDriver().getRightX() * TunerConstants.MaxAngularRate) // Drive counterclockwise with negative X (left)
-            )
+            driveWithSticks(oi)
         );  
 
         SingleDriver.Setpoint.Idle
@@ -76,40 +62,16 @@ public class SingleDriverBindings extends AbstractOperator {
         //     .onFalse(algaeIntake.runAlgaeIntake(0.0, 0.0));
 
         SingleDriver.Auto.DriveUp
-            .whileTrue(
-                drivetrain.applyRequest(() ->
-                limelightDrive
-                        .withVelocityX(0.5)
-                        .withVelocityY(0)
-                        .withRotationalRate(0.0))
-        );
+            .whileTrue(driveRobotCentric(0.5, 0, 0.0));
 
         SingleDriver.Auto.DriveDown
-            .whileTrue(
-                drivetrain.applyRequest(() ->
-                limelightDrive
-                        .withVelocityX(-0.5)
-                        .withVelocityY(0)
-                        .withRotationalRate(0.0))
-        );
+            .whileTrue(driveRobotCentric(-0.5, 0, 0.0));
 
         SingleDriver.Auto.DriveLeft
-            .whileTrue(
-                drivetrain.applyRequest(() ->
-                limelightDrive
-                        .withVelocityX(0)
-                        .withVelocityY(0.5)
-                        .withRotationalRate(0))
-        );
+            .whileTrue(driveRobotCentric(0, 0.5, 0));
         
         SingleDriver.Auto.DriveRight
-            .whileTrue(
-                drivetrain.applyRequest(() ->
-                limelightDrive
-                        .withVelocityX(0)
-                        .withVelocityY(-0.5)
-                        .withRotationalRate(0.0))
-        );
+            .whileTrue(driveRobotCentric(0, -0.5, 0.0));
 
         SingleDriver.Climber.Speed
             .onTrue(new InstantCommand(()->TunerConstants.MaxSpeed = 4.74));
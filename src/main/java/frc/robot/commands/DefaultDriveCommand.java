@@ -3,10 +3,10 @@ package frc.robot.commands;
 import java.util.function.DoubleSupplier;
 
 import edu.wpi.first.wpilibj2.command.CommandBase;
-import frc.robot.subsystems.SwerveDriveSubsystem;
+import frc.robot.subsystems.Drivetrain;
 
 public class DefaultDriveCommand extends CommandBase {
-  private final SwerveDriveSubsystem driveSubsystem;
+  private final Drivetrain driveSubsystem;
   private final DoubleSupplier xSupplier;
   private final DoubleSupplier ySupplier;
   private final DoubleSupplier rotationSupplier;
@@ -15,12 +15,12 @@ public class DefaultDriveCommand extends CommandBase {
    * Create a new DefaultDriveCommand
    * 
    * @param driveSubsystem The drive subsystem
-   * @param xSupplier Forward/backward speed supplier
-   * @param ySupplier Left/right speed supplier
+   * @param xSupplier Speed away from the driver supplier
+   * @param ySupplier Speed to the driver's left supplier
    * @param rotationSupplier Rotation speed supplier
    */
   public DefaultDriveCommand(
-    SwerveDriveSubsystem driveSubsystem,
+    Drivetrain driveSubsystem,
     DoubleSupplier xSupplier,
     DoubleSupplier ySupplier,
     DoubleSupplier rotationSupplier
@@ -35,11 +35,13 @@ public class DefaultDriveCommand extends CommandBase {
   
   @Override
   public void execute() {
-    driveSubsystem.drive(
+    // Field-relative from the driver's side of the field
+    driveSubsystem.driveFromDriverStation(
       xSupplier.getAsDouble(),
       ySupplier.getAsDouble(),
       rotationSupplier.getAsDouble(),
-      true // Field-relative by default
+      0.0,
+      0.0
     );
   }
   
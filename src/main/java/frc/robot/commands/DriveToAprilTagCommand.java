@@ -1,27 +1,38 @@
 package frc.robot.commands;
 
+import java.util.Optional;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Transform2d;
-import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
-import frc.robot.Constants.VisionConstants;
-import frc.robot.subsystems.SwerveDriveSubsystem;
+import frc.robot.shared.ReefPoseAlignment;
+import frc.robot.subsystems.Drivetrain;
 import frc.robot.subsystems.VisionSubsystem;
 import frc.robot.utils.PathPlannerUtils;
 
 /**
- * Command to drive to a position relative to an AprilTag
+ * Command to drive to a position relative to an AprilTag.
+ * <p>
+ * Once the camera sees the tag, the goal is set in front of the tag's pose in the
+ * field layout, facing it. Tags missing from the layout are approached along the
+ * camera's line of sight instead, since vision only gives the bearing to a tag, not
+ * which way it faces.
+ * </p>
  */
 public class DriveToAprilTagCommand extends Command {
-    private final SwerveDriveSubsystem driveSubsystem;
+    private final Drivetrain driveSubsystem;
     private final VisionSubsystem visionSubsystem;
     private final PathPlannerUtils pathPlannerUtils;
     private final int tagId;
     private final double distanceFromTag; // in meters
     private final String cameraName;
+    private final AprilTagFieldLayout layout;
+    private final long tagBit;
     
     private Command pathCommand;
     private boolean tagFound = false;
@@ -39,12 +50,36 @@ public class DriveToAprilTagCommand extends Command {
      * @param cameraName The name of the camera to use
      */
     public DriveToAprilTagCommand(
-        SwerveDriveSubsystem driveSubsystem,
+        Drivetrain driveSubsystem,
         VisionSubsystem visionSubsystem,
         PathPlannerUtils pathPlannerUtils,
         int tagId,
         double distanceFromTag,
         String cameraName
+    ) {
+        this(driveSubsystem, visionSubsystem, pathPlannerUtils, tagId, distanceFromTag, cameraName,
+            ReefPoseAlignment.getDefaultLayout());
+    }
+    
+    /**
+     * Create a command to drive to a position relative to an AprilTag
+     * 
+     * @param driveSubsystem The drive subsystem
+     * @param visionSubsystem The vision subsystem
+     * @param pathPlannerUtils The PathPlanner utilities
+     * @param tagId The AprilTag ID to drive to
+     * @param distanceFromTag The distance to maintain from the tag (meters)
+     * @param cameraName The name of the camera to use
+     * @param layout Field AprilTag layout the goal is taken from
+     */
+    public DriveToAprilTagCommand(
+        Drivetrain driveSubsystem,
+        VisionSubsystem visionSubsystem,
+        PathPlannerUtils pathPlannerUtils,
+        int tagId,
+        double distanceFromTag,
+        String cameraName,
+        AprilTagFieldLayout layout
     ) {
         this.driveSubsystem = driveSubsystem;
         this.visionSubsystem = visionSubsystem;
@@ -52,6 +87,8 @@ public class DriveToAprilTagCommand extends Command {
         this.tagId = tagId;
         this.distanceFromTag = distanceFromTag;
         this.cameraName = cameraName;
+        this.layout = layout;
+        this.tagBit = 1L << tagId;
         
         addRequirements(driveSubsystem);
     }
@@ -71,18 +108,23 @@ public class DriveToAprilTagCommand extends Command {
     @Override
     public void execute() {
         if (!tagFound && timeoutTimer.get() < TIMEOUT_SECONDS) {
+            // Cheap visibility check first, only build a pose once some camera sees the tag
+            if ((visionSubsystem.visibleTagMask() & tagBit) == 0) {
+                return;
+            }
+            
             // Try to find the tag
-            var tagPose = visionSubsystem.getAprilTagPose(tagId, cameraName);
+            if (visionSubsystem.getAprilTagPose(tagId, cameraName).isEmpty()) {
+                return;
+            }
             
-            if (tagPose.isPresent()) {
+            Optional<Pose2d> targetPose = calculateTargetPose();
+            if (targetPose.isPresent()) {
                 tagFound = true;
                 SmartDashboard.putString("Status", "Found AprilTag " + tagId + ", navigating");
                 
-                // Calculate target pose (10cm in front of the tag)
-                Pose2d targetPose = calculateTargetPose(tagPose.get());
-                
                 // Create and start path command
-                pathCommand = pathPlannerUtils.driveToPose(targetPose);
+                pathCommand = pathPlannerUtils.driveToPose(targetPose.get());
                 pathCommand.initialize();
             }
         } else if (tagFound && pathCommand != null) {
@@ -121,33 +163,21 @@ public class DriveToAprilTagCommand extends Command {
     }
     
     /**
-     * Calculate the target pose relative to the AprilTag
+     * Calculate the field pose to drive to, distanceFromTag meters in front of the tag
+     * and facing it
      * 
-     * @param tagPose The pose of the AprilTag
-     * @return The target pose for the robot
+     * @return The target pose for the robot, empty if the tag's field position is unknown
      */
-    private Pose2d calculateTargetPose(Pose2d tagPose) {
-        // Calculate a position in front of the tag
-        // The tag's rotation tells us which way it's facing
-        Rotation2d tagRotation = tagPose.getRotation();
-        
-        // Create a transform that moves distanceFromTag meters opposite to the tag's facing direction
-        Transform2d transform = new Transform2d(
-            new Translation2d(-distanceFromTag, 0), // Move opposite to tag's facing direction
-            new Rotation2d() // Keep the same rotation
-        );
-        
-        // Apply the transform to get the target pose
-        // This will position the robot distanceFromTag meters in front of the tag, facing the tag
-        Pose2d targetPose = tagPose.plus(transform);
-        
-        // Make the robot face the tag
-        targetPose = new Pose2d(
-            targetPose.getX(),
-            targetPose.getY(),
-            tagRotation // Face the same direction as the tag
-        );
+    private Optional<Pose2d> calculateTargetPose() {
+        // Layout tag +x points out of the tag face; back off along it and turn around
+        Optional<Pose3d> layoutPose = layout.getTagPose(tagId);
+        if (layoutPose.isPresent()) {
+            return Optional.of(layoutPose.get().toPose2d().transformBy(
+                new Transform2d(distanceFromTag, 0, Rotation2d.k180deg)));
+        }
         
-        return targetPose;
+        // Not in the layout: stop short of the tag along the camera's line of sight
+        return visionSubsystem.getAprilTagFieldPose(tagId, cameraName, driveSubsystem.getPose())
+            .map(sighting -> sighting.transformBy(new Transform2d(-distanceFromTag, 0, Rotation2d.kZero)));
     }
-}
\ No newline at end of file
+}
@@ -11,16 +11,16 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.PrintCommand;
 import frc.robot.Constants.PathPlannerConstants;
-import frc.robot.subsystems.SwerveDriveSubsystem;
+import frc.robot.subsystems.Drivetrain;
 
 /**
  * Example command that creates and follows a path programmatically
  */
 public class ExamplePathCommand extends Command {
-    private final SwerveDriveSubsystem driveSubsystem;
+    private final Drivetrain driveSubsystem;
     private Command pathCommand;
     
-    public ExamplePathCommand(SwerveDriveSubsystem driveSubsystem) {
+    public ExamplePathCommand(Drivetrain driveSubsystem) {
         this.driveSubsystem = driveSubsystem;
         addRequirements(driveSubsystem);
     }
@@ -89,7 +89,7 @@ public class ExamplePathCommand extends Command {
      * @param driveSubsystem The drive subsystem
      * @return Command to follow the path
      */
-    public static Command createComplexPathCommand(SwerveDriveSubsystem driveSubsystem) {
+    public static Command createComplexPathCommand(Drivetrain driveSubsystem) {
         return Commands.sequence(
             // Reset pose to starting position
             Commands.runOnce(() -> driveSubsystem.resetPose(new Pose2d(1.0, 1.0, new Rotation2d()))),
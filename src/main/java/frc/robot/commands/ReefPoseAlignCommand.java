@@ -0,0 +1,92 @@
+package frc.robot.commands;
+
+import java.util.Optional;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.robot.Constants.VisionConstants;
+import frc.robot.shared.Limelight;
+import frc.robot.shared.LimelightHandle;
+import frc.robot.shared.LimelightHelpers;
+import frc.robot.shared.PriorityTagScheduler;
+import frc.robot.shared.ReefPoseAlignment;
+import frc.robot.subsystems.Drivetrain;
+
+/**
+ * Drive to the exact scoring pose for a reef branch.
+ * <p>
+ * The reef tag is taken from the camera if it sees one when the command starts,
+ * otherwise the reef tag nearest the fused pose is used. The scoring pose comes from
+ * the field layout ({@link ReefPoseAlignment}), and the drivetrain's vision-fused
+ * pose ({@link Drivetrain#getPose()}) is driven to it with a holonomic controller. Finishes once inside tolerance, so
+ * autos do not need fixed waits after centering.
+ * </p>
+ */
+public class ReefPoseAlignCommand extends Command {
+    private final Drivetrain drivetrain;
+    private final LimelightHandle camera;
+    private final ReefPoseAlignment.Branch branch;
+    private final ReefPoseAlignment alignment;
+
+    private final ChassisSpeeds stopped = new ChassisSpeeds();
+
+    private Pose2d goal;
+
+    /**
+     * Create a command to line up on a reef branch
+     * @param drivetrain Drivetrain providing the vision-fused pose
+     * @param cameraIndex Limelight used to pick the tag (Refer to {@link Limelight#staticLimelights})
+     * @param branch Branch to score on
+     */
+    public ReefPoseAlignCommand(Drivetrain drivetrain, int cameraIndex, ReefPoseAlignment.Branch branch) {
+        this.drivetrain = drivetrain;
+        this.camera = LimelightHelpers.getHandle(Limelight.staticLimelights[cameraIndex]);
+        this.branch = branch;
+        this.alignment = new ReefPoseAlignment(
+            ReefPoseAlignment.getDefaultLayout(),
+            VisionConstants.REEF_STANDOFF_METERS,
+            VisionConstants.REEF_BRANCH_OFFSET_METERS,
+            VisionConstants.REEF_ALIGN_TRANSLATION_TOLERANCE_METERS,
+            VisionConstants.REEF_ALIGN_ROTATION_TOLERANCE_RADIANS
+        );
+
+        addRequirements(drivetrain);
+    }
+
+    @Override
+    public void initialize() {
+        Pose2d currentPose = drivetrain.getPose();
+
+        int tagId = camera.getTV() ? (int) camera.getFiducialID() : -1;
+        if (!ReefPoseAlignment.isReefTag(tagId)) {
+            tagId = alignment.getNearestReefTag(currentPose);
+        }
+
+        // Keep the cameras on this tag for the rest of the approach
+        PriorityTagScheduler.getDefault().setReefTag(tagId);
+
+        Optional<Pose2d> scoringPose = alignment.getScoringPose(tagId, branch);
+        goal = scoringPose.orElse(null);
+        alignment.reset(currentPose);
+    }
+
+    @Override
+    public void execute() {
+        if (goal == null) {
+            return;
+        }
+        drivetrain.drive(alignment.calculate(drivetrain.getPose(), goal));
+    }
+
+    @Override
+    public boolean isFinished() {
+        return goal == null || alignment.atGoal();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        drivetrain.drive(stopped);
+        PriorityTagScheduler.getDefault().clear();
+    }
+}
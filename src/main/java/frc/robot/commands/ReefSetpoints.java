@@ -4,10 +4,6 @@
 
 package frc.robot.commands;
 
-import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
-import com.ctre.phoenix6.swerve.SwerveModule.SteerRequestType;
-import com.ctre.phoenix6.swerve.SwerveRequest;
-
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 import edu.wpi.first.wpilibj2.command.ParallelDeadlineGroup;
@@ -15,13 +11,13 @@ import edu.wpi.first.wpilibj2.command.WaitCommand;
 import frc.robot.RobotContainer;
 import frc.robot.Telemetry;
 import frc.robot.shared.Limelight;
+import frc.robot.subsystems.Drivetrain;
 import frc.robot.subsystems.body.BodyConstants.Setpoints;
 import frc.robot.subsystems.body.Elevator;
 import frc.robot.subsystems.body.Wrist;
 import frc.robot.subsystems.climber.Climber;
 import frc.robot.subsystems.manipulator.AlgaeIntake;
 import frc.robot.subsystems.manipulator.CoralIntake;
-import frc.robot.subsystems.swerve.CommandSwerveDrivetrain;
 import frc.robot.subsystems.swerve.TunerConstants;
 
 public class ReefSetpoints extends Command {
@@ -45,11 +41,9 @@ public class ReefSetpoints extends Command {
     private static Command[] m_Centering;
 
     //Adding Drivetrain
-    private SwerveRequest.RobotCentric limelightDrive = new SwerveRequest.RobotCentric()
-            .withDeadband(TunerConstants.MaxSpeed * 0.025).withRotationalDeadband(TunerConstants.MaxAngularRate * 0.025) // Add a 4% deadband
-            .withDriveRequestType(DriveRequestType.Velocity)
-            .withSteerRequestType(SteerRequestType.Position); // Use open-loop control for drive motors
-    public static CommandSwerveDrivetrain drivetrain = RobotContainer.drivetrain;
+    private static final double LIMELIGHT_DEADBAND = TunerConstants.MaxSpeed * 0.025;
+    private static final double LIMELIGHT_ROTATIONAL_DEADBAND = TunerConstants.MaxAngularRate * 0.025;
+    public static Drivetrain drivetrain = RobotContainer.drivetrain;
 
     private double limelight_id;
 
@@ -72,16 +66,20 @@ public class ReefSetpoints extends Command {
       m_setpoints = new UpdateSetpoints[] {m_L2ScoreSetpoints, m_L3ScoreSetpoints, m_L4ScoreSetpoints};
 
       //Centering Commands
-      m_CenterRightReef = drivetrain.applyRequest(() ->
-        limelightDrive.withVelocityX(m_limelight.CenterTy(0, 0.25, 8.15) * Limelight.MaxSpeed) 
-            .withVelocityY(m_limelight.CenterTx(0, 0.0, 1) * Limelight.MaxSpeed) 
-            .withRotationalRate(m_limelight.CenterRotationRate(0, 0, 1.0) * Limelight.MaxSpeed) 
+      m_CenterRightReef = drivetrain.run(() ->
+        drivetrain.drive(
+            m_limelight.CenterTy(0, 0.25, 8.15) * Limelight.MaxSpeed,
+            m_limelight.CenterTx(0, 0.0, 1) * Limelight.MaxSpeed,
+            m_limelight.CenterRotationRate(0, 0, 1.0) * Limelight.MaxSpeed,
+            false, LIMELIGHT_DEADBAND, LIMELIGHT_ROTATIONAL_DEADBAND)
       );
 
-      m_CenterLeftReef = drivetrain.applyRequest(() ->
-        limelightDrive.withVelocityX(m_limelight.CenterTy(1, 0.25, 8.15) * Limelight.MaxSpeed) 
-            .withVelocityY(m_limelight.CenterTx(1, 0.0, 1) * Limelight.MaxSpeed) 
-            .withRotationalRate(m_limelight.CenterRotationRate(1, 0, 1.0) * Limelight.MaxSpeed)
+      m_CenterLeftReef = drivetrain.run(() ->
+        drivetrain.drive(
+            m_limelight.CenterTy(1, 0.25, 8.15) * Limelight.MaxSpeed,
+            m_limelight.CenterTx(1, 0.0, 1) * Limelight.MaxSpeed,
+            m_limelight.CenterRotationRate(1, 0, 1.0) * Limelight.MaxSpeed,
+            false, LIMELIGHT_DEADBAND, LIMELIGHT_ROTATIONAL_DEADBAND)
       ); 
 
       m_Centering = new Command[] {m_CenterRightReef, m_CenterLeftReef};
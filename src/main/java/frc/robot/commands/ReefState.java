@@ -4,6 +4,8 @@
 
 package frc.robot.commands;
 
+import frc.robot.shared.PriorityTagScheduler;
+
 /**
  * ReefState is a singleton that maintains the state of a reef.
  * <p>
@@ -208,6 +210,7 @@ public class ReefState {
     }
 
     private ReefSide[] m_sides;
+    private int m_selectedSide = -1;
 
     /**
      * Private constructor for the singleton ReefState.
@@ -263,4 +266,46 @@ public class ReefState {
     public void toggleLevel(int side, int branch, int level) {
         m_sides[side].getBranch(branch).toggleLevel(level);
     }
+
+    /**
+     * Selects the reef side the robot is heading for.
+     * <p>
+     * The alignment cameras are told to prioritize that side's tag for the
+     * current alliance.
+     * </p>
+     *
+     * @param side the index of the reef side, or -1 for none.
+     */
+    public void selectSide(int side) {
+        m_selectedSide = side;
+        PriorityTagScheduler.getDefault().setReefSide(side, PriorityTagScheduler.isRedAlliance());
+    }
+
+    /**
+     * Returns the reef side the robot is heading for.
+     *
+     * @return the index of the selected reef side, or -1 if none is selected.
+     */
+    public int getSelectedSide() {
+        return m_selectedSide;
+    }
+
+    /**
+     * Returns the name of a reef side, made of its branch names (e.g. "AB").
+     *
+     * @param side the index of the reef side.
+     * @return the side name.
+     */
+    public String getSideName(int side) {
+        return m_sides[side].getBranch(0).getName() + m_sides[side].getBranch(1).getName();
+    }
+
+    /**
+     * Returns the number of reef sides.
+     *
+     * @return the number of sides.
+     */
+    public int getSideCount() {
+        return m_sides.length;
+    }
 }
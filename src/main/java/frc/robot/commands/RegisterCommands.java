@@ -4,10 +4,7 @@
 
 package frc.robot.commands;
 
-import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
-import com.ctre.phoenix6.swerve.SwerveModule.SteerRequestType;
 
-import com.ctre.phoenix6.swerve.SwerveRequest;
 import com.pathplanner.lib.auto.NamedCommands;
 
 import edu.wpi.first.wpilibj2.command.Command;
@@ -19,13 +16,12 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.WaitUntilCommand;
 import frc.robot.shared.Limelight;
+import frc.robot.shared.PriorityTagScheduler;
 import frc.robot.subsystems.body.Elevator;
 import frc.robot.subsystems.body.Wrist;
 import frc.robot.subsystems.body.BodyConstants.Setpoints;
 import frc.robot.subsystems.manipulator.AlgaeIntake;
 import frc.robot.subsystems.manipulator.CoralIntake;
-import frc.robot.subsystems.swerve.CommandSwerveDrivetrain;
-import frc.robot.subsystems.swerve.TunerConstants;
 import frc.robot.RobotContainer;
 import frc.robot.shared.Logger;
 import frc.robot.bindings.AbstractOperator;
@@ -366,6 +362,39 @@ public class RegisterCommands extends AbstractOperator {
             )
         );
                 
+        // Pose-based alignment, drives to the field layout scoring pose and ends when there
+        NamedCommands.registerCommand("Align Left Reef", alignLeftReefPose());
+        NamedCommands.registerCommand("Align Right Reef", alignRightReefPose());
+
+        // Scoring on the 4th Level, waiting on the pose alignment instead of fixed padding
+        NamedCommands.registerCommand(
+            "Left L4 Pose",
+            new SequentialCommandGroup(
+                new ParallelCommandGroup(
+                    alignLeftReefPose(),
+                    new SequentialCommandGroup(
+                        new UpdateSetpoints(Setpoints.L4Setpoint),
+                        new WaitUntilCommand(()->elevator.isL4())
+                    )
+                ),
+                coralOutAuto()
+            )
+        );
+
+        NamedCommands.registerCommand(
+            "Right L4 Pose",
+            new SequentialCommandGroup(
+                new ParallelCommandGroup(
+                    alignRightReefPose(),
+                    new SequentialCommandGroup(
+                        new UpdateSetpoints(Setpoints.L4Setpoint),
+                        new WaitUntilCommand(()->elevator.isL4())
+                    )
+                ),
+                coralOutAuto()
+            )
+        );
+
         // Pipeline Commands
         NamedCommands.registerCommand("Pipeline Center",  
             new InstantCommand(() -> Limelight.autoStage = -5)
@@ -385,4 +414,28 @@ public class RegisterCommands extends AbstractOperator {
             getResetHigh());
     }
 
+    /**
+     * Register the target tag commands, so the cameras prioritize the tag of the next
+     * auto step. They only touch the tag scheduler, not the mechanisms.
+     */
+    public static void registerTargetTags() {
+        ReefState reefState = ReefState.getInstance();
+        for (int side = 0; side < reefState.getSideCount(); side++) {
+            int reefSide = side;
+            NamedCommands.registerCommand(
+                "Target Reef " + reefState.getSideName(side),
+                new InstantCommand(() -> reefState.selectSide(reefSide))
+            );
+        }
+        NamedCommands.registerCommand("Target Left Station",
+            new InstantCommand(() -> PriorityTagScheduler.getDefault().setStation(true, PriorityTagScheduler.isRedAlliance()))
+        );
+        NamedCommands.registerCommand("Target Right Station",
+            new InstantCommand(() -> PriorityTagScheduler.getDefault().setStation(false, PriorityTagScheduler.isRedAlliance()))
+        );
+        NamedCommands.registerCommand("Clear Target Tag",
+            new InstantCommand(() -> reefState.selectSide(-1))
+        );
+    }
+
 }
@@ -0,0 +1,61 @@
+package frc.robot.replay;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+
+/**
+ * Writes the drivetrain's odometry inputs and estimated pose to a WPILog, in the
+ * format {@link ReplayLog} reads.
+ * <p>
+ * Both drivetrains append one sample per odometry update, stamped with the FPGA time
+ * the sensors were read, so a replay steps through the same updates the robot made.
+ * Appends reuse their value arrays and may come from the odometry thread.
+ * </p>
+ */
+public class DriveStateLog {
+    private final DoubleArrayLogEntry modulePositions;
+    private final DoubleLogEntry rawHeading;
+    private final DoubleArrayLogEntry pose;
+
+    private double[] modulePositionValues = new double[0];
+    private final double[] poseValues = new double[3];
+
+    /**
+     * Create the log entries
+     * @param log Log to write to, e.g. {@code DataLogManager.getLog()}
+     * @param channels Entry names; {@link ReplayLog.Channels#defaults()} for the replay defaults
+     */
+    public DriveStateLog(DataLog log, ReplayLog.Channels channels) {
+        modulePositions = new DoubleArrayLogEntry(log, channels.modulePositions());
+        rawHeading = new DoubleLogEntry(log, channels.gyro(), "{\"unit\":\"degrees\"}");
+        pose = new DoubleArrayLogEntry(log, channels.referencePose());
+    }
+
+    /**
+     * Append one odometry update
+     * @param positions Module positions the estimator was updated with
+     * @param rawHeadingDegrees Gyro heading the estimator was updated with (degrees)
+     * @param estimatedPose Estimated pose after the update
+     * @param timestamp FPGA time the sensors were read (seconds)
+     */
+    public synchronized void append(SwerveModulePosition[] positions, double rawHeadingDegrees, Pose2d estimatedPose, double timestamp) {
+        long micros = (long) (timestamp * 1e6);
+        if (modulePositionValues.length != positions.length * 2) {
+            modulePositionValues = new double[positions.length * 2];
+        }
+        for (int i = 0; i < positions.length; i++) {
+            modulePositionValues[i * 2] = positions[i].angle.getRadians();
+            modulePositionValues[i * 2 + 1] = positions[i].distanceMeters;
+        }
+        poseValues[0] = estimatedPose.getX();
+        poseValues[1] = estimatedPose.getY();
+        poseValues[2] = estimatedPose.getRotation().getDegrees();
+
+        modulePositions.append(modulePositionValues, micros);
+        rawHeading.append(rawHeadingDegrees, micros);
+        pose.append(poseValues, micros);
+    }
+}
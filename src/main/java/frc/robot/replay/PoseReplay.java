@@ -0,0 +1,195 @@
+package frc.robot.replay;
+
+import java.util.Arrays;
+
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import frc.robot.subsystems.vision.VisionEstimatorStage;
+import frc.robot.subsystems.vision.VisionMeasurement;
+
+/**
+ * Runs a recorded log through the same pose estimation pipeline the robot uses,
+ * as fast as possible.
+ * <p>
+ * Every odometry sample becomes one loop: botpose samples logged since the
+ * previous loop are added to the vision stage, then the estimator is updated with
+ * the logged module positions and heading and the vision stage is applied, in the
+ * same order as {@code SwerveDriveSubsystem.periodic()}. Each loop is timed, and
+ * the estimate is compared against the most recent reference pose.
+ * </p>
+ */
+public class PoseReplay {
+    private static final int MODULE_COUNT = 4;
+
+    private final SwerveDriveKinematics kinematics;
+    private final VisionEstimatorStage visionStage;
+
+    private final SwerveModulePosition[] modulePositions = new SwerveModulePosition[MODULE_COUNT];
+    private final VisionMeasurement measurement = new VisionMeasurement();
+
+    /**
+     * Create a replay runner
+     * @param kinematics Drivetrain kinematics
+     * @param visionStage Vision stage to feed, configured with the std devs under test
+     */
+    public PoseReplay(SwerveDriveKinematics kinematics, VisionEstimatorStage visionStage) {
+        this.kinematics = kinematics;
+        this.visionStage = visionStage;
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            modulePositions[i] = new SwerveModulePosition();
+        }
+    }
+
+    /**
+     * Replay a log
+     * @param log Log to replay
+     * @return Timing and accuracy results
+     */
+    public ReplayReport run(ReplayLog log) {
+        ReplayLog.Series odometry = log.getModulePositions();
+        ReplayLog.Series gyro = log.getGyro();
+        ReplayLog.Series reference = log.getReferencePose();
+        int steps = odometry.size();
+        if (steps == 0) {
+            throw new IllegalArgumentException("Log has no module position samples");
+        }
+
+        // Start from the reference pose if the log has one
+        int gyroIndex = 0;
+        int referenceIndex = 0;
+        Rotation2d heading = gyro.size() > 0 ? Rotation2d.fromDegrees(gyro.value(0)[0]) : new Rotation2d();
+        readModulePositions(odometry.value(0));
+        SwerveDrivePoseEstimator estimator = new SwerveDrivePoseEstimator(
+            kinematics,
+            heading,
+            modulePositions,
+            reference.size() > 0 ? toPose(reference.value(0)) : new Pose2d()
+        );
+
+        int[] botposeIndex = new int[log.getCameraCount()];
+        long[] stepNanos = new long[steps];
+        int visionSamples = 0;
+        int visionUpdates = 0;
+        double sumSquaredError = 0.0;
+        double sumSquaredHeadingError = 0.0;
+        double maxError = 0.0;
+        int errorSamples = 0;
+
+        long start = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            double time = odometry.time(step);
+
+            // Latest heading logged at or before this step
+            while (gyroIndex + 1 < gyro.size() && gyro.time(gyroIndex + 1) <= time) {
+                gyroIndex++;
+            }
+            if (gyro.size() > 0) {
+                heading = Rotation2d.fromDegrees(gyro.value(gyroIndex)[0]);
+            }
+            readModulePositions(odometry.value(step));
+
+            long stepStart = System.nanoTime();
+
+            // Vision frames that arrived since the previous step
+            visionStage.reset();
+            for (int camera = 0; camera < botposeIndex.length; camera++) {
+                ReplayLog.Series botpose = log.getBotpose(camera);
+                while (botposeIndex[camera] < botpose.size() && botpose.time(botposeIndex[camera]) <= time) {
+                    if (readMeasurement(camera, botpose.time(botposeIndex[camera]), botpose.value(botposeIndex[camera]))) {
+                        visionStage.add(measurement);
+                        visionSamples++;
+                    }
+                    botposeIndex[camera]++;
+                }
+            }
+
+            estimator.updateWithTime(time, heading, modulePositions);
+            if (visionStage.apply(estimator)) {
+                visionUpdates++;
+            }
+
+            stepNanos[step] = System.nanoTime() - stepStart;
+
+            // Compare against the latest reference pose
+            while (referenceIndex + 1 < reference.size() && reference.time(referenceIndex + 1) <= time) {
+                referenceIndex++;
+            }
+            if (reference.size() > 0 && reference.time(referenceIndex) <= time) {
+                double[] expected = reference.value(referenceIndex);
+                Pose2d estimate = estimator.getEstimatedPosition();
+                double error = Math.hypot(estimate.getX() - expected[0], estimate.getY() - expected[1]);
+                double headingError = Math.IEEEremainder(estimate.getRotation().getDegrees() - expected[2], 360.0);
+                sumSquaredError += error * error;
+                sumSquaredHeadingError += headingError * headingError;
+                maxError = Math.max(maxError, error);
+                errorSamples++;
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = stepNanos.clone();
+        Arrays.sort(sorted);
+        long totalNanos = 0;
+        for (long nanos : stepNanos) {
+            totalNanos += nanos;
+        }
+
+        return new ReplayReport(
+            steps,
+            visionSamples,
+            visionUpdates,
+            elapsedSeconds,
+            (steps + visionSamples) / Math.max(elapsedSeconds, 1e-9),
+            totalNanos / 1e3 / steps,
+            sorted[steps / 2] / 1e3,
+            sorted[Math.min(steps - 1, (int) (steps * 0.99))] / 1e3,
+            sorted[steps - 1] / 1e3,
+            errorSamples > 0 ? Math.sqrt(sumSquaredError / errorSamples) : Double.NaN,
+            errorSamples > 0 ? maxError : Double.NaN,
+            errorSamples > 0 ? Math.sqrt(sumSquaredHeadingError / errorSamples) : Double.NaN
+        );
+    }
+
+    /**
+     * Copy a logged module position array (angle radians, distance meters per module)
+     * @param logged Logged values
+     */
+    private void readModulePositions(double[] logged) {
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            modulePositions[i].angle = new Rotation2d(logged[i * 2]);
+            modulePositions[i].distanceMeters = logged[i * 2 + 1];
+        }
+    }
+
+    /**
+     * Convert a logged botpose into the measurement slot, using the same rules as
+     * the live ingest path
+     * @return False if the frame has no pose or no tags
+     */
+    private boolean readMeasurement(int cameraIndex, double time, double[] botpose) {
+        if (botpose.length < 6 || (botpose.length > 7 && botpose[7] < 1)) {
+            return false;
+        }
+        // Latency (ms) is botpose[6], average tag area is botpose[10]
+        double latencyMillis = botpose.length > 6 ? botpose[6] : 0.0;
+        double area = botpose.length > 10 ? botpose[10] : 1.0;
+        measurement.set(
+            cameraIndex,
+            botpose[0],
+            botpose[1],
+            Math.toRadians(botpose[5]),
+            time - latencyMillis / 1000.0,
+            area, // Target area doubles as ambiguity, as in VisionSubsystem
+            botpose.length > 7 ? botpose[7] : 1.0,
+            area
+        );
+        return true;
+    }
+
+    private static Pose2d toPose(double[] logged) {
+        return new Pose2d(logged[0], logged[1], Rotation2d.fromDegrees(logged[2]));
+    }
+}
@@ -0,0 +1,204 @@
+package frc.robot.replay;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import frc.robot.Constants.VisionConstants;
+import frc.robot.shared.CameraRegistry;
+import frc.robot.subsystems.vision.VisionCamera;
+
+/**
+ * The odometry, gyro, vision and reference streams of a recorded match, loaded
+ * from a WPILog file.
+ * <p>
+ * On the robot, {@link DriveStateLog} writes the module positions, raw heading and
+ * estimated pose of every odometry update to the DataLogManager log, and
+ * DataLogManager records the Limelight botpose topics under "NT:/" into the same
+ * file. SignalLogger (.hoot) logs from {@code Telemetry} use the same entry names
+ * once exported to WPILog with Phoenix Tuner X or owlet.
+ * </p>
+ */
+public class ReplayLog {
+    /**
+     * Names of the log entries to read
+     * @param modulePositions double[8]: angle (radians), distance (meters) per module, FL/FR/BL/BR
+     * @param gyro double: robot heading (degrees)
+     * @param referencePose double[3]: x, y (meters), heading (degrees) to measure error against
+     * @param botpose double[]: Limelight botpose, one entry per camera
+     */
+    public record Channels(String modulePositions, String gyro, String referencePose, String[] botpose) {
+        /**
+         * @return Channel names written by DriveStateLog and DataLogManager
+         */
+        public static Channels defaults() {
+            return new Channels(
+                "DriveState/ModulePositions",
+                "DriveState/RawHeading",
+                "DriveState/Pose",
+                botposeChannels(
+                    CameraRegistry.getDefault().names(CameraRegistry.Role.LOCALIZATION),
+                    VisionCamera.getPoseTopic(VisionConstants.MEGATAG2_INGEST)
+                )
+            );
+        }
+
+        private static String[] botposeChannels(String[] cameraNames, String poseTopic) {
+            String[] channels = new String[cameraNames.length];
+            for (int i = 0; i < cameraNames.length; i++) {
+                channels[i] = "NT:/" + cameraNames[i] + "/" + poseTopic;
+            }
+            return channels;
+        }
+    }
+
+    /**
+     * Time-ordered samples of one log entry
+     */
+    public static class Series {
+        private double[] times = new double[256];
+        private final List<double[]> values = new ArrayList<>();
+
+        /**
+         * Append a sample
+         * @param time Timestamp (seconds)
+         * @param value Sample value
+         */
+        public void add(double time, double... value) {
+            int size = values.size();
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+            }
+            times[size] = time;
+            values.add(value);
+        }
+
+        public int size() {
+            return values.size();
+        }
+
+        public double time(int index) {
+            return times[index];
+        }
+
+        public double[] value(int index) {
+            return values.get(index);
+        }
+    }
+
+    private final Series modulePositions = new Series();
+    private final Series gyro = new Series();
+    private final Series referencePose = new Series();
+    private final Series[] botpose;
+
+    /**
+     * Create an empty log
+     * @param cameraCount Number of botpose streams
+     */
+    public ReplayLog(int cameraCount) {
+        botpose = new Series[cameraCount];
+        for (int i = 0; i < cameraCount; i++) {
+            botpose[i] = new Series();
+        }
+    }
+
+    /**
+     * Load a WPILog file
+     * @param filename Path to the .wpilog file
+     * @param channels Entry names to read
+     * @return Loaded log
+     * @throws IOException If the file cannot be read or is not a WPILog
+     */
+    public static ReplayLog load(String filename, Channels channels) throws IOException {
+        DataLogReader reader = new DataLogReader(filename);
+        if (!reader.isValid()) {
+            throw new IOException(filename + " is not a valid WPILog file");
+        }
+
+        ReplayLog log = new ReplayLog(channels.botpose().length);
+
+        // Entry IDs are assigned by start records, map them to the series we want
+        Map<Integer, Series> seriesByEntry = new HashMap<>();
+        Map<Integer, String> typeByEntry = new HashMap<>();
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                DataLogRecord.StartRecordData start = record.getStartData();
+                Series series = log.seriesFor(start.name, channels);
+                if (series != null) {
+                    seriesByEntry.put(start.entry, series);
+                    typeByEntry.put(start.entry, start.type);
+                }
+                continue;
+            }
+            if (record.isControl()) {
+                continue;
+            }
+
+            Series series = seriesByEntry.get(record.getEntry());
+            if (series == null) {
+                continue;
+            }
+            double time = record.getTimestamp() / 1e6;
+            switch (typeByEntry.get(record.getEntry())) {
+                case "double" -> series.add(time, record.getDouble());
+                case "float" -> series.add(time, record.getFloat());
+                case "double[]" -> series.add(time, record.getDoubleArray());
+                case "float[]" -> {
+                    float[] raw = record.getFloatArray();
+                    double[] value = new double[raw.length];
+                    for (int i = 0; i < raw.length; i++) {
+                        value[i] = raw[i];
+                    }
+                    series.add(time, value);
+                }
+                default -> {
+                    // Unsupported type, e.g. struct-encoded entries
+                }
+            }
+        }
+        return log;
+    }
+
+    private Series seriesFor(String name, Channels channels) {
+        if (name.equals(channels.modulePositions())) {
+            return modulePositions;
+        }
+        if (name.equals(channels.gyro())) {
+            return gyro;
+        }
+        if (name.equals(channels.referencePose())) {
+            return referencePose;
+        }
+        for (int i = 0; i < channels.botpose().length; i++) {
+            if (name.equals(channels.botpose()[i])) {
+                return botpose[i];
+            }
+        }
+        return null;
+    }
+
+    public Series getModulePositions() {
+        return modulePositions;
+    }
+
+    public Series getGyro() {
+        return gyro;
+    }
+
+    public Series getReferencePose() {
+        return referencePose;
+    }
+
+    public Series getBotpose(int cameraIndex) {
+        return botpose[cameraIndex];
+    }
+
+    public int getCameraCount() {
+        return botpose.length;
+    }
+}
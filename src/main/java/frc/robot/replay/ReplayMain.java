@@ -0,0 +1,85 @@
+package frc.robot.replay;
+
+import java.io.IOException;
+
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import frc.robot.Constants;
+import frc.robot.Constants.VisionConstants;
+import frc.robot.subsystems.vision.VisionEstimatorStage;
+
+/**
+ * Command-line entry point for the pose estimation replay.
+ * <p>
+ * Usage: {@code ./gradlew replay --args="match.wpilog [--std-scale=0.5,1,2] [--modules=NAME]
+ * [--gyro=NAME] [--reference=NAME] [--botpose=NAME,NAME,...]"}
+ * </p>
+ * <p>
+ * Each value of --std-scale multiplies the base vision standard deviations from
+ * {@link VisionConstants} and gets its own run, so one invocation compares several
+ * settings against the same log.
+ * </p>
+ */
+public final class ReplayMain {
+    private ReplayMain() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: replay <log.wpilog> [--std-scale=1.0,...] [--modules=NAME] [--gyro=NAME] [--reference=NAME] [--botpose=NAME,...]");
+            System.exit(1);
+        }
+
+        ReplayLog.Channels defaults = ReplayLog.Channels.defaults();
+        String modules = defaults.modulePositions();
+        String gyro = defaults.gyro();
+        String reference = defaults.referencePose();
+        String[] botpose = defaults.botpose();
+        String[] stdScales = {"1.0"};
+
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--std-scale=")) {
+                stdScales = value.split(",");
+            } else if (arg.startsWith("--modules=")) {
+                modules = value;
+            } else if (arg.startsWith("--gyro=")) {
+                gyro = value;
+            } else if (arg.startsWith("--reference=")) {
+                reference = value;
+            } else if (arg.startsWith("--botpose=")) {
+                botpose = value.split(",");
+            } else {
+                System.err.println("Unknown option " + arg);
+                System.exit(1);
+            }
+        }
+
+        ReplayLog log = ReplayLog.load(args[0], new ReplayLog.Channels(modules, gyro, reference, botpose));
+        System.out.printf("Loaded %s: %d odometry samples, %d reference poses%n",
+            args[0], log.getModulePositions().size(), log.getReferencePose().size());
+
+        SwerveDriveKinematics kinematics = new SwerveDriveKinematics(
+            Constants.FRONT_LEFT_MODULE_POSITION,
+            Constants.FRONT_RIGHT_MODULE_POSITION,
+            Constants.BACK_LEFT_MODULE_POSITION,
+            Constants.BACK_RIGHT_MODULE_POSITION
+        );
+
+        for (String stdScale : stdScales) {
+            double scale = Double.parseDouble(stdScale);
+            PoseReplay replay = new PoseReplay(kinematics, createVisionStage(scale));
+            ReplayReport report = replay.run(log);
+
+            System.out.printf("%n== Vision std-dev scale %.2f ==%n%s%n", scale, report.format());
+        }
+    }
+
+    /**
+     * Build the robot's vision stage with scaled standard deviations
+     * @param stdScale Multiplier on the base vision standard deviations
+     * @return Vision stage
+     */
+    static VisionEstimatorStage createVisionStage(double stdScale) {
+        return VisionEstimatorStage.create(stdScale);
+    }
+}
@@ -0,0 +1,48 @@
+package frc.robot.replay;
+
+/**
+ * Results of one replay run
+ *
+ * @param odometrySteps Odometry samples replayed
+ * @param visionSamples Botpose samples fed to the vision stage
+ * @param visionUpdates Loops in which the estimator received a fused vision update
+ * @param elapsedSeconds Wall-clock time spent replaying
+ * @param samplesPerSecond Odometry and vision samples processed per wall-clock second
+ * @param meanStepMicros Mean time for one estimator step (odometry plus vision)
+ * @param p50StepMicros Median step time
+ * @param p99StepMicros 99th percentile step time
+ * @param maxStepMicros Slowest step
+ * @param rmsTranslationError RMS distance from the reference pose (meters)
+ * @param maxTranslationError Largest distance from the reference pose (meters)
+ * @param rmsHeadingErrorDegrees RMS heading difference from the reference pose
+ */
+public record ReplayReport(
+    int odometrySteps,
+    int visionSamples,
+    int visionUpdates,
+    double elapsedSeconds,
+    double samplesPerSecond,
+    double meanStepMicros,
+    double p50StepMicros,
+    double p99StepMicros,
+    double maxStepMicros,
+    double rmsTranslationError,
+    double maxTranslationError,
+    double rmsHeadingErrorDegrees
+) {
+    /**
+     * @return Multi-line human-readable summary
+     */
+    public String format() {
+        return String.format(
+            "Steps: %d odometry, %d vision samples, %d vision updates%n"
+                + "Throughput: %.0f samples/s (%.3f s wall clock)%n"
+                + "Step latency: mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us%n"
+                + "Pose error: RMS %.3f m, max %.3f m, heading RMS %.2f deg",
+            odometrySteps, visionSamples, visionUpdates,
+            samplesPerSecond, elapsedSeconds,
+            meanStepMicros, p50StepMicros, p99StepMicros, maxStepMicros,
+            rmsTranslationError, maxTranslationError, rmsHeadingErrorDegrees
+        );
+    }
+}
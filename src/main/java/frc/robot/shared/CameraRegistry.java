@@ -0,0 +1,274 @@
+package frc.robot.shared;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.Constants.VisionConstants;
+
+/**
+ * Every camera on the robot, loaded from {@value #DEFAULT_FILE} in the deploy directory.
+ * <p>
+ * Each entry holds the camera's NetworkTables name, where it is mounted, what it
+ * is used for and its pipeline indices. {@link Limelight} iterates the
+ * {@link Role#ALIGNMENT} cameras and the vision subsystem iterates the
+ * {@link Role#LOCALIZATION} cameras, in file order, so adding a camera is a config
+ * change. The file is the only place mounts and pipelines are defined; if it is
+ * missing or invalid, a bare list of the robot's camera names and roles is used so
+ * the robot still runs.
+ * </p>
+ */
+public class CameraRegistry {
+    /** Config file name in the deploy directory */
+    public static final String DEFAULT_FILE = "cameras.json";
+
+    /** What a camera is used for */
+    public enum Role {
+        /** Tag centering through {@link Limelight} */
+        ALIGNMENT,
+        /** Field pose estimates fused by the vision subsystem */
+        LOCALIZATION
+    }
+
+    /** Which set of {@link Limelight} area gains an alignment camera uses */
+    public enum Gains {
+        FRONT,
+        ELEVATOR
+    }
+
+    /**
+     * One camera
+     * @param name NetworkTables name, e.g. "limelight-front"
+     * @param label Short name for dashboard keys, e.g. "Front"
+     * @param robotToCamera Camera mount relative to the robot center (meters, radians), null if not configured
+     * @param roles What the camera is used for
+     * @param gains Area gains used when centering with this camera
+     * @param pipelines Pipeline indices by name, e.g. "apriltag" -> 0
+     */
+    public record CameraConfig(
+        String name,
+        String label,
+        Transform3d robotToCamera,
+        Set<Role> roles,
+        Gains gains,
+        Map<String, Integer> pipelines
+    ) {
+        public boolean hasRole(Role role) {
+            return roles.contains(role);
+        }
+
+        /**
+         * @return True if the config says where the camera is mounted
+         */
+        public boolean hasMount() {
+            return robotToCamera != null;
+        }
+
+        /**
+         * @return Mount position and yaw on the floor plane, or null if the mount is not configured
+         */
+        public Pose2d getMountPose() {
+            if (robotToCamera == null) {
+                return null;
+            }
+            return new Pose2d(
+                robotToCamera.getTranslation().toTranslation2d(),
+                robotToCamera.getRotation().toRotation2d()
+            );
+        }
+
+        /**
+         * @param pipeline Pipeline name
+         * @param fallback Index to use if the camera does not define it
+         * @return Pipeline index
+         */
+        public int getPipeline(String pipeline, int fallback) {
+            return pipelines.getOrDefault(pipeline, fallback);
+        }
+    }
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static CameraRegistry defaultInstance;
+
+    private final CameraConfig[] cameras;
+
+    /**
+     * Get the registry loaded from the deploy directory, loaded once
+     */
+    public static synchronized CameraRegistry getDefault() {
+        if (defaultInstance == null) {
+            Path file = Filesystem.getDeployDirectory().toPath().resolve(DEFAULT_FILE);
+            try {
+                defaultInstance = load(file);
+            } catch (IOException | IllegalArgumentException e) {
+                DriverStation.reportWarning("Could not load " + file + ", using built-in cameras: " + e.getMessage(), false);
+                defaultInstance = defaults();
+            }
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Read a registry from a config file
+     * @param file JSON file with a "cameras" array
+     * @throws IOException If the file cannot be read or parsed
+     * @throws IllegalArgumentException If an entry is missing its name or uses an unknown role
+     */
+    public static CameraRegistry load(Path file) throws IOException {
+        return parse(objectMapper.readTree(Files.readString(file)));
+    }
+
+    static CameraRegistry parse(JsonNode root) {
+        JsonNode entries = root.path("cameras");
+        if (!entries.isArray() || entries.isEmpty()) {
+            throw new IllegalArgumentException("no cameras defined");
+        }
+
+        List<CameraConfig> cameras = new ArrayList<>(entries.size());
+        for (JsonNode entry : entries) {
+            String name = entry.path("name").asText("");
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("camera " + cameras.size() + " has no name");
+            }
+
+            // A camera without a mount is left unknown rather than assumed to sit at the robot center
+            JsonNode mount = entry.path("robotToCamera");
+            Transform3d robotToCamera = mount.isObject() ? new Transform3d(
+                mount.path("x").asDouble(0.0),
+                mount.path("y").asDouble(0.0),
+                mount.path("z").asDouble(0.0),
+                new Rotation3d(
+                    Math.toRadians(mount.path("rollDegrees").asDouble(0.0)),
+                    Math.toRadians(mount.path("pitchDegrees").asDouble(0.0)),
+                    Math.toRadians(mount.path("yawDegrees").asDouble(0.0))
+                )
+            ) : null;
+
+            Set<Role> roles = EnumSet.noneOf(Role.class);
+            for (JsonNode role : entry.path("roles")) {
+                roles.add(Role.valueOf(role.asText()));
+            }
+
+            Map<String, Integer> pipelines = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = entry.path("pipelines").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> pipeline = fields.next();
+                pipelines.put(pipeline.getKey(), pipeline.getValue().asInt());
+            }
+
+            cameras.add(new CameraConfig(
+                name,
+                entry.path("label").asText(name),
+                robotToCamera,
+                Collections.unmodifiableSet(roles),
+                Gains.valueOf(entry.path("gains").asText(Gains.FRONT.name())),
+                Collections.unmodifiableMap(pipelines)
+            ));
+        }
+        return new CameraRegistry(cameras);
+    }
+
+    /**
+     * The robot's camera names and roles, used when the config file cannot be loaded.
+     * Mounts are unknown and every pipeline uses its fallback index.
+     */
+    public static CameraRegistry defaults() {
+        Set<Role> alignment = EnumSet.of(Role.ALIGNMENT);
+        Set<Role> localization = EnumSet.of(Role.LOCALIZATION);
+        Map<String, Integer> noPipelines = Map.of();
+
+        return new CameraRegistry(List.of(
+            new CameraConfig("limelight-frleft", "Front Left", null, alignment, Gains.FRONT, noPipelines),
+            new CameraConfig("limelight-ftright", "Front Right", null, alignment, Gains.FRONT, noPipelines),
+            new CameraConfig("limelight-elleft", "Elevator Left", null, alignment, Gains.ELEVATOR, noPipelines),
+            new CameraConfig("limelight-elright", "Elevator Right", null, alignment, Gains.ELEVATOR, noPipelines),
+            new CameraConfig(VisionConstants.LIMELIGHT_FRONT_NAME, "Front", null, localization, Gains.FRONT, noPipelines),
+            new CameraConfig(VisionConstants.LIMELIGHT_RIGHT_NAME, "Right", null, localization, Gains.FRONT, noPipelines),
+            new CameraConfig(VisionConstants.LIMELIGHT_BACK_NAME, "Back", null, localization, Gains.FRONT, noPipelines),
+            new CameraConfig(VisionConstants.LIMELIGHT_LEFT_NAME, "Left", null, localization, Gains.FRONT, noPipelines)
+        ));
+    }
+
+    /**
+     * Create a registry
+     * @param cameras Cameras in index order
+     */
+    public CameraRegistry(List<CameraConfig> cameras) {
+        this.cameras = cameras.toArray(new CameraConfig[0]);
+    }
+
+    /**
+     * @return Number of cameras of every role
+     */
+    public int size() {
+        return cameras.length;
+    }
+
+    public CameraConfig get(int index) {
+        return cameras[index];
+    }
+
+    /**
+     * @param name NetworkTables name
+     * @return Index of the camera, or -1 if there is none with that name
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < cameras.length; i++) {
+            if (cameras[i].name().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param role Role to filter by
+     * @return Cameras with the role, in file order
+     */
+    public CameraConfig[] withRole(Role role) {
+        int count = 0;
+        for (CameraConfig camera : cameras) {
+            if (camera.hasRole(role)) {
+                count++;
+            }
+        }
+        CameraConfig[] result = new CameraConfig[count];
+        int next = 0;
+        for (CameraConfig camera : cameras) {
+            if (camera.hasRole(role)) {
+                result[next++] = camera;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param role Role to filter by
+     * @return NetworkTables names of the cameras with the role, in file order
+     */
+    public String[] names(Role role) {
+        CameraConfig[] matching = withRole(role);
+        String[] names = new String[matching.length];
+        for (int i = 0; i < matching.length; i++) {
+            names[i] = matching[i].name();
+        }
+        return names;
+    }
+}
@@ -19,6 +19,9 @@ public final class Constants {
         /** Sends all debug information, typically for testing things that do not fit into other categories. */
         public static final boolean kSendDebug = true;
 
+        /** Publish batched debug arrays every this many loops (1 = every loop). */
+        public static final int kDebugDecimation = 5;
+
         /** Sends all telemetry from the Phoenix 6 swerve template, this is only recommended when troubleshooting the drivetrain. */
         public static final boolean kSendSwerve = true;
 
@@ -0,0 +1,93 @@
+package frc.robot.shared;
+
+/**
+ * Fixed-size latency histogram.
+ * <p>
+ * Samples are counted into equal-width buckets plus one overflow bucket, so
+ * recording is a division and an increment and never allocates. Percentiles are
+ * reported as the upper edge of the bucket they fall in (the exact maximum for the
+ * overflow bucket), which is precise enough for spotting slow loops and stale
+ * cameras.
+ * </p>
+ * <p>
+ * Not thread-safe; record and read from the same thread, or snapshot under a lock.
+ * </p>
+ */
+public class LatencyHistogram {
+    private final double bucketWidth;
+    private final long[] buckets;
+
+    private long count = 0;
+    private double sum = 0.0;
+    private double max = 0.0;
+
+    /**
+     * Create a histogram
+     * @param bucketWidth Width of each bucket, in the unit samples are recorded in
+     * @param bucketCount Number of buckets before the overflow bucket
+     */
+    public LatencyHistogram(double bucketWidth, int bucketCount) {
+        if (bucketWidth <= 0.0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("Bucket width and count must be positive");
+        }
+        this.bucketWidth = bucketWidth;
+        this.buckets = new long[bucketCount + 1];
+    }
+
+    /**
+     * Record one sample. Negative samples count as zero.
+     * @param value Sample value
+     */
+    public void record(double value) {
+        double clamped = Math.max(0.0, value);
+        int index = (int) Math.min(buckets.length - 1, clamped / bucketWidth);
+        buckets[index]++;
+        count++;
+        sum += clamped;
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * Get a percentile
+     * @param percentile Percentile between 0 and 1 (e.g. 0.95)
+     * @return Upper edge of the bucket holding the percentile, or 0 if empty
+     */
+    public double percentile(double percentile) {
+        if (count == 0) {
+            return 0.0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length - 1; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return Math.min(max, (i + 1) * bucketWidth);
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Forget every sample
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        sum = 0.0;
+        max = 0.0;
+    }
+}
@@ -1,8 +1,10 @@
 package frc.robot.shared;
 
 import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTablesJNI;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.subsystems.ReconfigurableConfig;
 
 public class Limelight implements ReconfigurableConfig{
@@ -15,8 +17,47 @@ public class Limelight implements ReconfigurableConfig{
         return m_instance;
     }
 
-    // Our five limelights stored for convenience
-    public static final String[] staticLimelights = {"limelight-frleft", "limelight-ftright", "limelight-elleft", "limelight-elright"};
+    // Alignment cameras from the deploy-directory camera config, in index order
+    private static final CameraRegistry.CameraConfig[] cameraConfigs =
+        CameraRegistry.getDefault().withRole(CameraRegistry.Role.ALIGNMENT);
+    public static final String[] staticLimelights = CameraRegistry.getDefault().names(CameraRegistry.Role.ALIGNMENT);
+    public static final int CAMERA_COUNT = staticLimelights.length;
+
+    // Cached subscribers per camera, so the loop never does a string-keyed lookup
+    private static final LimelightHandle[] handles = new LimelightHandle[CAMERA_COUNT];
+
+    // Heartbeat (hb) increments once per processed frame, so an unchanged value means there is nothing new to read
+    private static final long[] lastHeartbeatChange = new long[CAMERA_COUNT];
+
+    // A camera whose heartbeat has not moved for this long is treated as disconnected and its values zeroed
+    public static final long HEARTBEAT_TIMEOUT_MICROS = 250_000;
+
+    // Reused for targetpose_robotspace reads
+    private static final double[] targetPoseBuffer = new double[6];
+
+    static {
+        for (int i = 0; i < CAMERA_COUNT; i++) {
+            handles[i] = LimelightHelpers.getHandle(staticLimelights[i]);
+            lastHeartbeatChange[i] = -1;
+        }
+    }
+
+    // Wall time of periodic() in 0.1 ms buckets, read and reset by the vision health metrics
+    private static final LatencyHistogram periodicTimes = new LatencyHistogram(0.1, 200);
+
+    // Debug telemetry goes out as one array: TX, TA, RZ and Y speed per camera, then the front right ID and detection flag
+    public static final String DEBUG_TOPIC = "Limelight/Debug";
+    public static final int DEBUG_TX_OFFSET = 0;
+    public static final int DEBUG_TA_OFFSET = CAMERA_COUNT;
+    public static final int DEBUG_RZ_OFFSET = CAMERA_COUNT * 2;
+    public static final int DEBUG_Y_OFFSET = CAMERA_COUNT * 3;
+    public static final int DEBUG_ID_OFFSET = CAMERA_COUNT * 4;
+    public static final int DEBUG_DETECTED_OFFSET = DEBUG_ID_OFFSET + 1;
+    public static final int DEBUG_LENGTH = DEBUG_DETECTED_OFFSET + 1;
+
+    private static final double[] debugValues = new double[DEBUG_LENGTH];
+    private static DoubleArrayPublisher debugPub;
+    private static int debugLoops = 0;
 
     public static double MaxSpeed = 1;
 
@@ -26,14 +67,13 @@ public class Limelight implements ReconfigurableConfig{
     public static double frontRight_Id;
     public static boolean id_Detected; 
 
-    //Calculated X Speeds
-    public static double[] txValues = {0.0, 0.0, 0.0, 0.0};
-
-    //Calculated Area
-    public static double[] taValues = {0.0, 0.0, 0.0, 0.0};
-
-    //Calculated rotation 
-    public static double[] rzValues = {0.0, 0.0, 0.0, 0.0};
+    // Per-camera state in one contiguous block, in the same order as the debug array:
+    // TX for every camera, then TA, rotation and calculated Y speed
+    private static final int STATE_TX = 0;
+    private static final int STATE_TA = CAMERA_COUNT;
+    private static final int STATE_RZ = CAMERA_COUNT * 2;
+    private static final int STATE_Y = CAMERA_COUNT * 3;
+    private static final double[] cameraState = new double[CAMERA_COUNT * 4];
 
     // // Blue Right Side April Tag IDs
     // public static final double[] blueRightIDs = {22, 12, 17};
@@ -52,15 +92,68 @@ public class Limelight implements ReconfigurableConfig{
     public static double kEPY = 2.5;
     public static double kEDY = 0.25;
 
-    //PID Controllers 
-    private static PIDController m_YControllerFrontLeftCamera = new PIDController(kFPY, 0, kFDY);
-    private static PIDController m_YControllerFrontRightCamera = new PIDController(kFPY, 0, kFDY);
-    private static PIDController m_YControllerElevatorLeftCamera = new PIDController(kEPY, 0, kEDY);
-    private static PIDController m_YControllerElevatorRightCamera = new PIDController(kEPY, 0, kEDY);
-    private static PIDController[] pidControllers = {m_YControllerFrontLeftCamera, m_YControllerFrontRightCamera, m_YControllerElevatorLeftCamera, m_YControllerElevatorRightCamera};
+    //PID Controllers, one per camera using the gains named in its config
+    private static final PIDController[] pidControllers = new PIDController[CAMERA_COUNT];
+
+    static {
+        buildPidControllers();
+    }
+
+    private static void buildPidControllers() {
+        for (int i = 0; i < CAMERA_COUNT; i++) {
+            pidControllers[i] = cameraConfigs[i].gains() == CameraRegistry.Gains.ELEVATOR
+                ? new PIDController(kEPY, 0, kEDY)
+                : new PIDController(kFPY, 0, kFDY);
+        }
+    }
+
+    /**
+     * Get which area gains a camera uses
+     * @param Limelight Index (Refer to {@link Limelight#staticLimelights})
+     */
+    public static CameraRegistry.Gains getGains(int limelight_Number) {
+        return cameraConfigs[limelight_Number].gains();
+    }
+
+    /**
+     * Get the calculated TX of a camera from the last periodic()
+     * @param Limelight Index (Refer to {@link Limelight#staticLimelights})
+     */
+    public static double getTxValue(int limelight_Number) {
+        return cameraState[STATE_TX + limelight_Number];
+    }
+
+    /**
+     * Get the calculated TA of a camera from the last periodic()
+     * @param Limelight Index (Refer to {@link Limelight#staticLimelights})
+     */
+    public static double getTaValue(int limelight_Number) {
+        return cameraState[STATE_TA + limelight_Number];
+    }
+
+    /**
+     * Get the tag rotation seen by a camera from the last periodic()
+     * @param Limelight Index (Refer to {@link Limelight#staticLimelights})
+     */
+    public static double getRzValue(int limelight_Number) {
+        return cameraState[STATE_RZ + limelight_Number];
+    }
+
+    /**
+     * Get the calculated Y speed of a camera from the last periodic()
+     * @param Limelight Index (Refer to {@link Limelight#staticLimelights})
+     */
+    public static double getYValue(int limelight_Number) {
+        return cameraState[STATE_Y + limelight_Number];
+    }
 
-    // Calculated Y Values
-    public static double[] YValues = {0.0, 0.0, 0.0, 0.0};
+    // Test hook for the values periodic() would calculate
+    static void setCameraState(int limelight_Number, double tx, double ta, double rz, double y) {
+        cameraState[STATE_TX + limelight_Number] = tx;
+        cameraState[STATE_TA + limelight_Number] = ta;
+        cameraState[STATE_RZ + limelight_Number] = rz;
+        cameraState[STATE_Y + limelight_Number] = y;
+    }
 
     /**
      * Returns whether the limelight index is valid
@@ -68,7 +161,7 @@ public class Limelight implements ReconfigurableConfig{
      * @return Valid Limelight Result
     */
     public static boolean validateLimelight(int limelight_Number) {
-        if (limelight_Number >= 0 && limelight_Number <= staticLimelights.length) {
+        if (limelight_Number >= 0 && limelight_Number < CAMERA_COUNT) {
             if (staticLimelights[limelight_Number] != null) {
                 return true;
             }
@@ -83,7 +176,7 @@ public class Limelight implements ReconfigurableConfig{
     */
     public static boolean validateTag(int limelight_Number) {
         if (validateLimelight(limelight_Number)) {
-            if (LimelightHelpers.getTV(staticLimelights[limelight_Number])) {
+            if (handles[limelight_Number].getTV()) {
                 // try {
                 //     Logger.println(staticLimelights[limelight_Number] + " sees a tag named ID " + getID(limelight_Number) + "!");
                 // } catch (Exception e) {
@@ -102,7 +195,7 @@ public class Limelight implements ReconfigurableConfig{
     */
     public static double getTx(int limelight_Number) {
         if (validateTag(limelight_Number)) {
-            return LimelightHelpers.getTX(staticLimelights[limelight_Number]);
+            return handles[limelight_Number].getTX();
         }
         return 0.0;
     }
@@ -114,7 +207,7 @@ public class Limelight implements ReconfigurableConfig{
     */
     public static double getTa(int limelight_Number) {
         if (validateTag(limelight_Number)) {
-            return LimelightHelpers.getTA(staticLimelights[limelight_Number]);
+            return handles[limelight_Number].getTA();
         }
         return 0.0;
     }
@@ -126,7 +219,7 @@ public class Limelight implements ReconfigurableConfig{
     */
     public static double getID(int limelight_Number) {
         if (validateTag(limelight_Number)) {
-            return LimelightHelpers.getFiducialID(staticLimelights[limelight_Number]);
+            return handles[limelight_Number].getFiducialID();
         }
         return frontRight_Id;
     }
@@ -143,18 +236,32 @@ public class Limelight implements ReconfigurableConfig{
     }
     
     public static void periodic() {
-        for (int i = 0; i < staticLimelights.length; i++) {
-            // Periodically update TX, TA, and Rotation Values while calculating Y speeds
-            txValues[i] = getTx(i);
-            taValues[i] = getTa(i);
-            YValues[i] = pidControllers[i].calculate(taValues[i]);
-            try {
+        long startNanos = System.nanoTime();
+        long nowMicros = NetworkTablesJNI.now();
+        for (int i = 0; i < CAMERA_COUNT; i++) {
+            long heartbeatChange = handles[i].getHeartbeatLastChange();
+            if (heartbeatChange != lastHeartbeatChange[i]) {
+                lastHeartbeatChange[i] = heartbeatChange;
+
+                // Periodically update TX, TA, and Rotation Values
+                cameraState[STATE_TX + i] = getTx(i);
+                cameraState[STATE_TA + i] = getTa(i);
                 // Periodically get the robot's orientation based on the tag
-                rzValues[i] = LimelightHelpers.getTargetPose_RobotSpace(staticLimelights[i])[4];
-            } catch (ArrayIndexOutOfBoundsException e) {
-                rzValues[i] = 0.0;
-                DriverStation.reportWarning(staticLimelights[i] + " has an invalid rotation value! Check if the Limelight is disconnected!", e.getStackTrace());
+                if (handles[i].getTargetPose_RobotSpace(targetPoseBuffer) > 4) {
+                    cameraState[STATE_RZ + i] = targetPoseBuffer[4];
+                } else {
+                    cameraState[STATE_RZ + i] = 0.0;
+                    DriverStation.reportWarning(staticLimelights[i] + " has an invalid rotation value! Check if the Limelight is disconnected!", false);
+                }
+            } else if (nowMicros - heartbeatChange > HEARTBEAT_TIMEOUT_MICROS) {
+                // No new frame for too long; don't keep steering on the last one
+                cameraState[STATE_TX + i] = 0.0;
+                cameraState[STATE_TA + i] = 0.0;
+                cameraState[STATE_RZ + i] = 0.0;
             }
+
+            // Run the Y speed controller every loop so its derivative sees a fixed period
+            cameraState[STATE_Y + i] = pidControllers[i].calculate(cameraState[STATE_TA + i]);
         }
 
         if(getID(1) > 0){
@@ -164,26 +271,36 @@ public class Limelight implements ReconfigurableConfig{
             id_Detected = false; 
         }
       
-        if(Constants.Dashboard.kSendDebug) {
-            SmartDashboard.putNumber("Front Left Limeight TX", txValues[0]);
-            SmartDashboard.putNumber("Front Right Limeight TX", txValues[1]);
-            SmartDashboard.putNumber("Elevator Left Limeight TX", txValues[2]);
-            SmartDashboard.putNumber("Elevator Right Limeight TX", txValues[3]);
-
-            SmartDashboard.putNumber("Front Left RZ", rzValues[0]);
-            SmartDashboard.putNumber("Front Right RZ", rzValues[1]);
-            SmartDashboard.putNumber("Elevator Left RZ", rzValues[2]);
-            SmartDashboard.putNumber("Elevator Right RZ", rzValues[3]);
-
-            SmartDashboard.putNumber("Front Left Limeight Ta", taValues[0]);
-            SmartDashboard.putNumber("Front Right Limeight Ta", taValues[1]);
-            SmartDashboard.putNumber("Elevator Left Limeight Ta", taValues[2]);
-            SmartDashboard.putNumber("Elevator Right Limeight Ta", taValues[3]);
-
-            SmartDashboard.putNumber("Front Right ID Value", frontRight_Id);
-            SmartDashboard.putBoolean("Front Right ID Detected", id_Detected);
+        if(Constants.Dashboard.kSendDebug && ++debugLoops >= Constants.Dashboard.kDebugDecimation) {
+            debugLoops = 0;
+            if (debugPub == null) {
+                debugPub = NetworkTableInstance.getDefault().getDoubleArrayTopic(DEBUG_TOPIC).publish();
+            }
+            debugPub.set(fillDebugValues(debugValues));
         }
 
+        periodicTimes.record((System.nanoTime() - startNanos) / 1e6);
+    }
+
+    /**
+     * Pack the latest debug values into an array, laid out by the DEBUG_*_OFFSET constants
+     * @param out Array of at least DEBUG_LENGTH values to fill
+     * @return The same array
+     */
+    public static double[] fillDebugValues(double[] out) {
+        // The state block already has the debug layout
+        System.arraycopy(cameraState, 0, out, DEBUG_TX_OFFSET, cameraState.length);
+        out[DEBUG_ID_OFFSET] = frontRight_Id;
+        out[DEBUG_DETECTED_OFFSET] = id_Detected ? 1.0 : 0.0;
+        return out;
+    }
+
+    /**
+     * Get the periodic() timing histogram
+     * @return Wall time of each periodic() call, in milliseconds
+     */
+    public static LatencyHistogram getPeriodicTimes() {
+        return periodicTimes;
     }
 
     /**
@@ -193,8 +310,8 @@ public class Limelight implements ReconfigurableConfig{
     public double CenterRotationRate(int limelight_Number, double targetRZ, double threshold) {
         double rotaionRate;
         if (validateTag(limelight_Number)) {
-            if (threshold < Math.abs(targetRZ - rzValues[limelight_Number])) {
-                rotaionRate = (targetRZ - rzValues[limelight_Number]) * kPR;
+            if (threshold < Math.abs(targetRZ - getRzValue(limelight_Number))) {
+                rotaionRate = (targetRZ - getRzValue(limelight_Number)) * kPR;
             } else {
                 rotaionRate = 0;
                 // Logger.println(staticLimelights[limelight_Number] + " has finished centering on rotation rate!");
@@ -213,8 +330,8 @@ public class Limelight implements ReconfigurableConfig{
     public double CenterTx(int limelight_Number, double targetTX, double threshold) {
         double xSpeed;
         if (validateTag(limelight_Number)) {
-            if (threshold < Math.abs(targetTX - txValues[limelight_Number])) {
-                xSpeed = (targetTX - txValues[limelight_Number]) * kPX * 0.75;
+            if (threshold < Math.abs(targetTX - getTxValue(limelight_Number))) {
+                xSpeed = (targetTX - getTxValue(limelight_Number)) * kPX * 0.75;
             } else {                  
                 xSpeed = 0;
                 // Logger.println(staticLimelights[limelight_Number] + " has finished centering on x-axis!");
@@ -233,10 +350,10 @@ public class Limelight implements ReconfigurableConfig{
         double ySpeed;
         if (validateTag(limelight_Number)) {
             pidControllers[limelight_Number].setSetpoint(targetArea);
-            double error = (targetArea - taValues[limelight_Number]);
+            double error = (targetArea - getTaValue(limelight_Number));
             if (threshold < Math.abs(error)) {
                 // ySpeed = error * kPY;
-                ySpeed = YValues[limelight_Number] * 0.6;
+                ySpeed = getYValue(limelight_Number) * 0.6;
             } else {                   
                 ySpeed = 0;
                 // Logger.println(staticLimelights[limelight_Number] + " has finished centering on distance!");
@@ -248,14 +365,14 @@ public class Limelight implements ReconfigurableConfig{
     }
 
     public boolean isCloseLeft(){
-        if (taValues[1] > 1.5) {
+        if (getTaValue(1) > 1.5) {
             return true;
         }
         return false;
     }
 
     public boolean isCloseRight(){
-        if (taValues[0] > 1.5) {
+        if (getTaValue(0) > 1.5) {
             return true;
         }
         return false;
@@ -263,12 +380,6 @@ public class Limelight implements ReconfigurableConfig{
 
     @Override
     public void reconfigure() {
-        for (int i = 0; i < pidControllers.length; i++) {
-            if (pidControllers[i].toString().contains("Elevator")) {
-                pidControllers[i] = new PIDController(kEPY, 0, kEDY);
-            } else {
-                pidControllers[i] = new PIDController(kFPY, 0, kFDY);
-            }
-        }
+        buildPidControllers();
     }
 }
@@ -0,0 +1,230 @@
+package frc.robot.shared;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming decoder for the fiducial part of a Limelight JSON dump.
+ * <p>
+ * {@link LimelightHelpers#parseResults(String)} builds the whole object tree,
+ * including every retro, classifier, detector and barcode target and five pose
+ * arrays per fiducial. This decoder walks the dump token by token, keeps the
+ * header values and each fiducial's ID, tx/ty/ta and robot-space pose, and skips
+ * everything else without building it. Results go into preallocated
+ * struct-of-arrays slots that are overwritten by the next {@link #decode}.
+ * </p>
+ * <p>
+ * Not thread-safe; use one decoder per thread.
+ * </p>
+ * <p>
+ * {@link LimelightResultsService} runs one on its parser thread.
+ * </p>
+ */
+public class LimelightFiducialDecoder {
+    /** Values per robot-space pose: x, y, z, roll, pitch, yaw */
+    public static final int POSE_LENGTH = 6;
+
+    // JsonFactory is thread-safe and meant to be shared
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final int capacity;
+
+    // Header
+    private boolean valid;
+    private double pipelineId;
+    private double latencyPipeline;
+    private double latencyCapture;
+    private double timestampRioCapture;
+    private double botposeTagCount;
+
+    // Fiducial slots
+    private final int[] fiducialId;
+    private final double[] tx;
+    private final double[] ty;
+    private final double[] ta;
+    private final double[] targetPoseRobotSpace;
+    private int fiducialCount;
+    private int droppedFiducials;
+
+    private String error;
+
+    /**
+     * Create a decoder
+     * @param capacity Maximum fiducials kept per dump; extras are counted and skipped
+     */
+    public LimelightFiducialDecoder(int capacity) {
+        this.capacity = capacity;
+        fiducialId = new int[capacity];
+        tx = new double[capacity];
+        ty = new double[capacity];
+        ta = new double[capacity];
+        targetPoseRobotSpace = new double[capacity * POSE_LENGTH];
+    }
+
+    /**
+     * Decode a JSON dump into the slots
+     * @param json Limelight json topic value
+     * @return True if the dump parsed; on false {@link #getError()} says why and the slots are empty
+     */
+    public boolean decode(String json) {
+        clear();
+        try (JsonParser parser = factory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                error = "lljson error: expected an object";
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "v" -> valid = parser.getValueAsDouble() == 1.0;
+                    case "pID" -> pipelineId = parser.getValueAsDouble();
+                    case "tl" -> latencyPipeline = parser.getValueAsDouble();
+                    case "cl" -> latencyCapture = parser.getValueAsDouble();
+                    case "ts_rio" -> timestampRioCapture = parser.getValueAsDouble();
+                    case "botpose_tagcount" -> botposeTagCount = parser.getValueAsDouble();
+                    case "Fiducial" -> readFiducials(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            clear();
+            error = "lljson error: " + e.getMessage();
+            return false;
+        }
+    }
+
+    private void readFiducials(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            if (fiducialCount == capacity) {
+                droppedFiducials++;
+                parser.skipChildren();
+                continue;
+            }
+            int slot = fiducialCount++;
+            int poseBase = slot * POSE_LENGTH;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "fID" -> fiducialId[slot] = parser.getValueAsInt();
+                    case "tx" -> tx[slot] = parser.getValueAsDouble();
+                    case "ty" -> ty[slot] = parser.getValueAsDouble();
+                    case "ta" -> ta[slot] = parser.getValueAsDouble();
+                    case "t6t_rs" -> readPose(parser, poseBase);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void readPose(JsonParser parser, int base) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        int i = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (i < POSE_LENGTH) {
+                targetPoseRobotSpace[base + i] = parser.getValueAsDouble();
+            }
+            i++;
+        }
+    }
+
+    private void clear() {
+        valid = false;
+        pipelineId = 0.0;
+        latencyPipeline = 0.0;
+        latencyCapture = 0.0;
+        timestampRioCapture = 0.0;
+        botposeTagCount = 0.0;
+        for (int i = 0; i < fiducialCount; i++) {
+            fiducialId[i] = 0;
+            tx[i] = 0.0;
+            ty[i] = 0.0;
+            ta[i] = 0.0;
+        }
+        for (int i = 0; i < fiducialCount * POSE_LENGTH; i++) {
+            targetPoseRobotSpace[i] = 0.0;
+        }
+        fiducialCount = 0;
+        droppedFiducials = 0;
+        error = null;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public double getPipelineId() {
+        return pipelineId;
+    }
+
+    public double getLatencyPipeline() {
+        return latencyPipeline;
+    }
+
+    public double getLatencyCapture() {
+        return latencyCapture;
+    }
+
+    public double getTimestampRioCapture() {
+        return timestampRioCapture;
+    }
+
+    public double getBotposeTagCount() {
+        return botposeTagCount;
+    }
+
+    public int getFiducialCount() {
+        return fiducialCount;
+    }
+
+    /**
+     * @return Fiducials in the last dump that did not fit in the slots
+     */
+    public int getDroppedFiducials() {
+        return droppedFiducials;
+    }
+
+    public int getFiducialId(int slot) {
+        return fiducialId[slot];
+    }
+
+    public double getTx(int slot) {
+        return tx[slot];
+    }
+
+    public double getTy(int slot) {
+        return ty[slot];
+    }
+
+    public double getTa(int slot) {
+        return ta[slot];
+    }
+
+    /**
+     * @param slot Fiducial slot
+     * @param component 0-5: x, y, z (meters), roll, pitch, yaw (degrees)
+     * @return Robot-space target pose component
+     */
+    public double getTargetPoseRobotSpace(int slot, int component) {
+        return targetPoseRobotSpace[slot * POSE_LENGTH + component];
+    }
+
+    /**
+     * @return Error from the last failed decode, or null
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,193 @@
+package frc.robot.shared;
+
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+/**
+ * Cached accessors for one Limelight.
+ * <p>
+ * The static {@link LimelightHelpers} getters sanitize the name, look up the table
+ * and entry, and allocate a default array on every call. A handle subscribes to
+ * each topic once, so reads are a single typed get. Array topics are copied into a
+ * caller-supplied buffer and only re-read from NetworkTables when the Limelight has
+ * published a new value.
+ * </p>
+ * <p>
+ * Get one through {@link LimelightHelpers#getHandle(String)}, which caches a handle
+ * per camera name.
+ * </p>
+ */
+public class LimelightHandle {
+    private static final double[] EMPTY_ARRAY = new double[0];
+
+    private final String name;
+
+    private final DoubleSubscriber tvSub;
+    private final DoubleSubscriber txSub;
+    private final DoubleSubscriber tySub;
+    private final DoubleSubscriber taSub;
+    private final DoubleSubscriber tidSub;
+    private final DoubleSubscriber tlSub;
+    private final DoubleSubscriber clSub;
+    private final DoubleSubscriber hbSub;
+    private final DoubleSubscriber pipelineSub;
+    private final CachedArray targetPoseRobotSpace;
+    private final CachedArray targetPoseCameraSpace;
+    private final CachedArray botposeWpiBlue;
+    private final CachedArray botposeOrbWpiBlue;
+    private final CachedArray rawFiducials;
+
+    /**
+     * Create a handle
+     * @param ntInstance NetworkTables instance to subscribe on
+     * @param limelightName Limelight table name
+     */
+    public LimelightHandle(NetworkTableInstance ntInstance, String limelightName) {
+        this.name = LimelightHelpers.sanitizeName(limelightName);
+        NetworkTable table = ntInstance.getTable(name);
+
+        tvSub = table.getDoubleTopic("tv").subscribe(0.0);
+        txSub = table.getDoubleTopic("tx").subscribe(0.0);
+        tySub = table.getDoubleTopic("ty").subscribe(0.0);
+        taSub = table.getDoubleTopic("ta").subscribe(0.0);
+        tidSub = table.getDoubleTopic("tid").subscribe(0.0);
+        tlSub = table.getDoubleTopic("tl").subscribe(0.0);
+        clSub = table.getDoubleTopic("cl").subscribe(0.0);
+        hbSub = table.getDoubleTopic("hb").subscribe(0.0);
+        pipelineSub = table.getDoubleTopic("getpipe").subscribe(0.0);
+        targetPoseRobotSpace = new CachedArray(table, "targetpose_robotspace", 6);
+        targetPoseCameraSpace = new CachedArray(table, "targetpose_cameraspace", 6);
+        botposeWpiBlue = new CachedArray(table, "botpose_wpiblue", 11);
+        botposeOrbWpiBlue = new CachedArray(table, "botpose_orb_wpiblue", 11);
+        rawFiducials = new CachedArray(table, "rawfiducials", 7 * 16);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean getTV() {
+        return tvSub.get() == 1.0;
+    }
+
+    public double getTX() {
+        return txSub.get();
+    }
+
+    public double getTY() {
+        return tySub.get();
+    }
+
+    public double getTA() {
+        return taSub.get();
+    }
+
+    public double getFiducialID() {
+        return tidSub.get();
+    }
+
+    public double getLatency_Pipeline() {
+        return tlSub.get();
+    }
+
+    public double getLatency_Capture() {
+        return clSub.get();
+    }
+
+    public double getCurrentPipelineIndex() {
+        return pipelineSub.get();
+    }
+
+    /**
+     * @return Heartbeat, incremented by the Limelight once per processed frame
+     */
+    public double getHeartbeat() {
+        return hbSub.get();
+    }
+
+    /**
+     * @return NetworkTables change time (microseconds) of the heartbeat, for cheap new-frame checks
+     */
+    public long getHeartbeatLastChange() {
+        return hbSub.getLastChange();
+    }
+
+    /**
+     * Copy targetpose_robotspace into a buffer
+     * @param out Buffer to fill, at least 6 long
+     * @return Number of values copied, 0 if the camera has not published a pose
+     */
+    public int getTargetPose_RobotSpace(double[] out) {
+        return targetPoseRobotSpace.copyTo(out);
+    }
+
+    /**
+     * Copy targetpose_cameraspace into a buffer
+     * @param out Buffer to fill, at least 6 long
+     * @return Number of values copied
+     */
+    public int getTargetPose_CameraSpace(double[] out) {
+        return targetPoseCameraSpace.copyTo(out);
+    }
+
+    /**
+     * Copy botpose_wpiblue into a buffer
+     * @param out Buffer to fill, at least 11 long
+     * @return Number of values copied
+     */
+    public int getBotPose_wpiBlue(double[] out) {
+        return botposeWpiBlue.copyTo(out);
+    }
+
+    /**
+     * Copy the MegaTag2 botpose_orb_wpiblue into a buffer
+     * @param out Buffer to fill, at least 11 long
+     * @return Number of values copied
+     */
+    public int getBotPose_wpiBlue_MegaTag2(double[] out) {
+        return botposeOrbWpiBlue.copyTo(out);
+    }
+
+    /**
+     * Copy rawfiducials into a buffer
+     * @param out Buffer to fill, 7 values per tag
+     * @return Number of values copied, truncated to the buffer length
+     */
+    public int getRawFiducials(double[] out) {
+        return rawFiducials.copyTo(out);
+    }
+
+    /**
+     * Array topic whose latest value is kept in a reusable buffer and only
+     * re-read when its NetworkTables change time moves.
+     */
+    private static final class CachedArray {
+        private final DoubleArraySubscriber sub;
+        private double[] values;
+        private int length = 0;
+        private long lastChange = 0;
+
+        CachedArray(NetworkTable table, String topic, int initialCapacity) {
+            sub = table.getDoubleArrayTopic(topic).subscribe(EMPTY_ARRAY);
+            values = new double[initialCapacity];
+        }
+
+        int copyTo(double[] out) {
+            long change = sub.getLastChange();
+            if (change != lastChange) {
+                lastChange = change;
+                double[] latest = sub.get();
+                if (latest.length > values.length) {
+                    values = new double[latest.length];
+                }
+                System.arraycopy(latest, 0, values, 0, latest.length);
+                length = latest.length;
+            }
+            int count = Math.min(length, out.length);
+            System.arraycopy(values, 0, out, 0, count);
+            return count;
+        }
+    }
+}
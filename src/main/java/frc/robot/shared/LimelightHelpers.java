@@ -3,9 +3,9 @@
 package frc.robot.shared;
 
 import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -13,9 +13,9 @@ import java.util.concurrent.ConcurrentHashMap;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonFormat.Shape;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 import edu.wpi.first.networktables.DoubleArrayEntry;
 import edu.wpi.first.networktables.NetworkTable;
@@ -33,6 +33,7 @@ import edu.wpi.first.math.geometry.Translation2d;
 public class LimelightHelpers {
 
     private static final Map<String, DoubleArrayEntry> doubleArrayEntries = new ConcurrentHashMap<>();
+    private static final Map<String, LimelightHandle> handles = new ConcurrentHashMap<>();
 
 
     public static class LimelightTarget_Retro {
@@ -392,6 +393,12 @@ public class LimelightHelpers {
         public double ambiguity = 0;
 
 
+        /**
+         * Makes an empty RawFiducial to be filled in place by {@link LimelightHelpers#decodeRawFiducials}
+         */
+        public RawFiducial() {
+        }
+
         public RawFiducial(int id, double txnc, double tync, double ta, double distToCamera, double distToRobot, double ambiguity) {
             this.id = id;
             this.txnc = txnc;
@@ -401,6 +408,19 @@ public class LimelightHelpers {
             this.distToRobot = distToRobot;
             this.ambiguity = ambiguity;
         }
+
+        /**
+         * Overwrites this fiducial from one entry of a raw fiducial array
+         */
+        void set(double[] raw, int baseIndex) {
+            this.id = (int) raw[baseIndex];
+            this.txnc = raw[baseIndex + 1];
+            this.tync = raw[baseIndex + 2];
+            this.ta = raw[baseIndex + 3];
+            this.distToCamera = raw[baseIndex + 4];
+            this.distToRobot = raw[baseIndex + 5];
+            this.ambiguity = raw[baseIndex + 6];
+        }
     }
 
     public static class RawDetection {
@@ -436,6 +456,30 @@ public class LimelightHelpers {
             this.corner3_X = corner3_X;
             this.corner3_Y = corner3_Y;
         }
+
+        /**
+         * Makes an empty RawDetection to be filled in place by {@link LimelightHelpers#decodeRawDetections}
+         */
+        public RawDetection() {
+        }
+
+        /**
+         * Overwrites this detection from one entry of a raw detection array
+         */
+        void set(double[] raw, int baseIndex) {
+            this.classId = (int) raw[baseIndex];
+            this.txnc = raw[baseIndex + 1];
+            this.tync = raw[baseIndex + 2];
+            this.ta = raw[baseIndex + 3];
+            this.corner0_X = raw[baseIndex + 4];
+            this.corner0_Y = raw[baseIndex + 5];
+            this.corner1_X = raw[baseIndex + 6];
+            this.corner1_Y = raw[baseIndex + 7];
+            this.corner2_X = raw[baseIndex + 8];
+            this.corner2_Y = raw[baseIndex + 9];
+            this.corner3_X = raw[baseIndex + 10];
+            this.corner3_Y = raw[baseIndex + 11];
+        }
     }
 
     public static class PoseEstimate {
@@ -447,6 +491,8 @@ public class LimelightHelpers {
         public double avgTagDist;
         public double avgTagArea;
         public RawFiducial[] rawFiducials; 
+        /** Valid entries at the start of {@link #rawFiducials}; a reused estimate keeps a larger array */
+        public int rawFiducialCount;
 
         /**
          * Makes a PoseEstimate object with default values
@@ -460,6 +506,7 @@ public class LimelightHelpers {
             this.avgTagDist = 0;
             this.avgTagArea = 0;
             this.rawFiducials = new RawFiducial[]{};
+            this.rawFiducialCount = 0;
         }
 
         public PoseEstimate(Pose2d pose, double timestampSeconds, double latency, 
@@ -474,11 +521,15 @@ public class LimelightHelpers {
             this.avgTagDist = avgTagDist;
             this.avgTagArea = avgTagArea;
             this.rawFiducials = rawFiducials;
+            this.rawFiducialCount = rawFiducials == null ? 0 : rawFiducials.length;
         }
 
     }
 
-    private static ObjectMapper mapper;
+    // ObjectReader is immutable and thread-safe, so one instance serves every caller and thread
+    private static final ObjectReader resultsReader = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .readerFor(LimelightResults.class);
 
     /**
      * Print JSON Parse time to the console in milliseconds
@@ -557,7 +608,35 @@ public class LimelightHelpers {
         return inData[position];
     }
 
+    /** Values per entry in rawfiducials and after the botpose header */
+    public static final int RAW_FIDUCIAL_STRIDE = 7;
+
+    /** Values per entry in rawdetections: class ID, txnc, tync, ta and four (x, y) corners */
+    public static final int RAW_DETECTION_STRIDE = 12;
+
+    /** Values in the botpose header before any per-tag fiducial data */
+    private static final int BOTPOSE_HEADER_LENGTH = 11;
+
+    /** Most raw fiducials a reused PoseEstimate holds; one per tag on the field is plenty */
+    public static final int MAX_RAW_FIDUCIALS = 32;
+
     private static PoseEstimate getBotPoseEstimate(String limelightName, String entryName) {
+        PoseEstimate estimate = new PoseEstimate();
+        if (!getBotPoseEstimate(limelightName, entryName, estimate)) {
+            return null;
+        }
+        // A fresh estimate gets an array of exactly the tags seen
+        estimate.rawFiducials = Arrays.copyOf(estimate.rawFiducials, estimate.rawFiducialCount);
+        return estimate;
+    }
+
+    /**
+     * Fills an existing PoseEstimate. Its rawFiducials array is grown once to
+     * {@link #MAX_RAW_FIDUCIALS} and then reused whatever the tag count;
+     * {@link PoseEstimate#rawFiducialCount} says how many entries are valid.
+     * @return False if the camera has not published a pose
+     */
+    private static boolean getBotPoseEstimate(String limelightName, String entryName, PoseEstimate out) {
         DoubleArrayEntry poseEntry = LimelightHelpers.getLimelightDoubleArrayEntry(limelightName, entryName);
         
         TimestampedDoubleArray tsValue = poseEntry.getAtomic();
@@ -566,101 +645,124 @@ public class LimelightHelpers {
         
         if (poseArray.length == 0) {
             // Handle the case where no data is available
-            return null; // or some default PoseEstimate
+            return false;
         }
     
-        var pose = toPose2D(poseArray);
-        double latency = extractArrayEntry(poseArray, 6);
-        int tagCount = (int)extractArrayEntry(poseArray, 7);
-        double tagSpan = extractArrayEntry(poseArray, 8);
-        double tagDist = extractArrayEntry(poseArray, 9);
-        double tagArea = extractArrayEntry(poseArray, 10);
+        out.pose = toPose2D(poseArray);
+        out.latency = extractArrayEntry(poseArray, 6);
+        out.tagCount = (int)extractArrayEntry(poseArray, 7);
+        out.tagSpan = extractArrayEntry(poseArray, 8);
+        out.avgTagDist = extractArrayEntry(poseArray, 9);
+        out.avgTagArea = extractArrayEntry(poseArray, 10);
         
         // Convert server timestamp from microseconds to seconds and adjust for latency
-        double adjustedTimestamp = (timestamp / 1000000.0) - (latency / 1000.0);
+        out.timestampSeconds = (timestamp / 1000000.0) - (out.latency / 1000.0);
     
-        RawFiducial[] rawFiducials = new RawFiducial[tagCount];
-        int valsPerFiducial = 7;
-        int expectedTotalVals = 11 + valsPerFiducial * tagCount;
+        if (out.rawFiducials == null || out.rawFiducials.length < MAX_RAW_FIDUCIALS) {
+            RawFiducial[] grown = new RawFiducial[MAX_RAW_FIDUCIALS];
+            if (out.rawFiducials != null) {
+                System.arraycopy(out.rawFiducials, 0, grown, 0, out.rawFiducials.length);
+            }
+            out.rawFiducials = grown;
+        }
+        int expectedTotalVals = BOTPOSE_HEADER_LENGTH + RAW_FIDUCIAL_STRIDE * out.tagCount;
     
         if (poseArray.length != expectedTotalVals) {
             // Don't populate fiducials
+            out.rawFiducialCount = 0;
         } else {
-            for(int i = 0; i < tagCount; i++) {
-                int baseIndex = 11 + (i * valsPerFiducial);
-                int id = (int)poseArray[baseIndex];
-                double txnc = poseArray[baseIndex + 1];
-                double tync = poseArray[baseIndex + 2];
-                double ta = poseArray[baseIndex + 3];
-                double distToCamera = poseArray[baseIndex + 4];
-                double distToRobot = poseArray[baseIndex + 5];
-                double ambiguity = poseArray[baseIndex + 6];
-                rawFiducials[i] = new RawFiducial(id, txnc, tync, ta, distToCamera, distToRobot, ambiguity);
-            }
+            out.rawFiducialCount = decodeRawFiducials(poseArray, BOTPOSE_HEADER_LENGTH, poseArray.length, out.rawFiducials);
         }
     
-        return new PoseEstimate(pose, adjustedTimestamp, latency, tagCount, tagSpan, tagDist, tagArea, rawFiducials);
+        return true;
+    }
+
+    /**
+     * Decodes raw fiducial entries into caller-owned flyweights, creating a slot only the
+     * first time it is used. Entries that do not fit in {@code out} are ignored.
+     * @param raw Array holding 7 values per fiducial
+     * @param start Index of the first entry
+     * @param end Index just past the last entry
+     * @param out Flyweights to fill
+     * @return Number of slots filled
+     */
+    public static int decodeRawFiducials(double[] raw, int start, int end, RawFiducial[] out) {
+        int count = Math.min(out.length, Math.max(0, end - start) / RAW_FIDUCIAL_STRIDE);
+        for (int i = 0; i < count; i++) {
+            if (out[i] == null) {
+                out[i] = new RawFiducial();
+            }
+            out[i].set(raw, start + i * RAW_FIDUCIAL_STRIDE);
+        }
+        return count;
+    }
+
+    /**
+     * Decodes raw detection entries into caller-owned flyweights, creating a slot only the
+     * first time it is used. Entries that do not fit in {@code out} are ignored.
+     * @param raw Array holding 12 values per detection
+     * @param start Index of the first entry
+     * @param end Index just past the last entry
+     * @param out Flyweights to fill
+     * @return Number of slots filled
+     */
+    public static int decodeRawDetections(double[] raw, int start, int end, RawDetection[] out) {
+        int count = Math.min(out.length, Math.max(0, end - start) / RAW_DETECTION_STRIDE);
+        for (int i = 0; i < count; i++) {
+            if (out[i] == null) {
+                out[i] = new RawDetection();
+            }
+            out[i].set(raw, start + i * RAW_DETECTION_STRIDE);
+        }
+        return count;
     }
 
     private static RawFiducial[] getRawFiducials(String limelightName) {
-        var entry = LimelightHelpers.getLimelightNTTableEntry(limelightName, "rawfiducials");
-        var rawFiducialArray = entry.getDoubleArray(new double[0]);
-        int valsPerEntry = 7;
-        if (rawFiducialArray.length % valsPerEntry != 0) {
+        double[] rawFiducialArray = getLimelightDoubleArrayEntry(limelightName, "rawfiducials").get();
+        if (rawFiducialArray.length % RAW_FIDUCIAL_STRIDE != 0) {
             return new RawFiducial[0];
         }
     
-        int numFiducials = rawFiducialArray.length / valsPerEntry;
-        RawFiducial[] rawFiducials = new RawFiducial[numFiducials];
-    
-        for (int i = 0; i < numFiducials; i++) {
-            int baseIndex = i * valsPerEntry;
-            int id = (int) extractArrayEntry(rawFiducialArray, baseIndex);
-            double txnc = extractArrayEntry(rawFiducialArray, baseIndex + 1);
-            double tync = extractArrayEntry(rawFiducialArray, baseIndex + 2);
-            double ta = extractArrayEntry(rawFiducialArray, baseIndex + 3);
-            double distToCamera = extractArrayEntry(rawFiducialArray, baseIndex + 4);
-            double distToRobot = extractArrayEntry(rawFiducialArray, baseIndex + 5);
-            double ambiguity = extractArrayEntry(rawFiducialArray, baseIndex + 6);
-            
-            rawFiducials[i] = new RawFiducial(id, txnc, tync, ta, distToCamera, distToRobot, ambiguity);
-        }
-    
+        RawFiducial[] rawFiducials = new RawFiducial[rawFiducialArray.length / RAW_FIDUCIAL_STRIDE];
+        decodeRawFiducials(rawFiducialArray, 0, rawFiducialArray.length, rawFiducials);
         return rawFiducials;
     }
 
+    /**
+     * Fills caller-owned flyweights with the latest raw fiducials
+     * @return Number of fiducials written, 0 if the array is malformed
+     */
+    public static int getRawFiducials(String limelightName, RawFiducial[] out) {
+        double[] rawFiducialArray = getLimelightDoubleArrayEntry(limelightName, "rawfiducials").get();
+        if (rawFiducialArray.length % RAW_FIDUCIAL_STRIDE != 0) {
+            return 0;
+        }
+        return decodeRawFiducials(rawFiducialArray, 0, rawFiducialArray.length, out);
+    }
+
     public static RawDetection[] getRawDetections(String limelightName) {
-        var entry = LimelightHelpers.getLimelightNTTableEntry(limelightName, "rawdetections");
-        var rawDetectionArray = entry.getDoubleArray(new double[0]);
-        int valsPerEntry = 11;
-        if (rawDetectionArray.length % valsPerEntry != 0) {
+        double[] rawDetectionArray = getLimelightDoubleArrayEntry(limelightName, "rawdetections").get();
+        if (rawDetectionArray.length % RAW_DETECTION_STRIDE != 0) {
             return new RawDetection[0];
         }
     
-        int numDetections = rawDetectionArray.length / valsPerEntry;
-        RawDetection[] rawDetections = new RawDetection[numDetections];
-    
-        for (int i = 0; i < numDetections; i++) {
-            int baseIndex = i * valsPerEntry; // Starting index for this detection's data
-            int classId = (int) extractArrayEntry(rawDetectionArray, baseIndex);
-            double txnc = extractArrayEntry(rawDetectionArray, baseIndex + 1);
-            double tync = extractArrayEntry(rawDetectionArray, baseIndex + 2);
-            double ta = extractArrayEntry(rawDetectionArray, baseIndex + 3);
-            double corner0_X = extractArrayEntry(rawDetectionArray, baseIndex + 4);
-            double corner0_Y = extractArrayEntry(rawDetectionArray, baseIndex + 5);
-            double corner1_X = extractArrayEntry(rawDetectionArray, baseIndex + 6);
-            double corner1_Y = extractArrayEntry(rawDetectionArray, baseIndex + 7);
-            double corner2_X = extractArrayEntry(rawDetectionArray, baseIndex + 8);
-            double corner2_Y = extractArrayEntry(rawDetectionArray, baseIndex + 9);
-            double corner3_X = extractArrayEntry(rawDetectionArray, baseIndex + 10);
-            double corner3_Y = extractArrayEntry(rawDetectionArray, baseIndex + 11);
-            
-            rawDetections[i] = new RawDetection(classId, txnc, tync, ta, corner0_X, corner0_Y, corner1_X, corner1_Y, corner2_X, corner2_Y, corner3_X, corner3_Y);
-        }
-    
+        RawDetection[] rawDetections = new RawDetection[rawDetectionArray.length / RAW_DETECTION_STRIDE];
+        decodeRawDetections(rawDetectionArray, 0, rawDetectionArray.length, rawDetections);
         return rawDetections;
     }
 
+    /**
+     * Fills caller-owned flyweights with the latest raw detections
+     * @return Number of detections written, 0 if the array is malformed
+     */
+    public static int getRawDetections(String limelightName, RawDetection[] out) {
+        double[] rawDetectionArray = getLimelightDoubleArrayEntry(limelightName, "rawdetections").get();
+        if (rawDetectionArray.length % RAW_DETECTION_STRIDE != 0) {
+            return 0;
+        }
+        return decodeRawDetections(rawDetectionArray, 0, rawDetectionArray.length, out);
+    }
+
     public static void printPoseEstimate(PoseEstimate pose) {
         if (pose == null) {
             System.out.println("No PoseEstimate available.");
@@ -676,13 +778,13 @@ public class LimelightHelpers {
         System.out.printf("Average Tag Area: %.2f%% of image%n", pose.avgTagArea);
         System.out.println();
     
-        if (pose.rawFiducials == null || pose.rawFiducials.length == 0) {
+        if (pose.rawFiducials == null || pose.rawFiducialCount == 0) {
             System.out.println("No RawFiducials data available.");
             return;
         }
     
         System.out.println("Raw Fiducials Details:");
-        for (int i = 0; i < pose.rawFiducials.length; i++) {
+        for (int i = 0; i < pose.rawFiducialCount; i++) {
             RawFiducial fiducial = pose.rawFiducials[i];
             System.out.printf(" Fiducial #%d:%n", i + 1);
             System.out.printf("  ID: %d%n", fiducial.id);
@@ -704,6 +806,15 @@ public class LimelightHelpers {
         NetworkTableInstance.getDefault().flush();
     }
 
+    /**
+     * Get the cached handle for a Limelight. Hold on to it in hot loops instead of
+     * calling the string-keyed getters.
+     */
+    public static LimelightHandle getHandle(String limelightName) {
+        return handles.computeIfAbsent(sanitizeName(limelightName),
+            name -> new LimelightHandle(NetworkTableInstance.getDefault(), name));
+    }
+
     public static NetworkTableEntry getLimelightNTTableEntry(String tableName, String entryName) {
         return getLimelightNTTable(tableName).getEntry(entryName);
     }
@@ -972,6 +1083,14 @@ public class LimelightHelpers {
         return getBotPoseEstimate(limelightName, "botpose_wpiblue");
     }
 
+    /**
+     * Same as {@link #getBotPoseEstimate_wpiBlue(String)}, but fills {@code out} in place
+     * @return False if no pose is available
+     */
+    public static boolean getBotPoseEstimate_wpiBlue(String limelightName, PoseEstimate out) {
+        return getBotPoseEstimate(limelightName, "botpose_wpiblue", out);
+    }
+
     /**
      * Gets the Pose2d and timestamp for use with WPILib pose estimator (addVisionMeasurement) when you are on the BLUE
      * alliance
@@ -983,6 +1102,14 @@ public class LimelightHelpers {
         return getBotPoseEstimate(limelightName, "botpose_orb_wpiblue");
     }
 
+    /**
+     * Same as {@link #getBotPoseEstimate_wpiBlue_MegaTag2(String)}, but fills {@code out} in place
+     * @return False if no pose is available
+     */
+    public static boolean getBotPoseEstimate_wpiBlue_MegaTag2(String limelightName, PoseEstimate out) {
+        return getBotPoseEstimate(limelightName, "botpose_orb_wpiblue", out);
+    }
+
     /**
      * Gets the Pose2d for easy use with Odometry vision pose estimator
      * (addVisionMeasurement)
@@ -1007,6 +1134,14 @@ public class LimelightHelpers {
         return getBotPoseEstimate(limelightName, "botpose_wpired");
     }
 
+    /**
+     * Same as {@link #getBotPoseEstimate_wpiRed(String)}, but fills {@code out} in place
+     * @return False if no pose is available
+     */
+    public static boolean getBotPoseEstimate_wpiRed(String limelightName, PoseEstimate out) {
+        return getBotPoseEstimate(limelightName, "botpose_wpired", out);
+    }
+
     /**
      * Gets the Pose2d and timestamp for use with WPILib pose estimator (addVisionMeasurement) when you are on the RED
      * alliance
@@ -1017,6 +1152,14 @@ public class LimelightHelpers {
         return getBotPoseEstimate(limelightName, "botpose_orb_wpired");
     }
 
+    /**
+     * Same as {@link #getBotPoseEstimate_wpiRed_MegaTag2(String)}, but fills {@code out} in place
+     * @return False if no pose is available
+     */
+    public static boolean getBotPoseEstimate_wpiRed_MegaTag2(String limelightName, PoseEstimate out) {
+        return getBotPoseEstimate(limelightName, "botpose_orb_wpired", out);
+    }
+
     /**
      * Gets the Pose2d for easy use with Odometry vision pose estimator
      * (addVisionMeasurement)
@@ -1154,6 +1297,16 @@ public class LimelightHelpers {
     }
 
     public static void SetFiducialDownscalingOverride(String limelightName, float downscale) 
+    {
+        setLimelightNTDouble(limelightName, "fiducial_downscale_set", getFiducialDownscaleSetting(downscale));
+    }
+
+    /**
+     * Convert a downscale factor to the value fiducial_downscale_set expects
+     * @param downscale 1, 1.5, 2, 3 or 4; anything else hands control back to the pipeline
+     * @return 1-5 for the factors above, 0 for pipeline control
+     */
+    public static int getFiducialDownscaleSetting(float downscale)
     {
         int d = 0; // pipeline
         if (downscale == 1.0)
@@ -1176,7 +1329,7 @@ public class LimelightHelpers {
         {
             d = 5;
         }
-        setLimelightNTDouble(limelightName, "fiducial_downscale_set", d);
+        return d;
     }
     
     public static void setCameraPose_RobotSpace(String limelightName, double forward, double side, double up, double roll, double pitch, double yaw) {
@@ -1205,59 +1358,47 @@ public class LimelightHelpers {
     /////
 
     /**
-     * Asynchronously take snapshot.
+     * Asks the Limelight to save a snapshot. Runs on {@link LimelightHttpExecutor#getDefault()},
+     * with timeouts, and joins an identical snapshot request that is still in flight.
      */
     public static CompletableFuture<Boolean> takeSnapshot(String tableName, String snapshotName) {
-        return CompletableFuture.supplyAsync(() -> {
-            return SYNCH_TAKESNAPSHOT(tableName, snapshotName);
-        });
-    }
-
-    private static boolean SYNCH_TAKESNAPSHOT(String tableName, String snapshotName) {
         URL url = getLimelightURLString(tableName, "capturesnapshot");
-        try {
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            if (snapshotName != null && snapshotName != "") {
-                connection.setRequestProperty("snapname", snapshotName);
-            }
-
-            int responseCode = connection.getResponseCode();
-            if (responseCode == 200) {
-                return true;
-            } else {
-                System.err.println("Bad LL Request");
-            }
-        } catch (IOException e) {
-            System.err.println(e.getMessage());
-        }
-        return false;
+        String header = (snapshotName != null && !snapshotName.isEmpty()) ? "snapname" : null;
+        return LimelightHttpExecutor.getDefault()
+            .request(url, "GET", header, snapshotName)
+            .thenApply(code -> {
+                if (code != 200) {
+                    System.err.println("Bad LL Request");
+                }
+                return code == 200;
+            });
     }
 
     /**
      * Parses Limelight's JSON results dump into a LimelightResults Object
      */
     public static LimelightResults getLatestResults(String limelightName) {
-
-        long start = System.nanoTime();
-        LimelightHelpers.LimelightResults results = new LimelightHelpers.LimelightResults();
-        if (mapper == null) {
-            mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        LimelightResults results = parseResults(getJSONDump(limelightName));
+        if (profileJSON) {
+            System.out.printf("lljson: %.2f\r\n", results.latency_jsonParse);
         }
+        return results;
+    }
 
+    /**
+     * Parses a JSON results dump. Safe to call from any thread.
+     * Parse time is stored in {@link LimelightResults#latency_jsonParse}.
+     */
+    public static LimelightResults parseResults(String json) {
+        long start = System.nanoTime();
+        LimelightResults results;
         try {
-            results = mapper.readValue(getJSONDump(limelightName), LimelightResults.class);
-        } catch (JsonProcessingException e) {
+            results = resultsReader.readValue(json);
+        } catch (IOException e) {
+            results = new LimelightResults();
             results.error = "lljson error: " + e.getMessage();
         }
-
-        long end = System.nanoTime();
-        double millis = (end - start) * .000001;
-        results.latency_jsonParse = millis;
-        if (profileJSON) {
-            System.out.printf("lljson: %.2f\r\n", millis);
-        }
-
+        results.latency_jsonParse = (System.nanoTime() - start) * .000001;
         return results;
     }
-}
\ No newline at end of file
+}
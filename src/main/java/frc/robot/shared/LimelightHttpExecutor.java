@@ -0,0 +1,223 @@
+package frc.robot.shared;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs Limelight HTTP requests (snapshots, uploads) off the main loop.
+ * <p>
+ * Requests run on a small dedicated pool with a bounded queue, never on the common
+ * ForkJoinPool, and every connection has a connect and read timeout so an
+ * unreachable camera cannot hold a thread for long. A request identical to one
+ * already in flight gets the same future instead of a second connection. When the
+ * queue is full the request completes immediately with {@link #FAILED}.
+ * </p>
+ */
+public class LimelightHttpExecutor implements AutoCloseable {
+    /** Response code reported when a request could not be completed */
+    public static final int FAILED = -1;
+
+    private static final int DEFAULT_THREADS = 2;
+    private static final int DEFAULT_QUEUE_CAPACITY = 8;
+    private static final int DEFAULT_CONNECT_TIMEOUT_MS = 500;
+    private static final int DEFAULT_READ_TIMEOUT_MS = 2000;
+
+    private static LimelightHttpExecutor defaultInstance;
+
+    private final ThreadPoolExecutor pool;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final Map<String, CompletableFuture<Integer>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Get the shared executor used by {@link LimelightHelpers}
+     */
+    public static synchronized LimelightHttpExecutor getDefault() {
+        if (defaultInstance == null) {
+            defaultInstance = new LimelightHttpExecutor(
+                DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, DEFAULT_CONNECT_TIMEOUT_MS, DEFAULT_READ_TIMEOUT_MS);
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Create an executor
+     * @param threads Number of worker threads
+     * @param queueCapacity Requests that may wait for a worker before new ones are rejected
+     * @param connectTimeoutMillis Connect timeout per request
+     * @param readTimeoutMillis Read timeout per request
+     */
+    public LimelightHttpExecutor(int threads, int queueCapacity, int connectTimeoutMillis, int readTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = new ThreadPoolExecutor(
+            threads, threads,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "LimelightHttp-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Send a request, or join an identical one already in flight
+     * @param url Request URL; null completes immediately with {@link #FAILED}
+     * @param method HTTP method, e.g. "GET"
+     * @param headerName Optional request header name, or null
+     * @param headerValue Value for the header
+     * @return Future completing with the response code, or {@link #FAILED}
+     */
+    public CompletableFuture<Integer> request(URL url, String method, String headerName, String headerValue) {
+        if (url == null) {
+            failed.incrementAndGet();
+            return CompletableFuture.completedFuture(FAILED);
+        }
+
+        String key = method + " " + url + (headerName != null ? " " + headerName + "=" + headerValue : "");
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        CompletableFuture<Integer> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing;
+        }
+
+        submitted.incrementAndGet();
+        try {
+            pool.execute(() -> {
+                int code = FAILED;
+                try {
+                    code = send(url, method, headerName, headerValue);
+                } catch (RuntimeException e) {
+                    // e.g. a header value HttpURLConnection refuses; still release everyone waiting
+                    failed.incrementAndGet();
+                } finally {
+                    inFlight.remove(key, future);
+                    future.complete(code);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            inFlight.remove(key, future);
+            future.complete(FAILED);
+        }
+        return future;
+    }
+
+    private int send(URL url, String method, String headerName, String headerValue) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(connectTimeoutMillis);
+            connection.setReadTimeout(readTimeoutMillis);
+            connection.setRequestMethod(method);
+            if (headerName != null) {
+                connection.setRequestProperty(headerName, headerValue);
+            }
+
+            int code = connection.getResponseCode();
+            // Drain the body so the connection can be reused
+            try (InputStream body = code < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                if (body != null) {
+                    body.readAllBytes();
+                }
+            }
+            if (code == 200) {
+                succeeded.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+            return code;
+        } catch (SocketTimeoutException e) {
+            timedOut.incrementAndGet();
+            return FAILED;
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            return FAILED;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * @return Requests handed to the pool
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * @return Requests that joined an identical in-flight request
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getSucceededCount() {
+        return succeeded.get();
+    }
+
+    /**
+     * @return Requests that got a non-200 response or an I/O error other than a timeout
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    /**
+     * @return Requests dropped because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return Requests queued or running right now
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Stop the workers; requests that have not finished complete with {@link #FAILED}
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        for (CompletableFuture<Integer> future : inFlight.values()) {
+            future.complete(FAILED);
+        }
+        inFlight.clear();
+    }
+}
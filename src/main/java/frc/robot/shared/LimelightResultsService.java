@@ -0,0 +1,312 @@
+package frc.robot.shared;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringSubscriber;
+
+/**
+ * Parses Limelight JSON results off the main loop.
+ * <p>
+ * {@link LimelightHelpers#getLatestResults(String)} runs Jackson on the calling
+ * thread, which takes milliseconds on the roboRIO. This service runs a low-priority
+ * daemon thread that re-parses a camera's JSON dump only when the Limelight has
+ * published a new one, and hands the result over through a volatile reference.
+ * Callers on the main loop just read the latest snapshot.
+ * </p>
+ * <p>
+ * Dumps are walked with a {@link LimelightFiducialDecoder}, which keeps the tag IDs,
+ * offsets and robot-space poses and skips the rest of the dump without building it;
+ * read them with {@link #getLatestFiducials(int)}. The full
+ * {@link LimelightHelpers.LimelightResults} tree is only built for services created
+ * with {@code fullResults}.
+ * </p>
+ * <p>
+ * Parse times go into a {@link LatencyHistogram} per camera; read them with
+ * {@link #getParseTimePercentile(int, double)} and {@link #getParseTimeMax(int)}.
+ * </p>
+ */
+public class LimelightResultsService implements AutoCloseable {
+    // 0.1 ms buckets up to 50 ms
+    private static final double PARSE_BUCKET_MS = 0.1;
+    private static final int PARSE_BUCKETS = 500;
+
+    // More tags than a Limelight reports in one frame on this field
+    private static final int MAX_FIDUCIALS = 16;
+
+    /**
+     * Tags from one JSON dump, copied out of the decoder so the main loop can keep it
+     */
+    public static final class Fiducials {
+        private final boolean valid;
+        private final double latencyMillis;
+        private final double timestampRioCapture;
+        private final int[] ids;
+        private final double[] tx;
+        private final double[] ty;
+        private final double[] ta;
+        private final double[] targetPoseRobotSpace;
+
+        private Fiducials(LimelightFiducialDecoder decoder) {
+            int count = decoder.getFiducialCount();
+            valid = decoder.isValid();
+            latencyMillis = decoder.getLatencyPipeline() + decoder.getLatencyCapture();
+            timestampRioCapture = decoder.getTimestampRioCapture();
+            ids = new int[count];
+            tx = new double[count];
+            ty = new double[count];
+            ta = new double[count];
+            targetPoseRobotSpace = new double[count * LimelightFiducialDecoder.POSE_LENGTH];
+            for (int i = 0; i < count; i++) {
+                ids[i] = decoder.getFiducialId(i);
+                tx[i] = decoder.getTx(i);
+                ty[i] = decoder.getTy(i);
+                ta[i] = decoder.getTa(i);
+                for (int c = 0; c < LimelightFiducialDecoder.POSE_LENGTH; c++) {
+                    targetPoseRobotSpace[i * LimelightFiducialDecoder.POSE_LENGTH + c] = decoder.getTargetPoseRobotSpace(i, c);
+                }
+            }
+        }
+
+        /**
+         * @return True if the dump parsed and the camera had a valid target
+         */
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * @return Pipeline plus capture latency (milliseconds)
+         */
+        public double getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        /**
+         * @return Capture time on the roboRIO clock as reported by the camera (milliseconds)
+         */
+        public double getTimestampRioCapture() {
+            return timestampRioCapture;
+        }
+
+        public int getCount() {
+            return ids.length;
+        }
+
+        public int getId(int slot) {
+            return ids[slot];
+        }
+
+        public double getTx(int slot) {
+            return tx[slot];
+        }
+
+        public double getTy(int slot) {
+            return ty[slot];
+        }
+
+        public double getTa(int slot) {
+            return ta[slot];
+        }
+
+        /**
+         * @param slot Fiducial slot
+         * @param component 0-5: x, y, z (meters), roll, pitch, yaw (degrees)
+         * @return Robot-space target pose component
+         */
+        public double getTargetPoseRobotSpace(int slot, int component) {
+            return targetPoseRobotSpace[slot * LimelightFiducialDecoder.POSE_LENGTH + component];
+        }
+    }
+
+    private final String[] names;
+    private final StringSubscriber[] jsonSubs;
+    private final long[] lastChange;
+    private final Snapshot[] snapshots;
+    private final LatencyHistogram[] parseTimes;
+    private final long pollPeriodMillis;
+    private final boolean fullResults;
+
+    // Only used on the parser thread
+    private final LimelightFiducialDecoder decoder = new LimelightFiducialDecoder(MAX_FIDUCIALS);
+
+    private Thread thread;
+    private volatile boolean running = false;
+
+    /** Latest parsed results for one camera, swapped in whole by the parser thread */
+    private static final class Snapshot {
+        volatile Fiducials fiducials;
+        volatile LimelightHelpers.LimelightResults results;
+        volatile long parseCount;
+        volatile long errorCount;
+    }
+
+    /**
+     * Create a results service that only decodes the fiducials
+     * @param ntInstance NetworkTables instance to read the json topics from
+     * @param limelightNames Limelight table names; indices match the getters
+     * @param pollPeriodSeconds How long the parser thread sleeps between checks
+     */
+    public LimelightResultsService(NetworkTableInstance ntInstance, String[] limelightNames, double pollPeriodSeconds) {
+        this(ntInstance, limelightNames, pollPeriodSeconds, false);
+    }
+
+    /**
+     * Create a results service
+     * @param ntInstance NetworkTables instance to read the json topics from
+     * @param limelightNames Limelight table names; indices match the getters
+     * @param pollPeriodSeconds How long the parser thread sleeps between checks
+     * @param fullResults True to also build the full results tree for {@link #getLatestResults(int)}
+     */
+    public LimelightResultsService(NetworkTableInstance ntInstance, String[] limelightNames, double pollPeriodSeconds, boolean fullResults) {
+        this.fullResults = fullResults;
+        names = limelightNames.clone();
+        jsonSubs = new StringSubscriber[names.length];
+        lastChange = new long[names.length];
+        snapshots = new Snapshot[names.length];
+        parseTimes = new LatencyHistogram[names.length];
+        for (int i = 0; i < names.length; i++) {
+            jsonSubs[i] = ntInstance.getTable(LimelightHelpers.sanitizeName(names[i]))
+                .getStringTopic("json").subscribe("");
+            snapshots[i] = new Snapshot();
+            parseTimes[i] = new LatencyHistogram(PARSE_BUCKET_MS, PARSE_BUCKETS);
+        }
+        pollPeriodMillis = Math.max(1, Math.round(pollPeriodSeconds * 1000.0));
+    }
+
+    /**
+     * Start the parser thread. Does nothing if it is already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "LimelightResults");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Stop the parser thread and wait for it to exit
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    private void run() {
+        while (running) {
+            parsePending();
+            try {
+                Thread.sleep(pollPeriodMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Parse every camera whose JSON dump changed since the last call. Runs on the
+     * parser thread; exposed so tests and callers without a thread can drive it.
+     * @return Number of cameras parsed
+     */
+    public int parsePending() {
+        int parsed = 0;
+        for (int i = 0; i < names.length; i++) {
+            long change = jsonSubs[i].getLastChange();
+            if (change == lastChange[i]) {
+                continue;
+            }
+            lastChange[i] = change;
+
+            String json = jsonSubs[i].get();
+            long start = System.nanoTime();
+            boolean ok = decoder.decode(json);
+            Fiducials fiducials = new Fiducials(decoder);
+            LimelightHelpers.LimelightResults results = fullResults ? LimelightHelpers.parseResults(json) : null;
+            synchronized (parseTimes[i]) {
+                parseTimes[i].record((System.nanoTime() - start) / 1e6);
+            }
+            Snapshot snapshot = snapshots[i];
+            if (!ok) {
+                snapshot.errorCount++;
+            }
+            snapshot.parseCount++;
+            snapshot.fiducials = fiducials;
+            snapshot.results = results;
+            parsed++;
+        }
+        return parsed;
+    }
+
+    /**
+     * Get the newest decoded tags. Never blocks.
+     * @param cameraIndex Index into the names passed to the constructor
+     * @return Latest tags, or null if nothing has been parsed yet
+     */
+    public Fiducials getLatestFiducials(int cameraIndex) {
+        return snapshots[cameraIndex].fiducials;
+    }
+
+    /**
+     * Get the newest parsed results. Never blocks.
+     * @param cameraIndex Index into the names passed to the constructor
+     * @return Latest results, or null if nothing has been parsed yet or the service
+     *         was created without {@code fullResults}
+     */
+    public LimelightHelpers.LimelightResults getLatestResults(int cameraIndex) {
+        return snapshots[cameraIndex].results;
+    }
+
+    /**
+     * Get the newest parsed results by camera name
+     * @param limelightName Limelight table name
+     * @return Latest results, or null if the camera is unknown or nothing has been parsed yet
+     */
+    public LimelightHelpers.LimelightResults getLatestResults(String limelightName) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(limelightName)) {
+                return getLatestResults(i);
+            }
+        }
+        return null;
+    }
+
+    public long getParseCount(int cameraIndex) {
+        return snapshots[cameraIndex].parseCount;
+    }
+
+    public long getErrorCount(int cameraIndex) {
+        return snapshots[cameraIndex].errorCount;
+    }
+
+    /**
+     * @param cameraIndex Camera index
+     * @param percentile Percentile between 0 and 1
+     * @return Parse time percentile (milliseconds) since startup
+     */
+    public double getParseTimePercentile(int cameraIndex, double percentile) {
+        synchronized (parseTimes[cameraIndex]) {
+            return parseTimes[cameraIndex].percentile(percentile);
+        }
+    }
+
+    /**
+     * @param cameraIndex Camera index
+     * @return Slowest parse (milliseconds) since startup
+     */
+    public double getParseTimeMax(int cameraIndex) {
+        synchronized (parseTimes[cameraIndex]) {
+            return parseTimes[cameraIndex].getMax();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package frc.robot.shared;
+
+import java.util.function.IntConsumer;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+
+/**
+ * Tells the alignment cameras which AprilTag to prioritize and which tags to look for.
+ * <p>
+ * Once the next scoring or pickup location is known (an auto step, the operator's
+ * reef side, or the tag an alignment command picked), the cameras that center on
+ * that kind of target get its tag as their priority ID and are filtered to that
+ * group of tags for the robot's alliance, so tx/ty/ta follow the right tag and stray
+ * tags are never decoded. Reef targets go to the {@link CameraRegistry.Gains#FRONT}
+ * cameras and coral station targets to the {@link CameraRegistry.Gains#ELEVATOR}
+ * cameras; the other cameras are left alone, so a reef target never hides the
+ * station tags from the human player cameras. Values are only published when they
+ * change, and a change to several cameras goes out in a single flush.
+ * </p>
+ * <p>
+ * Targets are cleared when an alignment ends and on every mode change. The latest
+ * target tag is also handed to a {@link #setTargetListener(IntConsumer) listener},
+ * which crops the cameras around it.
+ * </p>
+ */
+public class PriorityTagScheduler {
+    /** Priority ID that lets the camera pick the target itself */
+    public static final int NO_PRIORITY = -1;
+
+    // Reef tags by side, in ReefState order: A/B faces the driver station, then around to the driver's right
+    private static final int[] BLUE_REEF_TAGS = {18, 17, 22, 21, 20, 19};
+    private static final int[] RED_REEF_TAGS = {7, 8, 9, 10, 11, 6};
+
+    // Coral station tags, driver's left then right
+    private static final int[] BLUE_STATION_TAGS = {13, 12};
+    private static final int[] RED_STATION_TAGS = {1, 2};
+
+    private static final int MAX_TAG_ID = 22;
+
+    // Filters are shared, never modified, so a change can be detected by reference
+    private static final double[] BLUE_REEF_FILTER = toFilter(BLUE_REEF_TAGS);
+    private static final double[] RED_REEF_FILTER = toFilter(RED_REEF_TAGS);
+    private static final double[] BLUE_STATION_FILTER = toFilter(BLUE_STATION_TAGS);
+    private static final double[] RED_STATION_FILTER = toFilter(RED_STATION_TAGS);
+    private static final double[] ALL_TAGS_FILTER = new double[MAX_TAG_ID];
+
+    static {
+        for (int i = 0; i < MAX_TAG_ID; i++) {
+            ALL_TAGS_FILTER[i] = i + 1;
+        }
+    }
+
+    private static PriorityTagScheduler defaultInstance;
+
+    private final NetworkTableInstance ntInstance;
+    private final CameraRegistry.Gains[] gains;
+    private final DoublePublisher[] priorityPubs;
+    private final DoubleArrayPublisher[] filterPubs;
+
+    // Last values pushed per camera
+    private final int[] priority;
+    private final double[][] filter;
+    private int flushCount = 0;
+
+    // Tag of the last target, across all camera groups
+    private int targetTag = NO_PRIORITY;
+    private IntConsumer targetListener = tagId -> {};
+
+    /**
+     * Get the scheduler for the {@link Limelight#staticLimelights}
+     */
+    public static synchronized PriorityTagScheduler getDefault() {
+        if (defaultInstance == null) {
+            CameraRegistry.Gains[] gains = new CameraRegistry.Gains[Limelight.staticLimelights.length];
+            for (int i = 0; i < gains.length; i++) {
+                gains[i] = Limelight.getGains(i);
+            }
+            defaultInstance = new PriorityTagScheduler(NetworkTableInstance.getDefault(), Limelight.staticLimelights, gains);
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Create a scheduler
+     * @param ntInstance NetworkTables instance the cameras listen on
+     * @param cameraNames Limelight table names
+     * @param gains Which targets each camera centers on, by the gains it uses
+     */
+    public PriorityTagScheduler(NetworkTableInstance ntInstance, String[] cameraNames, CameraRegistry.Gains[] gains) {
+        this.ntInstance = ntInstance;
+        this.gains = gains;
+        priorityPubs = new DoublePublisher[cameraNames.length];
+        filterPubs = new DoubleArrayPublisher[cameraNames.length];
+        priority = new int[cameraNames.length];
+        filter = new double[cameraNames.length][];
+
+        for (int i = 0; i < cameraNames.length; i++) {
+            NetworkTable table = ntInstance.getTable(LimelightHelpers.sanitizeName(cameraNames[i]));
+            priorityPubs[i] = table.getDoubleTopic("priorityid").publish();
+            filterPubs[i] = table.getDoubleArrayTopic("fiducial_id_filters_set").publish();
+            // Nothing has been pushed yet, so the first request always goes out
+            priority[i] = Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Point the reef cameras at one reef side
+     * @param side Reef side, 0-5 in ReefState order
+     * @param red True for the red reef
+     * @return True if anything was pushed
+     */
+    public boolean setReefSide(int side, boolean red) {
+        if (side < 0 || side >= BLUE_REEF_TAGS.length) {
+            return clear();
+        }
+        return apply(CameraRegistry.Gains.FRONT, getReefTag(side, red), red ? RED_REEF_FILTER : BLUE_REEF_FILTER);
+    }
+
+    /**
+     * Point the reef cameras at a reef tag picked some other way, e.g. the one nearest the robot
+     * @param tagId Reef tag ID; anything else clears the targets
+     * @return True if anything was pushed
+     */
+    public boolean setReefTag(int tagId) {
+        if (contains(BLUE_REEF_TAGS, tagId)) {
+            return apply(CameraRegistry.Gains.FRONT, tagId, BLUE_REEF_FILTER);
+        }
+        if (contains(RED_REEF_TAGS, tagId)) {
+            return apply(CameraRegistry.Gains.FRONT, tagId, RED_REEF_FILTER);
+        }
+        return clear();
+    }
+
+    /**
+     * Point the human player cameras at a coral station
+     * @param left True for the station on the driver's left
+     * @param red True for the red stations
+     * @return True if anything was pushed
+     */
+    public boolean setStation(boolean left, boolean red) {
+        return apply(CameraRegistry.Gains.ELEVATOR, getStationTag(left, red), red ? RED_STATION_FILTER : BLUE_STATION_FILTER);
+    }
+
+    /**
+     * Let every camera see every tag and choose its own target
+     * @return True if anything was pushed
+     */
+    public boolean clear() {
+        return apply(null, NO_PRIORITY, ALL_TAGS_FILTER);
+    }
+
+    /**
+     * Also hand every new target tag to a listener, e.g. {@code VisionSubsystem::setTargetAprilTag}
+     * @param listener Called with the tag ID, or {@link #NO_PRIORITY} once cleared
+     */
+    public void setTargetListener(IntConsumer listener) {
+        targetListener = listener;
+    }
+
+    /**
+     * Push a target to one group of cameras
+     * @param group Cameras to change, or null for every camera
+     * @param tagId Priority ID
+     * @param tags Tag filter
+     * @return True if anything was pushed
+     */
+    private boolean apply(CameraRegistry.Gains group, int tagId, double[] tags) {
+        boolean changed = false;
+        for (int i = 0; i < priority.length; i++) {
+            if (group != null && gains[i] != group) {
+                continue;
+            }
+            if (priority[i] != tagId) {
+                priority[i] = tagId;
+                priorityPubs[i].set(tagId);
+                changed = true;
+            }
+            if (filter[i] != tags) {
+                filter[i] = tags;
+                filterPubs[i].set(tags);
+                changed = true;
+            }
+        }
+        if (changed) {
+            ntInstance.flush();
+            flushCount++;
+        }
+        if (tagId != targetTag) {
+            targetTag = tagId;
+            targetListener.accept(tagId);
+        }
+        return changed;
+    }
+
+    /**
+     * @param side Reef side, 0-5 in ReefState order
+     * @param red True for the red reef
+     * @return Tag on that side
+     */
+    public static int getReefTag(int side, boolean red) {
+        return red ? RED_REEF_TAGS[side] : BLUE_REEF_TAGS[side];
+    }
+
+    /**
+     * @param left True for the station on the driver's left
+     * @param red True for the red stations
+     * @return Tag on that station
+     */
+    public static int getStationTag(boolean left, boolean red) {
+        int[] tags = red ? RED_STATION_TAGS : BLUE_STATION_TAGS;
+        return left ? tags[0] : tags[1];
+    }
+
+    /**
+     * @return True if the Driver Station reports the red alliance; blue when unknown
+     */
+    public static boolean isRedAlliance() {
+        return DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red;
+    }
+
+    /**
+     * @return Priority ID last pushed to a camera
+     */
+    public int getPriorityTag(int cameraIndex) {
+        return priority[cameraIndex];
+    }
+
+    /**
+     * @return Number of tags a camera is filtered to
+     */
+    public int getFilterSize(int cameraIndex) {
+        return filter[cameraIndex] == null ? 0 : filter[cameraIndex].length;
+    }
+
+    /**
+     * @return Number of times a change was flushed to the cameras
+     */
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+    private static boolean contains(int[] tags, int tagId) {
+        for (int tag : tags) {
+            if (tag == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double[] toFilter(int[] tags) {
+        double[] values = new double[tags.length];
+        for (int i = 0; i < tags.length; i++) {
+            values[i] = tags[i];
+        }
+        return values;
+    }
+}
@@ -0,0 +1,184 @@
+package frc.robot.shared;
+
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Centers the robot on an AprilTag using one Limelight, all three axes at once.
+ * <p>
+ * {@link Limelight#CenterTy}, {@link Limelight#CenterTx} and
+ * {@link Limelight#CenterRotationRate} each re-check the target and read the camera
+ * separately. This controller reads tv, tx, ta and the robot-space target pose once
+ * per {@link #calculate()} through a cached {@link LimelightHandle}, checks validity
+ * once, and produces forward, strafe and rotation outputs together.
+ * </p>
+ * <p>
+ * By default the axes use the same proportional (and area PID) math as the
+ * Limelight methods. In profiled mode each axis instead chases a trapezoid-profiled
+ * setpoint, which lets the robot approach quickly without overshooting the tag. The
+ * profiles restart when the tag is reacquired or the controller has not been run for
+ * a few loops.
+ * </p>
+ */
+public class ReefAlignmentController {
+    /** Where the tag should end up in the camera image, and how close counts as done */
+    public record Target(
+        double targetArea, double areaThreshold,
+        double targetTx, double txThreshold,
+        double targetRz, double rzThreshold
+    ) {}
+
+    // Profile limits in camera units per second (area %, degrees, degrees)
+    private static final TrapezoidProfile.Constraints AREA_CONSTRAINTS = new TrapezoidProfile.Constraints(8.0, 16.0);
+    private static final TrapezoidProfile.Constraints TX_CONSTRAINTS = new TrapezoidProfile.Constraints(40.0, 80.0);
+    private static final TrapezoidProfile.Constraints RZ_CONSTRAINTS = new TrapezoidProfile.Constraints(60.0, 120.0);
+
+    // Restart the profiles if calculate() has not run for this long
+    private static final double STALE_SECONDS = 0.1;
+
+    // The legacy Limelight.CenterTy/CenterTx output scales
+    private static final double AREA_OUTPUT_SCALE = 0.6;
+    private static final double TX_GAIN_SCALE = 0.75;
+
+    private final LimelightHandle handle;
+    private final Target target;
+    private final boolean profiled;
+
+    private final PIDController areaController;
+    private final ProfiledPIDController areaProfile;
+    private final ProfiledPIDController txProfile;
+    private final ProfiledPIDController rzProfile;
+
+    private final double[] targetPose = new double[6];
+
+    private boolean hasTarget = false;
+    private boolean wasTracking = false;
+    private double lastCalculate = Double.NEGATIVE_INFINITY;
+    private double forwardSpeed = 0.0;
+    private double strafeSpeed = 0.0;
+    private double rotationRate = 0.0;
+
+    /**
+     * Create a controller for one of the {@link Limelight#staticLimelights}, using the
+     * same area gains {@link Limelight} uses for that camera
+     * @param cameraIndex Limelight index
+     * @param target Where to center the tag
+     * @param profiled True to chase trapezoid-profiled setpoints
+     */
+    public static ReefAlignmentController forCamera(int cameraIndex, Target target, boolean profiled) {
+        // Front and elevator cameras are tuned separately
+        boolean front = Limelight.getGains(cameraIndex) == CameraRegistry.Gains.FRONT;
+        return new ReefAlignmentController(
+            LimelightHelpers.getHandle(Limelight.staticLimelights[cameraIndex]),
+            target,
+            front ? Limelight.kFPY : Limelight.kEPY,
+            front ? Limelight.kFDY : Limelight.kEDY,
+            profiled
+        );
+    }
+
+    /**
+     * Create a controller
+     * @param handle Camera to read
+     * @param target Where to center the tag
+     * @param areaKp Proportional gain on target area
+     * @param areaKd Derivative gain on target area
+     * @param profiled True to chase trapezoid-profiled setpoints
+     */
+    public ReefAlignmentController(LimelightHandle handle, Target target, double areaKp, double areaKd, boolean profiled) {
+        this.handle = handle;
+        this.target = target;
+        this.profiled = profiled;
+
+        areaController = new PIDController(areaKp, 0, areaKd);
+        areaProfile = new ProfiledPIDController(areaKp, 0, areaKd, AREA_CONSTRAINTS);
+        txProfile = new ProfiledPIDController(Limelight.kPX * TX_GAIN_SCALE, 0, 0, TX_CONSTRAINTS);
+        rzProfile = new ProfiledPIDController(Limelight.kPR, 0, 0, RZ_CONSTRAINTS);
+    }
+
+    /**
+     * Read the camera once and update all three outputs. Call once per loop.
+     */
+    public void calculate() {
+        double now = Timer.getFPGATimestamp();
+        boolean stale = now - lastCalculate > STALE_SECONDS;
+        lastCalculate = now;
+
+        hasTarget = handle.getTV();
+        if (!hasTarget) {
+            wasTracking = false;
+            forwardSpeed = 0.0;
+            strafeSpeed = 0.0;
+            rotationRate = 0.0;
+            return;
+        }
+
+        double ta = handle.getTA();
+        double tx = handle.getTX();
+        double rz = handle.getTargetPose_RobotSpace(targetPose) > 4 ? targetPose[4] : 0.0;
+
+        if (profiled) {
+            if (!wasTracking || stale) {
+                areaProfile.reset(ta);
+                txProfile.reset(tx);
+                rzProfile.reset(rz);
+            }
+            forwardSpeed = areaProfile.calculate(ta, target.targetArea()) * AREA_OUTPUT_SCALE;
+            strafeSpeed = txProfile.calculate(tx, target.targetTx());
+            rotationRate = rzProfile.calculate(rz, target.targetRz());
+        } else {
+            forwardSpeed = areaController.calculate(ta, target.targetArea()) * AREA_OUTPUT_SCALE;
+            strafeSpeed = (target.targetTx() - tx) * Limelight.kPX * TX_GAIN_SCALE;
+            rotationRate = (target.targetRz() - rz) * Limelight.kPR;
+        }
+        wasTracking = true;
+
+        // Hold each axis once it is inside its threshold
+        if (Math.abs(target.targetArea() - ta) <= target.areaThreshold()) {
+            forwardSpeed = 0.0;
+        }
+        if (Math.abs(target.targetTx() - tx) <= target.txThreshold()) {
+            strafeSpeed = 0.0;
+        }
+        if (Math.abs(target.targetRz() - rz) <= target.rzThreshold()) {
+            rotationRate = 0.0;
+        }
+    }
+
+    /**
+     * @return True if the camera saw a tag on the last {@link #calculate()}
+     */
+    public boolean hasTarget() {
+        return hasTarget;
+    }
+
+    /**
+     * @return True if a tag is visible and every axis is inside its threshold
+     */
+    public boolean isAligned() {
+        return hasTarget && forwardSpeed == 0.0 && strafeSpeed == 0.0 && rotationRate == 0.0;
+    }
+
+    /**
+     * @return Robot-relative forward output, scaled like {@link Limelight#CenterTy}
+     */
+    public double getForwardSpeed() {
+        return forwardSpeed;
+    }
+
+    /**
+     * @return Robot-relative left output, scaled like {@link Limelight#CenterTx}
+     */
+    public double getStrafeSpeed() {
+        return strafeSpeed;
+    }
+
+    /**
+     * @return Counterclockwise output, scaled like {@link Limelight#CenterRotationRate}
+     */
+    public double getRotationRate() {
+        return rotationRate;
+    }
+}
@@ -0,0 +1,179 @@
+package frc.robot.shared;
+
+import java.util.Optional;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.controller.HolonomicDriveController;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.ProfiledPIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+
+/**
+ * Field-pose reef alignment.
+ * <p>
+ * Instead of estimating distance from target area, the scoring pose for a reef
+ * branch is computed exactly from the tag's pose in the field AprilTag layout: the
+ * robot faces the tag from a fixed standoff, shifted sideways onto the left or right
+ * branch. A {@link HolonomicDriveController} then drives the fused field pose to it,
+ * so the same goal is reached every time regardless of which camera sees the tag.
+ * </p>
+ */
+public class ReefPoseAlignment {
+    /** Branch on either side of a reef face, as seen by a driver facing the tag */
+    public enum Branch {
+        LEFT(-1.0),
+        RIGHT(1.0);
+
+        // Sign of the sideways offset in the tag frame, where +y is the viewer's right
+        private final double tagFrameSign;
+
+        Branch(double tagFrameSign) {
+            this.tagFrameSign = tagFrameSign;
+        }
+    }
+
+    /** Reef tag IDs, red (6-11) then blue (17-22) */
+    public static final int[] REEF_TAG_IDS = {6, 7, 8, 9, 10, 11, 17, 18, 19, 20, 21, 22};
+
+    // Holonomic controller gains: m/s per meter of error, rad/s per radian of error
+    private static final double TRANSLATION_KP = 3.0;
+    private static final double ROTATION_KP = 4.0;
+    private static final TrapezoidProfile.Constraints ROTATION_CONSTRAINTS =
+        new TrapezoidProfile.Constraints(Math.PI * 2, Math.PI * 4);
+
+    private static AprilTagFieldLayout defaultLayout;
+
+    private final AprilTagFieldLayout layout;
+    private final double standoffMeters;
+    private final double branchOffsetMeters;
+    private final HolonomicDriveController controller;
+
+    /**
+     * Get the welded 2025 field layout, loaded once
+     */
+    public static synchronized AprilTagFieldLayout getDefaultLayout() {
+        if (defaultLayout == null) {
+            defaultLayout = AprilTagFieldLayout.loadField(AprilTagFields.k2025ReefscapeWelded);
+        }
+        return defaultLayout;
+    }
+
+    /**
+     * Create a reef aligner
+     * @param layout Field AprilTag layout
+     * @param standoffMeters Distance from the tag to the robot center when scoring
+     * @param branchOffsetMeters Sideways distance from the tag to each branch
+     * @param translationToleranceMeters Position error that counts as aligned
+     * @param rotationToleranceRadians Heading error that counts as aligned
+     */
+    public ReefPoseAlignment(
+        AprilTagFieldLayout layout,
+        double standoffMeters,
+        double branchOffsetMeters,
+        double translationToleranceMeters,
+        double rotationToleranceRadians
+    ) {
+        this.layout = layout;
+        this.standoffMeters = standoffMeters;
+        this.branchOffsetMeters = branchOffsetMeters;
+
+        ProfiledPIDController thetaController = new ProfiledPIDController(ROTATION_KP, 0, 0, ROTATION_CONSTRAINTS);
+        thetaController.enableContinuousInput(-Math.PI, Math.PI);
+        controller = new HolonomicDriveController(
+            new PIDController(TRANSLATION_KP, 0, 0),
+            new PIDController(TRANSLATION_KP, 0, 0),
+            thetaController
+        );
+        controller.setTolerance(new Pose2d(
+            translationToleranceMeters,
+            translationToleranceMeters,
+            Rotation2d.fromRadians(rotationToleranceRadians)
+        ));
+    }
+
+    /**
+     * Check whether a tag is on the reef
+     */
+    public static boolean isReefTag(int tagId) {
+        for (int id : REEF_TAG_IDS) {
+            if (id == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compute where the robot should be to score on a branch
+     * @param tagId Reef tag ID
+     * @param branch Branch beside the tag
+     * @return Field-relative scoring pose, empty if the tag is not a reef tag in the layout
+     */
+    public Optional<Pose2d> getScoringPose(int tagId, Branch branch) {
+        if (!isReefTag(tagId)) {
+            return Optional.empty();
+        }
+        Optional<Pose3d> tagPose = layout.getTagPose(tagId);
+        if (tagPose.isEmpty()) {
+            return Optional.empty();
+        }
+        // Tag +x points out of the reef; back off along it and turn around to face the tag
+        return Optional.of(tagPose.get().toPose2d().transformBy(new Transform2d(
+            standoffMeters,
+            branch.tagFrameSign * branchOffsetMeters,
+            Rotation2d.k180deg
+        )));
+    }
+
+    /**
+     * Find the reef tag closest to the robot, for when no camera currently sees one
+     * @param robotPose Field-relative robot pose
+     * @return Closest reef tag ID in the layout, or -1 if the layout has none
+     */
+    public int getNearestReefTag(Pose2d robotPose) {
+        int nearest = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int id : REEF_TAG_IDS) {
+            Optional<Pose3d> tagPose = layout.getTagPose(id);
+            if (tagPose.isEmpty()) {
+                continue;
+            }
+            double distance = tagPose.get().toPose2d().getTranslation().getDistance(robotPose.getTranslation());
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = id;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Restart the heading profile from the current pose. Call when a new goal is chosen.
+     */
+    public void reset(Pose2d currentPose) {
+        controller.getThetaController().reset(currentPose.getRotation().getRadians());
+    }
+
+    /**
+     * Compute robot-relative speeds toward the goal
+     * @param currentPose Field-relative fused pose
+     * @param goal Field-relative scoring pose
+     * @return Robot-relative chassis speeds
+     */
+    public ChassisSpeeds calculate(Pose2d currentPose, Pose2d goal) {
+        return controller.calculate(currentPose, goal, 0.0, goal.getRotation());
+    }
+
+    /**
+     * @return True if the last {@link #calculate} was within tolerance of the goal
+     */
+    public boolean atGoal() {
+        return controller.atReference();
+    }
+}
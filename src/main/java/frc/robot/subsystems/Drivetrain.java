@@ -0,0 +1,191 @@
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Preferences;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.replay.DriveStateLog;
+import frc.robot.subsystems.swerve.TunerConstants;
+
+/**
+ * What commands need from a swerve drivetrain, so either implementation can run them.
+ * <p>
+ * {@link SwerveDriveSubsystem} is the Phoenix 5 drivetrain with roboRIO or onboard
+ * module control; {@link frc.robot.subsystems.swerve.CommandSwerveDrivetrain} is the
+ * Phoenix 6 drivetrain with CTRE's 250 Hz odometry. Which one the robot builds is
+ * read from the {@value #PREFERENCE_KEY} preference at startup, so it can be switched
+ * from the dashboard without redeploying.
+ * </p>
+ * <p>
+ * Field-relative speeds are in the blue-origin field frame of {@link #getPose()}:
+ * +x points away from the blue alliance wall, and both drivetrains rotate by the
+ * estimated heading, so {@link #resetPose(Pose2d)} and {@link #seedFieldCentric()}
+ * change how they drive. Driver sticks go through
+ * {@link #driveFromDriverStation}, the only place the red alliance is flipped.
+ * </p>
+ */
+public interface Drivetrain extends Subsystem {
+    /** Preference holding the {@link Type} name to build */
+    String PREFERENCE_KEY = "Drivetrain";
+
+    /** Drivetrain built when the preference is unset or unknown */
+    Type DEFAULT_TYPE = Type.LEGACY;
+
+    /** Available drivetrains */
+    enum Type {
+        LEGACY,
+        CTRE;
+
+        /**
+         * Parse a type name, ignoring case
+         * @param name Type name
+         * @param fallback Type to use if the name is not recognized
+         * @return Parsed type, or the fallback
+         */
+        public static Type parse(String name, Type fallback) {
+            if (name != null) {
+                for (Type type : values()) {
+                    if (type.name().equalsIgnoreCase(name.trim())) {
+                        return type;
+                    }
+                }
+            }
+            return fallback;
+        }
+    }
+
+    /**
+     * Drive with given velocities
+     * @param xSpeed Forward/backward speed (m/s)
+     * @param ySpeed Left/right speed (m/s)
+     * @param rotSpeed Rotational speed (rad/s)
+     * @param fieldRelative Whether the speeds are field-relative, from the blue alliance wall
+     */
+    void drive(double xSpeed, double ySpeed, double rotSpeed, boolean fieldRelative);
+
+    /**
+     * Drive field-relative from the driver's point of view: +x is away from the
+     * driver's own alliance wall, so on red the translation is flipped into the
+     * blue-origin field frame.
+     * @param xSpeed Speed away from the driver (m/s)
+     * @param ySpeed Speed to the driver's left (m/s)
+     * @param rotSpeed Rotational speed (rad/s)
+     * @param deadband Translation deadband (m/s)
+     * @param rotationalDeadband Rotation deadband (rad/s)
+     */
+    default void driveFromDriverStation(double xSpeed, double ySpeed, double rotSpeed, double deadband, double rotationalDeadband) {
+        double flip = isRedAlliance() ? -1.0 : 1.0;
+        drive(xSpeed * flip, ySpeed * flip, rotSpeed, true, deadband, rotationalDeadband);
+    }
+
+    /**
+     * Drive with given velocities, treating small ones as zero. Translation is dropped
+     * when its speed is inside the deadband, rotation when its rate is inside the
+     * rotational deadband, like the deadbands on CTRE swerve requests.
+     * @param xSpeed Forward/backward speed (m/s)
+     * @param ySpeed Left/right speed (m/s)
+     * @param rotSpeed Rotational speed (rad/s)
+     * @param fieldRelative Whether the speeds are field-relative, from the blue alliance wall
+     * @param deadband Translation deadband (m/s)
+     * @param rotationalDeadband Rotation deadband (rad/s)
+     */
+    default void drive(double xSpeed, double ySpeed, double rotSpeed, boolean fieldRelative, double deadband, double rotationalDeadband) {
+        if (Math.hypot(xSpeed, ySpeed) < deadband) {
+            xSpeed = 0.0;
+            ySpeed = 0.0;
+        }
+        if (Math.abs(rotSpeed) < rotationalDeadband) {
+            rotSpeed = 0.0;
+        }
+        drive(xSpeed, ySpeed, rotSpeed, fieldRelative);
+    }
+
+    /**
+     * Drive with robot-relative chassis speeds, e.g. from a path follower
+     * @param speeds Robot-relative chassis speeds
+     */
+    void drive(ChassisSpeeds speeds);
+
+    /**
+     * @return Current robot-relative chassis speeds
+     */
+    ChassisSpeeds getChassisSpeeds();
+
+    /**
+     * @return Current estimated field pose, with vision fused in when a vision subsystem is set
+     */
+    Pose2d getPose();
+
+    /**
+     * Reset the estimated field pose
+     * @param pose New pose
+     */
+    void resetPose(Pose2d pose);
+
+    /**
+     * Make the robot's current heading point away from the driver's alliance wall,
+     * keeping its position
+     */
+    default void seedFieldCentric() {
+        resetPose(new Pose2d(getPose().getTranslation(), isRedAlliance() ? Rotation2d.k180deg : Rotation2d.kZero));
+    }
+
+    /**
+     * @return True if the Driver Station reports the red alliance; blue when unknown
+     */
+    private static boolean isRedAlliance() {
+        return DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red;
+    }
+
+    /**
+     * Set the vision subsystem to fuse into the pose estimate
+     * @param visionSubsystem The vision subsystem
+     */
+    void setVisionSubsystem(VisionSubsystem visionSubsystem);
+
+    /**
+     * Enable or disable vision-assisted pose estimation
+     * @param enabled Whether vision should be used
+     */
+    void setVisionEnabled(boolean enabled);
+
+    /**
+     * Log every odometry update's module positions, raw gyro heading and estimated
+     * pose, for offline replay
+     * @param log Log to append to, or null to stop logging
+     */
+    void setDriveStateLog(DriveStateLog log);
+
+    /**
+     * Read which drivetrain to build from preferences
+     * @return Selected type, {@link #DEFAULT_TYPE} if unset or unknown
+     */
+    static Type getSelectedType() {
+        Preferences.initString(PREFERENCE_KEY, DEFAULT_TYPE.name());
+        String name = Preferences.getString(PREFERENCE_KEY, DEFAULT_TYPE.name());
+        Type type = Type.parse(name, null);
+        if (type == null) {
+            DriverStation.reportWarning("Unknown drivetrain '" + name + "', using " + DEFAULT_TYPE, false);
+            return DEFAULT_TYPE;
+        }
+        return type;
+    }
+
+    /**
+     * Build a drivetrain. Only build one per robot; both own the drive motors.
+     * @param type Drivetrain to build
+     * @return New drivetrain
+     */
+    static Drivetrain create(Type type) {
+        switch (type) {
+            case CTRE:
+                return TunerConstants.createDrivetrain();
+            case LEGACY:
+            default:
+                return new SwerveDriveSubsystem();
+        }
+    }
+}
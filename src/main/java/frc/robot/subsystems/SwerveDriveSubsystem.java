@@ -1,5 +1,7 @@
 package frc.robot.subsystems;
 
+import java.util.function.Consumer;
+
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
@@ -8,20 +10,27 @@ import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj.ADIS16470_IMU;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.ADIS16470_IMUSim;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants;
 import frc.robot.Constants.PIDConfig;
-import frc.robot.Constants.VisionConstants;
-import frc.robot.subsystems.VisionSubsystem.LimelightMeasurement;
-
-import java.util.List;
+import frc.robot.replay.DriveStateLog;
+import frc.robot.subsystems.vision.VisionEstimatorStage;
 
-public class SwerveDriveSubsystem extends SubsystemBase {
+public class SwerveDriveSubsystem extends SubsystemBase implements Drivetrain, AutoCloseable {
   // Create IMU (gyro)
   private final ADIS16470_IMU imu = new ADIS16470_IMU();
   
+  // Simulated gyro, turned by the module states; null on the robot
+  private ADIS16470_IMUSim imuSim;
+  private double simYawDegrees = 0.0;
+  private double lastSimTime = Double.NaN;
+  private final ChassisSpeeds simSpeeds = new ChassisSpeeds();
+  
   // Create swerve modules
   private final SwerveModule frontLeft = new SwerveModule(
     Constants.FRONT_LEFT_DRIVE_MOTOR_ID,
@@ -59,6 +68,9 @@ public class SwerveDriveSubsystem extends SubsystemBase {
     Constants.DEFAULT_TURN_PID
   );
   
+  // Modules in kinematics order
+  private final SwerveModule[] modules = {frontLeft, frontRight, backLeft, backRight};
+  
   // Kinematics
   private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(
     Constants.FRONT_LEFT_MODULE_POSITION,
@@ -67,8 +79,21 @@ public class SwerveDriveSubsystem extends SubsystemBase {
     Constants.BACK_RIGHT_MODULE_POSITION
   );
   
-  // Pose estimator (combines odometry and vision)
+  // Same kinematics in reused buffers, so driving allocates nothing
+  private final SwerveKinematicsBuffer driveKinematics = new SwerveKinematicsBuffer(
+    Constants.FRONT_LEFT_MODULE_POSITION,
+    Constants.FRONT_RIGHT_MODULE_POSITION,
+    Constants.BACK_LEFT_MODULE_POSITION,
+    Constants.BACK_RIGHT_MODULE_POSITION
+  );
+  
+  // Heading last handed to the estimator, reused while the gyro reads the same angle
+  private double odometryHeadingDegrees = 0.0;
+  private Rotation2d odometryHeading = new Rotation2d();
+  
+  // Pose estimator (combines odometry and vision), only touched through the odometry thread
   private final SwerveDrivePoseEstimator poseEstimator;
+  private final SwerveOdometryThread odometry;
   
   // Field visualization
   private final Field2d field2d = new Field2d();
@@ -79,6 +104,10 @@ public class SwerveDriveSubsystem extends SubsystemBase {
   // Flag to enable/disable vision-assisted pose estimation
   private boolean visionEnabled = true;
   
+  // Combines each loop's camera measurements into one estimator update per capture time
+  private final VisionEstimatorStage visionStage = VisionEstimatorStage.create(1.0);
+  private final Consumer<SwerveDrivePoseEstimator> applyVision = estimator -> visionStage.apply(estimator);
+  
   public SwerveDriveSubsystem() {
     // Reset IMU
     imu.reset();
@@ -97,14 +126,33 @@ public class SwerveDriveSubsystem extends SubsystemBase {
       new Pose2d() // Initial pose
     );
     
+    // Sample the modules and gyro faster than the main loop
+    odometry = new SwerveOdometryThread(poseEstimator, this::readOdometry, modules.length, Constants.ODOMETRY_FREQUENCY_HZ);
+    if (Constants.ODOMETRY_THREAD_ENABLED) {
+      odometry.start();
+    }
+    
     // Add field visualization to SmartDashboard
     SmartDashboard.putData("Field", field2d);
+    
+    if (RobotBase.isSimulation()) {
+      imuSim = new ADIS16470_IMUSim(imu);
+    }
+  }
+  
+  /**
+   * Stop the odometry thread
+   */
+  @Override
+  public void close() {
+    odometry.close();
   }
   
   /**
    * Set the vision subsystem reference
    * @param visionSubsystem The vision subsystem
    */
+  @Override
   public void setVisionSubsystem(VisionSubsystem visionSubsystem) {
     this.visionSubsystem = visionSubsystem;
   }
@@ -113,49 +161,58 @@ public class SwerveDriveSubsystem extends SubsystemBase {
    * Enable or disable vision-assisted pose estimation
    * @param enabled Whether vision should be used
    */
+  @Override
   public void setVisionEnabled(boolean enabled) {
     this.visionEnabled = enabled;
     SmartDashboard.putBoolean("Drive/Vision Enabled", enabled);
   }
   
+  /**
+   * Log every odometry sample for offline replay
+   * @param log Log to append to, or null to stop logging
+   */
+  @Override
+  public void setDriveStateLog(DriveStateLog log) {
+    odometry.setSampleListener(log == null ? null
+      : (positions, heading, pose, timestamp) -> log.append(positions, heading.getDegrees(), pose, timestamp));
+  }
+  
   @Override
   public void periodic() {
-    // Update pose estimator with latest module positions and gyro angle
-    poseEstimator.update(
-      getRotation2d(),
-      new SwerveModulePosition[] {
-        frontLeft.getPosition(),
-        frontRight.getPosition(),
-        backLeft.getPosition(),
-        backRight.getPosition()
-      }
-    );
+    // Without the odometry thread, refresh the module signals and update the estimator once per loop
+    if (!odometry.isRunning()) {
+      odometry.sample();
+    }
     
     // If vision is enabled and vision subsystem is available, add vision measurements
     if (visionEnabled && visionSubsystem != null) {
-      List<LimelightMeasurement> visionMeasurements = visionSubsystem.getAllVisionMeasurements();
+      // MegaTag2 solves with our heading, so hand the cameras the latest estimate
+      visionSubsystem.setRobotOrientation(
+        odometry.getPose().getRotation().getDegrees(),
+        imu.getRate()
+      );
       
-      for (LimelightMeasurement measurement : visionMeasurements) {
-        // Calculate standard deviations based on measurement quality
-        // Lower ambiguity and higher target area = more trust in the measurement
-        double ambiguityFactor = Math.min(5.0, measurement.ambiguity() * 10.0);
-        double areaFactor = Math.max(0.5, 5.0 / Math.max(0.1, measurement.targetArea()));
-        
-        double xStdDev = VisionConstants.VISION_STD_DEV_X * ambiguityFactor * areaFactor;
-        double yStdDev = VisionConstants.VISION_STD_DEV_Y * ambiguityFactor * areaFactor;
-        double thetaStdDev = VisionConstants.VISION_STD_DEV_THETA * ambiguityFactor * areaFactor;
-        
-        // Add vision measurement to pose estimator with calculated standard deviations
-        poseEstimator.addVisionMeasurement(
-          measurement.pose(),
-          measurement.timestamp(),
-          new double[] {xStdDev, yStdDev, thetaStdDev}
-        );
+      int measurementCount = visionSubsystem.getVisionMeasurementCount();
+      
+      // Fuse the cameras that captured at the same time, checked against odometry,
+      // then give the estimator one vision update per capture time
+      visionStage.reset();
+      for (int i = 0; i < measurementCount; i++) {
+        visionStage.add(visionSubsystem.getVisionMeasurement(i));
       }
+      odometry.withEstimator(applyVision);
+      
+      SmartDashboard.putNumber("Drive/Vision Fused", visionStage.getFusion().getFusedCount());
+      SmartDashboard.putNumber("Drive/Vision Rejected", visionStage.getFusion().getRejectedCount());
     }
     
     // Get current estimated pose
-    Pose2d pose = poseEstimator.getEstimatedPosition();
+    Pose2d pose = odometry.getPose();
+    
+    // Keep the cameras cropped around the target tag
+    if (visionSubsystem != null) {
+      visionSubsystem.updateCameraTuning(pose);
+    }
     
     // Update field visualization
     field2d.setRobotPose(pose);
@@ -164,17 +221,52 @@ public class SwerveDriveSubsystem extends SubsystemBase {
     SmartDashboard.putNumber("Robot X", pose.getX());
     SmartDashboard.putNumber("Robot Y", pose.getY());
     SmartDashboard.putNumber("Robot Heading", pose.getRotation().getDegrees());
+    SmartDashboard.putNumber("Drive/Odometry Samples", odometry.getSampleCount());
+    SmartDashboard.putNumber("Drive/Odometry Fresh Samples", odometry.getFreshSampleCount());
+    SmartDashboard.putNumber("Drive/Odometry p99 ms", odometry.getSampleTimePercentile(99.0));
+    double now = Timer.getFPGATimestamp();
+    SmartDashboard.putNumber("Drive/FL Signal Age ms", getSignalAgeMillis(frontLeft, now));
+    SmartDashboard.putNumber("Drive/FR Signal Age ms", getSignalAgeMillis(frontRight, now));
+    SmartDashboard.putNumber("Drive/BL Signal Age ms", getSignalAgeMillis(backLeft, now));
+    SmartDashboard.putNumber("Drive/BR Signal Age ms", getSignalAgeMillis(backRight, now));
     
     // Publish module states
-    SmartDashboard.putNumber("FL Speed", frontLeft.getState().speedMetersPerSecond);
-    SmartDashboard.putNumber("FR Speed", frontRight.getState().speedMetersPerSecond);
-    SmartDashboard.putNumber("BL Speed", backLeft.getState().speedMetersPerSecond);
-    SmartDashboard.putNumber("BR Speed", backRight.getState().speedMetersPerSecond);
+    SmartDashboard.putNumber("FL Speed", frontLeft.getVelocityMetersPerSecond());
+    SmartDashboard.putNumber("FR Speed", frontRight.getVelocityMetersPerSecond());
+    SmartDashboard.putNumber("BL Speed", backLeft.getVelocityMetersPerSecond());
+    SmartDashboard.putNumber("BR Speed", backRight.getVelocityMetersPerSecond());
     
-    SmartDashboard.putNumber("FL Angle", frontLeft.getState().angle.getDegrees());
-    SmartDashboard.putNumber("FR Angle", frontRight.getState().angle.getDegrees());
-    SmartDashboard.putNumber("BL Angle", backLeft.getState().angle.getDegrees());
-    SmartDashboard.putNumber("BR Angle", backRight.getState().angle.getDegrees());
+    SmartDashboard.putNumber("FL Angle", Math.toDegrees(frontLeft.getAngleRadians()));
+    SmartDashboard.putNumber("FR Angle", Math.toDegrees(frontRight.getAngleRadians()));
+    SmartDashboard.putNumber("BL Angle", Math.toDegrees(backLeft.getAngleRadians()));
+    SmartDashboard.putNumber("BR Angle", Math.toDegrees(backRight.getAngleRadians()));
+  }
+  
+  /**
+   * Time since a module's signals were last refreshed
+   * 
+   * @param module Module to check
+   * @param now Current FPGA timestamp (seconds)
+   * @return Signal age in milliseconds
+   */
+  private static double getSignalAgeMillis(SwerveModule module, double now) {
+    return (now - module.getSignals().getTimestamp()) * 1000.0;
+  }
+  
+  @Override
+  public void simulationPeriodic() {
+    double now = Timer.getFPGATimestamp();
+    double dt = Double.isNaN(lastSimTime) ? 0.0 : now - lastSimTime;
+    lastSimTime = now;
+    
+    for (SwerveModule module : modules) {
+      module.simulationUpdate(dt);
+    }
+    
+    // Turn the simulated gyro at the rate the modules are turning the robot
+    getChassisSpeeds(simSpeeds);
+    simYawDegrees += Math.toDegrees(simSpeeds.omegaRadiansPerSecond * dt);
+    imuSim.setGyroAngleZ(simYawDegrees);
   }
   
   /**
@@ -183,23 +275,38 @@ public class SwerveDriveSubsystem extends SubsystemBase {
    * @param xSpeed Forward/backward speed (m/s)
    * @param ySpeed Left/right speed (m/s)
    * @param rotSpeed Rotational speed (rad/s)
-   * @param fieldRelative Whether the drive is field-relative
+   * @param fieldRelative Whether the drive is field-relative, from the blue alliance wall
    */
+  @Override
   public void drive(double xSpeed, double ySpeed, double rotSpeed, boolean fieldRelative) {
-    ChassisSpeeds chassisSpeeds = fieldRelative
-      ? ChassisSpeeds.fromFieldRelativeSpeeds(xSpeed, ySpeed, rotSpeed, getRotation2d())
-      : new ChassisSpeeds(xSpeed, ySpeed, rotSpeed);
-      
-    SwerveModuleState[] moduleStates = kinematics.toSwerveModuleStates(chassisSpeeds);
-    
+    if (fieldRelative) {
+      // Estimated heading, not the raw gyro, so resets and vision move the field frame too
+      driveKinematics.toModuleStatesFieldRelative(xSpeed, ySpeed, rotSpeed, odometry.getPose().getRotation().getRadians());
+    } else {
+      driveKinematics.toModuleStates(xSpeed, ySpeed, rotSpeed);
+    }
+    applyModuleStates();
+  }
+  
+  /**
+   * Drive the robot with robot-relative chassis speeds, e.g. from a path follower
+   * 
+   * @param speeds Robot-relative chassis speeds
+   */
+  @Override
+  public void drive(ChassisSpeeds speeds) {
+    driveKinematics.toModuleStates(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond, speeds.omegaRadiansPerSecond);
+    applyModuleStates();
+  }
+  
+  private void applyModuleStates() {
     // Normalize wheel speeds if any exceed the maximum velocity
-    SwerveDriveKinematics.desaturateWheelSpeeds(moduleStates, Constants.MAX_VELOCITY_METERS_PER_SECOND);
+    driveKinematics.desaturate(Constants.MAX_VELOCITY_METERS_PER_SECOND);
     
     // Set the module states
-    frontLeft.setDesiredState(moduleStates[0]);
-    frontRight.setDesiredState(moduleStates[1]);
-    backLeft.setDesiredState(moduleStates[2]);
-    backRight.setDesiredState(moduleStates[3]);
+    for (int i = 0; i < modules.length; i++) {
+      modules[i].setDesiredState(driveKinematics.getSpeed(i), driveKinematics.getAngle(i));
+    }
   }
   
   /**
@@ -212,10 +319,9 @@ public class SwerveDriveSubsystem extends SubsystemBase {
     SwerveDriveKinematics.desaturateWheelSpeeds(moduleStates, Constants.MAX_VELOCITY_METERS_PER_SECOND);
     
     // Set the module states
-    frontLeft.setDesiredState(moduleStates[0]);
-    frontRight.setDesiredState(moduleStates[1]);
-    backLeft.setDesiredState(moduleStates[2]);
-    backRight.setDesiredState(moduleStates[3]);
+    for (int i = 0; i < modules.length; i++) {
+      modules[i].setDesiredState(moduleStates[i].speedMetersPerSecond, moduleStates[i].angle.getRadians());
+    }
   }
   
   /**
@@ -223,13 +329,23 @@ public class SwerveDriveSubsystem extends SubsystemBase {
    * 
    * @return Current chassis speeds
    */
+  @Override
   public ChassisSpeeds getChassisSpeeds() {
-    return kinematics.toChassisSpeeds(
-      frontLeft.getState(),
-      frontRight.getState(),
-      backLeft.getState(),
-      backRight.getState()
-    );
+    ChassisSpeeds speeds = new ChassisSpeeds();
+    getChassisSpeeds(speeds);
+    return speeds;
+  }
+  
+  /**
+   * Get the current chassis speeds without allocating
+   * 
+   * @param speeds Filled with the current robot-relative chassis speeds
+   */
+  public void getChassisSpeeds(ChassisSpeeds speeds) {
+    for (int i = 0; i < modules.length; i++) {
+      modules[i].getSignals().copyMeasured(driveKinematics, i);
+    }
+    driveKinematics.toChassisSpeeds(speeds);
   }
   
   /**
@@ -270,8 +386,18 @@ public class SwerveDriveSubsystem extends SubsystemBase {
    * 
    * @return Current estimated pose
    */
+  @Override
   public Pose2d getPose() {
-    return poseEstimator.getEstimatedPosition();
+    return odometry.getPose();
+  }
+  
+  /**
+   * Get the latest odometry sample, with its timestamp
+   * 
+   * @return Latest odometry snapshot
+   */
+  public SwerveOdometryThread.Snapshot getOdometrySnapshot() {
+    return odometry.getSnapshot();
   }
   
   /**
@@ -279,16 +405,30 @@ public class SwerveDriveSubsystem extends SubsystemBase {
    * 
    * @param pose New pose
    */
+  @Override
   public void resetPose(Pose2d pose) {
-    poseEstimator.resetPosition(
-      getRotation2d(),
-      new SwerveModulePosition[] {
-        frontLeft.getPosition(),
-        frontRight.getPosition(),
-        backLeft.getPosition(),
-        backRight.getPosition()
-      },
-      pose
-    );
+    odometry.resetPosition(pose);
+  }
+  
+  /**
+   * Refresh every module's signals in one pass and read the gyro. Runs on the
+   * odometry thread, or from periodic() when the thread is off, so drive commands
+   * and telemetry later in the cycle read the cached values.
+   * 
+   * @param positions Filled with each module's position
+   * @return Gyro heading
+   */
+  private Rotation2d readOdometry(SwerveModulePosition[] positions) {
+    double now = Timer.getFPGATimestamp();
+    for (int i = 0; i < modules.length; i++) {
+      modules[i].refreshSignals(now);
+      modules[i].updatePosition(positions[i]);
+    }
+    double degrees = imu.getAngle();
+    if (degrees != odometryHeadingDegrees) {
+      odometryHeadingDegrees = degrees;
+      odometryHeading = Rotation2d.fromDegrees(degrees);
+    }
+    return odometryHeading;
   }
 }
\ No newline at end of file
@@ -0,0 +1,166 @@
+package frc.robot.subsystems;
+
+import org.ejml.simple.SimpleMatrix;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Swerve kinematics that work in preallocated buffers instead of returning new objects.
+ * <p>
+ * Same math as {@link edu.wpi.first.math.kinematics.SwerveDriveKinematics}, but
+ * module speeds and angles are kept as primitive arrays that are overwritten every
+ * call, so driving and reading back chassis speeds allocate nothing. Not thread
+ * safe; use one buffer per thread.
+ * </p>
+ */
+public class SwerveKinematicsBuffer {
+    private final int moduleCount;
+    private final double[] moduleX;
+    private final double[] moduleY;
+
+    // Forward kinematics: 3 x 2n pseudo-inverse of the inverse kinematics matrix, row major
+    private final double[] forward;
+
+    // Desired module states from the last toModuleStates call
+    private final double[] speeds;
+    private final double[] angles;
+
+    // Measured module velocities, x and y interleaved
+    private final double[] measured;
+
+    /**
+     * Create a buffer for a drivetrain
+     * @param modulePositions Module locations relative to the robot center
+     */
+    public SwerveKinematicsBuffer(Translation2d... modulePositions) {
+        if (modulePositions.length < 2) {
+            throw new IllegalArgumentException("A swerve drive requires at least two modules");
+        }
+        moduleCount = modulePositions.length;
+        moduleX = new double[moduleCount];
+        moduleY = new double[moduleCount];
+        speeds = new double[moduleCount];
+        angles = new double[moduleCount];
+        measured = new double[moduleCount * 2];
+
+        SimpleMatrix inverse = new SimpleMatrix(moduleCount * 2, 3);
+        for (int i = 0; i < moduleCount; i++) {
+            moduleX[i] = modulePositions[i].getX();
+            moduleY[i] = modulePositions[i].getY();
+            inverse.setRow(i * 2, 0, 1, 0, -moduleY[i]);
+            inverse.setRow(i * 2 + 1, 0, 0, 1, moduleX[i]);
+        }
+        SimpleMatrix pseudoInverse = inverse.pseudoInverse();
+        forward = new double[3 * moduleCount * 2];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < moduleCount * 2; col++) {
+                forward[row * moduleCount * 2 + col] = pseudoInverse.get(row, col);
+            }
+        }
+    }
+
+    /**
+     * Compute each module's speed and angle for a robot-relative chassis velocity.
+     * When the robot is stopped, modules keep their previous angles.
+     * @param vx Forward velocity (m/s)
+     * @param vy Leftward velocity (m/s)
+     * @param omega Counterclockwise angular velocity (rad/s)
+     */
+    public void toModuleStates(double vx, double vy, double omega) {
+        if (vx == 0.0 && vy == 0.0 && omega == 0.0) {
+            for (int i = 0; i < moduleCount; i++) {
+                speeds[i] = 0.0;
+            }
+            return;
+        }
+        for (int i = 0; i < moduleCount; i++) {
+            double x = vx - omega * moduleY[i];
+            double y = vy + omega * moduleX[i];
+            speeds[i] = Math.hypot(x, y);
+            angles[i] = Math.atan2(y, x);
+        }
+    }
+
+    /**
+     * Compute each module's speed and angle for a field-relative chassis velocity
+     * @param vx Velocity away from the alliance wall (m/s)
+     * @param vy Leftward velocity from the driver's view (m/s)
+     * @param omega Counterclockwise angular velocity (rad/s)
+     * @param headingRadians Robot heading on the field
+     */
+    public void toModuleStatesFieldRelative(double vx, double vy, double omega, double headingRadians) {
+        // Rotate the field velocity into the robot frame, as ChassisSpeeds.fromFieldRelativeSpeeds does
+        double cos = Math.cos(headingRadians);
+        double sin = Math.sin(headingRadians);
+        toModuleStates(vx * cos + vy * sin, -vx * sin + vy * cos, omega);
+    }
+
+    /**
+     * Scale every module down together so none exceeds a speed
+     * @param maxSpeed Fastest a module may be commanded (m/s)
+     */
+    public void desaturate(double maxSpeed) {
+        double fastest = 0.0;
+        for (int i = 0; i < moduleCount; i++) {
+            fastest = Math.max(fastest, Math.abs(speeds[i]));
+        }
+        if (fastest > maxSpeed) {
+            double scale = maxSpeed / fastest;
+            for (int i = 0; i < moduleCount; i++) {
+                speeds[i] *= scale;
+            }
+        }
+    }
+
+    /**
+     * @return Desired speed of a module (m/s)
+     */
+    public double getSpeed(int moduleIndex) {
+        return speeds[moduleIndex];
+    }
+
+    /**
+     * @return Desired angle of a module (radians)
+     */
+    public double getAngle(int moduleIndex) {
+        return angles[moduleIndex];
+    }
+
+    /**
+     * Record a module's measured state for {@link #toChassisSpeeds(ChassisSpeeds)}
+     * @param moduleIndex Module index, in constructor order
+     * @param speed Measured wheel speed (m/s)
+     * @param angleRadians Measured module angle
+     */
+    public void setMeasured(int moduleIndex, double speed, double angleRadians) {
+        measured[moduleIndex * 2] = speed * Math.cos(angleRadians);
+        measured[moduleIndex * 2 + 1] = speed * Math.sin(angleRadians);
+    }
+
+    /**
+     * Solve the robot-relative chassis velocity from the measured module states
+     * @param out Filled with the chassis velocity
+     */
+    public void toChassisSpeeds(ChassisSpeeds out) {
+        int columns = moduleCount * 2;
+        double vx = 0.0;
+        double vy = 0.0;
+        double omega = 0.0;
+        for (int col = 0; col < columns; col++) {
+            vx += forward[col] * measured[col];
+            vy += forward[columns + col] * measured[col];
+            omega += forward[2 * columns + col] * measured[col];
+        }
+        out.vxMetersPerSecond = vx;
+        out.vyMetersPerSecond = vy;
+        out.omegaRadiansPerSecond = omega;
+    }
+
+    /**
+     * @return Number of modules
+     */
+    public int size() {
+        return moduleCount;
+    }
+}
@@ -1,20 +1,33 @@
 package frc.robot.subsystems;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
 import com.ctre.phoenix.motorcontrol.FeedbackDevice;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
+import com.ctre.phoenix.motorcontrol.TalonFXSimCollection;
 import com.ctre.phoenix.motorcontrol.can.TalonFX;
 import com.ctre.phoenix.sensors.CANCoder;
+import com.ctre.phoenix.sensors.CANCoderStatusFrame;
+import com.ctre.phoenix.sensors.CANCoderSimCollection;
+import com.ctre.phoenix.sensors.SensorInitializationStrategy;
 
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
 import frc.robot.Constants;
+import frc.robot.Constants.ModuleControlMode;
 import frc.robot.Constants.PIDConfig;
 
 public class SwerveModule {
+  // Steering speed at full output in simulation: Falcon 500 free speed through the turn gearing
+  private static final double SIM_TURN_FREE_SPEED_RADIANS_PER_SECOND =
+    Units.rotationsPerMinuteToRadiansPerSecond(6380.0) / Constants.TURN_GEAR_RATIO;
+  
   // Motors
   private final TalonFX driveMotor;
   private final TalonFX turnMotor;
@@ -26,6 +39,20 @@ public class SwerveModule {
   // PID controllers
   private PIDController turnPIDController;
   
+  // Where the turn and drive loops run
+  private final ModuleControlMode controlMode;
+  
+  // Turn feedback: radians per selected-sensor unit, and the angle reading zero
+  private final double turnPositionConversion;
+  private final double turnPositionOffset;
+  
+  // Sensor readings from the last refreshSignals() pass
+  private final SwerveModuleSignals signals = new SwerveModuleSignals();
+  
+  // Simulated mechanism, only used in simulation
+  private double simDistanceMeters = 0.0;
+  private double simAngleRadians = 0.0;
+  
   /**
    * Create a new swerve module
    * 
@@ -43,11 +70,35 @@ public class SwerveModule {
     double encoderOffset,
     PIDConfig drivePID,
     PIDConfig turnPID
+  ) {
+    this(driveMotorId, turnMotorId, encoderId, encoderOffset, drivePID, turnPID, Constants.MODULE_CONTROL_MODE);
+  }
+  
+  /**
+   * Create a new swerve module
+   * 
+   * @param driveMotorId CAN ID for drive motor
+   * @param turnMotorId CAN ID for turn motor
+   * @param encoderId CAN ID for absolute encoder
+   * @param encoderOffset Offset for absolute encoder
+   * @param drivePID PID configuration for drive motor
+   * @param turnPID PID configuration for turn motor
+   * @param controlMode Where the turn and drive loops run
+   */
+  public SwerveModule(
+    int driveMotorId,
+    int turnMotorId,
+    int encoderId,
+    double encoderOffset,
+    PIDConfig drivePID,
+    PIDConfig turnPID,
+    ModuleControlMode controlMode
   ) {
     driveMotor = new TalonFX(driveMotorId);
     turnMotor = new TalonFX(turnMotorId);
     absoluteEncoder = new CANCoder(encoderId);
     absoluteEncoderOffset = encoderOffset;
+    this.controlMode = controlMode;
     
     // Configure drive motor
     driveMotor.configFactoryDefault();
@@ -57,7 +108,30 @@ public class SwerveModule {
     // Configure turn motor
     turnMotor.configFactoryDefault();
     turnMotor.setNeutralMode(NeutralMode.Brake);
-    turnMotor.configSelectedFeedbackSensor(FeedbackDevice.IntegratedSensor);
+    if (controlMode == ModuleControlMode.ONBOARD) {
+      // Close the steering loop on the CANcoder itself, starting from its absolute angle
+      absoluteEncoder.configSensorInitializationStrategy(SensorInitializationStrategy.BootToAbsolutePosition);
+      absoluteEncoder.configSensorDirection(Constants.CANCODER_CLOCKWISE_POSITIVE);
+      absoluteEncoder.setStatusFramePeriod(CANCoderStatusFrame.SensorData, Constants.TURN_FEEDBACK_PERIOD_MS);
+      turnMotor.configRemoteFeedbackFilter(absoluteEncoder, 0);
+      turnMotor.configSelectedFeedbackSensor(FeedbackDevice.RemoteSensor0);
+      // Positive output has to move the remote sensor positive, or the loop runs away
+      turnMotor.setSensorPhase(Constants.TURN_SENSOR_PHASE);
+      // One loop per CANcoder frame, so the D term is not zero between frames and a spike on each
+      turnMotor.configClosedLoopPeriod(0, Constants.TURN_FEEDBACK_PERIOD_MS);
+      turnPositionConversion = Constants.CANCODER_POSITION_CONVERSION;
+      turnPositionOffset = Units.degreesToRadians(encoderOffset);
+    } else {
+      turnMotor.configSelectedFeedbackSensor(FeedbackDevice.IntegratedSensor);
+      turnPositionConversion = Constants.TURN_POSITION_CONVERSION;
+      turnPositionOffset = 0.0;
+    }
+    
+    // Positions arrive in the feedback frame, 20 ms by default; send it once per odometry
+    // sample or the odometry thread just re-reads the same value. In onboard mode the
+    // turn angle is still only as fresh as the CANcoder frame it forwards.
+    driveMotor.setStatusFramePeriod(StatusFrameEnhanced.Status_2_Feedback0, Constants.ODOMETRY_STATUS_FRAME_PERIOD_MS);
+    turnMotor.setStatusFramePeriod(StatusFrameEnhanced.Status_2_Feedback0, Constants.ODOMETRY_STATUS_FRAME_PERIOD_MS);
     
     // Configure drive PID
     driveMotor.config_kP(0, drivePID.kP);
@@ -68,9 +142,34 @@ public class SwerveModule {
     // Configure turn PID controller
     turnPIDController = new PIDController(turnPID.kP, turnPID.kI, turnPID.kD);
     turnPIDController.enableContinuousInput(-Math.PI, Math.PI);
+    configTurnMotorPID(turnPID);
     
     // Reset encoders
     resetEncoders();
+    refreshSignals(Timer.getFPGATimestamp());
+  }
+  
+  /**
+   * Read every motor signal in one pass and cache it. Call once per cycle; every
+   * other getter returns these cached values instead of going to the CAN bus.
+   * 
+   * @param timestamp FPGA time of this refresh (seconds)
+   */
+  public void refreshSignals(double timestamp) {
+    // Blocking reads happen outside the cache lock so readers never wait on the bus
+    double distance = driveMotor.getSelectedSensorPosition() * Constants.DRIVE_POSITION_CONVERSION;
+    double velocity = driveMotor.getSelectedSensorVelocity() * Constants.DRIVE_VELOCITY_CONVERSION;
+    double angle = turnMotor.getSelectedSensorPosition() * turnPositionConversion - turnPositionOffset;
+    signals.update(distance, velocity, angle, timestamp);
+  }
+  
+  /**
+   * Get the cached sensor readings
+   * 
+   * @return Readings from the last refresh
+   */
+  public SwerveModuleSignals getSignals() {
+    return signals;
   }
   
   /**
@@ -78,6 +177,10 @@ public class SwerveModule {
    */
   public void resetEncoders() {
     driveMotor.setSelectedSensorPosition(0);
+    if (controlMode == ModuleControlMode.ONBOARD) {
+      // The turn motor reads the CANcoder directly, which is already absolute
+      return;
+    }
     turnMotor.setSelectedSensorPosition(getAbsoluteEncoderRadians() / Constants.TURN_POSITION_CONVERSION);
   }
   
@@ -98,9 +201,9 @@ public class SwerveModule {
    * @return Current state (speed and angle)
    */
   public SwerveModuleState getState() {
-    double velocity = driveMotor.getSelectedSensorVelocity() * Constants.DRIVE_VELOCITY_CONVERSION;
-    double angle = turnMotor.getSelectedSensorPosition() * Constants.TURN_POSITION_CONVERSION;
-    return new SwerveModuleState(velocity, new Rotation2d(angle));
+    SwerveModuleState state = new SwerveModuleState();
+    signals.copyState(state);
+    return state;
   }
   
   /**
@@ -109,9 +212,46 @@ public class SwerveModule {
    * @return Current position (distance and angle)
    */
   public SwerveModulePosition getPosition() {
-    double distance = driveMotor.getSelectedSensorPosition() * Constants.DRIVE_POSITION_CONVERSION;
-    double angle = turnMotor.getSelectedSensorPosition() * Constants.TURN_POSITION_CONVERSION;
-    return new SwerveModulePosition(distance, new Rotation2d(angle));
+    SwerveModulePosition position = new SwerveModulePosition();
+    signals.copyTo(position);
+    return position;
+  }
+  
+  /**
+   * Update a position in place. The angle object is only replaced when the
+   * module has turned, so a module driving straight allocates nothing.
+   * 
+   * @param position Position to overwrite
+   */
+  public void updatePosition(SwerveModulePosition position) {
+    signals.copyTo(position);
+  }
+  
+  /**
+   * Get the drive wheel speed at the last refresh
+   * 
+   * @return Wheel speed in meters per second
+   */
+  public double getVelocityMetersPerSecond() {
+    return signals.getVelocityMetersPerSecond();
+  }
+  
+  /**
+   * Get the distance the drive wheel had rolled at the last refresh
+   * 
+   * @return Distance in meters
+   */
+  public double getDistanceMeters() {
+    return signals.getDistanceMeters();
+  }
+  
+  /**
+   * Get the module angle from the turn motor encoder at the last refresh
+   * 
+   * @return Module angle in radians
+   */
+  public double getAngleRadians() {
+    return signals.getAngleRadians();
   }
   
   /**
@@ -120,26 +260,79 @@ public class SwerveModule {
    * @param desiredState Desired state (speed and angle)
    */
   public void setDesiredState(SwerveModuleState desiredState) {
+    setDesiredState(desiredState.speedMetersPerSecond, desiredState.angle.getRadians());
+  }
+  
+  /**
+   * Set the desired state of the module without allocating
+   * 
+   * @param speedMetersPerSecond Desired wheel speed
+   * @param angleRadians Desired module angle
+   */
+  public void setDesiredState(double speedMetersPerSecond, double angleRadians) {
+    double currentAngle = getAngleRadians();
+    
     // Optimize the state to avoid spinning more than 90 degrees
-    SwerveModuleState state = SwerveModuleState.optimize(
-      desiredState,
-      new Rotation2d(turnMotor.getSelectedSensorPosition() * Constants.TURN_POSITION_CONVERSION)
-    );
+    if (Math.abs(MathUtil.angleModulus(angleRadians - currentAngle)) > Math.PI / 2.0) {
+      speedMetersPerSecond = -speedMetersPerSecond;
+      angleRadians = MathUtil.angleModulus(angleRadians + Math.PI);
+    }
+    
+    if (controlMode == ModuleControlMode.ONBOARD) {
+      // Aim for the equivalent angle nearest the current one, so the position loop
+      // never unwinds a full turn across the -pi/pi seam
+      double target = continuousTarget(currentAngle, angleRadians);
+      turnMotor.set(ControlMode.Position, (target + turnPositionOffset) / turnPositionConversion);
+      
+      // Velocity loop with kF from the drive PID, plus a static friction feedforward
+      driveMotor.set(
+        ControlMode.Velocity,
+        speedMetersPerSecond / Constants.DRIVE_VELOCITY_CONVERSION,
+        DemandType.ArbitraryFeedForward,
+        Math.signum(speedMetersPerSecond) * Constants.DRIVE_STATIC_FEEDFORWARD
+      );
+      return;
+    }
     
     // Calculate drive output
-    double driveOutput = state.speedMetersPerSecond / Constants.MAX_VELOCITY_METERS_PER_SECOND;
+    double driveOutput = speedMetersPerSecond / Constants.MAX_VELOCITY_METERS_PER_SECOND;
     
     // Calculate turn output using PID controller
-    double turnOutput = turnPIDController.calculate(
-      turnMotor.getSelectedSensorPosition() * Constants.TURN_POSITION_CONVERSION,
-      state.angle.getRadians()
-    );
+    double turnOutput = turnPIDController.calculate(currentAngle, angleRadians);
     
     // Set motor outputs
     driveMotor.set(ControlMode.PercentOutput, driveOutput);
     turnMotor.set(ControlMode.PercentOutput, turnOutput);
   }
   
+  /**
+   * Advance the simulated module. Models ideal motors: the wheel speed follows the
+   * drive output and the module turns at its free speed times the turn output.
+   * 
+   * @param dtSeconds Time since the last update
+   */
+  public void simulationUpdate(double dtSeconds) {
+    TalonFXSimCollection driveSim = driveMotor.getSimCollection();
+    TalonFXSimCollection turnSim = turnMotor.getSimCollection();
+    CANCoderSimCollection encoderSim = absoluteEncoder.getSimCollection();
+    
+    double batteryVoltage = RobotController.getBatteryVoltage();
+    driveSim.setBusVoltage(batteryVoltage);
+    turnSim.setBusVoltage(batteryVoltage);
+    
+    double velocity = driveSim.getMotorOutputLeadVoltage() / batteryVoltage * Constants.MAX_VELOCITY_METERS_PER_SECOND;
+    double turnRate = turnSim.getMotorOutputLeadVoltage() / batteryVoltage * SIM_TURN_FREE_SPEED_RADIANS_PER_SECOND;
+    simDistanceMeters += velocity * dtSeconds;
+    simAngleRadians += turnRate * dtSeconds;
+    
+    // Sensor units: positions in counts, velocities in counts per 100 ms
+    driveSim.setIntegratedSensorRawPosition((int) (simDistanceMeters / Constants.DRIVE_POSITION_CONVERSION));
+    driveSim.setIntegratedSensorVelocity((int) (velocity / Constants.DRIVE_VELOCITY_CONVERSION));
+    turnSim.setIntegratedSensorRawPosition((int) (simAngleRadians / Constants.TURN_POSITION_CONVERSION));
+    turnSim.setIntegratedSensorVelocity((int) (turnRate / Constants.TURN_POSITION_CONVERSION / 10.0));
+    encoderSim.setRawPosition((int) ((simAngleRadians + Units.degreesToRadians(absoluteEncoderOffset)) / Constants.CANCODER_POSITION_CONVERSION));
+  }
+  
   /**
    * Update PID values for the module
    * 
@@ -157,5 +350,53 @@ public class SwerveModule {
     turnPIDController.setP(turnPID.kP);
     turnPIDController.setI(turnPID.kI);
     turnPIDController.setD(turnPID.kD);
+    configTurnMotorPID(turnPID);
+  }
+  
+  /**
+   * Load the turn gains into the turn motor's position loop when it runs onboard
+   * 
+   * @param turnPID Turn gains in roboRIO units
+   */
+  private void configTurnMotorPID(PIDConfig turnPID) {
+    if (controlMode != ModuleControlMode.ONBOARD) {
+      return;
+    }
+    PIDConfig gains = toTalonTurnGains(turnPID, turnPositionConversion, Constants.TURN_FEEDBACK_PERIOD_MS / 1000.0);
+    turnMotor.config_kP(0, gains.kP);
+    turnMotor.config_kI(0, gains.kI);
+    turnMotor.config_kD(0, gains.kD);
+    turnMotor.config_kF(0, gains.kF);
+  }
+  
+  /**
+   * Convert turn gains tuned for the roboRIO PIDController (radians in, -1 to 1 out,
+   * per second) to Talon units (sensor units in, 1023 full output, per loop), so
+   * the same values from the PID tuner work in either mode.
+   * 
+   * @param turnPID Gains in roboRIO units
+   * @param radiansPerUnit Radians per turn sensor unit
+   * @param loopPeriodSeconds Talon closed-loop period, which should match the sensor update period
+   * @return Gains in Talon units
+   */
+  static PIDConfig toTalonTurnGains(PIDConfig turnPID, double radiansPerUnit, double loopPeriodSeconds) {
+    double scale = 1023.0 * radiansPerUnit;
+    return new PIDConfig(
+      turnPID.kP * scale,
+      turnPID.kI * scale * loopPeriodSeconds,
+      turnPID.kD * scale / loopPeriodSeconds,
+      0.0
+    );
+  }
+  
+  /**
+   * Pick the angle equivalent to a target that is nearest the current angle
+   * 
+   * @param currentRadians Current, unwrapped module angle
+   * @param targetRadians Desired angle, any wrap
+   * @return Target plus whole turns, within pi of the current angle
+   */
+  static double continuousTarget(double currentRadians, double targetRadians) {
+    return currentRadians + MathUtil.angleModulus(targetRadians - currentRadians);
   }
 }
\ No newline at end of file
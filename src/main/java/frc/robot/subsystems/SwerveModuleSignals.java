@@ -0,0 +1,101 @@
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * One module's sensor readings from the last refresh, all taken in the same pass.
+ * <p>
+ * The module reads its motors once per cycle and stores the values here; drive
+ * commands, odometry and telemetry then read this cache instead of each going
+ * to the CAN bus. Refreshes may come from the odometry thread while the main loop
+ * reads, so every access is synchronized. Each getter only locks for its own value,
+ * so two getter calls can straddle a refresh; use {@link #copyTo},
+ * {@link #copyState} or {@link #copyMeasured} when values must come from the same
+ * refresh. With the odometry thread running, successive reads within one robot
+ * loop can also see different refreshes.
+ * </p>
+ */
+public class SwerveModuleSignals {
+    private double distanceMeters = 0.0;
+    private double velocityMetersPerSecond = 0.0;
+    private double angleRadians = 0.0;
+    private double timestamp = Double.NaN;
+    private long refreshCount = 0;
+
+    /**
+     * Store a new set of readings
+     * @param distanceMeters Drive wheel distance
+     * @param velocityMetersPerSecond Drive wheel speed
+     * @param angleRadians Module angle
+     * @param timestamp FPGA time the readings were taken (seconds)
+     */
+    public synchronized void update(double distanceMeters, double velocityMetersPerSecond, double angleRadians, double timestamp) {
+        this.distanceMeters = distanceMeters;
+        this.velocityMetersPerSecond = velocityMetersPerSecond;
+        this.angleRadians = angleRadians;
+        this.timestamp = timestamp;
+        refreshCount++;
+    }
+
+    /**
+     * Copy the distance and angle into a position. The angle object is only
+     * replaced when the module has turned, so a module driving straight allocates nothing.
+     * @param position Position to overwrite
+     */
+    public synchronized void copyTo(SwerveModulePosition position) {
+        position.distanceMeters = distanceMeters;
+        if (position.angle == null || position.angle.getRadians() != angleRadians) {
+            position.angle = new Rotation2d(angleRadians);
+        }
+    }
+
+    /**
+     * Copy the velocity and angle into a state, both from the same refresh. The angle
+     * object is only replaced when the module has turned.
+     * @param state State to overwrite
+     */
+    public synchronized void copyState(SwerveModuleState state) {
+        state.speedMetersPerSecond = velocityMetersPerSecond;
+        if (state.angle == null || state.angle.getRadians() != angleRadians) {
+            state.angle = new Rotation2d(angleRadians);
+        }
+    }
+
+    /**
+     * Copy the velocity and angle, both from the same refresh, into a kinematics
+     * buffer's measured states without allocating
+     * @param buffer Buffer to fill
+     * @param moduleIndex Module slot in the buffer
+     */
+    public synchronized void copyMeasured(SwerveKinematicsBuffer buffer, int moduleIndex) {
+        buffer.setMeasured(moduleIndex, velocityMetersPerSecond, angleRadians);
+    }
+
+    public synchronized double getDistanceMeters() {
+        return distanceMeters;
+    }
+
+    public synchronized double getVelocityMetersPerSecond() {
+        return velocityMetersPerSecond;
+    }
+
+    public synchronized double getAngleRadians() {
+        return angleRadians;
+    }
+
+    /**
+     * @return FPGA time of the last refresh (seconds), NaN before the first
+     */
+    public synchronized double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return Number of refreshes so far
+     */
+    public synchronized long getRefreshCount() {
+        return refreshCount;
+    }
+}
@@ -0,0 +1,350 @@
+package frc.robot.subsystems;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.shared.LatencyHistogram;
+
+/**
+ * Runs swerve odometry faster than the 50 Hz scheduler loop.
+ * <p>
+ * A dedicated thread reads the module positions and the gyro at a fixed rate and
+ * feeds them to the pose estimator, so odometry does not wait on the main loop.
+ * Steps are only as small as the sensor data is new: a sample between two motor
+ * controller feedback frames re-reads the last positions, which is why the modules
+ * send that frame once per sample period. {@link #getFreshSampleCount()} counts the
+ * samples that actually saw a module move. If the thread itself is held off, the
+ * next sample integrates the whole gap in one step. The estimator is only touched while
+ * holding a lock: everything else (vision updates, resets) goes through
+ * {@link #withEstimator(Consumer)} or {@link #resetPosition(Pose2d)}. Readers get
+ * the latest pose from {@link #getSnapshot()} without taking the lock. The latest
+ * sample lives in fields that are overwritten in place under a {@link StampedLock},
+ * so sampling allocates nothing of its own; readers take an optimistic read and
+ * only lock if a sample landed while they were copying.
+ * </p>
+ * <p>
+ * When the thread is not started, call {@link #sample()} from the loop instead.
+ * </p>
+ */
+public class SwerveOdometryThread implements AutoCloseable {
+    /** Slowest and fastest supported sample rates */
+    public static final double MIN_FREQUENCY_HZ = 100.0;
+    public static final double MAX_FREQUENCY_HZ = 250.0;
+
+    /** Reads the drivetrain sensors */
+    public interface Source {
+        /**
+         * Read every module and the gyro
+         * @param positions Filled with each module's position
+         * @return Gyro heading
+         */
+        Rotation2d read(SwerveModulePosition[] positions);
+    }
+
+    /** Told about every estimator update, e.g. to log it */
+    public interface SampleListener {
+        /**
+         * Called on the sampling thread while the estimator is locked; keep it short
+         * @param positions Module positions the estimator was updated with
+         * @param heading Gyro heading the estimator was updated with
+         * @param pose Estimated pose after the update
+         * @param timestamp FPGA time of the sample (seconds)
+         */
+        void onSample(SwerveModulePosition[] positions, Rotation2d heading, Pose2d pose, double timestamp);
+    }
+
+    /** Pose at one sample, copied out for the reader by {@link #getSnapshot()} */
+    public record Snapshot(Pose2d pose, double timestamp, long sampleCount) {}
+
+    // 0.05 ms buckets up to 10 ms
+    private static final double SAMPLE_BUCKET_MS = 0.05;
+    private static final int SAMPLE_BUCKETS = 200;
+
+    private final SwerveDrivePoseEstimator estimator;
+    private final Source source;
+    private final long periodNanos;
+    private final SwerveModulePosition[] positions;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LatencyHistogram sampleTimes = new LatencyHistogram(SAMPLE_BUCKET_MS, SAMPLE_BUCKETS);
+
+    // Latest sample, written in place by the sampling side and copied out by readers
+    private final StampedLock snapshotLock = new StampedLock();
+    private Pose2d snapshotPose;
+    private double snapshotTimestamp;
+    private long snapshotSampleCount;
+
+    private volatile SampleListener sampleListener;
+    private long sampleCount = 0;
+
+    // Positions at the last sample, to tell new sensor data from a repeated frame
+    private final double[] lastDistances;
+    private final double[] lastAngles;
+    private volatile long freshSampleCount = 0;
+
+    private Thread thread;
+    private volatile boolean running = false;
+
+    /**
+     * Create an odometry thread
+     * @param estimator Estimator to update; only touch it through this class from now on
+     * @param source Sensor reader, called from the odometry thread
+     * @param moduleCount Number of swerve modules
+     * @param frequencyHz Sample rate, {@value #MIN_FREQUENCY_HZ} to {@value #MAX_FREQUENCY_HZ}
+     */
+    public SwerveOdometryThread(SwerveDrivePoseEstimator estimator, Source source, int moduleCount, double frequencyHz) {
+        if (frequencyHz < MIN_FREQUENCY_HZ || frequencyHz > MAX_FREQUENCY_HZ) {
+            throw new IllegalArgumentException("Odometry frequency must be " + MIN_FREQUENCY_HZ + "-" + MAX_FREQUENCY_HZ + " Hz");
+        }
+        this.estimator = estimator;
+        this.source = source;
+        this.periodNanos = Math.round(1e9 / frequencyHz);
+        positions = new SwerveModulePosition[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            positions[i] = new SwerveModulePosition();
+        }
+        lastDistances = new double[moduleCount];
+        lastAngles = new double[moduleCount];
+        publish(estimator.getEstimatedPosition(), Timer.getFPGATimestamp());
+    }
+
+    /**
+     * Start the odometry thread. Does nothing if it is already running.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "SwerveOdometry");
+        thread.setDaemon(true);
+        // Odometry matters more than the main loop's housekeeping
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Stop the odometry thread and wait for it to exit
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        while (running) {
+            sample();
+
+            // Schedule from the previous deadline so the rate does not drift;
+            // after a long stall, start over instead of sampling back to back
+            next += periodNanos;
+            long wait = next - System.nanoTime();
+            if (wait <= 0) {
+                next = System.nanoTime();
+                continue;
+            }
+            try {
+                Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Read the sensors once and update the estimator. Runs on the odometry thread;
+     * exposed so callers without a thread can drive it.
+     */
+    public void sample() {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            Rotation2d heading = source.read(positions);
+            double now = Timer.getFPGATimestamp();
+            Pose2d pose = estimator.updateWithTime(now, heading, positions);
+            sampleCount++;
+            if (positionsChanged()) {
+                freshSampleCount++;
+            }
+            publish(pose, now);
+            SampleListener listener = sampleListener;
+            if (listener != null) {
+                listener.onSample(positions, heading, pose, now);
+            }
+        } finally {
+            lock.unlock();
+        }
+        synchronized (sampleTimes) {
+            sampleTimes.record((System.nanoTime() - start) / 1e6);
+        }
+    }
+
+    private boolean positionsChanged() {
+        boolean changed = false;
+        for (int i = 0; i < positions.length; i++) {
+            double distance = positions[i].distanceMeters;
+            double angle = positions[i].angle.getRadians();
+            if (distance != lastDistances[i] || angle != lastAngles[i]) {
+                lastDistances[i] = distance;
+                lastAngles[i] = angle;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Set the code told about every sample
+     * @param listener Listener, or null for none
+     */
+    public void setSampleListener(SampleListener listener) {
+        sampleListener = listener;
+    }
+
+    /**
+     * Run code against the estimator while odometry is paused, e.g. to add vision
+     * measurements. Keep it short; the odometry thread waits for it.
+     * @param action Code to run with the estimator
+     */
+    public void withEstimator(Consumer<SwerveDrivePoseEstimator> action) {
+        lock.lock();
+        try {
+            action.accept(estimator);
+            publish(estimator.getEstimatedPosition(), snapshotTimestamp);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reset the estimator to a pose, using a fresh sensor read
+     * @param pose New field-relative pose
+     */
+    public void resetPosition(Pose2d pose) {
+        lock.lock();
+        try {
+            Rotation2d heading = source.read(positions);
+            estimator.resetPosition(heading, positions, pose);
+            publish(estimator.getEstimatedPosition(), Timer.getFPGATimestamp());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Overwrite the latest sample. Only called while holding the estimator lock, so
+     * there is one writer at a time.
+     */
+    private void publish(Pose2d pose, double timestamp) {
+        long stamp = snapshotLock.writeLock();
+        snapshotPose = pose;
+        snapshotTimestamp = timestamp;
+        snapshotSampleCount = sampleCount;
+        snapshotLock.unlockWrite(stamp);
+    }
+
+    /**
+     * Get the pose after the latest sample, with its timestamp and count all from
+     * the same sample. Only waits if a sample is being written.
+     */
+    public Snapshot getSnapshot() {
+        long stamp = snapshotLock.tryOptimisticRead();
+        Pose2d pose = snapshotPose;
+        double timestamp = snapshotTimestamp;
+        long count = snapshotSampleCount;
+        if (!snapshotLock.validate(stamp)) {
+            stamp = snapshotLock.readLock();
+            try {
+                pose = snapshotPose;
+                timestamp = snapshotTimestamp;
+                count = snapshotSampleCount;
+            } finally {
+                snapshotLock.unlockRead(stamp);
+            }
+        }
+        return new Snapshot(pose, timestamp, count);
+    }
+
+    /**
+     * Get the latest estimated pose. Only waits if a sample is being written.
+     */
+    public Pose2d getPose() {
+        long stamp = snapshotLock.tryOptimisticRead();
+        Pose2d pose = snapshotPose;
+        if (!snapshotLock.validate(stamp)) {
+            stamp = snapshotLock.readLock();
+            try {
+                pose = snapshotPose;
+            } finally {
+                snapshotLock.unlockRead(stamp);
+            }
+        }
+        return pose;
+    }
+
+    /**
+     * @return Samples taken since startup
+     */
+    public long getSampleCount() {
+        long stamp = snapshotLock.tryOptimisticRead();
+        long count = snapshotSampleCount;
+        if (!snapshotLock.validate(stamp)) {
+            stamp = snapshotLock.readLock();
+            try {
+                count = snapshotSampleCount;
+            } finally {
+                snapshotLock.unlockRead(stamp);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Samples where at least one module position had changed since the previous
+     * sample. While driving, this should keep pace with {@link #getSampleCount()};
+     * if it only grows at the feedback frame rate, the extra samples are repeats.
+     * @return Samples with new module positions since startup
+     */
+    public long getFreshSampleCount() {
+        return freshSampleCount;
+    }
+
+    /**
+     * Get a percentile of the time one sample takes, sensor reads included
+     * @param percentile Percentile from 0 to 100
+     * @return Sample time in milliseconds
+     */
+    public double getSampleTimePercentile(double percentile) {
+        synchronized (sampleTimes) {
+            return sampleTimes.percentile(percentile);
+        }
+    }
+
+    /**
+     * Clear the sample time histogram
+     */
+    public void resetSampleTimes() {
+        synchronized (sampleTimes) {
+            sampleTimes.reset();
+        }
+    }
+}
@@ -2,13 +2,25 @@ package frc.robot.subsystems;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.networktables.NetworkTable;
-import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.VisionConstants;
+import frc.robot.subsystems.vision.AprilTagStore;
+import frc.robot.subsystems.vision.CameraTuner;
+import frc.robot.subsystems.vision.VisionCamera;
+import frc.robot.subsystems.vision.VisionFrameQueue;
+import frc.robot.subsystems.vision.VisionHealth;
+import frc.robot.subsystems.vision.VisionMeasurement;
+import frc.robot.subsystems.vision.VisionMeasurementRing;
+import frc.robot.subsystems.vision.VisionMetrics;
+import frc.robot.shared.CameraRegistry;
+import frc.robot.shared.Limelight;
+import frc.robot.shared.ReefPoseAlignment;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -16,119 +28,241 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-public class VisionSubsystem extends SubsystemBase {
-    // Network tables for each Limelight
-    private final NetworkTable limelightFront;
-    private final NetworkTable limelightRight;
-    private final NetworkTable limelightBack;
-    private final NetworkTable limelightLeft;
-    
-    // Map of camera names to NetworkTables
-    private final Map<String, NetworkTable> cameraMap = new HashMap<>();
-    
-    // Latest pose estimates from each Limelight
-    private Optional<LimelightMeasurement> frontPoseEstimate = Optional.empty();
-    private Optional<LimelightMeasurement> rightPoseEstimate = Optional.empty();
-    private Optional<LimelightMeasurement> backPoseEstimate = Optional.empty();
-    private Optional<LimelightMeasurement> leftPoseEstimate = Optional.empty();
+public class VisionSubsystem extends SubsystemBase implements AutoCloseable {
+    // Camera indices in the default camera config
+    public static final int FRONT = 0;
+    public static final int RIGHT = 1;
+    public static final int BACK = 2;
+    public static final int LEFT = 3;
+    
+    // Cached per-camera subscribers, one per localization camera in config order
+    private final VisionCamera[] cameras;
+    
+    // Dashboard keys, built once so periodic() does not concatenate strings
+    private final String[] hasTargetKeys;
+    
+    // Whether each camera produced a pose estimate this loop
+    private final boolean[] hasPoseEstimate;
+    
+    // Reusable measurement slots, refilled every loop
+    private final VisionMeasurementRing measurements;
+    
+    // Event-driven ingest: frames pushed by NT listeners, drained once per loop
+    private final boolean eventDriven;
+    private final VisionFrameQueue frameQueue;
+    private final VisionFrameQueue.FrameConsumer frameConsumer = this::addFrame;
+    private final int[] frameListeners;
+    private final double[] lastFrameTimestamp;
+    
+    // MegaTag2: cameras solve with the heading we publish each loop
+    private final NetworkTableInstance ntInstance;
+    private final boolean megaTag2;
+    private double robotYawRate = 0.0;
     
     // Target AprilTag ID (if any)
     private int targetAprilTagId = -1;
     
-    // Map to store AprilTag poses by ID and camera
-    private final Map<String, Map<Integer, Pose2d>> aprilTagPoses = new HashMap<>();
+    // Crop/downscale tuning of the alignment cameras around the target tag, null when disabled
+    private final CameraTuner tuner;
+    
+    // Per-camera health and loop timing, published as one struct topic
+    private final VisionMetrics metrics;
+    
+    // Visible AprilTags, indexed by [camera][tag ID]
+    private final AprilTagStore aprilTags;
     
     public VisionSubsystem() {
-        // Initialize NetworkTables for each Limelight
-        limelightFront = NetworkTableInstance.getDefault().getTable(VisionConstants.LIMELIGHT_FRONT_NAME);
-        limelightRight = NetworkTableInstance.getDefault().getTable(VisionConstants.LIMELIGHT_RIGHT_NAME);
-        limelightBack = NetworkTableInstance.getDefault().getTable(VisionConstants.LIMELIGHT_BACK_NAME);
-        limelightLeft = NetworkTableInstance.getDefault().getTable(VisionConstants.LIMELIGHT_LEFT_NAME);
+        this(NetworkTableInstance.getDefault(), VisionConstants.EVENT_DRIVEN_INGEST, VisionConstants.MEGATAG2_INGEST);
+    }
+    
+    /**
+     * Create the vision subsystem on a specific NetworkTables instance
+     * @param ntInstance NetworkTables instance the Limelights publish to
+     * @param eventDriven True to queue frames from NT listeners, false to poll every camera each loop
+     * @param megaTag2 True to read MegaTag2 poses, false to read the legacy botpose
+     */
+    VisionSubsystem(NetworkTableInstance ntInstance, boolean eventDriven, boolean megaTag2) {
+        this(ntInstance, CameraRegistry.getDefault(), eventDriven, megaTag2);
+    }
+    
+    /**
+     * Create the vision subsystem for a specific set of cameras
+     * @param ntInstance NetworkTables instance the Limelights publish to
+     * @param registry Cameras to read; every {@link CameraRegistry.Role#LOCALIZATION} camera is used
+     * @param eventDriven True to queue frames from NT listeners, false to poll every camera each loop
+     * @param megaTag2 True to read MegaTag2 poses, false to read the legacy botpose
+     */
+    VisionSubsystem(NetworkTableInstance ntInstance, CameraRegistry registry, boolean eventDriven, boolean megaTag2) {
+        this.ntInstance = ntInstance;
+        this.megaTag2 = megaTag2;
         
-        // Populate camera map
-        cameraMap.put(VisionConstants.LIMELIGHT_FRONT_NAME, limelightFront);
-        cameraMap.put(VisionConstants.LIMELIGHT_RIGHT_NAME, limelightRight);
-        cameraMap.put(VisionConstants.LIMELIGHT_BACK_NAME, limelightBack);
-        cameraMap.put(VisionConstants.LIMELIGHT_LEFT_NAME, limelightLeft);
+        // Subscribe once to every topic we read from each Limelight
+        String poseTopic = VisionCamera.getPoseTopic(megaTag2);
+        CameraRegistry.CameraConfig[] configs = registry.withRole(CameraRegistry.Role.LOCALIZATION);
+        cameras = new VisionCamera[configs.length];
+        hasTargetKeys = new String[configs.length];
+        for (int i = 0; i < configs.length; i++) {
+            cameras[i] = new VisionCamera(ntInstance, configs[i].name(), configs[i].getMountPose(), poseTopic);
+            hasTargetKeys[i] = "Vision/" + configs[i].label() + " Has Target";
+        }
+        hasPoseEstimate = new boolean[cameras.length];
+        lastFrameTimestamp = new double[cameras.length];
         
-        // Initialize AprilTag pose maps for each camera
-        for (String cameraName : cameraMap.keySet()) {
-            aprilTagPoses.put(cameraName, new HashMap<>());
+        this.eventDriven = eventDriven;
+        if (eventDriven) {
+            // Keep every frame that arrives between loops
+            frameQueue = new VisionFrameQueue(VisionConstants.FRAME_QUEUE_CAPACITY);
+            measurements = new VisionMeasurementRing(frameQueue.capacity());
+            frameListeners = new int[cameras.length];
+            for (int i = 0; i < cameras.length; i++) {
+                frameListeners[i] = cameras[i].addFrameListener(i, frameQueue);
+            }
+        } else {
+            frameQueue = null;
+            frameListeners = new int[0];
+            measurements = new VisionMeasurementRing(cameras.length);
+        }
+        
+        aprilTags = new AprilTagStore(cameras.length, VisionConstants.MAX_APRILTAG_ID);
+        metrics = new VisionMetrics(ntInstance, VisionConstants.HEALTH_TOPIC, cameras.length, VisionConstants.METRICS_WINDOW_SECONDS);
+        
+        if (VisionConstants.DYNAMIC_CROP) {
+            // Only the alignment cameras are cropped; the localization cameras need the full frame for multi-tag solves
+            CameraRegistry.CameraConfig[] alignmentConfigs = registry.withRole(CameraRegistry.Role.ALIGNMENT);
+            VisionCamera[] alignmentCameras = new VisionCamera[alignmentConfigs.length];
+            Transform3d[] mounts = new Transform3d[alignmentConfigs.length];
+            for (int i = 0; i < alignmentConfigs.length; i++) {
+                alignmentCameras[i] = new VisionCamera(ntInstance, alignmentConfigs[i].name(), alignmentConfigs[i].getMountPose());
+                mounts[i] = alignmentConfigs[i].robotToCamera();
+            }
+            tuner = new CameraTuner(ntInstance, alignmentCameras, mounts, ReefPoseAlignment.getDefaultLayout());
+        } else {
+            tuner = null;
         }
         
         // Set pipeline to AprilTag detection for all Limelights
-        setPipeline(limelightFront, VisionConstants.APRILTAG_PIPELINE);
-        setPipeline(limelightRight, VisionConstants.APRILTAG_PIPELINE);
-        setPipeline(limelightBack, VisionConstants.APRILTAG_PIPELINE);
-        setPipeline(limelightLeft, VisionConstants.APRILTAG_PIPELINE);
+        for (int i = 0; i < cameras.length; i++) {
+            cameras[i].setPipeline(configs[i].getPipeline("apriltag", VisionConstants.APRILTAG_PIPELINE));
+        }
     }
     
     @Override
     public void periodic() {
+        long startNanos = System.nanoTime();
+        double now = Timer.getFPGATimestamp();
+        
         // Update pose estimates from all Limelights
-        frontPoseEstimate = getLimelightPoseEstimate(limelightFront, VisionConstants.LIMELIGHT_FRONT_TO_ROBOT);
-        rightPoseEstimate = getLimelightPoseEstimate(limelightRight, VisionConstants.LIMELIGHT_RIGHT_TO_ROBOT);
-        backPoseEstimate = getLimelightPoseEstimate(limelightBack, VisionConstants.LIMELIGHT_BACK_TO_ROBOT);
-        leftPoseEstimate = getLimelightPoseEstimate(limelightLeft, VisionConstants.LIMELIGHT_LEFT_TO_ROBOT);
+        if (eventDriven) {
+            drainFrameQueue(now);
+            for (int i = 0; i < cameras.length; i++) {
+                metrics.setRejected(i, cameras[i].getRejectedFrameCount());
+            }
+        } else {
+            updatePoseEstimates();
+        }
+        
+        // MegaTag2 poses are unreliable while spinning fast, drop this loop's measurements
+        if (megaTag2 && Math.abs(robotYawRate) > VisionConstants.MEGATAG2_MAX_YAW_RATE_DEGREES_PER_SECOND) {
+            for (int i = 0; i < measurements.size(); i++) {
+                metrics.recordRejected(measurements.get(i).cameraIndex);
+            }
+            measurements.clear();
+        }
         
         // Update AprilTag poses
         updateAprilTagPoses();
         
         // Publish data to SmartDashboard
-        SmartDashboard.putBoolean("Vision/Front Has Target", frontPoseEstimate.isPresent());
-        SmartDashboard.putBoolean("Vision/Right Has Target", rightPoseEstimate.isPresent());
-        SmartDashboard.putBoolean("Vision/Back Has Target", backPoseEstimate.isPresent());
-        SmartDashboard.putBoolean("Vision/Left Has Target", leftPoseEstimate.isPresent());
+        for (int i = 0; i < cameras.length; i++) {
+            SmartDashboard.putBoolean(hasTargetKeys[i], hasPoseEstimate[i]);
+        }
         
         if (targetAprilTagId >= 0) {
             boolean tagVisible = isAprilTagVisible(targetAprilTagId);
             SmartDashboard.putBoolean("Vision/Target Tag Visible", tagVisible);
             SmartDashboard.putNumber("Vision/Target Tag ID", targetAprilTagId);
         }
+        
+        metrics.recordVisionPeriodic((System.nanoTime() - startNanos) / 1e6);
+        metrics.publish(now, Limelight.getPeriodicTimes(), eventDriven ? frameQueue.getDroppedCount() : 0);
     }
     
     /**
-     * Update the AprilTag poses from all cameras
+     * Refill the measurement ring with the frames published since the last loop.
+     * Does not allocate.
+     */
+    void updatePoseEstimates() {
+        measurements.clear();
+        for (int i = 0; i < cameras.length; i++) {
+            hasPoseEstimate[i] = readPoseEstimate(i);
+        }
+    }
+    
+    /**
+     * Update the AprilTag store from every camera's rawfiducials array.
+     * Cameras that have not published a new array keep their last tags.
      */
     private void updateAprilTagPoses() {
-        for (Map.Entry<String, NetworkTable> entry : cameraMap.entrySet()) {
-            String cameraName = entry.getKey();
-            NetworkTable table = entry.getValue();
-            
-            // Get the number of AprilTags detected
-            double[] tagIDs = table.getEntry("tid").getDoubleArray(new double[0]);
-            
-            // Clear previous poses for this camera
-            aprilTagPoses.get(cameraName).clear();
-            
-            // Process each detected tag
-            for (int i = 0; i < tagIDs.length; i++) {
-                int tagId = (int) tagIDs[i];
-                
-                // Get the tag pose relative to the camera
-                double[] camToTarget = table.getEntry("targetpose_cameraspace").getDoubleArray(new double[6]);
-                
-                if (camToTarget.length >= 6) {
-                    // Convert to Pose2d (ignoring Z for now)
-                    double x = camToTarget[0];
-                    double y = camToTarget[1];
-                    double yaw = camToTarget[5];
-                    
-                    Pose2d tagPose = new Pose2d(x, y, Rotation2d.fromDegrees(yaw));
-                    
-                    // Store the tag pose
-                    aprilTagPoses.get(cameraName).put(tagId, tagPose);
-                }
-            }
+        for (int i = 0; i < cameras.length; i++) {
+            cameras[i].pollFiducials(i, aprilTags);
+        }
+    }
+    
+    /**
+     * Feed the robot heading to every camera for MegaTag2. All cameras are
+     * updated first and then NetworkTables is flushed once, so the whole batch
+     * goes out together. Does nothing when MegaTag2 ingest is off.
+     * @param yawDegrees Robot yaw (degrees, blue-origin field frame)
+     * @param yawRateDegreesPerSecond Robot yaw rate (degrees per second)
+     */
+    public void setRobotOrientation(double yawDegrees, double yawRateDegreesPerSecond) {
+        if (!megaTag2) {
+            return;
+        }
+        robotYawRate = yawRateDegreesPerSecond;
+        
+        for (VisionCamera camera : cameras) {
+            camera.setRobotOrientation(yawDegrees, yawRateDegreesPerSecond);
+        }
+        ntInstance.flush();
+    }
+    
+    /**
+     * Re-aim every alignment camera's crop window at the target tag. Cameras run
+     * full frame while no tag is targeted. Does nothing when dynamic cropping is off.
+     * @param robotPose Field-relative robot pose
+     */
+    public void updateCameraTuning(Pose2d robotPose) {
+        if (tuner != null) {
+            tuner.update(robotPose, Timer.getFPGATimestamp());
         }
     }
     
+    /**
+     * Get the latest camera health and loop timing
+     * @return Health struct, refilled every loop
+     */
+    public VisionHealth getHealth() {
+        return metrics.getHealth();
+    }
+    
+    /**
+     * Check if the subsystem reads MegaTag2 poses
+     * @return True if MegaTag2 ingest is on
+     */
+    public boolean isMegaTag2() {
+        return megaTag2;
+    }
+    
     /**
      * Set the target AprilTag ID
      * @param tagId The AprilTag ID to target
      */
     public void setTargetAprilTag(int tagId) {
         this.targetAprilTagId = tagId;
+        if (tuner != null) {
+            tuner.setTargetTag(tagId);
+        }
         SmartDashboard.putNumber("Vision/Target Tag ID", tagId);
     }
     
@@ -137,6 +271,9 @@ public class VisionSubsystem extends SubsystemBase {
      */
     public void clearTargetAprilTag() {
         this.targetAprilTagId = -1;
+        if (tuner != null) {
+            tuner.setTargetTag(-1);
+        }
         SmartDashboard.putNumber("Vision/Target Tag ID", -1);
     }
     
@@ -146,12 +283,24 @@ public class VisionSubsystem extends SubsystemBase {
      * @return True if the tag is visible
      */
     public boolean isAprilTagVisible(int tagId) {
-        for (Map<Integer, Pose2d> cameraPoses : aprilTagPoses.values()) {
-            if (cameraPoses.containsKey(tagId)) {
-                return true;
-            }
-        }
-        return false;
+        return tagId >= 0 && tagId <= aprilTags.getMaxTagId() && (aprilTags.visibleTagMask() & (1L << tagId)) != 0;
+    }
+    
+    /**
+     * Get the AprilTags visible from any camera without allocating
+     * @return Bit mask with bit n set when tag n is visible
+     */
+    public long visibleTagMask() {
+        return aprilTags.visibleTagMask();
+    }
+    
+    /**
+     * Hand every tag each camera sees to the consumer without allocating.
+     * Poses are in camera space; see {@link AprilTagStore}.
+     * @param consumer Callback invoked once per visible tag per camera
+     */
+    public void forEachVisible(AprilTagStore.TagConsumer consumer) {
+        aprilTags.forEachVisible(consumer);
     }
     
     /**
@@ -161,45 +310,101 @@ public class VisionSubsystem extends SubsystemBase {
      * @return Optional containing the tag pose, or empty if not visible
      */
     public Optional<Pose2d> getAprilTagPose(int tagId, String cameraName) {
-        if (!aprilTagPoses.containsKey(cameraName)) {
+        int cameraIndex = getCameraIndex(cameraName);
+        if (cameraIndex < 0 || !aprilTags.isVisible(cameraIndex, tagId)) {
             return Optional.empty();
         }
         
-        Map<Integer, Pose2d> cameraPoses = aprilTagPoses.get(cameraName);
-        if (cameraPoses.containsKey(tagId)) {
-            return Optional.of(cameraPoses.get(tagId));
+        return Optional.of(toTagPose(cameraIndex, tagId));
+    }
+    
+    /**
+     * Get where a camera sees an AprilTag on the field, using the robot pose and the
+     * camera's mount
+     * @param tagId The AprilTag ID
+     * @param cameraName The camera name
+     * @param robotPose Field-relative robot pose
+     * @return Field position of the tag, with the rotation pointing from the camera to
+     *         the tag; empty if the camera does not see it or has no mount configured
+     */
+    public Optional<Pose2d> getAprilTagFieldPose(int tagId, String cameraName, Pose2d robotPose) {
+        int cameraIndex = getCameraIndex(cameraName);
+        if (cameraIndex < 0 || !aprilTags.isVisible(cameraIndex, tagId)) {
+            return Optional.empty();
+        }
+        Pose2d robotToCamera = cameras[cameraIndex].getRobotToCamera();
+        if (robotToCamera == null) {
+            return Optional.empty();
         }
         
-        return Optional.empty();
+        Pose2d cameraPose = robotPose.transformBy(new Transform2d(robotToCamera.getTranslation(), robotToCamera.getRotation()));
+        return Optional.of(cameraPose.transformBy(new Transform2d(
+            new Translation2d(aprilTags.getX(cameraIndex, tagId), aprilTags.getY(cameraIndex, tagId)),
+            new Rotation2d(aprilTags.getYawRadians(cameraIndex, tagId))
+        )));
     }
     
     /**
-     * Get all visible AprilTags from all cameras
+     * Get all visible AprilTags from all cameras.
+     * This builds a new map; loop code should prefer {@link #forEachVisible(AprilTagStore.TagConsumer)}.
      * @return Map of tag IDs to their poses
      */
     public Map<Integer, Pose2d> getAllVisibleAprilTags() {
         Map<Integer, Pose2d> result = new HashMap<>();
         
-        for (Map<Integer, Pose2d> cameraPoses : aprilTagPoses.values()) {
-            result.putAll(cameraPoses);
+        for (int camera = 0; camera < cameras.length; camera++) {
+            long mask = aprilTags.visibleTagMask(camera);
+            while (mask != 0L) {
+                int tagId = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                result.put(tagId, toTagPose(camera, tagId));
+            }
         }
         
         return result;
     }
     
     /**
-     * Get all valid vision measurements from the Limelights
+     * Get the number of vision measurements from this loop
+     * @return Number of measurements available through {@link #getVisionMeasurement(int)}
+     */
+    public int getVisionMeasurementCount() {
+        return measurements.size();
+    }
+    
+    /**
+     * Get a vision measurement from this loop without allocating.
+     * The returned slot is reused on the next loop, so do not keep a reference to it.
+     * @param index Index from 0 to {@link #getVisionMeasurementCount()} - 1
+     * @return Measurement slot
+     */
+    public VisionMeasurement getVisionMeasurement(int index) {
+        return measurements.get(index);
+    }
+    
+    /**
+     * Check if a camera produced a pose estimate this loop
+     * @param cameraIndex Camera index ({@link #FRONT}, {@link #RIGHT}, {@link #BACK}, {@link #LEFT})
+     * @return True if the camera has a valid pose estimate
+     */
+    public boolean hasPoseEstimate(int cameraIndex) {
+        return hasPoseEstimate[cameraIndex];
+    }
+    
+    /**
+     * Get all valid vision measurements from the Limelights.
+     * This copies the measurements into new objects; loop code should prefer
+     * {@link #getVisionMeasurement(int)}.
      * @return List of vision measurements
      */
     public List<LimelightMeasurement> getAllVisionMeasurements() {
-        List<LimelightMeasurement> measurements = new ArrayList<>();
+        List<LimelightMeasurement> result = new ArrayList<>(measurements.size());
         
-        frontPoseEstimate.ifPresent(measurements::add);
-        rightPoseEstimate.ifPresent(measurements::add);
-        backPoseEstimate.ifPresent(measurements::add);
-        leftPoseEstimate.ifPresent(measurements::add);
+        for (int i = 0; i < measurements.size(); i++) {
+            result.add(toLimelightMeasurement(measurements.get(i)));
+        }
         
-        return measurements;
+        return result;
     }
     
     /**
@@ -207,73 +412,155 @@ public class VisionSubsystem extends SubsystemBase {
      * @return Optional containing the best measurement, or empty if no valid measurements
      */
     public Optional<LimelightMeasurement> getBestVisionMeasurement() {
-        List<LimelightMeasurement> measurements = getAllVisionMeasurements();
+        VisionMeasurement best = null;
         
-        if (measurements.isEmpty()) {
-            return Optional.empty();
+        // Find the measurement with the lowest ambiguity (most confident)
+        for (int i = 0; i < measurements.size(); i++) {
+            VisionMeasurement measurement = measurements.get(i);
+            if (best == null || measurement.ambiguity < best.ambiguity) {
+                best = measurement;
+            }
         }
         
-        // Find the measurement with the lowest ambiguity (most confident)
-        return measurements.stream()
-            .min((m1, m2) -> Double.compare(m1.ambiguity(), m2.ambiguity()));
+        return best == null ? Optional.empty() : Optional.of(toLimelightMeasurement(best));
     }
     
     /**
-     * Set the pipeline for a Limelight
-     * @param table Limelight NetworkTable
-     * @param pipeline Pipeline number
+     * Move every frame queued by the NT listeners into the measurement ring.
+     * Work is proportional to the number of new frames, not the number of cameras.
+     * @param now Current FPGA timestamp, used to age out cameras that stopped publishing
      */
-    private void setPipeline(NetworkTable table, int pipeline) {
-        table.getEntry("pipeline").setNumber(pipeline);
+    void drainFrameQueue(double now) {
+        measurements.clear();
+        frameQueue.drain(frameConsumer);
+        
+        for (int i = 0; i < cameras.length; i++) {
+            hasPoseEstimate[i] = lastFrameTimestamp[i] > 0.0
+                && now - lastFrameTimestamp[i] < VisionConstants.FRAME_TIMEOUT_SECONDS;
+        }
     }
     
     /**
-     * Get pose estimate from a Limelight
-     * @param table Limelight NetworkTable
-     * @param robotToCamera Transform from robot center to camera
-     * @return Optional containing the pose estimate, or empty if no valid target
+     * Copy one queued frame into the next measurement slot
+     * @param frame Frame from the queue
      */
-    private Optional<LimelightMeasurement> getLimelightPoseEstimate(NetworkTable table, Pose2d robotToCamera) {
-        NetworkTableEntry tv = table.getEntry("tv");
+    private void addFrame(VisionFrameQueue.Frame frame) {
+        double[] botpose = frame.botpose;
+        measurements.claim().set(
+            frame.cameraIndex,
+            botpose[0],
+            botpose[1],
+            Math.toRadians(botpose[5]),
+            frame.timestamp,
+            frame.targetArea, // Target area doubles as ambiguity
+            frame.tagCount,
+            frame.targetArea
+        );
+        lastFrameTimestamp[frame.cameraIndex] = frame.timestamp;
+        
+        // Latency published with the frame, not whatever tl/cl hold now
+        double latencyMillis = frame.botposeLength > 6 ? botpose[6] : cameras[frame.cameraIndex].getLatencyMillis();
+        metrics.recordFrame(frame.cameraIndex, frame.timestamp, latencyMillis);
+    }
+    
+    /**
+     * Read a pose estimate from a Limelight into the next measurement slot.
+     * Only frames the camera published since the last loop are added, so the
+     * same frame is never fused twice.
+     * @param cameraIndex Index of the camera to read
+     * @return True if the camera currently has a valid pose estimate
+     */
+    private boolean readPoseEstimate(int cameraIndex) {
+        VisionCamera camera = cameras[cameraIndex];
         
         // Check if Limelight has a valid target (tv = 1)
-        if (tv.getDouble(0) < 0.5) {
-            return Optional.empty();
+        if (!camera.hasTarget()) {
+            return false;
         }
         
         // Get botpose data (robot pose in field coordinates)
-        double[] botpose = table.getEntry("botpose").getDoubleArray(new double[6]);
-        
-        if (botpose.length < 6) {
-            return Optional.empty();
+        boolean newFrame = camera.pollFrame();
+        if (!camera.hasPose() || camera.getFrameTagCount() < 1) {
+            if (newFrame) {
+                metrics.recordRejected(cameraIndex);
+            }
+            return false;
         }
         
-        // Extract pose data
-        double x = botpose[0];
-        double y = botpose[1];
-        double z = botpose[2];
-        double roll = botpose[3];
-        double pitch = botpose[4];
-        double yaw = botpose[5];
-        
-        // Get additional data for measurement quality
-        double ta = table.getEntry("ta").getDouble(0);
-        double tx = table.getEntry("tx").getDouble(0);
-        double ty = table.getEntry("ty").getDouble(0);
-        double tagCount = table.getEntry("tid").getDouble(-1);
-        double ambiguity = table.getEntry("ta").getDouble(1.0); // Higher ambiguity = less confident
-        
-        // Create pose from Limelight data
-        Pose2d pose = new Pose2d(x, y, Rotation2d.fromDegrees(yaw));
-        
-        // Create measurement with timestamp and quality metrics
-        return Optional.of(new LimelightMeasurement(
-            pose,
-            Timer.getFPGATimestamp(),
-            ambiguity,
-            tagCount,
-            ta
-        ));
+        if (newFrame) {
+            // Quality values from the botpose itself, the same as the listener path
+            double ta = camera.getFrameTargetArea();
+            double tagCount = camera.getFrameTagCount();
+            double ambiguity = ta; // Higher ambiguity = less confident
+            
+            // Fill the measurement slot in place, stamped with the capture time of the frame
+            measurements.claim().set(
+                cameraIndex,
+                camera.getBotpose(0),
+                camera.getBotpose(1),
+                Math.toRadians(camera.getBotpose(5)),
+                camera.getFrameTimestamp(),
+                ambiguity,
+                tagCount,
+                ta
+            );
+            metrics.recordFrame(cameraIndex, camera.getFrameTimestamp(), camera.getFrameLatencyMillis());
+        }
+        return true;
+    }
+    
+    /**
+     * Look up a camera index by Limelight name
+     * @param cameraName The camera name
+     * @return Camera index, or -1 if there is no camera with that name
+     */
+    private int getCameraIndex(String cameraName) {
+        for (int i = 0; i < cameras.length; i++) {
+            if (cameras[i].getName().equals(cameraName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Build a pose from a tag store entry
+     * @param cameraIndex Camera that sees the tag
+     * @param tagId The AprilTag ID
+     * @return Tag pose in camera space
+     */
+    private Pose2d toTagPose(int cameraIndex, int tagId) {
+        return new Pose2d(
+            aprilTags.getX(cameraIndex, tagId),
+            aprilTags.getY(cameraIndex, tagId),
+            new Rotation2d(aprilTags.getYawRadians(cameraIndex, tagId))
+        );
+    }
+    
+    /**
+     * Copy a measurement slot into an immutable record
+     * @param measurement Slot to copy
+     * @return New record holding the same values
+     */
+    private static LimelightMeasurement toLimelightMeasurement(VisionMeasurement measurement) {
+        return new LimelightMeasurement(
+            measurement.toPose2d(),
+            measurement.timestamp,
+            measurement.ambiguity,
+            measurement.tagCount,
+            measurement.targetArea
+        );
+    }
+    
+    /**
+     * Stop the NT listeners that feed the frame queue. Frames already queued are
+     * still drained by the next periodic().
+     */
+    @Override
+    public void close() {
+        for (int listener : frameListeners) {
+            ntInstance.removeListener(listener);
+        }
     }
     
     /**
@@ -12,30 +12,38 @@ import com.ctre.phoenix6.swerve.SwerveDrivetrainConstants;
 import com.ctre.phoenix6.swerve.SwerveModule;
 import com.ctre.phoenix6.swerve.SwerveModuleConstants;
 import com.ctre.phoenix6.swerve.SwerveRequest;
+import com.ctre.phoenix6.swerve.SwerveRequest.ForwardPerspectiveValue;
 import com.pathplanner.lib.auto.AutoBuilder;
 import com.pathplanner.lib.config.PIDConstants;
 import com.pathplanner.lib.config.RobotConfig;
 import com.pathplanner.lib.controllers.PPHolonomicDriveController;
 
 import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.numbers.N1;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Subsystem;
 import edu.wpi.first.wpilibj2.command.sysid.SysIdRoutine;
 
+import frc.robot.replay.DriveStateLog;
+import frc.robot.subsystems.Drivetrain;
+import frc.robot.subsystems.VisionSubsystem;
 import frc.robot.subsystems.swerve.TunerConstants.*;
+import frc.robot.subsystems.vision.VisionEstimatorStage;
 
 /**
  * Class that extends the Phoenix 6 SwerveDrivetrain class and implements
  * Subsystem so it can easily be used in command-based projects.
  */
-public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Subsystem {
+public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Subsystem, Drivetrain {
     private static final double kSimLoopPeriod = 0.005; // 5 ms
     private Notifier m_simNotifier = null;
     private double m_lastSimTime;
@@ -50,6 +58,20 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
     /** Swerve request to apply during robot-centric path following */
     private final SwerveRequest.ApplyRobotSpeeds m_pathApplyRobotSpeeds = new SwerveRequest.ApplyRobotSpeeds();
 
+    /* Swerve requests behind the Drivetrain drive methods, reused every call */
+    private final SwerveRequest.FieldCentric m_fieldCentricDrive = new SwerveRequest.FieldCentric()
+        .withForwardPerspective(ForwardPerspectiveValue.BlueAlliance); // Blue-origin frame of getPose(); drivers go through driveFromDriverStation
+    private final SwerveRequest.RobotCentric m_robotCentricDrive = new SwerveRequest.RobotCentric();
+    private final SwerveRequest.ApplyRobotSpeeds m_applyRobotSpeeds = new SwerveRequest.ApplyRobotSpeeds();
+
+    /* Vision fused into CTRE's estimator the same way the legacy drivetrain does it */
+    private VisionSubsystem m_visionSubsystem;
+    private boolean m_visionEnabled = true;
+    private final VisionEstimatorStage m_visionStage = VisionEstimatorStage.create(1.0);
+    /* Vision timestamps are FPGA time; CTRE's estimator runs on its own clock */
+    private final VisionEstimatorStage.Sink m_visionSink =
+        (pose, timestamp, stdDevs) -> addVisionMeasurement(pose, Utils.fpgaToCurrentTime(timestamp), stdDevs);
+
     /* Swerve requests to apply during SysId characterization */
     private final SwerveRequest.SysIdSwerveTranslation m_translationCharacterization = new SwerveRequest.SysIdSwerveTranslation();
     private final SwerveRequest.SysIdSwerveSteerGains m_steerCharacterization = new SwerveRequest.SysIdSwerveSteerGains();
@@ -290,6 +312,79 @@ public class CommandSwerveDrivetrain extends TunerSwerveDrivetrain implements Su
             });
         }
 
+        Pose2d pose = getState().Pose;
+        if (m_visionEnabled && m_visionSubsystem != null) {
+            // MegaTag2 solves with our heading, so hand the cameras the latest estimate
+            m_visionSubsystem.setRobotOrientation(
+                pose.getRotation().getDegrees(),
+                getPigeon2().getAngularVelocityZWorld().getValueAsDouble()
+            );
+
+            // Fuse every camera's measurement captured at the same time, checked against odometry
+            m_visionStage.reset();
+            int measurementCount = m_visionSubsystem.getVisionMeasurementCount();
+            for (int i = 0; i < measurementCount; i++) {
+                m_visionStage.add(m_visionSubsystem.getVisionMeasurement(i));
+            }
+            m_visionStage.apply(pose, m_visionSink);
+
+            SmartDashboard.putNumber("Drive/Vision Fused", m_visionStage.getFusion().getFusedCount());
+            SmartDashboard.putNumber("Drive/Vision Rejected", m_visionStage.getFusion().getRejectedCount());
+        }
+
+        // Keep the cameras cropped around the target tag
+        if (m_visionSubsystem != null) {
+            m_visionSubsystem.updateCameraTuning(pose);
+        }
+    }
+
+    @Override
+    public void drive(double xSpeed, double ySpeed, double rotSpeed, boolean fieldRelative) {
+        if (fieldRelative) {
+            setControl(m_fieldCentricDrive.withVelocityX(xSpeed).withVelocityY(ySpeed).withRotationalRate(rotSpeed));
+        } else {
+            setControl(m_robotCentricDrive.withVelocityX(xSpeed).withVelocityY(ySpeed).withRotationalRate(rotSpeed));
+        }
+    }
+
+    @Override
+    public void drive(ChassisSpeeds speeds) {
+        setControl(m_applyRobotSpeeds.withSpeeds(speeds));
+    }
+
+    @Override
+    public ChassisSpeeds getChassisSpeeds() {
+        return getState().Speeds;
+    }
+
+    @Override
+    public Pose2d getPose() {
+        return getState().Pose;
+    }
+
+    /**
+     * Log every odometry update for offline replay. Replaces any telemetry registered
+     * with {@link #registerTelemetry}.
+     *
+     * @param log Log to append to, or null to stop logging
+     */
+    @Override
+    public void setDriveStateLog(DriveStateLog log) {
+        /* Called from CTRE's odometry thread; its timestamps are on CTRE's clock */
+        registerTelemetry(log == null ? state -> {}
+            : state -> log.append(state.ModulePositions, state.RawHeading.getDegrees(), state.Pose,
+                Utils.currentTimeToFPGATime(state.Timestamp)));
+    }
+
+    @Override
+    public void setVisionSubsystem(VisionSubsystem visionSubsystem) {
+        m_visionSubsystem = visionSubsystem;
+    }
+
+    @Override
+    public void setVisionEnabled(boolean enabled) {
+        m_visionEnabled = enabled;
+        SmartDashboard.putBoolean("Drive/Vision Enabled", enabled);
     }
 
     private void startSimThread() {
@@ -0,0 +1,202 @@
+package frc.robot.subsystems.vision;
+
+/**
+ * Dense store of the AprilTags every camera currently sees.
+ * <p>
+ * Data is kept as one primitive array per field, indexed by [camera][tagId]
+ * (flattened), plus a 64-bit visibility mask per camera where bit n is set when
+ * tag n is visible. Queries never box or allocate, so commands can poll the store
+ * every cycle.
+ * </p>
+ * <p>
+ * Filled from the Limelight "rawfiducials" array, which carries one entry per
+ * detected tag: id, txnc, tync, ta, distToCamera, distToRobot, ambiguity. Poses are
+ * in camera space with WPILib axes (x forward, y left). The rotation is the bearing
+ * from the camera to the tag, since rawfiducials carries no tag orientation.
+ * </p>
+ */
+public class AprilTagStore {
+    /** Values per tag in the rawfiducials array */
+    public static final int VALUES_PER_FIDUCIAL = 7;
+
+    /** Highest tag ID a 64-bit mask can hold */
+    public static final int MAX_SUPPORTED_TAG_ID = Long.SIZE - 1;
+
+    /**
+     * Callback for {@link #forEachVisible(TagConsumer)}
+     */
+    @FunctionalInterface
+    public interface TagConsumer {
+        void accept(int cameraIndex, int tagId, double x, double y, double yawRadians, double timestamp);
+    }
+
+    private final int cameraCount;
+    private final int maxTagId;
+    private final int stride;
+
+    // Bit n of cameraMasks[camera] is set when that camera sees tag n
+    private final long[] cameraMasks;
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] yawRadians;
+    private final double[] timestamp;
+    private final double[] ambiguity;
+    private final double[] area;
+
+    /**
+     * Create a store
+     * @param cameraCount Number of cameras
+     * @param maxTagId Highest tag ID to track, at most {@link #MAX_SUPPORTED_TAG_ID}
+     */
+    public AprilTagStore(int cameraCount, int maxTagId) {
+        if (cameraCount <= 0) {
+            throw new IllegalArgumentException("Camera count must be positive");
+        }
+        if (maxTagId < 0 || maxTagId > MAX_SUPPORTED_TAG_ID) {
+            throw new IllegalArgumentException("Max tag ID must be between 0 and " + MAX_SUPPORTED_TAG_ID);
+        }
+        this.cameraCount = cameraCount;
+        this.maxTagId = maxTagId;
+        this.stride = maxTagId + 1;
+
+        int size = cameraCount * stride;
+        cameraMasks = new long[cameraCount];
+        x = new double[size];
+        y = new double[size];
+        yawRadians = new double[size];
+        timestamp = new double[size];
+        ambiguity = new double[size];
+        area = new double[size];
+    }
+
+    /**
+     * Replace one camera's tags with the tags in a rawfiducials array.
+     * Tags with an ID outside the store are ignored. Does not allocate.
+     * @param cameraIndex Camera that published the array
+     * @param rawFiducials Flat rawfiducials array published by the Limelight
+     * @param frameTimestamp FPGA timestamp (seconds) the frame was captured at
+     * @return Number of tags stored
+     */
+    public int decode(int cameraIndex, double[] rawFiducials, double frameTimestamp) {
+        long mask = 0L;
+        int count = rawFiducials.length / VALUES_PER_FIDUCIAL;
+        for (int i = 0; i < count; i++) {
+            int base = i * VALUES_PER_FIDUCIAL;
+            int id = (int) rawFiducials[base];
+            if (id < 0 || id > maxTagId) {
+                continue;
+            }
+
+            // Limelight tx is positive to the right, WPILib y is positive to the left
+            double bearing = -Math.toRadians(rawFiducials[base + 1]);
+            double distance = rawFiducials[base + 4];
+
+            int slot = cameraIndex * stride + id;
+            x[slot] = distance * Math.cos(bearing);
+            y[slot] = distance * Math.sin(bearing);
+            yawRadians[slot] = bearing;
+            timestamp[slot] = frameTimestamp;
+            area[slot] = rawFiducials[base + 3];
+            ambiguity[slot] = rawFiducials[base + 6];
+            mask |= 1L << id;
+        }
+        cameraMasks[cameraIndex] = mask;
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Mark every tag on one camera as not visible
+     * @param cameraIndex Camera to clear
+     */
+    public void clear(int cameraIndex) {
+        cameraMasks[cameraIndex] = 0L;
+    }
+
+    /**
+     * Get the tags visible from any camera
+     * @return Bit mask with bit n set when tag n is visible
+     */
+    public long visibleTagMask() {
+        long mask = 0L;
+        for (long cameraMask : cameraMasks) {
+            mask |= cameraMask;
+        }
+        return mask;
+    }
+
+    /**
+     * Get the tags visible from one camera
+     * @param cameraIndex Camera index
+     * @return Bit mask with bit n set when tag n is visible
+     */
+    public long visibleTagMask(int cameraIndex) {
+        return cameraMasks[cameraIndex];
+    }
+
+    /**
+     * Check if a camera sees a tag
+     * @param cameraIndex Camera index
+     * @param tagId The AprilTag ID
+     * @return True if the tag was seen in the camera's last decoded frame
+     */
+    public boolean isVisible(int cameraIndex, int tagId) {
+        return tagId >= 0 && tagId <= maxTagId && (cameraMasks[cameraIndex] & (1L << tagId)) != 0;
+    }
+
+    /**
+     * Hand every visible (camera, tag) pair to the consumer, camera by camera in
+     * ascending tag ID order. Does not allocate.
+     * @param consumer Callback invoked once per visible tag per camera
+     */
+    public void forEachVisible(TagConsumer consumer) {
+        for (int camera = 0; camera < cameraCount; camera++) {
+            long mask = cameraMasks[camera];
+            while (mask != 0L) {
+                int id = Long.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+
+                int slot = camera * stride + id;
+                consumer.accept(camera, id, x[slot], y[slot], yawRadians[slot], timestamp[slot]);
+            }
+        }
+    }
+
+    public double getX(int cameraIndex, int tagId) {
+        return x[cameraIndex * stride + tagId];
+    }
+
+    public double getY(int cameraIndex, int tagId) {
+        return y[cameraIndex * stride + tagId];
+    }
+
+    public double getYawRadians(int cameraIndex, int tagId) {
+        return yawRadians[cameraIndex * stride + tagId];
+    }
+
+    public double getTimestamp(int cameraIndex, int tagId) {
+        return timestamp[cameraIndex * stride + tagId];
+    }
+
+    public double getAmbiguity(int cameraIndex, int tagId) {
+        return ambiguity[cameraIndex * stride + tagId];
+    }
+
+    public double getArea(int cameraIndex, int tagId) {
+        return area[cameraIndex * stride + tagId];
+    }
+
+    /**
+     * @return Number of cameras in the store
+     */
+    public int getCameraCount() {
+        return cameraCount;
+    }
+
+    /**
+     * @return Highest tag ID the store can hold
+     */
+    public int getMaxTagId() {
+        return maxTagId;
+    }
+}
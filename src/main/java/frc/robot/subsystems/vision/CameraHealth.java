@@ -0,0 +1,70 @@
+package frc.robot.subsystems.vision;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/**
+ * Health of one camera over the last metrics window. Mutable so it can be
+ * refilled in place every loop.
+ */
+public class CameraHealth implements StructSerializable {
+    /** Frames received per second */
+    public double frameRate;
+    /** Capture + pipeline latency percentiles (milliseconds) */
+    public double latencyP50Ms;
+    public double latencyP95Ms;
+    public double latencyMaxMs;
+    /** Time since the newest frame was captured (milliseconds) */
+    public double stalenessMs;
+    /** Frames rejected since startup (no pose, no tags, spinning too fast) */
+    public int rejectedFrames;
+
+    public static final CameraHealthStruct struct = new CameraHealthStruct();
+
+    public static class CameraHealthStruct implements Struct<CameraHealth> {
+        @Override
+        public Class<CameraHealth> getTypeClass() {
+            return CameraHealth.class;
+        }
+
+        @Override
+        public String getTypeName() {
+            return "CameraHealth";
+        }
+
+        @Override
+        public int getSize() {
+            return kSizeDouble * 5 + kSizeInt32;
+        }
+
+        @Override
+        public String getSchema() {
+            return "double frameRate;double latencyP50Ms;double latencyP95Ms;double latencyMaxMs;"
+                + "double stalenessMs;int32 rejectedFrames";
+        }
+
+        @Override
+        public CameraHealth unpack(ByteBuffer bb) {
+            CameraHealth health = new CameraHealth();
+            health.frameRate = bb.getDouble();
+            health.latencyP50Ms = bb.getDouble();
+            health.latencyP95Ms = bb.getDouble();
+            health.latencyMaxMs = bb.getDouble();
+            health.stalenessMs = bb.getDouble();
+            health.rejectedFrames = bb.getInt();
+            return health;
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, CameraHealth value) {
+            bb.putDouble(value.frameRate);
+            bb.putDouble(value.latencyP50Ms);
+            bb.putDouble(value.latencyP95Ms);
+            bb.putDouble(value.latencyMaxMs);
+            bb.putDouble(value.stalenessMs);
+            bb.putInt(value.rejectedFrames);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package frc.robot.subsystems.vision;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.Constants.VisionConstants;
+import frc.robot.shared.LimelightHelpers;
+
+/**
+ * Narrows each camera's crop window and picks a fiducial downscale while one tag
+ * is being tracked, so the Limelights process fewer pixels and run faster.
+ * <p>
+ * Each loop the target tag is located in every camera's image: from the camera's
+ * own tx/ty when it is tracking that tag, otherwise predicted from the robot pose,
+ * the camera mount and the field layout. The prediction uses the full 3D mount, so
+ * the vertical position is only right when the mount's height and pitch are
+ * configured; cameras whose mount is not configured are only ever cropped from
+ * their own measurement. The crop is centered there and sized to a few tag widths;
+ * large (close) tags get a higher downscale.
+ * </p>
+ * <p>
+ * Only the camera's own tv/tid count as tracking. A camera that has not reported
+ * the tag for {@link VisionConstants#CROP_LOST_LOOPS} loops goes back to full frame
+ * and pipeline downscale, even if the prediction still puts the tag in view, and is
+ * not cropped again from the prediction until it has seen the tag itself. Every
+ * camera also returns to full frame when no tag is targeted. Values are only
+ * pushed when they change.
+ * </p>
+ * <p>
+ * Image coordinates are normalized, -1 to 1 across the frame, +x right and +y up,
+ * like the Limelight crop window.
+ * </p>
+ */
+public class CameraTuner {
+    // Normalized crop changes smaller than this are not worth pushing
+    private static final double CROP_DEADBAND = 0.05;
+
+    // Tag half-width (normalized) at or above which each downscale factor is used
+    private static final double[] DOWNSCALE_HALF_WIDTHS = {0.30, 0.15, 0.08};
+    private static final float[] DOWNSCALE_FACTORS = {3.0f, 2.0f, 1.5f};
+
+    private final VisionCamera[] cameras;
+    private final Transform3d[] robotToCamera;
+    private final AprilTagFieldLayout layout;
+    private final double tanHalfHfov;
+    private final double tanHalfVfov;
+
+    // Last values pushed, per camera
+    private final double[] crop;
+    private final int[] downscale;
+    private final boolean[] cropped;
+    private final int[] lostLoops;
+
+    // Cameras that lost the tag: cropped again only once they report it themselves
+    private final boolean[] reacquiring;
+
+    // Pipeline rate from the heartbeat, per camera
+    private final double[] fps;
+    private final double[] windowStartHeartbeat;
+    private double windowStart = Double.NaN;
+    private final DoubleArrayPublisher fpsPub;
+
+    // Where the target tag was measured and predicted this loop: x, y, half-width
+    private final double[] location = new double[3];
+    private final double[] prediction = new double[3];
+
+    private int targetTagId = -1;
+
+    /**
+     * Create a tuner
+     * @param ntInstance NetworkTables instance to publish frame rates on
+     * @param cameras Cameras to tune
+     * @param robotToCamera Mount of each camera, null where it is not configured
+     * @param layout Field layout to predict tag positions from
+     */
+    public CameraTuner(NetworkTableInstance ntInstance, VisionCamera[] cameras, Transform3d[] robotToCamera, AprilTagFieldLayout layout) {
+        this.cameras = cameras;
+        this.robotToCamera = robotToCamera;
+        this.layout = layout;
+        tanHalfHfov = Math.tan(Math.toRadians(VisionConstants.LIMELIGHT_HFOV_DEGREES) / 2.0);
+        tanHalfVfov = Math.tan(Math.toRadians(VisionConstants.LIMELIGHT_VFOV_DEGREES) / 2.0);
+
+        crop = new double[cameras.length * 4];
+        downscale = new int[cameras.length];
+        cropped = new boolean[cameras.length];
+        lostLoops = new int[cameras.length];
+        reacquiring = new boolean[cameras.length];
+        fps = new double[cameras.length];
+        windowStartHeartbeat = new double[cameras.length];
+        fpsPub = ntInstance.getDoubleArrayTopic(VisionConstants.TUNING_FPS_TOPIC).publish();
+
+        for (int i = 0; i < cameras.length; i++) {
+            pushFullFrame(i);
+        }
+    }
+
+    /**
+     * Choose the tag to crop around
+     * @param tagId Tag ID, or -1 to return every camera to full frame
+     */
+    public void setTargetTag(int tagId) {
+        if (tagId != targetTagId) {
+            Arrays.fill(reacquiring, false);
+        }
+        targetTagId = tagId;
+    }
+
+    /**
+     * Update every camera's crop and downscale and the frame rate. Call once per loop.
+     * @param robotPose Field-relative robot pose
+     * @param now Current FPGA timestamp (seconds)
+     */
+    public void update(Pose2d robotPose, double now) {
+        updateFps(now);
+
+        Optional<Pose3d> tagPose = targetTagId >= 0 ? layout.getTagPose(targetTagId) : Optional.empty();
+        Pose3d robotPose3d = tagPose.isPresent() ? new Pose3d(robotPose) : null;
+
+        for (int i = 0; i < cameras.length; i++) {
+            Transform3d mount = robotToCamera[i];
+            boolean predicted = tagPose.isPresent() && mount != null
+                && predict(robotPose3d.transformBy(mount), tagPose.get(), prediction);
+
+            if (tagPose.isPresent() && measure(i, predicted)) {
+                lostLoops[i] = 0;
+                reacquiring[i] = false;
+                pushCrop(i, location[0], location[1], location[2]);
+            } else if (cropped[i] && ++lostLoops[i] >= VisionConstants.CROP_LOST_LOOPS) {
+                // The camera is not seeing the tag inside the crop: widen back out so it can find it again
+                pushFullFrame(i);
+                reacquiring[i] = true;
+            } else if (predicted && !reacquiring[i]) {
+                // Follow the prediction until the camera confirms the tag
+                pushCrop(i, prediction[0], prediction[1], prediction[2]);
+            }
+        }
+    }
+
+    /**
+     * Read where the camera itself sees the target tag
+     * @param predicted Whether {@link #prediction} holds this camera's prediction
+     * @return True if the camera is tracking the target tag and {@link #location} was filled
+     */
+    private boolean measure(int cameraIndex, boolean predicted) {
+        VisionCamera camera = cameras[cameraIndex];
+        if (!camera.hasTarget() || (int) camera.getTid() != targetTagId) {
+            return false;
+        }
+        location[0] = Math.tan(Math.toRadians(camera.getTx())) / tanHalfHfov;
+        location[1] = Math.tan(Math.toRadians(camera.getTy())) / tanHalfVfov;
+        // ta is the percent of the image the tag covers
+        location[2] = predicted ? prediction[2] : Math.sqrt(Math.max(camera.getTa(), 0.0) / 100.0);
+        return true;
+    }
+
+    /**
+     * Predict where a tag appears in a camera image
+     * @param cameraPose Field-relative camera pose (x forward, y left, z up)
+     * @param tagPose Field-relative tag pose
+     * @param out Filled with normalized x, y and tag half-width
+     * @return True if the tag faces the camera and is inside the field of view
+     */
+    boolean predict(Pose3d cameraPose, Pose3d tagPose, double[] out) {
+        Pose3d tagInCamera = tagPose.relativeTo(cameraPose);
+        double forward = tagInCamera.getX();
+        if (forward <= 0.0) {
+            return false;
+        }
+        // Tags are printed on their +x side, so the camera must be in front of the tag
+        if (cameraPose.relativeTo(tagPose).getX() <= 0.0) {
+            return false;
+        }
+
+        out[0] = (-tagInCamera.getY() / forward) / tanHalfHfov;
+        out[1] = (tagInCamera.getZ() / forward) / tanHalfVfov;
+        double distance = tagInCamera.getTranslation().getNorm();
+        out[2] = (VisionConstants.APRILTAG_SIZE_METERS / 2.0 / distance) / tanHalfHfov;
+        return Math.abs(out[0]) <= 1.0 && Math.abs(out[1]) <= 1.0;
+    }
+
+    private void pushCrop(int cameraIndex, double x, double y, double tagHalfWidth) {
+        double half = Math.min(1.0, Math.max(VisionConstants.CROP_MIN_HALF_SIZE, tagHalfWidth * VisionConstants.CROP_MARGIN));
+        double xMin = Math.max(-1.0, x - half);
+        double xMax = Math.min(1.0, x + half);
+        double yMin = Math.max(-1.0, y - half);
+        double yMax = Math.min(1.0, y + half);
+
+        int base = cameraIndex * 4;
+        if (!cropped[cameraIndex]
+            || Math.abs(crop[base] - xMin) > CROP_DEADBAND
+            || Math.abs(crop[base + 1] - xMax) > CROP_DEADBAND
+            || Math.abs(crop[base + 2] - yMin) > CROP_DEADBAND
+            || Math.abs(crop[base + 3] - yMax) > CROP_DEADBAND) {
+            setCrop(cameraIndex, xMin, xMax, yMin, yMax);
+        }
+        cropped[cameraIndex] = true;
+
+        int setting = LimelightHelpers.getFiducialDownscaleSetting(downscaleFor(tagHalfWidth));
+        if (setting != downscale[cameraIndex]) {
+            downscale[cameraIndex] = setting;
+            cameras[cameraIndex].setFiducialDownscale(setting);
+        }
+    }
+
+    private void pushFullFrame(int cameraIndex) {
+        setCrop(cameraIndex, -1.0, 1.0, -1.0, 1.0);
+        cropped[cameraIndex] = false;
+        lostLoops[cameraIndex] = 0;
+        downscale[cameraIndex] = LimelightHelpers.getFiducialDownscaleSetting(0.0f);
+        cameras[cameraIndex].setFiducialDownscale(downscale[cameraIndex]);
+    }
+
+    private void setCrop(int cameraIndex, double xMin, double xMax, double yMin, double yMax) {
+        int base = cameraIndex * 4;
+        crop[base] = xMin;
+        crop[base + 1] = xMax;
+        crop[base + 2] = yMin;
+        crop[base + 3] = yMax;
+        cameras[cameraIndex].setCropWindow(xMin, xMax, yMin, yMax);
+    }
+
+    /**
+     * Pick a downscale factor for a tag's apparent size. Close tags have plenty of
+     * pixels to spare; far ones need full resolution.
+     * @param tagHalfWidth Normalized tag half-width
+     * @return Downscale factor
+     */
+    static float downscaleFor(double tagHalfWidth) {
+        for (int i = 0; i < DOWNSCALE_HALF_WIDTHS.length; i++) {
+            if (tagHalfWidth >= DOWNSCALE_HALF_WIDTHS[i]) {
+                return DOWNSCALE_FACTORS[i];
+            }
+        }
+        return 1.0f;
+    }
+
+    private void updateFps(double now) {
+        if (Double.isNaN(windowStart)) {
+            windowStart = now;
+            for (int i = 0; i < cameras.length; i++) {
+                windowStartHeartbeat[i] = cameras[i].getHeartbeat();
+            }
+            return;
+        }
+        double elapsed = now - windowStart;
+        if (elapsed < VisionConstants.METRICS_WINDOW_SECONDS) {
+            return;
+        }
+        for (int i = 0; i < cameras.length; i++) {
+            double heartbeat = cameras[i].getHeartbeat();
+            // The heartbeat restarts when a camera reboots
+            fps[i] = Math.max(0.0, heartbeat - windowStartHeartbeat[i]) / elapsed;
+            windowStartHeartbeat[i] = heartbeat;
+        }
+        windowStart = now;
+        fpsPub.set(fps);
+    }
+
+    /**
+     * @return Pipeline frames per second over the last window
+     */
+    public double getFps(int cameraIndex) {
+        return fps[cameraIndex];
+    }
+
+    /**
+     * @return True if the camera is cropped around the target tag
+     */
+    public boolean isCropped(int cameraIndex) {
+        return cropped[cameraIndex];
+    }
+
+    /**
+     * @return Current crop edge: 0-3 for x min, x max, y min, y max
+     */
+    public double getCrop(int cameraIndex, int edge) {
+        return crop[cameraIndex * 4 + edge];
+    }
+
+    /**
+     * @return Last fiducial_downscale_set value pushed
+     */
+    public int getDownscaleSetting(int cameraIndex) {
+        return downscale[cameraIndex];
+    }
+}
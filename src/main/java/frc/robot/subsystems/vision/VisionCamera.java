@@ -0,0 +1,392 @@
+package frc.robot.subsystems.vision;
+
+import java.util.EnumSet;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableValue;
+
+/**
+ * Cached NetworkTables handle for a single Limelight.
+ * <p>
+ * Every topic the vision pipeline reads is subscribed to once, up front, so the
+ * periodic loop never does a string lookup or allocates a default array. The
+ * botpose array is copied into a fixed buffer and only re-read from NetworkTables
+ * when the camera has actually published a new value.
+ * </p>
+ * <p>
+ * Each frame is stamped with the NetworkTables change time minus the capture (cl)
+ * and pipeline (tl) latency the Limelight reports, which puts it on the FPGA time
+ * base at the moment the image was taken rather than when we happened to read it.
+ * </p>
+ */
+public class VisionCamera {
+    /** Number of botpose values we keep: x, y, z, roll, pitch, yaw, latency, tag count, span, dist, area */
+    public static final int BOTPOSE_HEADER_LENGTH = 11;
+
+    /** Legacy single-frame (MegaTag1) pose topic */
+    public static final String BOTPOSE_TOPIC = "botpose";
+
+    /** MegaTag2 pose topic, solved with the robot orientation we publish */
+    public static final String MEGATAG2_TOPIC = "botpose_orb_wpiblue";
+
+    private static final double[] EMPTY_ARRAY = new double[0];
+
+    /**
+     * Get the pose topic to read
+     * @param megaTag2 True for MegaTag2, false for the legacy botpose
+     * @return {@link #MEGATAG2_TOPIC} or {@link #BOTPOSE_TOPIC}
+     */
+    public static String getPoseTopic(boolean megaTag2) {
+        return megaTag2 ? MEGATAG2_TOPIC : BOTPOSE_TOPIC;
+    }
+
+    private final NetworkTableInstance ntInstance;
+    private final String name;
+    private final Pose2d robotToCamera;
+
+    // Typed subscribers, created once
+    private final DoubleSubscriber tvSub;
+    private final DoubleSubscriber taSub;
+    private final DoubleSubscriber txSub;
+    private final DoubleSubscriber tySub;
+    private final DoubleSubscriber tidSub;
+    private final DoubleSubscriber tlSub;
+    private final DoubleSubscriber clSub;
+    private final DoubleSubscriber hbSub;
+    private final DoubleArraySubscriber botposeSub;
+    private final DoubleArraySubscriber rawFiducialsSub;
+    private final DoublePublisher pipelinePub;
+    private final DoubleArrayPublisher robotOrientationPub;
+    private final DoubleArrayPublisher cropPub;
+    private final DoublePublisher downscalePub;
+
+    // yaw, yaw rate, pitch, pitch rate, roll, roll rate; reused for every publish
+    private final double[] robotOrientation = new double[6];
+
+    // x min, x max, y min, y max; reused for every publish
+    private final double[] cropWindow = new double[4];
+
+    // Latest botpose, copied out of NetworkTables
+    private final double[] botpose = new double[BOTPOSE_HEADER_LENGTH];
+    private int botposeLength = 0;
+    private long botposeLastChange = -1;
+    private double frameTimestamp = 0.0;
+    private long rawFiducialsLastChange = -1;
+
+    // Frames the NT listener skipped; written only by the listener thread
+    private volatile int rejectedFrames = 0;
+
+    /**
+     * Create a camera handle that reads the legacy botpose
+     *
+     * @param ntInstance NetworkTables instance to subscribe on
+     * @param name Limelight table name
+     * @param robotToCamera Transform from robot center to camera, null if not configured
+     */
+    public VisionCamera(NetworkTableInstance ntInstance, String name, Pose2d robotToCamera) {
+        this(ntInstance, name, robotToCamera, BOTPOSE_TOPIC);
+    }
+
+    /**
+     * Create a camera handle
+     *
+     * @param ntInstance NetworkTables instance to subscribe on
+     * @param name Limelight table name
+     * @param robotToCamera Transform from robot center to camera, null if not configured
+     * @param poseTopic Pose array to read, {@link #BOTPOSE_TOPIC} or {@link #MEGATAG2_TOPIC}
+     */
+    public VisionCamera(NetworkTableInstance ntInstance, String name, Pose2d robotToCamera, String poseTopic) {
+        this.ntInstance = ntInstance;
+        this.name = name;
+        this.robotToCamera = robotToCamera;
+
+        NetworkTable table = ntInstance.getTable(name);
+        tvSub = table.getDoubleTopic("tv").subscribe(0.0);
+        taSub = table.getDoubleTopic("ta").subscribe(0.0);
+        txSub = table.getDoubleTopic("tx").subscribe(0.0);
+        tySub = table.getDoubleTopic("ty").subscribe(0.0);
+        tidSub = table.getDoubleTopic("tid").subscribe(-1.0);
+        tlSub = table.getDoubleTopic("tl").subscribe(0.0);
+        clSub = table.getDoubleTopic("cl").subscribe(0.0);
+        hbSub = table.getDoubleTopic("hb").subscribe(0.0);
+        botposeSub = table.getDoubleArrayTopic(poseTopic).subscribe(EMPTY_ARRAY);
+        rawFiducialsSub = table.getDoubleArrayTopic("rawfiducials").subscribe(EMPTY_ARRAY);
+        pipelinePub = table.getDoubleTopic("pipeline").publish();
+        robotOrientationPub = table.getDoubleArrayTopic("robot_orientation_set").publish();
+        cropPub = table.getDoubleArrayTopic("crop").publish();
+        downscalePub = table.getDoubleTopic("fiducial_downscale_set").publish();
+    }
+
+    /**
+     * Get the Limelight table name
+     * @return Camera name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the transform from robot center to this camera
+     * @return Robot to camera transform, or null if the mount is not configured
+     */
+    public Pose2d getRobotToCamera() {
+        return robotToCamera;
+    }
+
+    /**
+     * Check if the Limelight reports a valid target (tv = 1)
+     * @return True if a target is visible
+     */
+    public boolean hasTarget() {
+        return tvSub.get() >= 0.5;
+    }
+
+    public double getTa() {
+        return taSub.get();
+    }
+
+    public double getTx() {
+        return txSub.get();
+    }
+
+    public double getTy() {
+        return tySub.get();
+    }
+
+    public double getTid() {
+        return tidSub.get();
+    }
+
+    /**
+     * @return Heartbeat, incremented by the Limelight once per processed frame
+     */
+    public double getHeartbeat() {
+        return hbSub.get();
+    }
+
+    /**
+     * Copy the botpose into the buffer if the camera published a new frame since the
+     * last call. A frame is only ever reported as new once.
+     * @return True if a new frame was read
+     */
+    public boolean pollFrame() {
+        long lastChange = botposeSub.getLastChange();
+        if (lastChange == botposeLastChange) {
+            return false;
+        }
+        
+        double[] raw = botposeSub.get(EMPTY_ARRAY);
+        botposeLength = Math.min(raw.length, botpose.length);
+        System.arraycopy(raw, 0, botpose, 0, botposeLength);
+        botposeLastChange = lastChange;
+        
+        frameTimestamp = captureTimestamp(lastChange, getFrameLatencyMillis());
+        return true;
+    }
+
+    /**
+     * Decode the per-tag rawfiducials array into a tag store if the camera published
+     * a new one since the last call. The store is left untouched otherwise.
+     * @param cameraIndex Index of this camera in the store
+     * @param tags Store to fill
+     * @return True if the camera's tags were refreshed
+     */
+    public boolean pollFiducials(int cameraIndex, AprilTagStore tags) {
+        long lastChange = rawFiducialsSub.getLastChange();
+        if (lastChange == rawFiducialsLastChange) {
+            return false;
+        }
+        
+        tags.decode(cameraIndex, rawFiducialsSub.get(EMPTY_ARRAY), captureTimestamp(lastChange));
+        rawFiducialsLastChange = lastChange;
+        return true;
+    }
+
+    /**
+     * Push every botpose this camera publishes into a frame queue as it arrives,
+     * instead of waiting for the next poll. The listener runs on the NetworkTables
+     * listener thread, which is the queue's only producer.
+     * <p>
+     * Frames with no tags are not queued. Latency, tag count and area are taken from
+     * the botpose array itself when the camera publishes them, so they always belong
+     * to the same frame as the pose; the separate tl/cl/ta/tid topics may already hold
+     * the next frame's values by the time the listener runs.
+     * </p>
+     * @param cameraIndex Index to tag queued frames with
+     * @param queue Queue to push frames into
+     * @return Listener handle, pass to {@link NetworkTableInstance#removeListener(int)} to stop
+     */
+    public int addFrameListener(int cameraIndex, VisionFrameQueue queue) {
+        return ntInstance.addListener(
+            botposeSub,
+            EnumSet.of(NetworkTableEvent.Kind.kValueAll),
+            event -> {
+                NetworkTableValue value = event.valueData.value;
+                double[] pose = value.getDoubleArray();
+                
+                // Need a full pose, and at least one tag when the camera reports a tag count
+                if (pose.length < 6 || (pose.length > 7 && pose[7] < 1)) {
+                    rejectedFrames++;
+                    return;
+                }
+                
+                double latencyMillis = frameLatencyMillis(pose, pose.length);
+                double tagCount = frameTagCount(pose, pose.length);
+                double targetArea = frameTargetArea(pose, pose.length);
+                queue.offer(cameraIndex, captureTimestamp(value.getTime(), latencyMillis), pose, targetArea, tagCount);
+            }
+        );
+    }
+
+    /**
+     * Get the number of frames the NT listener skipped for having no pose or no tags
+     * @return Rejected frame count since startup
+     */
+    public int getRejectedFrameCount() {
+        return rejectedFrames;
+    }
+
+    /**
+     * Get the latency the camera currently reports
+     * @return Capture (cl) plus pipeline (tl) latency in milliseconds
+     */
+    public double getLatencyMillis() {
+        return tlSub.get() + clSub.get();
+    }
+
+    /**
+     * Convert an NT change time into the time the image was captured
+     * @param changeMicros NT change time (microseconds, FPGA time base)
+     * @return Capture time in FPGA seconds
+     */
+    private double captureTimestamp(long changeMicros) {
+        return captureTimestamp(changeMicros, getLatencyMillis());
+    }
+
+    /**
+     * Convert an NT change time into the time the image was captured
+     * @param changeMicros NT change time (microseconds, FPGA time base)
+     * @param latencyMillis Total capture and pipeline latency of the frame (milliseconds)
+     * @return Capture time in FPGA seconds
+     */
+    private static double captureTimestamp(long changeMicros, double latencyMillis) {
+        return changeMicros / 1e6 - latencyMillis / 1000.0;
+    }
+
+    /**
+     * @return True if the buffer holds at least a full 6-DOF pose
+     */
+    public boolean hasPose() {
+        return botposeLength >= 6;
+    }
+
+    /**
+     * Get the capture time of the buffered frame
+     * @return FPGA timestamp (seconds) the image was captured at
+     */
+    public double getFrameTimestamp() {
+        return frameTimestamp;
+    }
+
+    /**
+     * Get the latency of the buffered frame, from the botpose itself when the camera
+     * publishes it, the same as frames from {@link #addFrameListener}
+     * @return Capture plus pipeline latency (milliseconds)
+     */
+    public double getFrameLatencyMillis() {
+        return frameLatencyMillis(botpose, botposeLength);
+    }
+
+    /**
+     * Get the number of tags in the buffered frame
+     * @return Tag count from the botpose, or 1 if the camera does not publish it
+     */
+    public double getFrameTagCount() {
+        return frameTagCount(botpose, botposeLength);
+    }
+
+    /**
+     * Get the average tag area of the buffered frame
+     * @return Area from the botpose, or the current ta if the camera does not publish it
+     */
+    public double getFrameTargetArea() {
+        return frameTargetArea(botpose, botposeLength);
+    }
+
+    // botpose: [6] total latency (ms), [7] tag count, [10] average tag area.
+    // Pose-only arrays fall back to the live topics, which may already hold the next frame.
+
+    private double frameLatencyMillis(double[] pose, int length) {
+        return length > 6 ? pose[6] : getLatencyMillis();
+    }
+
+    private static double frameTagCount(double[] pose, int length) {
+        // tid is the primary tag's ID, not a count; any pose was solved from at least one tag
+        return length > 7 ? pose[7] : 1.0;
+    }
+
+    private double frameTargetArea(double[] pose, int length) {
+        return length > 10 ? pose[10] : taSub.get();
+    }
+
+    /**
+     * Get a value from the cached botpose buffer
+     * @param index Index into the botpose array
+     * @return Value, or 0 if the camera did not publish that many values
+     */
+    public double getBotpose(int index) {
+        return index < botposeLength ? botpose[index] : 0.0;
+    }
+
+    /**
+     * Publish the robot's field-relative heading for MegaTag2. Like
+     * LimelightHelpers.SetRobotOrientation_NoFlush, this does not flush; the caller
+     * flushes once after updating every camera.
+     * @param yawDegrees Robot yaw (degrees, blue-origin field frame)
+     * @param yawRateDegreesPerSecond Robot yaw rate (degrees per second)
+     */
+    public void setRobotOrientation(double yawDegrees, double yawRateDegreesPerSecond) {
+        robotOrientation[0] = yawDegrees;
+        robotOrientation[1] = yawRateDegreesPerSecond;
+        robotOrientationPub.set(robotOrientation);
+    }
+
+    /**
+     * Set the active pipeline
+     * @param pipeline Pipeline number
+     */
+    public void setPipeline(int pipeline) {
+        pipelinePub.set(pipeline);
+    }
+
+    /**
+     * Limit the pipeline to part of the image. Coordinates are normalized, -1 to 1
+     * across the full frame; like setPipeline, this does not flush.
+     * @param xMin Left edge
+     * @param xMax Right edge
+     * @param yMin Bottom edge
+     * @param yMax Top edge
+     */
+    public void setCropWindow(double xMin, double xMax, double yMin, double yMax) {
+        cropWindow[0] = xMin;
+        cropWindow[1] = xMax;
+        cropWindow[2] = yMin;
+        cropWindow[3] = yMax;
+        cropPub.set(cropWindow);
+    }
+
+    /**
+     * Override the fiducial downscale factor
+     * @param setting Value for fiducial_downscale_set, see {@link frc.robot.shared.LimelightHelpers#getFiducialDownscaleSetting(float)}
+     */
+    public void setFiducialDownscale(int setting) {
+        downscalePub.set(setting);
+    }
+}
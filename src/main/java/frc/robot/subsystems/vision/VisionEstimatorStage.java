@@ -0,0 +1,143 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import frc.robot.Constants.VisionConstants;
+
+/**
+ * The vision half of the pose estimation pipeline: collects one loop's
+ * measurements, fuses those captured at the same time and hands the results to
+ * a pose estimator.
+ * <p>
+ * Shared by {@code SwerveDriveSubsystem} on the robot and the offline replay
+ * runner, so both exercise exactly the same fusion and standard deviation model.
+ * </p>
+ */
+public class VisionEstimatorStage {
+    /** Takes the fused measurement, for estimators other than {@link SwerveDrivePoseEstimator} */
+    public interface Sink {
+        /**
+         * @param pose Fused field pose
+         * @param timestamp FPGA time of the measurement (seconds)
+         * @param stdDevs x, y and heading standard deviations; reused, do not keep
+         */
+        void addVisionMeasurement(Pose2d pose, double timestamp, Matrix<N3, N1> stdDevs);
+    }
+
+    private final VisionFusion fusion;
+    private final double stdDevX;
+    private final double stdDevY;
+    private final double stdDevTheta;
+
+    // Reused for every estimator update
+    private final Matrix<N3, N1> stdDevs = new Matrix<>(Nat.N3(), Nat.N1());
+
+    /**
+     * Create a stage
+     * @param fusion Fusion step to run before the estimator
+     * @param stdDevX Base x standard deviation (meters), scaled per measurement
+     * @param stdDevY Base y standard deviation (meters), scaled per measurement
+     * @param stdDevTheta Base heading standard deviation (radians), scaled per measurement
+     */
+    public VisionEstimatorStage(VisionFusion fusion, double stdDevX, double stdDevY, double stdDevTheta) {
+        this.fusion = fusion;
+        this.stdDevX = stdDevX;
+        this.stdDevY = stdDevY;
+        this.stdDevTheta = stdDevTheta;
+    }
+
+    /**
+     * Build the stage the robot runs, from {@link VisionConstants}. The heading
+     * standard deviation follows the pose source: MegaTag2 headings are the robot's
+     * own gyro fed back, so they are effectively ignored.
+     * @param stdScale Multiplier on the base standard deviations, 1 on the robot
+     * @return New stage
+     */
+    public static VisionEstimatorStage create(double stdScale) {
+        return new VisionEstimatorStage(
+            new VisionFusion(
+                VisionConstants.FRAME_QUEUE_CAPACITY,
+                VisionConstants.FUSION_WINDOW_SECONDS,
+                VisionConstants.FUSION_MAX_TRANSLATION_ERROR_METERS,
+                VisionConstants.FUSION_MAX_HEADING_ERROR_RADIANS,
+                VisionConstants.FUSION_MAX_REJECTED_LOOPS
+            ),
+            VisionConstants.VISION_STD_DEV_X * stdScale,
+            VisionConstants.VISION_STD_DEV_Y * stdScale,
+            (VisionConstants.MEGATAG2_INGEST ? VisionConstants.MEGATAG2_STD_DEV_THETA : VisionConstants.VISION_STD_DEV_THETA) * stdScale
+        );
+    }
+
+    /**
+     * Start a new loop
+     */
+    public void reset() {
+        fusion.reset();
+    }
+
+    /**
+     * Add one measurement to this loop
+     * @param measurement Measurement to copy
+     */
+    public void add(VisionMeasurement measurement) {
+        fusion.add(measurement);
+    }
+
+    /**
+     * Fuse this loop's measurements against the estimator's current pose and add
+     * one vision measurement per capture time that survives, oldest first
+     * @param estimator Estimator to update
+     * @return True if the estimator received a measurement
+     */
+    public boolean apply(SwerveDrivePoseEstimator estimator) {
+        int estimates = fuse(estimator.getEstimatedPosition());
+        for (int i = 0; i < estimates; i++) {
+            setStdDevs(i);
+            estimator.addVisionMeasurement(getFusedPose(i), fusion.getTimestamp(i), stdDevs);
+        }
+        return estimates > 0;
+    }
+
+    /**
+     * Fuse this loop's measurements against an odometry pose and hand one vision
+     * measurement per capture time that survives to a sink, oldest first
+     * @param odometryPose Current estimated pose
+     * @param sink Receives the measurements
+     * @return True if the sink received a measurement
+     */
+    public boolean apply(Pose2d odometryPose, Sink sink) {
+        int estimates = fuse(odometryPose);
+        for (int i = 0; i < estimates; i++) {
+            setStdDevs(i);
+            sink.addVisionMeasurement(getFusedPose(i), fusion.getTimestamp(i), stdDevs);
+        }
+        return estimates > 0;
+    }
+
+    private int fuse(Pose2d odometryPose) {
+        return fusion.fuse(odometryPose.getX(), odometryPose.getY(), odometryPose.getRotation().getRadians());
+    }
+
+    private void setStdDevs(int estimate) {
+        double scale = fusion.getStdDevScale(estimate);
+        stdDevs.set(0, 0, stdDevX * scale);
+        stdDevs.set(1, 0, stdDevY * scale);
+        stdDevs.set(2, 0, stdDevTheta * scale);
+    }
+
+    private Pose2d getFusedPose(int estimate) {
+        return new Pose2d(fusion.getX(estimate), fusion.getY(estimate), new Rotation2d(fusion.getYawRadians(estimate)));
+    }
+
+    /**
+     * @return Fusion step, for its per-loop counters
+     */
+    public VisionFusion getFusion() {
+        return fusion;
+    }
+}
@@ -0,0 +1,132 @@
+package frc.robot.subsystems.vision;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer / single-consumer queue of Limelight frames.
+ * <p>
+ * The NetworkTables listener thread is the only producer and the command scheduler
+ * is the only consumer. Frames are copied into preallocated slots, so every frame
+ * that arrives between two scheduler loops is kept instead of being overwritten by
+ * the next one. If the scheduler falls so far behind that the queue fills up, new
+ * frames are dropped and counted rather than blocking the listener thread.
+ * </p>
+ */
+public class VisionFrameQueue {
+    /**
+     * A single queued frame. Only valid inside {@link FrameConsumer#accept(Frame)}.
+     */
+    public static class Frame {
+        public int cameraIndex;
+        /** FPGA timestamp (seconds) the image was captured at */
+        public double timestamp;
+        public double targetArea;
+        public double tagCount;
+        public final double[] botpose = new double[VisionCamera.BOTPOSE_HEADER_LENGTH];
+        public int botposeLength;
+    }
+
+    /**
+     * Callback used to drain the queue without allocating
+     */
+    @FunctionalInterface
+    public interface FrameConsumer {
+        void accept(Frame frame);
+    }
+
+    private final Frame[] frames;
+    private final int mask;
+
+    // Producer writes tail, consumer writes head
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Create a queue
+     * @param capacity Number of frames to preallocate, rounded up to a power of two
+     */
+    public VisionFrameQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        frames = new Frame[size];
+        for (int i = 0; i < size; i++) {
+            frames[i] = new Frame();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Copy a frame into the queue. Producer thread only.
+     * @param cameraIndex Index of the camera that produced the frame
+     * @param timestamp Capture timestamp (FPGA seconds)
+     * @param botpose Botpose array published by the camera
+     * @param targetArea Target area at the time of the frame
+     * @param tagCount Tag count at the time of the frame
+     * @return False if the queue was full and the frame was dropped
+     */
+    public boolean offer(int cameraIndex, double timestamp, double[] botpose, double targetArea, double tagCount) {
+        long t = tail.get();
+        if (t - head.get() >= frames.length) {
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        Frame frame = frames[(int) (t & mask)];
+        frame.cameraIndex = cameraIndex;
+        frame.timestamp = timestamp;
+        frame.targetArea = targetArea;
+        frame.tagCount = tagCount;
+        frame.botposeLength = Math.min(botpose.length, frame.botpose.length);
+        System.arraycopy(botpose, 0, frame.botpose, 0, frame.botposeLength);
+
+        // Publish the slot to the consumer
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Hand every queued frame to the consumer, oldest first. Consumer thread only.
+     * @param consumer Callback invoked once per frame
+     * @return Number of frames drained
+     */
+    public int drain(FrameConsumer consumer) {
+        long h = head.get();
+        long t = tail.get();
+        int count = 0;
+        while (h < t) {
+            consumer.accept(frames[(int) (h & mask)]);
+            h++;
+            count++;
+            // Release the slot back to the producer
+            head.lazySet(h);
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of frames waiting to be drained
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * @return Number of preallocated frame slots
+     */
+    public int capacity() {
+        return frames.length;
+    }
+
+    /**
+     * @return Total number of frames dropped because the queue was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
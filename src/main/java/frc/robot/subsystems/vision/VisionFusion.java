@@ -0,0 +1,268 @@
+package frc.robot.subsystems.vision;
+
+/**
+ * Combines the vision measurements from one loop into as few estimates as
+ * possible before they reach the pose estimator.
+ * <p>
+ * Only the newest measurement from each camera is kept, so a camera that
+ * published several frames between loops is not counted as several independent
+ * observations. Measurements whose capture times match (within a small window)
+ * saw the robot at the same instant; each is checked against the current
+ * odometry pose, then the survivors are averaged with inverse-variance weights
+ * (heading as a weighted circular mean). Measurements captured at different
+ * times are not averaged, since the robot moved in between; each capture time
+ * becomes its own estimate, oldest first, for the pose estimator to replay
+ * against odometry.
+ * </p>
+ * <p>
+ * If every measurement has been rejected for several loops in a row, odometry is
+ * assumed to be the one that is wrong and the next fused estimate is accepted
+ * regardless, so a bad starting pose cannot lock vision out.
+ * </p>
+ */
+public class VisionFusion {
+    private final double windowSeconds;
+    private final double maxTranslationError;
+    private final double maxHeadingError;
+    private final int maxRejectedLoops;
+
+    // Newest measurement per camera added this loop
+    private final int[] camera;
+    private final double[] x;
+    private final double[] y;
+    private final double[] yaw;
+    private final double[] timestamp;
+    private final double[] variance;
+    private int count = 0;
+
+    // Batch indices sorted by capture time
+    private final int[] order;
+
+    // Fused results, one per capture time, oldest first
+    private final double[] fusedX;
+    private final double[] fusedY;
+    private final double[] fusedYaw;
+    private final double[] fusedTimestamp;
+    private final double[] fusedStdDevScale;
+    private int estimateCount;
+    private int fusedCount;
+    private int rejectedCount;
+    private int rejectedLoops = 0;
+
+    /**
+     * Create a fusion stage
+     * @param capacity Most cameras that can be added in one loop; extras are ignored
+     * @param windowSeconds Measurements captured this close together are treated as the same instant and fused
+     * @param maxTranslationError Reject measurements farther than this from odometry (meters)
+     * @param maxHeadingError Reject measurements whose heading differs from odometry by more than this (radians)
+     * @param maxRejectedLoops Accept vision unconditionally after this many loops of rejections
+     */
+    public VisionFusion(int capacity, double windowSeconds, double maxTranslationError, double maxHeadingError, int maxRejectedLoops) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Fusion capacity must be positive");
+        }
+        this.windowSeconds = windowSeconds;
+        this.maxTranslationError = maxTranslationError;
+        this.maxHeadingError = maxHeadingError;
+        this.maxRejectedLoops = maxRejectedLoops;
+
+        camera = new int[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        yaw = new double[capacity];
+        timestamp = new double[capacity];
+        variance = new double[capacity];
+        order = new int[capacity];
+        fusedX = new double[capacity];
+        fusedY = new double[capacity];
+        fusedYaw = new double[capacity];
+        fusedTimestamp = new double[capacity];
+        fusedStdDevScale = new double[capacity];
+    }
+
+    /**
+     * Scale applied to the base vision standard deviations for one measurement.
+     * Lower ambiguity and higher target area = more trust in the measurement.
+     * @param measurement Measurement to score
+     * @return Standard deviation multiplier
+     */
+    public static double stdDevScale(VisionMeasurement measurement) {
+        double ambiguityFactor = Math.min(5.0, measurement.ambiguity * 10.0);
+        double areaFactor = Math.max(0.5, 5.0 / Math.max(0.1, measurement.targetArea));
+        return ambiguityFactor * areaFactor;
+    }
+
+    /**
+     * Forget the measurements from the previous loop
+     */
+    public void reset() {
+        count = 0;
+    }
+
+    /**
+     * Add a measurement to this loop's batch. If the batch already holds one from
+     * the same camera, only the newer of the two is kept. Does not allocate.
+     * @param measurement Measurement to copy
+     */
+    public void add(VisionMeasurement measurement) {
+        int slot = 0;
+        while (slot < count && camera[slot] != measurement.cameraIndex) {
+            slot++;
+        }
+        if (slot < count) {
+            if (measurement.timestamp < timestamp[slot]) {
+                return;
+            }
+        } else if (count == x.length) {
+            return;
+        } else {
+            count++;
+        }
+
+        double scale = stdDevScale(measurement);
+        camera[slot] = measurement.cameraIndex;
+        x[slot] = measurement.x;
+        y[slot] = measurement.y;
+        yaw[slot] = measurement.yawRadians;
+        timestamp[slot] = measurement.timestamp;
+        variance[slot] = Math.max(1e-9, scale * scale);
+    }
+
+    /**
+     * Fuse this loop's batch into one estimate per capture time. Does not allocate.
+     * @param odometryX Current estimated robot x (meters)
+     * @param odometryY Current estimated robot y (meters)
+     * @param odometryYaw Current estimated robot heading (radians)
+     * @return Number of estimates available from the getters, oldest first
+     */
+    public int fuse(double odometryX, double odometryY, double odometryYaw) {
+        estimateCount = 0;
+        fusedCount = 0;
+        rejectedCount = 0;
+        if (count == 0) {
+            return 0;
+        }
+
+        // Insertion sort by capture time; there is one entry per camera
+        for (int i = 0; i < count; i++) {
+            int j = i;
+            while (j > 0 && timestamp[order[j - 1]] > timestamp[i]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+
+        boolean gate = rejectedLoops < maxRejectedLoops;
+        int first = 0;
+        while (first < count) {
+            // Everything captured within the window of the group's oldest frame
+            double groupStart = timestamp[order[first]];
+            int end = first + 1;
+            while (end < count && timestamp[order[end]] - groupStart <= windowSeconds) {
+                end++;
+            }
+            fuseGroup(first, end, gate, odometryX, odometryY, odometryYaw);
+            first = end;
+        }
+
+        if (estimateCount == 0) {
+            if (rejectedCount > 0) {
+                rejectedLoops++;
+            }
+            return 0;
+        }
+        rejectedLoops = 0;
+        return estimateCount;
+    }
+
+    private void fuseGroup(int first, int end, boolean gate, double odometryX, double odometryY, double odometryYaw) {
+        double weightSum = 0.0;
+        double sumX = 0.0;
+        double sumY = 0.0;
+        double sumSin = 0.0;
+        double sumCos = 0.0;
+        double sumTime = 0.0;
+        for (int k = first; k < end; k++) {
+            int i = order[k];
+            if (gate && isOutlier(i, odometryX, odometryY, odometryYaw)) {
+                rejectedCount++;
+                continue;
+            }
+
+            double weight = 1.0 / variance[i];
+            weightSum += weight;
+            sumX += weight * x[i];
+            sumY += weight * y[i];
+            sumSin += weight * Math.sin(yaw[i]);
+            sumCos += weight * Math.cos(yaw[i]);
+            sumTime += weight * timestamp[i];
+            fusedCount++;
+        }
+        if (weightSum == 0.0) {
+            return;
+        }
+
+        int e = estimateCount++;
+        fusedX[e] = sumX / weightSum;
+        fusedY[e] = sumY / weightSum;
+        fusedYaw[e] = Math.atan2(sumSin, sumCos);
+        fusedTimestamp[e] = sumTime / weightSum;
+        fusedStdDevScale[e] = Math.sqrt(1.0 / weightSum);
+    }
+
+    private boolean isOutlier(int i, double odometryX, double odometryY, double odometryYaw) {
+        double translationError = Math.hypot(x[i] - odometryX, y[i] - odometryY);
+        double headingError = Math.abs(Math.IEEEremainder(yaw[i] - odometryYaw, 2.0 * Math.PI));
+        return translationError > maxTranslationError || headingError > maxHeadingError;
+    }
+
+    /**
+     * @return Number of estimates from the last call to {@link #fuse}
+     */
+    public int getEstimateCount() {
+        return estimateCount;
+    }
+
+    public double getX(int estimate) {
+        return fusedX[estimate];
+    }
+
+    public double getY(int estimate) {
+        return fusedY[estimate];
+    }
+
+    public double getYawRadians(int estimate) {
+        return fusedYaw[estimate];
+    }
+
+    /**
+     * @param estimate Estimate index, 0 is the oldest
+     * @return Weighted capture time of the estimate (FPGA seconds)
+     */
+    public double getTimestamp(int estimate) {
+        return fusedTimestamp[estimate];
+    }
+
+    /**
+     * @param estimate Estimate index, 0 is the oldest
+     * @return Standard deviation multiplier of the estimate, smaller than any single camera in it
+     */
+    public double getStdDevScale(int estimate) {
+        return fusedStdDevScale[estimate];
+    }
+
+    /**
+     * @return Number of measurements that went into the last call's estimates
+     */
+    public int getFusedCount() {
+        return fusedCount;
+    }
+
+    /**
+     * @return Number of measurements rejected as outliers on the last call to {@link #fuse}
+     */
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+}
@@ -0,0 +1,92 @@
+package frc.robot.subsystems.vision;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/**
+ * Every vision health metric in one struct, so a single topic carries the whole
+ * picture. Mutable so it can be refilled in place every loop.
+ */
+public class VisionHealth implements StructSerializable {
+    /** Camera slots in the struct schema; slots past the configured cameras stay zero */
+    public static final int CAMERA_COUNT = 8;
+
+    /** VisionSubsystem.periodic() wall time (milliseconds) */
+    public double visionPeriodicMeanMs;
+    public double visionPeriodicP95Ms;
+    public double visionPeriodicMaxMs;
+    /** Limelight.periodic() wall time (milliseconds) */
+    public double limelightPeriodicP95Ms;
+    public double limelightPeriodicMaxMs;
+    /** Frames dropped because the ingest queue was full */
+    public int droppedFrames;
+    /** Per-camera health, indexed like VisionSubsystem cameras */
+    public final CameraHealth[] cameras = new CameraHealth[CAMERA_COUNT];
+
+    public VisionHealth() {
+        for (int i = 0; i < CAMERA_COUNT; i++) {
+            cameras[i] = new CameraHealth();
+        }
+    }
+
+    public static final VisionHealthStruct struct = new VisionHealthStruct();
+
+    public static class VisionHealthStruct implements Struct<VisionHealth> {
+        @Override
+        public Class<VisionHealth> getTypeClass() {
+            return VisionHealth.class;
+        }
+
+        @Override
+        public String getTypeName() {
+            return "VisionHealth";
+        }
+
+        @Override
+        public int getSize() {
+            return kSizeDouble * 5 + kSizeInt32 + CameraHealth.struct.getSize() * CAMERA_COUNT;
+        }
+
+        @Override
+        public String getSchema() {
+            return "double visionPeriodicMeanMs;double visionPeriodicP95Ms;double visionPeriodicMaxMs;"
+                + "double limelightPeriodicP95Ms;double limelightPeriodicMaxMs;int32 droppedFrames;"
+                + "CameraHealth cameras[" + CAMERA_COUNT + "]";
+        }
+
+        @Override
+        public Struct<?>[] getNested() {
+            return new Struct<?>[] {CameraHealth.struct};
+        }
+
+        @Override
+        public VisionHealth unpack(ByteBuffer bb) {
+            VisionHealth health = new VisionHealth();
+            health.visionPeriodicMeanMs = bb.getDouble();
+            health.visionPeriodicP95Ms = bb.getDouble();
+            health.visionPeriodicMaxMs = bb.getDouble();
+            health.limelightPeriodicP95Ms = bb.getDouble();
+            health.limelightPeriodicMaxMs = bb.getDouble();
+            health.droppedFrames = bb.getInt();
+            for (int i = 0; i < CAMERA_COUNT; i++) {
+                health.cameras[i] = CameraHealth.struct.unpack(bb);
+            }
+            return health;
+        }
+
+        @Override
+        public void pack(ByteBuffer bb, VisionHealth value) {
+            bb.putDouble(value.visionPeriodicMeanMs);
+            bb.putDouble(value.visionPeriodicP95Ms);
+            bb.putDouble(value.visionPeriodicMaxMs);
+            bb.putDouble(value.limelightPeriodicP95Ms);
+            bb.putDouble(value.limelightPeriodicMaxMs);
+            bb.putInt(value.droppedFrames);
+            for (int i = 0; i < CAMERA_COUNT; i++) {
+                CameraHealth.struct.pack(bb, value.cameras[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+
+/**
+ * Mutable vision measurement slot.
+ * <p>
+ * Slots live in a {@link VisionMeasurementRing} and are overwritten in place every
+ * loop, so reading vision data does not create a Pose2d, Optional or record per frame.
+ * Copy the values out if they need to outlive the current loop.
+ * </p>
+ */
+public class VisionMeasurement {
+    /** Index of the camera that produced this measurement */
+    public int cameraIndex;
+
+    /** Robot pose in field coordinates (meters, radians) */
+    public double x;
+    public double y;
+    public double yawRadians;
+
+    /** FPGA timestamp of the measurement (seconds) */
+    public double timestamp;
+
+    /** Quality metrics */
+    public double ambiguity;
+    public double tagCount;
+    public double targetArea;
+
+    /**
+     * Overwrite every field of this slot
+     */
+    public void set(
+        int cameraIndex,
+        double x,
+        double y,
+        double yawRadians,
+        double timestamp,
+        double ambiguity,
+        double tagCount,
+        double targetArea
+    ) {
+        this.cameraIndex = cameraIndex;
+        this.x = x;
+        this.y = y;
+        this.yawRadians = yawRadians;
+        this.timestamp = timestamp;
+        this.ambiguity = ambiguity;
+        this.tagCount = tagCount;
+        this.targetArea = targetArea;
+    }
+
+    /**
+     * Copy every field from another slot
+     * @param other Slot to copy from
+     */
+    public void copyFrom(VisionMeasurement other) {
+        set(
+            other.cameraIndex,
+            other.x,
+            other.y,
+            other.yawRadians,
+            other.timestamp,
+            other.ambiguity,
+            other.tagCount,
+            other.targetArea
+        );
+    }
+
+    /**
+     * Build a Pose2d from this slot. This allocates, so only call it at an API
+     * boundary that needs a Pose2d (e.g. the pose estimator).
+     * @return Measured robot pose
+     */
+    public Pose2d toPose2d() {
+        return new Pose2d(x, y, new Rotation2d(yawRadians));
+    }
+}
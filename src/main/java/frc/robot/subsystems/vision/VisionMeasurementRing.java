@@ -0,0 +1,86 @@
+package frc.robot.subsystems.vision;
+
+/**
+ * Fixed-capacity ring of reusable {@link VisionMeasurement} slots.
+ * <p>
+ * All slots are allocated once in the constructor. {@link #claim()} hands out the
+ * next free slot to be filled in place; once the ring is full the oldest slot is
+ * recycled. Index 0 is always the oldest measurement still held.
+ * </p>
+ */
+public class VisionMeasurementRing {
+    private final VisionMeasurement[] slots;
+    private int head = 0; // index of the oldest slot
+    private int size = 0;
+
+    /**
+     * Create a ring
+     * @param capacity Number of slots to preallocate
+     */
+    public VisionMeasurementRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring capacity must be positive");
+        }
+        slots = new VisionMeasurement[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new VisionMeasurement();
+        }
+    }
+
+    /**
+     * Claim the next slot to write into. Overwrites the oldest slot when full.
+     * @return Slot to fill in place
+     */
+    public VisionMeasurement claim() {
+        int index;
+        if (size < slots.length) {
+            index = (head + size) % slots.length;
+            size++;
+        } else {
+            index = head;
+            head = (head + 1) % slots.length;
+        }
+        return slots[index];
+    }
+
+    /**
+     * Get a held measurement
+     * @param i Index, 0 being the oldest
+     * @return Measurement slot (do not keep a reference past the current loop)
+     */
+    public VisionMeasurement get(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Invalid measurement index " + i);
+        }
+        return slots[(head + i) % slots.length];
+    }
+
+    /**
+     * @return Number of measurements held
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of preallocated slots
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return True if no measurements are held
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Drop all held measurements. The slots themselves are kept for reuse.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
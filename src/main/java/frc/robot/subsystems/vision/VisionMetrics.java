@@ -0,0 +1,153 @@
+package frc.robot.subsystems.vision;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StructPublisher;
+import frc.robot.shared.LatencyHistogram;
+
+/**
+ * Per-camera health and vision loop timing.
+ * <p>
+ * Frame rate, latency percentiles and loop times are collected in fixed-size
+ * histograms over a rolling window. At the end of each window they are folded
+ * into a {@link VisionHealth} struct and the histograms start over, so the values
+ * reflect the last window rather than the whole match. Staleness is refreshed
+ * every loop. Everything goes out as one struct topic per loop.
+ * </p>
+ */
+public class VisionMetrics {
+    // 1 ms buckets up to 250 ms covers every realistic camera latency
+    private static final double LATENCY_BUCKET_MS = 1.0;
+    private static final int LATENCY_BUCKETS = 250;
+
+    // 0.1 ms buckets up to 20 ms covers a full loop budget
+    private static final double LOOP_BUCKET_MS = 0.1;
+    private static final int LOOP_BUCKETS = 200;
+
+    private final int cameraCount;
+    private final double windowSeconds;
+
+    private final LatencyHistogram[] latency;
+    private final int[] framesInWindow;
+    private final double[] lastCaptureTimestamp;
+    private final int[] rejectedFrames;
+    private final LatencyHistogram visionPeriodic = new LatencyHistogram(LOOP_BUCKET_MS, LOOP_BUCKETS);
+
+    private double windowStart = -1.0;
+
+    private final VisionHealth health = new VisionHealth();
+    private final StructPublisher<VisionHealth> healthPub;
+
+    /**
+     * Create a metrics collector
+     * @param ntInstance NetworkTables instance to publish on
+     * @param topic Struct topic name
+     * @param cameraCount Number of cameras, at most {@link VisionHealth#CAMERA_COUNT}
+     * @param windowSeconds Length of each metrics window
+     */
+    public VisionMetrics(NetworkTableInstance ntInstance, String topic, int cameraCount, double windowSeconds) {
+        if (cameraCount > VisionHealth.CAMERA_COUNT) {
+            throw new IllegalArgumentException("At most " + VisionHealth.CAMERA_COUNT + " cameras are supported");
+        }
+        this.cameraCount = cameraCount;
+        this.windowSeconds = windowSeconds;
+
+        latency = new LatencyHistogram[cameraCount];
+        for (int i = 0; i < cameraCount; i++) {
+            latency[i] = new LatencyHistogram(LATENCY_BUCKET_MS, LATENCY_BUCKETS);
+        }
+        framesInWindow = new int[cameraCount];
+        lastCaptureTimestamp = new double[cameraCount];
+        rejectedFrames = new int[cameraCount];
+
+        healthPub = ntInstance.getStructTopic(topic, VisionHealth.struct).publish();
+    }
+
+    /**
+     * Record a frame that produced a measurement
+     * @param cameraIndex Camera that produced the frame
+     * @param captureTimestamp FPGA timestamp (seconds) the image was captured at
+     * @param latencyMillis Capture + pipeline latency reported by the camera
+     */
+    public void recordFrame(int cameraIndex, double captureTimestamp, double latencyMillis) {
+        framesInWindow[cameraIndex]++;
+        latency[cameraIndex].record(latencyMillis);
+        lastCaptureTimestamp[cameraIndex] = Math.max(lastCaptureTimestamp[cameraIndex], captureTimestamp);
+    }
+
+    /**
+     * Record a frame that was thrown away
+     * @param cameraIndex Camera that produced the frame
+     */
+    public void recordRejected(int cameraIndex) {
+        rejectedFrames[cameraIndex]++;
+    }
+
+    /**
+     * Set the total rejected frame count for a camera, for counters kept elsewhere
+     * (e.g. on the NT listener thread)
+     * @param cameraIndex Camera index
+     * @param count Total rejected frames
+     */
+    public void setRejected(int cameraIndex, int count) {
+        rejectedFrames[cameraIndex] = count;
+    }
+
+    /**
+     * Record how long VisionSubsystem.periodic() took
+     * @param millis Wall time (milliseconds)
+     */
+    public void recordVisionPeriodic(double millis) {
+        visionPeriodic.record(millis);
+    }
+
+    /**
+     * Refresh the health struct and publish it. Does not allocate.
+     * @param now Current FPGA timestamp (seconds)
+     * @param limelightPeriodic Limelight.periodic() timing histogram
+     * @param droppedFrames Frames dropped by the ingest queue since startup
+     */
+    public void publish(double now, LatencyHistogram limelightPeriodic, long droppedFrames) {
+        if (windowStart < 0.0) {
+            windowStart = now;
+        }
+
+        // Close the window: fold the histograms into the struct and start over
+        double elapsed = now - windowStart;
+        if (elapsed >= windowSeconds) {
+            for (int i = 0; i < cameraCount; i++) {
+                CameraHealth camera = health.cameras[i];
+                camera.frameRate = framesInWindow[i] / elapsed;
+                camera.latencyP50Ms = latency[i].percentile(0.50);
+                camera.latencyP95Ms = latency[i].percentile(0.95);
+                camera.latencyMaxMs = latency[i].getMax();
+                framesInWindow[i] = 0;
+                latency[i].reset();
+            }
+            health.visionPeriodicMeanMs = visionPeriodic.getMean();
+            health.visionPeriodicP95Ms = visionPeriodic.percentile(0.95);
+            health.visionPeriodicMaxMs = visionPeriodic.getMax();
+            health.limelightPeriodicP95Ms = limelightPeriodic.percentile(0.95);
+            health.limelightPeriodicMaxMs = limelightPeriodic.getMax();
+            visionPeriodic.reset();
+            limelightPeriodic.reset();
+            windowStart = now;
+        }
+
+        // Staleness and counters are always current
+        for (int i = 0; i < cameraCount; i++) {
+            CameraHealth camera = health.cameras[i];
+            camera.stalenessMs = lastCaptureTimestamp[i] > 0.0 ? (now - lastCaptureTimestamp[i]) * 1000.0 : -1.0;
+            camera.rejectedFrames = rejectedFrames[i];
+        }
+        health.droppedFrames = (int) droppedFrames;
+
+        healthPub.set(health);
+    }
+
+    /**
+     * @return Latest health values, refilled on every {@link #publish}
+     */
+    public VisionHealth getHealth() {
+        return health;
+    }
+}
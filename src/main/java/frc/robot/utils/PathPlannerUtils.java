@@ -13,13 +13,13 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
 import edu.wpi.first.wpilibj2.command.PrintCommand;
 import frc.robot.Constants.PathPlannerConstants;
-import frc.robot.subsystems.SwerveDriveSubsystem;
+import frc.robot.subsystems.Drivetrain;
 
 /**
  * Utility class for PathPlanner integration
  */
 public class PathPlannerUtils {
-    private final SwerveDriveSubsystem driveSubsystem;
+    private final Drivetrain driveSubsystem;
     private final SendableChooser<Command> autoChooser;
     
     /**
@@ -27,7 +27,7 @@ public class PathPlannerUtils {
      * 
      * @param driveSubsystem The drive subsystem
      */
-    public PathPlannerUtils(SwerveDriveSubsystem driveSubsystem) {
+    public PathPlannerUtils(Drivetrain driveSubsystem) {
         this.driveSubsystem = driveSubsystem;
         
         // Configure AutoBuilder for PathPlanner
@@ -3,14 +3,19 @@ package frc.robot.commands;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import frc.robot.Constants.VisionConstants;
@@ -30,6 +35,13 @@ class DriveToAprilTagCommandTest {
     private static final double TEST_DISTANCE = 0.1; // 10cm
     private static final String TEST_CAMERA = "limelight-front";
     
+    // Test tag at (2, 3) facing +y
+    private static final AprilTagFieldLayout TEST_LAYOUT = new AprilTagFieldLayout(
+        List.of(new AprilTag(TEST_TAG_ID, new Pose3d(2.0, 3.0, 0.0, new Rotation3d(0.0, 0.0, Math.PI / 2)))),
+        17.5,
+        8.0
+    );
+    
     // System under test
     private DriveToAprilTagCommand command;
     
@@ -41,6 +53,9 @@ class DriveToAprilTagCommandTest {
         mockPathPlannerUtils = mock(PathPlannerUtils.class);
         mockPathCommand = mock(Command.class);
         
+        // Report the test tag as visible from some camera
+        when(mockVisionSubsystem.visibleTagMask()).thenReturn(1L << TEST_TAG_ID);
+        
         // Create the command to test
         command = new DriveToAprilTagCommand(
             mockDriveSubsystem,
@@ -48,7 +63,8 @@ class DriveToAprilTagCommandTest {
             mockPathPlannerUtils,
             TEST_TAG_ID,
             TEST_DISTANCE,
-            TEST_CAMERA
+            TEST_CAMERA,
+            TEST_LAYOUT
         );
         
         // Mock static methods in SmartDashboard
@@ -81,6 +97,20 @@ class DriveToAprilTagCommandTest {
         verify(mockPathPlannerUtils, never()).driveToPose(any(Pose2d.class));
     }
     
+    @Test
+    void execute_WhenTagNotInVisibleMask_ShouldNotLookUpPose() {
+        // Arrange
+        when(mockVisionSubsystem.visibleTagMask()).thenReturn(1L << (TEST_TAG_ID + 1));
+        
+        // Act
+        command.initialize();
+        command.execute();
+        
+        // Assert
+        verify(mockVisionSubsystem, never()).getAprilTagPose(anyInt(), anyString());
+        verify(mockPathPlannerUtils, never()).driveToPose(any(Pose2d.class));
+    }
+    
     @Test
     void execute_WhenTagFound_ShouldCreateAndInitializePathCommand() {
         // Arrange
@@ -99,21 +129,76 @@ class DriveToAprilTagCommandTest {
         verify(mockPathPlannerUtils).driveToPose(poseCaptor.capture());
         verify(mockPathCommand).initialize();
         
-        // Verify the target pose is calculated correctly (should be 10cm in front of the tag)
+        // The target pose should be 10cm in front of the layout tag, which faces +y
         Pose2d capturedPose = poseCaptor.getValue();
         assertNotNull(capturedPose);
-        
-        // The target pose should be 10cm away from the tag in the direction opposite to the tag's facing
-        // Since the tag is at 90 degrees, the robot should be positioned to the right of the tag
         assertEquals(2.0, capturedPose.getX(), 0.001);
-        assertEquals(3.0 - TEST_DISTANCE, capturedPose.getY(), 0.001);
+        assertEquals(3.0 + TEST_DISTANCE, capturedPose.getY(), 0.001);
         
-        // The robot should be facing the same direction as the tag
-        assertEquals(tagPose.getRotation().getDegrees(), capturedPose.getRotation().getDegrees(), 0.001);
+        // The robot should be facing the tag
+        assertEquals(-90.0, capturedPose.getRotation().getDegrees(), 0.001);
         
         verify(SmartDashboard.class).putString(eq("Status"), contains("Found AprilTag " + TEST_TAG_ID));
     }
     
+    @Test
+    void execute_WhenTagNotInLayout_ShouldStopShortAlongLineOfSight() {
+        // Arrange - Camera sees the tag at (2, 3) on the field, looking along +y
+        DriveToAprilTagCommand unmappedCommand = new DriveToAprilTagCommand(
+            mockDriveSubsystem,
+            mockVisionSubsystem,
+            mockPathPlannerUtils,
+            TEST_TAG_ID,
+            TEST_DISTANCE,
+            TEST_CAMERA,
+            new AprilTagFieldLayout(List.of(), 17.5, 8.0)
+        );
+        when(mockDriveSubsystem.getPose()).thenReturn(new Pose2d());
+        when(mockVisionSubsystem.getAprilTagPose(TEST_TAG_ID, TEST_CAMERA))
+            .thenReturn(Optional.of(new Pose2d(3.0, 0.0, Rotation2d.kZero)));
+        when(mockVisionSubsystem.getAprilTagFieldPose(eq(TEST_TAG_ID), eq(TEST_CAMERA), any(Pose2d.class)))
+            .thenReturn(Optional.of(new Pose2d(2.0, 3.0, Rotation2d.fromDegrees(90))));
+        when(mockPathPlannerUtils.driveToPose(any(Pose2d.class)))
+            .thenReturn(mockPathCommand);
+        
+        // Act
+        unmappedCommand.initialize();
+        unmappedCommand.execute();
+        
+        // Assert
+        ArgumentCaptor<Pose2d> poseCaptor = ArgumentCaptor.forClass(Pose2d.class);
+        verify(mockPathPlannerUtils).driveToPose(poseCaptor.capture());
+        assertEquals(2.0, poseCaptor.getValue().getX(), 0.001);
+        assertEquals(3.0 - TEST_DISTANCE, poseCaptor.getValue().getY(), 0.001);
+        assertEquals(90.0, poseCaptor.getValue().getRotation().getDegrees(), 0.001);
+    }
+    
+    @Test
+    void execute_WhenTagNotInLayoutAndCameraHasNoMount_ShouldNotCreatePathCommand() {
+        // Arrange
+        DriveToAprilTagCommand unmappedCommand = new DriveToAprilTagCommand(
+            mockDriveSubsystem,
+            mockVisionSubsystem,
+            mockPathPlannerUtils,
+            TEST_TAG_ID,
+            TEST_DISTANCE,
+            TEST_CAMERA,
+            new AprilTagFieldLayout(List.of(), 17.5, 8.0)
+        );
+        when(mockDriveSubsystem.getPose()).thenReturn(new Pose2d());
+        when(mockVisionSubsystem.getAprilTagPose(TEST_TAG_ID, TEST_CAMERA))
+            .thenReturn(Optional.of(new Pose2d(3.0, 0.0, Rotation2d.kZero)));
+        when(mockVisionSubsystem.getAprilTagFieldPose(eq(TEST_TAG_ID), eq(TEST_CAMERA), any(Pose2d.class)))
+            .thenReturn(Optional.empty());
+        
+        // Act
+        unmappedCommand.initialize();
+        unmappedCommand.execute();
+        
+        // Assert
+        verify(mockPathPlannerUtils, never()).driveToPose(any(Pose2d.class));
+    }
+    
     @Test
     void execute_WhenTagFoundAndPathCommandCreated_ShouldExecutePathCommand() {
         // Arrange
@@ -192,7 +277,8 @@ class DriveToAprilTagCommandTest {
             mockPathPlannerUtils,
             TEST_TAG_ID,
             TEST_DISTANCE,
-            TEST_CAMERA
+            TEST_CAMERA,
+            TEST_LAYOUT
         ) {
             // Override to simulate timeout
             @Override
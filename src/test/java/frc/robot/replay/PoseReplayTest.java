@@ -0,0 +1,135 @@
+package frc.robot.replay;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.util.datalog.DataLogWriter;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import frc.robot.Constants;
+
+class PoseReplayTest {
+    private static final double LOOP_SECONDS = 0.02;
+    private static final int LOOPS = 250;
+
+    private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(
+        Constants.FRONT_LEFT_MODULE_POSITION,
+        Constants.FRONT_RIGHT_MODULE_POSITION,
+        Constants.BACK_LEFT_MODULE_POSITION,
+        Constants.BACK_RIGHT_MODULE_POSITION
+    );
+
+    @Test
+    void run_WithStraightDrive_ShouldTrackReferenceAndReportTiming() {
+        // Arrange - Drive forward at 1 m/s, one camera sees the true pose every 5 loops
+        ReplayLog log = new ReplayLog(1);
+        for (int loop = 0; loop < LOOPS; loop++) {
+            double time = loop * LOOP_SECONDS;
+            log.getModulePositions().add(time, 0.0, time, 0.0, time, 0.0, time, 0.0, time);
+            log.getGyro().add(time, 0.0);
+            log.getReferencePose().add(time, time, 0.0, 0.0);
+            if (loop % 5 == 0) {
+                log.getBotpose(0).add(time, time, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0, 0.0, 2.0, 2.0);
+            }
+        }
+        PoseReplay replay = new PoseReplay(kinematics, ReplayMain.createVisionStage(1.0));
+
+        // Act
+        ReplayReport report = replay.run(log);
+
+        // Assert
+        assertEquals(LOOPS, report.odometrySteps());
+        assertEquals(LOOPS / 5, report.visionSamples());
+        assertEquals(LOOPS / 5, report.visionUpdates());
+        assertTrue(report.rmsTranslationError() < 0.01, "RMS error " + report.rmsTranslationError());
+        assertTrue(report.samplesPerSecond() > 0.0);
+        assertTrue(report.p99StepMicros() >= report.p50StepMicros());
+    }
+
+    @Test
+    void run_WithNoOdometry_ShouldThrow() {
+        // Arrange
+        PoseReplay replay = new PoseReplay(kinematics, ReplayMain.createVisionStage(1.0));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> replay.run(new ReplayLog(1)));
+    }
+
+    @Test
+    void load_WithDriveStateLog_ShouldReplayRecordedOdometry(@TempDir Path tempDir) throws Exception {
+        // Arrange - Log 1 m/s straight ahead the way the drivetrains do, plus one camera
+        String filename = tempDir.resolve("robot.wpilog").toString();
+        ReplayLog.Channels channels = ReplayLog.Channels.defaults();
+        SwerveModulePosition[] positions = new SwerveModulePosition[4];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = new SwerveModulePosition();
+        }
+        try (DataLogWriter writer = new DataLogWriter(filename)) {
+            DriveStateLog driveState = new DriveStateLog(writer, channels);
+            DoubleArrayLogEntry botpose = new DoubleArrayLogEntry(writer, channels.botpose()[0], 0);
+            for (int loop = 1; loop <= LOOPS; loop++) {
+                double time = loop * LOOP_SECONDS;
+                for (SwerveModulePosition position : positions) {
+                    position.distanceMeters = time;
+                }
+                driveState.append(positions, 0.0, new Pose2d(time, 0.0, Rotation2d.kZero), time);
+                if (loop % 5 == 0) {
+                    botpose.append(new double[] {time, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0, 0.0, 2.0, 2.0}, (long) (time * 1e6));
+                }
+            }
+            writer.flush();
+        }
+
+        // Act
+        ReplayLog log = ReplayLog.load(filename, channels);
+        ReplayReport report = new PoseReplay(kinematics, ReplayMain.createVisionStage(1.0)).run(log);
+
+        // Assert
+        assertEquals(LOOPS, log.getModulePositions().size());
+        assertEquals(LOOPS, log.getGyro().size());
+        assertEquals(LOOPS, log.getReferencePose().size());
+        assertEquals(LOOPS / 5, log.getBotpose(0).size());
+        assertEquals(LOOP_SECONDS, log.getModulePositions().time(0), 1e-6);
+        assertEquals(LOOPS, report.odometrySteps());
+        assertEquals(LOOPS / 5, report.visionSamples());
+        assertTrue(report.rmsTranslationError() < 0.01, "RMS error " + report.rmsTranslationError());
+    }
+
+    @Test
+    void load_ShouldReadConfiguredEntriesFromWpilog(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        String filename = tempDir.resolve("replay.wpilog").toString();
+        ReplayLog.Channels channels = ReplayLog.Channels.defaults();
+        try (DataLogWriter writer = new DataLogWriter(filename)) {
+            DoubleArrayLogEntry modules = new DoubleArrayLogEntry(writer, channels.modulePositions(), 0);
+            DoubleLogEntry gyro = new DoubleLogEntry(writer, channels.gyro(), 0);
+            DoubleArrayLogEntry botpose = new DoubleArrayLogEntry(writer, channels.botpose()[2], 0);
+            DoubleLogEntry unrelated = new DoubleLogEntry(writer, "Unrelated", 0);
+
+            modules.append(new double[] {0, 1, 0, 1, 0, 1, 0, 1}, 20_000);
+            gyro.append(45.0, 20_000);
+            botpose.append(new double[] {1, 2, 0, 0, 0, 30, 25, 1}, 40_000);
+            unrelated.append(1.0, 40_000);
+            writer.flush();
+        }
+
+        // Act
+        ReplayLog log = ReplayLog.load(filename, channels);
+
+        // Assert
+        assertEquals(1, log.getModulePositions().size());
+        assertEquals(0.02, log.getModulePositions().time(0), 1e-9);
+        assertEquals(45.0, log.getGyro().value(0)[0], 1e-9);
+        assertEquals(1, log.getBotpose(2).size());
+        assertEquals(0, log.getBotpose(0).size());
+        assertEquals(30.0, log.getBotpose(2).value(0)[5], 1e-9);
+    }
+}
@@ -0,0 +1,150 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import frc.robot.Constants.VisionConstants;
+
+class CameraRegistryTest {
+    @TempDir
+    Path tempDir;
+
+    private static final String FIVE_CAMERAS = """
+        {
+          "cameras": [
+            { "name": "limelight-a", "roles": ["ALIGNMENT"], "gains": "ELEVATOR", "pipelines": { "teleop": 3 } },
+            { "name": "limelight-b", "label": "B", "roles": ["LOCALIZATION"],
+              "robotToCamera": { "x": 0.3, "y": -0.2, "z": 0.5, "yawDegrees": 90 } },
+            { "name": "limelight-c", "roles": ["LOCALIZATION", "ALIGNMENT"] },
+            { "name": "limelight-d", "roles": ["LOCALIZATION"] },
+            { "name": "limelight-e", "roles": ["LOCALIZATION"] }
+          ]
+        }
+        """;
+
+    private Path write(String json) throws IOException {
+        Path file = tempDir.resolve(CameraRegistry.DEFAULT_FILE);
+        Files.writeString(file, json);
+        return file;
+    }
+
+    @Test
+    void load_WithFiveCameras_ShouldKeepFileOrder() throws IOException {
+        // Arrange
+        Path file = write(FIVE_CAMERAS);
+
+        // Act
+        CameraRegistry registry = CameraRegistry.load(file);
+
+        // Assert
+        assertEquals(5, registry.size());
+        assertEquals("limelight-e", registry.get(4).name());
+        assertEquals(2, registry.indexOf("limelight-c"));
+        assertEquals(-1, registry.indexOf("limelight-z"));
+    }
+
+    @Test
+    void load_WithMount_ShouldConvertDegreesAndFlattenToMountPose() throws IOException {
+        // Arrange
+        Path file = write(FIVE_CAMERAS);
+
+        // Act
+        CameraRegistry.CameraConfig camera = CameraRegistry.load(file).get(1);
+
+        // Assert
+        assertEquals("B", camera.label());
+        assertEquals(0.5, camera.robotToCamera().getZ(), 1e-9);
+        assertEquals(0.3, camera.getMountPose().getX(), 1e-9);
+        assertEquals(-0.2, camera.getMountPose().getY(), 1e-9);
+        assertEquals(90.0, camera.getMountPose().getRotation().getDegrees(), 1e-9);
+    }
+
+    @Test
+    void load_WithMissingOptionalFields_ShouldUseDefaults() throws IOException {
+        // Arrange
+        Path file = write(FIVE_CAMERAS);
+
+        // Act
+        CameraRegistry.CameraConfig camera = CameraRegistry.load(file).get(3);
+
+        // Assert
+        assertEquals("limelight-d", camera.label());
+        assertEquals(CameraRegistry.Gains.FRONT, camera.gains());
+        assertFalse(camera.hasMount());
+        assertNull(camera.getMountPose());
+        assertEquals(7, camera.getPipeline("apriltag", 7));
+    }
+
+    @Test
+    void withRole_ShouldReturnOnlyMatchingCamerasInOrder() throws IOException {
+        // Arrange
+        CameraRegistry registry = CameraRegistry.load(write(FIVE_CAMERAS));
+
+        // Act
+        String[] alignment = registry.names(CameraRegistry.Role.ALIGNMENT);
+        CameraRegistry.CameraConfig[] localization = registry.withRole(CameraRegistry.Role.LOCALIZATION);
+
+        // Assert
+        assertArrayEquals(new String[] {"limelight-a", "limelight-c"}, alignment);
+        assertEquals(4, localization.length);
+        assertEquals("limelight-b", localization[0].name());
+        assertEquals(CameraRegistry.Gains.ELEVATOR, registry.get(0).gains());
+        assertEquals(3, registry.get(0).getPipeline("teleop", 0));
+    }
+
+    @Test
+    void load_WithNoCameras_ShouldThrow() throws IOException {
+        // Arrange
+        Path file = write("{ \"cameras\": [] }");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CameraRegistry.load(file));
+    }
+
+    @Test
+    void load_WithUnknownRole_ShouldThrow() throws IOException {
+        // Arrange
+        Path file = write("{ \"cameras\": [ { \"name\": \"limelight-a\", \"roles\": [\"DRIVER\"] } ] }");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CameraRegistry.load(file));
+    }
+
+    @Test
+    void load_WithDeployedConfig_ShouldHaveSameCamerasAsBuiltInDefaults() throws IOException {
+        // Arrange
+        CameraRegistry defaults = CameraRegistry.defaults();
+
+        // Act
+        CameraRegistry deployed = CameraRegistry.load(Path.of("src/main/deploy", CameraRegistry.DEFAULT_FILE));
+
+        // Assert
+        assertEquals(defaults.size(), deployed.size());
+        for (int i = 0; i < defaults.size(); i++) {
+            assertEquals(defaults.get(i).name(), deployed.get(i).name());
+            assertEquals(defaults.get(i).label(), deployed.get(i).label());
+            assertEquals(defaults.get(i).roles(), deployed.get(i).roles());
+            assertEquals(defaults.get(i).gains(), deployed.get(i).gains());
+            // Mounts only come from the file
+            assertFalse(defaults.get(i).hasMount());
+        }
+        assertArrayEquals(
+            new String[] {
+                VisionConstants.LIMELIGHT_FRONT_NAME,
+                VisionConstants.LIMELIGHT_RIGHT_NAME,
+                VisionConstants.LIMELIGHT_BACK_NAME,
+                VisionConstants.LIMELIGHT_LEFT_NAME
+            },
+            deployed.names(CameraRegistry.Role.LOCALIZATION));
+        // Alignment cameras need mounts for the crop prediction
+        for (CameraRegistry.CameraConfig camera : deployed.withRole(CameraRegistry.Role.ALIGNMENT)) {
+            assertTrue(camera.hasMount(), camera.name());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentile_ShouldReturnUpperEdgeOfBucket() {
+        // Arrange - 1 ms buckets, 90 fast samples and 10 slow ones
+        LatencyHistogram histogram = new LatencyHistogram(1.0, 100);
+        for (int i = 0; i < 90; i++) {
+            histogram.record(4.5);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(40.2);
+        }
+
+        // Act & Assert
+        assertEquals(5.0, histogram.percentile(0.50), 1e-9);
+        assertEquals(5.0, histogram.percentile(0.90), 1e-9);
+        assertEquals(40.2, histogram.percentile(0.95), 1e-9);
+        assertEquals(40.2, histogram.getMax(), 1e-9);
+        assertEquals(100, histogram.getCount());
+        assertEquals((90 * 4.5 + 10 * 40.2) / 100, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    void percentile_WithOverflow_ShouldReturnMax() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram(1.0, 10);
+        histogram.record(2.0);
+        histogram.record(500.0);
+
+        // Act & Assert
+        assertEquals(500.0, histogram.percentile(0.99), 1e-9);
+    }
+
+    @Test
+    void reset_ShouldForgetSamples() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram(0.1, 200);
+        histogram.record(3.0);
+
+        // Act
+        histogram.reset();
+
+        // Assert
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.percentile(0.95), 1e-9);
+        assertEquals(0.0, histogram.getMax(), 1e-9);
+    }
+
+    @Test
+    void constructor_WithZeroWidth_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new LatencyHistogram(0.0, 10));
+    }
+}
@@ -0,0 +1,88 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class LimelightFiducialDecoderTest {
+
+    static String loadDump(String name) throws IOException {
+        try (InputStream in = LimelightFiducialDecoderTest.class.getResourceAsStream("/limelight/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void decode_ShouldMatchObjectMapperResults() throws IOException {
+        // Arrange
+        String json = loadDump("full_pipeline.json");
+        LimelightHelpers.LimelightResults expected = LimelightHelpers.parseResults(json);
+        LimelightFiducialDecoder decoder = new LimelightFiducialDecoder(16);
+
+        // Act
+        boolean decoded = decoder.decode(json);
+
+        // Assert
+        assertTrue(decoded);
+        assertEquals(expected.valid, decoder.isValid());
+        assertEquals(expected.latency_pipeline, decoder.getLatencyPipeline());
+        assertEquals(expected.latency_capture, decoder.getLatencyCapture());
+        assertEquals(expected.botpose_tagcount, decoder.getBotposeTagCount());
+        assertEquals(expected.targets_Fiducials.length, decoder.getFiducialCount());
+        for (int i = 0; i < decoder.getFiducialCount(); i++) {
+            LimelightHelpers.LimelightTarget_Fiducial fiducial = expected.targets_Fiducials[i];
+            assertEquals((int) fiducial.fiducialID, decoder.getFiducialId(i));
+            assertEquals(fiducial.tx, decoder.getTx(i));
+            assertEquals(fiducial.ta, decoder.getTa(i));
+            assertEquals(fiducial.getTargetPose_RobotSpace().getX(), decoder.getTargetPoseRobotSpace(i, 0), 1e-9);
+            assertEquals(fiducial.getTargetPose_RobotSpace().getY(), decoder.getTargetPoseRobotSpace(i, 1), 1e-9);
+        }
+    }
+
+    @Test
+    void decode_WithMoreTagsThanSlots_ShouldCountDropped() throws IOException {
+        // Arrange
+        LimelightFiducialDecoder decoder = new LimelightFiducialDecoder(2);
+
+        // Act
+        decoder.decode(loadDump("fiducials_3tags.json"));
+
+        // Assert
+        assertEquals(2, decoder.getFiducialCount());
+        assertEquals(1, decoder.getDroppedFiducials());
+        assertEquals(18, decoder.getFiducialId(1));
+    }
+
+    @Test
+    void decode_ShouldClearPreviousDump() throws IOException {
+        // Arrange
+        LimelightFiducialDecoder decoder = new LimelightFiducialDecoder(16);
+        decoder.decode(loadDump("full_pipeline.json"));
+
+        // Act
+        decoder.decode("{\"v\":0,\"Fiducial\":[]}");
+
+        // Assert
+        assertFalse(decoder.isValid());
+        assertEquals(0, decoder.getFiducialCount());
+        assertEquals(0.0, decoder.getTargetPoseRobotSpace(0, 0));
+    }
+
+    @Test
+    void decode_WithBadJson_ShouldReportError() {
+        // Arrange
+        LimelightFiducialDecoder decoder = new LimelightFiducialDecoder(16);
+
+        // Act
+        boolean decoded = decoder.decode("{\"v\":1,\"Fiducial\":[{\"fID\":");
+
+        // Assert
+        assertFalse(decoded);
+        assertNotNull(decoder.getError());
+        assertEquals(0, decoder.getFiducialCount());
+    }
+}
@@ -0,0 +1,92 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+class LimelightHandleTest {
+    private NetworkTableInstance ntInstance;
+    private NetworkTable table;
+    private LimelightHandle handle;
+
+    @BeforeEach
+    void setUp() {
+        ntInstance = NetworkTableInstance.create();
+        table = ntInstance.getTable("limelight-test");
+        handle = new LimelightHandle(ntInstance, "limelight-test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ntInstance.close();
+    }
+
+    @Test
+    void getters_ShouldReadPublishedValues() {
+        // Arrange
+        table.getEntry("tv").setDouble(1.0);
+        table.getEntry("tx").setDouble(-3.5);
+        table.getEntry("ta").setDouble(2.25);
+        table.getEntry("tid").setDouble(18.0);
+
+        // Act & Assert
+        assertTrue(handle.getTV());
+        assertEquals(-3.5, handle.getTX());
+        assertEquals(2.25, handle.getTA());
+        assertEquals(18.0, handle.getFiducialID());
+    }
+
+    @Test
+    void getTargetPose_RobotSpace_ShouldFillCallerBuffer() {
+        // Arrange
+        double[] out = new double[6];
+        table.getEntry("targetpose_robotspace").setDoubleArray(new double[] {1, 2, 3, 4, 5, 6});
+
+        // Act
+        int count = handle.getTargetPose_RobotSpace(out);
+
+        // Assert
+        assertEquals(6, count);
+        assertEquals(5.0, out[4]);
+    }
+
+    @Test
+    void getTargetPose_RobotSpace_ShouldPickUpNewValues() {
+        // Arrange
+        double[] out = new double[6];
+        table.getEntry("targetpose_robotspace").setDoubleArray(new double[] {1, 2, 3, 4, 5, 6});
+        handle.getTargetPose_RobotSpace(out);
+
+        // Act
+        table.getEntry("targetpose_robotspace").setDoubleArray(new double[] {1, 2, 3, 4, 45, 6});
+        handle.getTargetPose_RobotSpace(out);
+
+        // Assert
+        assertEquals(45.0, out[4]);
+    }
+
+    @Test
+    void getRawFiducials_WithSmallBuffer_ShouldTruncate() {
+        // Arrange
+        double[] raw = new double[7 * 3];
+        table.getEntry("rawfiducials").setDoubleArray(raw);
+        double[] out = new double[7];
+
+        // Act
+        int count = handle.getRawFiducials(out);
+
+        // Assert
+        assertEquals(7, count);
+    }
+
+    @Test
+    void getTargetPose_RobotSpace_WithNothingPublished_ShouldReturnZero() {
+        // Act & Assert
+        assertEquals(0, handle.getTargetPose_RobotSpace(new double[6]));
+    }
+}
@@ -0,0 +1,97 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+class LimelightHelpersTest {
+
+    @Test
+    void decodeRawDetections_ShouldUseTwelveValueStride() {
+        // Arrange - Two detections: class ID, txnc, tync, ta, then four corners
+        double[] raw = {
+            1, 2.0, 3.0, 0.5, 10, 11, 12, 13, 14, 15, 16, 17,
+            4, -2.0, -3.0, 0.25, 20, 21, 22, 23, 24, 25, 26, 27
+        };
+        LimelightHelpers.RawDetection[] out = new LimelightHelpers.RawDetection[4];
+
+        // Act
+        int count = LimelightHelpers.decodeRawDetections(raw, 0, raw.length, out);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(17.0, out[0].corner3_Y);
+        assertEquals(4, out[1].classId);
+        assertEquals(-2.0, out[1].txnc);
+        assertEquals(27.0, out[1].corner3_Y);
+    }
+
+    @Test
+    void decodeRawFiducials_ShouldReuseFlyweights() {
+        // Arrange
+        double[] first = {7, 1.0, 2.0, 0.3, 1.5, 1.6, 0.1};
+        double[] second = {9, -1.0, -2.0, 0.4, 2.5, 2.6, 0.2};
+        LimelightHelpers.RawFiducial[] out = new LimelightHelpers.RawFiducial[2];
+        LimelightHelpers.decodeRawFiducials(first, 0, first.length, out);
+        LimelightHelpers.RawFiducial slot = out[0];
+
+        // Act
+        int count = LimelightHelpers.decodeRawFiducials(second, 0, second.length, out);
+
+        // Assert
+        assertEquals(1, count);
+        assertSame(slot, out[0]);
+        assertEquals(9, out[0].id);
+        assertEquals(0.2, out[0].ambiguity);
+        assertNull(out[1]);
+    }
+
+    @Test
+    void decodeRawFiducials_WithOffsetAndSmallBuffer_ShouldTruncate() {
+        // Arrange - Botpose-style array: 11 header values, then three fiducials
+        double[] raw = new double[11 + 7 * 3];
+        raw[11] = 3;
+        raw[18] = 4;
+        raw[25] = 5;
+        LimelightHelpers.RawFiducial[] out = new LimelightHelpers.RawFiducial[2];
+
+        // Act
+        int count = LimelightHelpers.decodeRawFiducials(raw, 11, raw.length, out);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(3, out[0].id);
+        assertEquals(4, out[1].id);
+    }
+
+    @Test
+    void getBotPoseEstimate_WhenTagCountChanges_ShouldReuseFiducialArray() {
+        // Arrange - Two tags, then one
+        String name = "limelight-posetest";
+        var entry = NetworkTableInstance.getDefault().getTable(name).getEntry("botpose_wpiblue");
+        double[] twoTags = new double[11 + 7 * 2];
+        twoTags[7] = 2;
+        twoTags[11] = 3;
+        twoTags[18] = 4;
+        double[] oneTag = new double[11 + 7];
+        oneTag[7] = 1;
+        oneTag[11] = 5;
+        LimelightHelpers.PoseEstimate estimate = new LimelightHelpers.PoseEstimate();
+        entry.setDoubleArray(twoTags);
+        LimelightHelpers.getBotPoseEstimate_wpiBlue(name, estimate);
+        LimelightHelpers.RawFiducial[] fiducials = estimate.rawFiducials;
+
+        // Act
+        entry.setDoubleArray(oneTag);
+        boolean available = LimelightHelpers.getBotPoseEstimate_wpiBlue(name, estimate);
+
+        // Assert
+        assertTrue(available);
+        assertSame(fiducials, estimate.rawFiducials);
+        assertEquals(1, estimate.rawFiducialCount);
+        assertEquals(5, estimate.rawFiducials[0].id);
+        assertEquals(1, LimelightHelpers.getBotPoseEstimate_wpiBlue(name).rawFiducials.length);
+    }
+}
@@ -0,0 +1,136 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+class LimelightHttpExecutorTest {
+    private HttpServer server;
+    private LimelightHttpExecutor executor;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Stub Limelight: /capturesnapshot answers right away, /slow waits for the test to release it
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/capturesnapshot", exchange -> {
+            hits.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            hits.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+        executor = new LimelightHttpExecutor(1, 1, 500, 2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.close();
+        server.stop(0);
+    }
+
+    private URL url(String path) throws Exception {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    @Test
+    void request_ShouldReturnResponseCode() throws Exception {
+        // Act
+        int code = executor.request(url("/capturesnapshot"), "GET", "snapname", "auto").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(200, code);
+        assertEquals(1, executor.getSucceededCount());
+        assertEquals(0, executor.getInFlightCount());
+    }
+
+    @Test
+    void request_WithDuplicateInFlight_ShouldCoalesce() throws Exception {
+        // Arrange
+        CompletableFuture<Integer> first = executor.request(url("/slow"), "GET", null, null);
+
+        // Act
+        CompletableFuture<Integer> second = executor.request(url("/slow"), "GET", null, null);
+        release.countDown();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(200, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, hits.get());
+        assertEquals(1, executor.getCoalescedCount());
+    }
+
+    @Test
+    void request_WhenQueueFull_ShouldRejectImmediately() throws Exception {
+        // Arrange - One worker busy, one request queued
+        executor.request(url("/slow"), "GET", null, null);
+        for (int i = 0; i < 500 && hits.get() == 0; i++) {
+            Thread.sleep(10);
+        }
+        executor.request(url("/slow?queued"), "GET", null, null);
+
+        // Act
+        CompletableFuture<Integer> rejected = executor.request(url("/slow?extra"), "GET", null, null);
+
+        // Assert
+        assertTrue(rejected.isDone());
+        assertEquals(LimelightHttpExecutor.FAILED, rejected.get());
+        assertEquals(1, executor.getRejectedCount());
+    }
+
+    @Test
+    void request_WhenServerStalls_ShouldTimeOut() throws Exception {
+        // Arrange
+        try (LimelightHttpExecutor fastTimeout = new LimelightHttpExecutor(1, 1, 200, 200)) {
+            // Act
+            int code = fastTimeout.request(url("/slow"), "GET", null, null).get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertEquals(LimelightHttpExecutor.FAILED, code);
+            assertEquals(1, fastTimeout.getTimedOutCount());
+        }
+    }
+
+    @Test
+    void request_WithNullUrl_ShouldFail() {
+        // Act & Assert
+        assertEquals(LimelightHttpExecutor.FAILED, executor.request(null, "GET", null, null).join());
+    }
+
+    @Test
+    void request_WhenSendThrows_ShouldCompleteAndClearInFlight() throws Exception {
+        // Arrange - HttpURLConnection rejects a header with a line break
+        URL snapshot = url("/capturesnapshot");
+
+        // Act
+        int code = executor.request(snapshot, "GET", "snapname", "bad\nvalue").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(LimelightHttpExecutor.FAILED, code);
+        assertEquals(1, executor.getFailedCount());
+        assertEquals(0, executor.getInFlightCount());
+    }
+}
@@ -0,0 +1,70 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Micro-benchmark comparing the ObjectMapper results path against the streaming
+ * fiducial decoder on captured JSON dumps from src/test/resources/limelight.
+ * The timings are reported, not asserted, since wall-clock comparisons are not
+ * stable on shared build machines.
+ */
+@Tag("benchmark")
+class LimelightJsonBenchmarkTest {
+    private static final int WARMUP_ITERATIONS = 5_000;
+    private static final int MEASURED_ITERATIONS = 5_000;
+
+    @Test
+    void streamingDecoder_ShouldReportParseTimeAgainstObjectMapper() throws IOException {
+        // Arrange
+        String[] dumps = {
+            LimelightFiducialDecoderTest.loadDump("fiducials_3tags.json"),
+            LimelightFiducialDecoderTest.loadDump("full_pipeline.json")
+        };
+        LimelightFiducialDecoder decoder = new LimelightFiducialDecoder(16);
+        runObjectMapper(dumps, WARMUP_ITERATIONS);
+        runStreaming(decoder, dumps, WARMUP_ITERATIONS);
+
+        // Act
+        long mapperStart = System.nanoTime();
+        int mapperFiducials = runObjectMapper(dumps, MEASURED_ITERATIONS);
+        long mapperNanos = System.nanoTime() - mapperStart;
+
+        long streamingStart = System.nanoTime();
+        int streamingFiducials = runStreaming(decoder, dumps, MEASURED_ITERATIONS);
+        long streamingNanos = System.nanoTime() - streamingStart;
+
+        int parses = MEASURED_ITERATIONS * dumps.length;
+        System.out.printf("JSON parse per dump: ObjectMapper %.1f us, streaming %.1f us%n",
+            mapperNanos / 1e3 / parses, streamingNanos / 1e3 / parses);
+
+        // Assert - Both paths saw the same tags
+        assertTrue(mapperFiducials > 0);
+        assertEquals(mapperFiducials, streamingFiducials);
+    }
+
+    private static int runObjectMapper(String[] dumps, int iterations) {
+        int fiducials = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String dump : dumps) {
+                fiducials += LimelightHelpers.parseResults(dump).targets_Fiducials.length;
+            }
+        }
+        return fiducials;
+    }
+
+    private static int runStreaming(LimelightFiducialDecoder decoder, String[] dumps, int iterations) {
+        int fiducials = 0;
+        for (int i = 0; i < iterations; i++) {
+            for (String dump : dumps) {
+                decoder.decode(dump);
+                fiducials += decoder.getFiducialCount();
+            }
+        }
+        return fiducials;
+    }
+}
@@ -0,0 +1,119 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringPublisher;
+
+class LimelightResultsServiceTest {
+    private static final String JSON = "{\"pID\":1,\"tl\":12.5,\"cl\":8.0,\"v\":1,"
+        + "\"botpose_wpiblue\":[1,2,0,0,0,30],\"botpose_tagcount\":2}";
+    private static final String FIDUCIAL_JSON = "{\"pID\":1,\"tl\":12.5,\"cl\":8.0,\"v\":1,"
+        + "\"Fiducial\":[{\"fID\":7,\"tx\":-3.5,\"ty\":1.0,\"ta\":0.4,\"t6t_rs\":[0.1,0.2,1.5,0,0,10]}]}";
+
+    private NetworkTableInstance ntInstance;
+    private StringPublisher jsonPub;
+    private LimelightResultsService service;
+
+    @BeforeEach
+    void setUp() {
+        ntInstance = NetworkTableInstance.create();
+        jsonPub = ntInstance.getTable("limelight-a").getStringTopic("json").publish();
+        service = new LimelightResultsService(ntInstance, new String[] {"limelight-a", "limelight-b"}, 0.01, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+        ntInstance.close();
+    }
+
+    @Test
+    void parsePending_WithNewDump_ShouldPublishSnapshot() {
+        // Arrange
+        jsonPub.set(JSON);
+
+        // Act
+        int parsed = service.parsePending();
+
+        // Assert
+        assertEquals(1, parsed);
+        LimelightHelpers.LimelightResults results = service.getLatestResults("limelight-a");
+        assertNotNull(results);
+        assertTrue(results.valid);
+        assertEquals(12.5, results.latency_pipeline);
+        assertEquals(2.0, results.botpose_tagcount);
+        assertNull(service.getLatestResults(1));
+        assertEquals(1, service.getParseCount(0));
+        assertTrue(service.getParseTimeMax(0) >= 0.0);
+    }
+
+    @Test
+    void parsePending_WithoutFullResults_ShouldOnlyPublishFiducials() {
+        // Arrange
+        LimelightResultsService fiducialService = new LimelightResultsService(ntInstance, new String[] {"limelight-a"}, 0.01);
+        jsonPub.set(FIDUCIAL_JSON);
+
+        // Act
+        fiducialService.parsePending();
+
+        // Assert
+        LimelightResultsService.Fiducials fiducials = fiducialService.getLatestFiducials(0);
+        assertNotNull(fiducials);
+        assertTrue(fiducials.isValid());
+        assertEquals(20.5, fiducials.getLatencyMillis());
+        assertEquals(1, fiducials.getCount());
+        assertEquals(7, fiducials.getId(0));
+        assertEquals(-3.5, fiducials.getTx(0));
+        assertEquals(1.5, fiducials.getTargetPoseRobotSpace(0, 2));
+        assertEquals(10.0, fiducials.getTargetPoseRobotSpace(0, 5));
+        assertNull(fiducialService.getLatestResults(0));
+        fiducialService.close();
+    }
+
+    @Test
+    void parsePending_WithUnchangedDump_ShouldNotReparse() {
+        // Arrange
+        jsonPub.set(JSON);
+        service.parsePending();
+
+        // Act
+        int parsed = service.parsePending();
+
+        // Assert
+        assertEquals(0, parsed);
+        assertEquals(1, service.getParseCount(0));
+    }
+
+    @Test
+    void parsePending_WithBadJson_ShouldCountError() {
+        // Arrange
+        jsonPub.set("{not json");
+
+        // Act
+        service.parsePending();
+
+        // Assert
+        assertEquals(1, service.getErrorCount(0));
+        assertNotNull(service.getLatestResults(0).error);
+    }
+
+    @Test
+    void start_ShouldParseOnBackgroundThread() throws InterruptedException {
+        // Arrange
+        jsonPub.set(JSON);
+
+        // Act
+        service.start();
+        for (int i = 0; i < 100 && service.getLatestResults(0) == null; i++) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertNotNull(service.getLatestResults(0));
+    }
+}
@@ -18,4 +18,26 @@ class LimelightTest {
     //     // Assert
     //     assertEquals(100, testLimelightDistance) ;
     // }
+
+    @Test
+    void fillDebugValues_ShouldPackEveryCameraIntoOneArray() {
+        // Arrange
+        for (int i = 0; i < Limelight.CAMERA_COUNT; i++) {
+            Limelight.setCameraState(i, i + 1.0, i + 10.0, i + 20.0, i + 30.0);
+        }
+        Limelight.frontRight_Id = 7;
+        Limelight.id_Detected = true;
+        double[] out = new double[Limelight.DEBUG_LENGTH];
+
+        // Act
+        Limelight.fillDebugValues(out);
+
+        // Assert
+        assertEquals(4.0, out[Limelight.DEBUG_TX_OFFSET + 3]);
+        assertEquals(11.0, out[Limelight.DEBUG_TA_OFFSET + 1]);
+        assertEquals(22.0, out[Limelight.DEBUG_RZ_OFFSET + 2]);
+        assertEquals(30.0, out[Limelight.DEBUG_Y_OFFSET]);
+        assertEquals(7.0, out[Limelight.DEBUG_ID_OFFSET]);
+        assertEquals(1.0, out[Limelight.DEBUG_DETECTED_OFFSET]);
+    }
 }
@@ -0,0 +1,188 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+class PriorityTagSchedulerTest {
+    // Two reef cameras and one human player camera
+    private static final String[] CAMERAS = {"limelight-a", "limelight-b", "limelight-c"};
+    private static final CameraRegistry.Gains[] GAINS = {CameraRegistry.Gains.FRONT, CameraRegistry.Gains.FRONT, CameraRegistry.Gains.ELEVATOR};
+    private static final String STATION_CAMERA = CAMERAS[2];
+
+    private NetworkTableInstance ntInstance;
+    private PriorityTagScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ntInstance = NetworkTableInstance.create();
+        scheduler = new PriorityTagScheduler(ntInstance, CAMERAS, GAINS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ntInstance.close();
+    }
+
+    private double[] readFilter(String camera) {
+        return ntInstance.getTable(camera).getEntry("fiducial_id_filters_set").getDoubleArray(new double[0]);
+    }
+
+    private double readPriority(String camera) {
+        return ntInstance.getTable(camera).getEntry("priorityid").getDouble(0.0);
+    }
+
+    @Test
+    void setReefSide_ShouldPushTagAndReefFilterToEveryReefCameraInOneFlush() {
+        // Act
+        boolean pushed = scheduler.setReefSide(0, false);
+
+        // Assert - Blue A/B is tag 18, filtered to the six blue reef tags
+        assertTrue(pushed);
+        assertEquals(1, scheduler.getFlushCount());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(18.0, readPriority(CAMERAS[i]));
+            assertArrayEquals(new double[] {18, 17, 22, 21, 20, 19}, readFilter(CAMERAS[i]));
+        }
+    }
+
+    @Test
+    void setReefSide_ShouldLeaveHumanPlayerCameraSeeingEveryTag() {
+        // Arrange
+        scheduler.clear();
+
+        // Act
+        scheduler.setReefSide(0, false);
+
+        // Assert
+        assertEquals(PriorityTagScheduler.NO_PRIORITY, scheduler.getPriorityTag(2));
+        assertEquals(22, readFilter(STATION_CAMERA).length);
+    }
+
+    @Test
+    void setStation_ShouldLeaveReefCamerasOnReefTag() {
+        // Arrange
+        scheduler.setReefSide(0, false);
+
+        // Act
+        scheduler.setStation(true, false);
+
+        // Assert
+        assertEquals(18, scheduler.getPriorityTag(0));
+        assertEquals(13, scheduler.getPriorityTag(2));
+    }
+
+    @Test
+    void setReefSide_WithSameSideAgain_ShouldNotPush() {
+        // Arrange
+        scheduler.setReefSide(2, true);
+
+        // Act
+        boolean pushed = scheduler.setReefSide(2, true);
+
+        // Assert
+        assertFalse(pushed);
+        assertEquals(1, scheduler.getFlushCount());
+        assertEquals(9, scheduler.getPriorityTag(0));
+    }
+
+    @Test
+    void setReefSide_WithOtherSideSameAlliance_ShouldOnlyChangePriority() {
+        // Arrange
+        scheduler.setReefSide(0, true);
+
+        // Act
+        boolean pushed = scheduler.setReefSide(5, true);
+
+        // Assert
+        assertTrue(pushed);
+        assertEquals(2, scheduler.getFlushCount());
+        assertEquals(6.0, readPriority(CAMERAS[1]));
+        assertEquals(6, scheduler.getFilterSize(1));
+    }
+
+    @Test
+    void setReefTag_ShouldPickFilterFromTagAlliance() {
+        // Act
+        scheduler.setReefTag(10);
+
+        // Assert
+        assertEquals(10, scheduler.getPriorityTag(0));
+        assertArrayEquals(new double[] {7, 8, 9, 10, 11, 6}, readFilter(CAMERAS[0]));
+    }
+
+    @Test
+    void setReefTag_WithNonReefTag_ShouldClear() {
+        // Arrange
+        scheduler.setReefSide(0, false);
+
+        // Act
+        scheduler.setReefTag(14);
+
+        // Assert
+        assertEquals(PriorityTagScheduler.NO_PRIORITY, scheduler.getPriorityTag(0));
+        assertEquals(22, scheduler.getFilterSize(0));
+    }
+
+    @Test
+    void setStation_ShouldUseDriverRelativeSide() {
+        // Act & Assert
+        scheduler.setStation(true, false);
+        assertEquals(13.0, readPriority(STATION_CAMERA));
+        assertArrayEquals(new double[] {13, 12}, readFilter(STATION_CAMERA));
+
+        scheduler.setStation(false, true);
+        assertEquals(2.0, readPriority(STATION_CAMERA));
+        assertArrayEquals(new double[] {1, 2}, readFilter(STATION_CAMERA));
+    }
+
+    @Test
+    void setTargetListener_ShouldReceiveEachNewTargetTag() {
+        // Arrange
+        List<Integer> targets = new ArrayList<>();
+        scheduler.setTargetListener(targets::add);
+
+        // Act
+        scheduler.setReefTag(18);
+        scheduler.setReefSide(0, false);
+        scheduler.setStation(true, false);
+        scheduler.clear();
+
+        // Assert - Side 0 is tag 18 again, so only the station and the clear are new
+        assertEquals(List.of(18, 13, PriorityTagScheduler.NO_PRIORITY), targets);
+    }
+
+    @Test
+    void clear_ShouldRemovePriorityAndAllowEveryTag() {
+        // Arrange
+        scheduler.setReefSide(0, true);
+        scheduler.setStation(true, true);
+
+        // Act
+        scheduler.clear();
+
+        // Assert
+        assertEquals(-1.0, readPriority(CAMERAS[0]));
+        assertEquals(-1.0, readPriority(STATION_CAMERA));
+        double[] filter = readFilter(CAMERAS[1]);
+        assertEquals(22, filter.length);
+        assertEquals(1.0, filter[0]);
+        assertEquals(22.0, filter[21]);
+    }
+
+    @Test
+    void getReefTag_ShouldMapSidesForBothAlliances() {
+        // Act & Assert
+        assertEquals(18, PriorityTagScheduler.getReefTag(0, false));
+        assertEquals(19, PriorityTagScheduler.getReefTag(5, false));
+        assertEquals(7, PriorityTagScheduler.getReefTag(0, true));
+        assertEquals(6, PriorityTagScheduler.getReefTag(5, true));
+    }
+}
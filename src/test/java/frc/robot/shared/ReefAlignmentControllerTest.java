@@ -0,0 +1,103 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+
+class ReefAlignmentControllerTest {
+    private static final ReefAlignmentController.Target TARGET = new ReefAlignmentController.Target(14, 0.1, 0, 0.16, 0, 0.25);
+
+    private NetworkTableInstance ntInstance;
+    private NetworkTable table;
+    private LimelightHandle handle;
+
+    @BeforeEach
+    void setUp() {
+        ntInstance = NetworkTableInstance.create();
+        table = ntInstance.getTable("limelight-test");
+        handle = new LimelightHandle(ntInstance, "limelight-test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ntInstance.close();
+    }
+
+    private void publishTag(double tx, double ta, double rz) {
+        table.getEntry("tv").setDouble(1.0);
+        table.getEntry("tx").setDouble(tx);
+        table.getEntry("ta").setDouble(ta);
+        table.getEntry("targetpose_robotspace").setDoubleArray(new double[] {0, 0, 1, 0, rz, 0});
+    }
+
+    @Test
+    void calculate_ShouldMatchLegacyProportionalOutputs() {
+        // Arrange
+        ReefAlignmentController controller = new ReefAlignmentController(handle, TARGET, Limelight.kFPY, 0, false);
+        publishTag(4.0, 10.0, -6.0);
+
+        // Act
+        controller.calculate();
+
+        // Assert
+        assertTrue(controller.hasTarget());
+        assertEquals((0 - 4.0) * Limelight.kPX * 0.75, controller.getStrafeSpeed(), 1e-9);
+        assertEquals((0 - -6.0) * Limelight.kPR, controller.getRotationRate(), 1e-9);
+        assertEquals((14 - 10.0) * Limelight.kFPY * 0.6, controller.getForwardSpeed(), 1e-9);
+        assertFalse(controller.isAligned());
+    }
+
+    @Test
+    void calculate_WithinThresholds_ShouldBeAligned() {
+        // Arrange
+        ReefAlignmentController controller = new ReefAlignmentController(handle, TARGET, Limelight.kFPY, 0, false);
+        publishTag(0.1, 14.05, 0.2);
+
+        // Act
+        controller.calculate();
+
+        // Assert
+        assertTrue(controller.isAligned());
+        assertEquals(0.0, controller.getForwardSpeed());
+    }
+
+    @Test
+    void calculate_WithoutTarget_ShouldStop() {
+        // Arrange
+        ReefAlignmentController controller = new ReefAlignmentController(handle, TARGET, Limelight.kFPY, 0, true);
+        publishTag(10.0, 5.0, 20.0);
+        controller.calculate();
+
+        // Act
+        table.getEntry("tv").setDouble(0.0);
+        controller.calculate();
+
+        // Assert
+        assertFalse(controller.hasTarget());
+        assertFalse(controller.isAligned());
+        assertEquals(0.0, controller.getStrafeSpeed());
+        assertEquals(0.0, controller.getRotationRate());
+    }
+
+    @Test
+    void calculate_Profiled_ShouldStartGentlerThanProportional() {
+        // Arrange
+        ReefAlignmentController proportional = new ReefAlignmentController(handle, TARGET, Limelight.kFPY, 0, false);
+        ReefAlignmentController profiled = new ReefAlignmentController(handle, TARGET, Limelight.kFPY, 0, true);
+        publishTag(20.0, 4.0, 30.0);
+
+        // Act
+        proportional.calculate();
+        profiled.calculate();
+
+        // Assert - The profile starts at the measurement, so the first output is small but pointed the same way
+        assertTrue(Math.abs(profiled.getStrafeSpeed()) < Math.abs(proportional.getStrafeSpeed()));
+        assertTrue(profiled.getStrafeSpeed() <= 0.0);
+        assertTrue(Math.abs(profiled.getRotationRate()) < Math.abs(proportional.getRotationRate()));
+    }
+}
@@ -0,0 +1,77 @@
+package frc.robot.shared;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+class ReefPoseAlignmentTest {
+    private static final double STANDOFF = 0.5;
+    private static final double BRANCH_OFFSET = 0.16;
+
+    // Tag 18 at (3, 4) facing -x (toward the blue wall), tag 1 is not on the reef
+    private final AprilTagFieldLayout layout = new AprilTagFieldLayout(List.of(
+        new AprilTag(18, new Pose3d(3.0, 4.0, 0.3, new Rotation3d(0, 0, Math.PI))),
+        new AprilTag(21, new Pose3d(6.0, 4.0, 0.3, new Rotation3d(0, 0, 0))),
+        new AprilTag(1, new Pose3d(1.0, 1.0, 1.0, new Rotation3d()))
+    ), 17.5, 8.0);
+
+    private final ReefPoseAlignment alignment = new ReefPoseAlignment(layout, STANDOFF, BRANCH_OFFSET, 0.02, Math.toRadians(2));
+
+    @Test
+    void getScoringPose_ShouldFaceTagFromStandoff() {
+        // Act
+        Pose2d left = alignment.getScoringPose(18, ReefPoseAlignment.Branch.LEFT).orElseThrow();
+        Pose2d right = alignment.getScoringPose(18, ReefPoseAlignment.Branch.RIGHT).orElseThrow();
+
+        // Assert - Robot sits 0.5 m in front of the tag (toward -x), facing +x
+        assertEquals(2.5, left.getX(), 1e-9);
+        assertEquals(0.0, left.getRotation().getRadians(), 1e-9);
+        assertEquals(2.5, right.getX(), 1e-9);
+        // Facing +x, the driver's left is +y
+        assertEquals(4.0 + BRANCH_OFFSET, left.getY(), 1e-9);
+        assertEquals(4.0 - BRANCH_OFFSET, right.getY(), 1e-9);
+    }
+
+    @Test
+    void getScoringPose_WithNonReefTag_ShouldBeEmpty() {
+        // Act & Assert
+        assertTrue(alignment.getScoringPose(1, ReefPoseAlignment.Branch.LEFT).isEmpty());
+        assertTrue(alignment.getScoringPose(19, ReefPoseAlignment.Branch.LEFT).isEmpty());
+    }
+
+    @Test
+    void getNearestReefTag_ShouldIgnoreNonReefTags() {
+        // Act & Assert
+        assertEquals(18, alignment.getNearestReefTag(new Pose2d(1.0, 1.0, new Rotation2d())));
+        assertEquals(21, alignment.getNearestReefTag(new Pose2d(7.0, 4.0, new Rotation2d())));
+    }
+
+    @Test
+    void calculate_ShouldDriveTowardGoalAndReportArrival() {
+        // Arrange
+        Pose2d goal = alignment.getScoringPose(18, ReefPoseAlignment.Branch.LEFT).orElseThrow();
+        Pose2d start = new Pose2d(1.5, 4.16, new Rotation2d());
+        alignment.reset(start);
+
+        // Act
+        ChassisSpeeds far = alignment.calculate(start, goal);
+        boolean farAtGoal = alignment.atGoal();
+        alignment.calculate(goal, goal);
+
+        // Assert - Goal is 1 m ahead of the robot
+        assertTrue(far.vxMetersPerSecond > 0.0);
+        assertEquals(0.0, far.vyMetersPerSecond, 1e-6);
+        assertFalse(farAtGoal);
+        assertTrue(alignment.atGoal());
+    }
+}
@@ -0,0 +1,119 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.shared.LatencyHistogram;
+
+/**
+ * Side-by-side simulation benchmark of the legacy and CTRE drivetrains.
+ * <p>
+ * Each drivetrain drives the same field-relative velocity script in real time at
+ * the 20 ms robot loop. Loop time is the drive() + periodic() + simulationPeriodic()
+ * cost per loop; tracking error is the distance between the drivetrain's estimated
+ * pose and the pose an ideal robot following the script would reach.
+ * </p>
+ * <p>
+ * Runs in real time for several seconds, so it is tagged out of {@code test};
+ * run it with {@code ./gradlew benchmark}.
+ * </p>
+ */
+@Tag("benchmark")
+class DrivetrainSimBenchmarkTest {
+    private static final double LOOP_PERIOD_SECONDS = 0.02;
+    private static final int LOOPS = 150;
+
+    // Loose enough for any working drivetrain; catches one that does not move or runs away
+    private static final double MAX_RMS_TRACKING_ERROR_METERS = 2.0;
+
+    /** One drivetrain's results */
+    private record Result(Drivetrain.Type type, int loops, double p50Ms, double p99Ms, double maxMs, double rmsErrorMeters, double finalErrorMeters) {}
+
+    @BeforeAll
+    static void initHal() {
+        assertTrue(HAL.initialize(500, 0));
+    }
+
+    @Test
+    void drivetrains_ShouldTrackScriptedPath() throws Exception {
+        // Act
+        Result legacy = run(Drivetrain.Type.LEGACY);
+        Result ctre = run(Drivetrain.Type.CTRE);
+
+        System.out.printf("%-8s %8s %8s %8s %10s %10s%n", "", "p50 ms", "p99 ms", "max ms", "rms err m", "final m");
+        for (Result result : new Result[] {legacy, ctre}) {
+            System.out.printf("%-8s %8.3f %8.3f %8.3f %10.3f %10.3f%n", result.type(),
+                result.p50Ms(), result.p99Ms(), result.maxMs(), result.rmsErrorMeters(), result.finalErrorMeters());
+        }
+
+        // Assert
+        for (Result result : new Result[] {legacy, ctre}) {
+            assertEquals(LOOPS, result.loops());
+            assertTrue(Double.isFinite(result.p99Ms()));
+            assertTrue(result.rmsErrorMeters() < MAX_RMS_TRACKING_ERROR_METERS,
+                result.type() + " tracking error " + result.rmsErrorMeters() + " m");
+        }
+    }
+
+    private Result run(Drivetrain.Type type) throws Exception {
+        Drivetrain drivetrain = Drivetrain.create(type);
+        LatencyHistogram loopTimes = new LatencyHistogram(0.05, 400);
+        try {
+            drivetrain.resetPose(new Pose2d());
+
+            // Ideal robot following the script
+            double referenceX = 0.0;
+            double referenceY = 0.0;
+            double squaredErrorSum = 0.0;
+            double error = 0.0;
+
+            double start = Timer.getFPGATimestamp();
+            double last = start;
+            for (int i = 0; i < LOOPS; i++) {
+                double now = Timer.getFPGATimestamp();
+                double t = now - start;
+                double dt = now - last;
+                last = now;
+
+                // Gentle figure eight while spinning slowly
+                double vx = 1.5 * Math.sin(t);
+                double vy = 1.0 * Math.sin(2.0 * t);
+                double omega = 0.5;
+                referenceX += vx * dt;
+                referenceY += vy * dt;
+
+                long loopStart = System.nanoTime();
+                drivetrain.drive(vx, vy, omega, true);
+                drivetrain.periodic();
+                drivetrain.simulationPeriodic();
+                loopTimes.record((System.nanoTime() - loopStart) / 1e6);
+
+                Pose2d pose = drivetrain.getPose();
+                error = Math.hypot(pose.getX() - referenceX, pose.getY() - referenceY);
+                squaredErrorSum += error * error;
+
+                // Sleep out the rest of the loop so the odometry and sim threads run as on the robot
+                long remainingNanos = (long) ((start + (i + 1) * LOOP_PERIOD_SECONDS - Timer.getFPGATimestamp()) * 1e9);
+                if (remainingNanos > 0) {
+                    Thread.sleep(remainingNanos / 1_000_000, (int) (remainingNanos % 1_000_000));
+                }
+            }
+
+            return new Result(type, (int) loopTimes.getCount(), loopTimes.percentile(50.0), loopTimes.percentile(99.0),
+                loopTimes.getMax(), Math.sqrt(squaredErrorSum / LOOPS), error);
+        } finally {
+            drivetrain.drive(0.0, 0.0, 0.0, false);
+            CommandScheduler.getInstance().unregisterSubsystem(drivetrain);
+            if (drivetrain instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
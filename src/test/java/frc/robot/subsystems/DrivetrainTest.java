@@ -0,0 +1,132 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import frc.robot.replay.DriveStateLog;
+
+class DrivetrainTest {
+    /** Records the last field-relative command instead of driving */
+    private static class RecordingDrivetrain implements Drivetrain {
+        double[] lastDrive = new double[3];
+        boolean lastFieldRelative;
+        Pose2d pose = new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(30));
+
+        @Override
+        public void drive(double xSpeed, double ySpeed, double rotSpeed, boolean fieldRelative) {
+            lastDrive = new double[] {xSpeed, ySpeed, rotSpeed};
+            lastFieldRelative = fieldRelative;
+        }
+
+        @Override
+        public void drive(ChassisSpeeds speeds) {}
+
+        @Override
+        public ChassisSpeeds getChassisSpeeds() {
+            return new ChassisSpeeds();
+        }
+
+        @Override
+        public Pose2d getPose() {
+            return pose;
+        }
+
+        @Override
+        public void resetPose(Pose2d pose) {
+            this.pose = pose;
+        }
+
+        @Override
+        public void setVisionSubsystem(VisionSubsystem visionSubsystem) {}
+
+        @Override
+        public void setVisionEnabled(boolean enabled) {}
+
+        @Override
+        public void setDriveStateLog(DriveStateLog log) {}
+    }
+
+    @BeforeAll
+    static void initHal() {
+        assertTrue(HAL.initialize(500, 0));
+    }
+
+    @AfterEach
+    void resetDriverStation() {
+        DriverStationSim.resetData();
+        DriverStation.refreshData();
+    }
+
+    private static void setAlliance(AllianceStationID station) {
+        DriverStationSim.setAllianceStationId(station);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+    }
+
+    @Test
+    void driveFromDriverStation_OnBlue_ShouldDriveFieldFrameUnchanged() {
+        // Arrange
+        setAlliance(AllianceStationID.Blue1);
+        RecordingDrivetrain drivetrain = new RecordingDrivetrain();
+
+        // Act
+        drivetrain.driveFromDriverStation(1.0, 0.5, 0.25, 0.0, 0.0);
+
+        // Assert
+        assertArrayEquals(new double[] {1.0, 0.5, 0.25}, drivetrain.lastDrive, 1e-9);
+        assertTrue(drivetrain.lastFieldRelative);
+    }
+
+    @Test
+    void driveFromDriverStation_OnRed_ShouldFlipTranslationOnly() {
+        // Arrange
+        setAlliance(AllianceStationID.Red2);
+        RecordingDrivetrain drivetrain = new RecordingDrivetrain();
+
+        // Act
+        drivetrain.driveFromDriverStation(1.0, 0.5, 0.25, 0.0, 0.0);
+
+        // Assert - Away from the red wall is -x in the blue-origin frame
+        assertArrayEquals(new double[] {-1.0, -0.5, 0.25}, drivetrain.lastDrive, 1e-9);
+        assertTrue(drivetrain.lastFieldRelative);
+    }
+
+    @Test
+    void seedFieldCentric_OnRed_ShouldFaceBlueWallAndKeepPosition() {
+        // Arrange
+        setAlliance(AllianceStationID.Red1);
+        RecordingDrivetrain drivetrain = new RecordingDrivetrain();
+
+        // Act
+        drivetrain.seedFieldCentric();
+
+        // Assert
+        assertEquals(1.0, drivetrain.pose.getX(), 1e-9);
+        assertEquals(2.0, drivetrain.pose.getY(), 1e-9);
+        assertEquals(180.0, Math.abs(drivetrain.pose.getRotation().getDegrees()), 1e-9);
+    }
+
+    @Test
+    void parse_ShouldIgnoreCaseAndWhitespace() {
+        // Act & Assert
+        assertEquals(Drivetrain.Type.CTRE, Drivetrain.Type.parse(" ctre ", Drivetrain.Type.LEGACY));
+        assertEquals(Drivetrain.Type.LEGACY, Drivetrain.Type.parse("Legacy", Drivetrain.Type.CTRE));
+    }
+
+    @Test
+    void parse_WithUnknownName_ShouldReturnFallback() {
+        // Act & Assert
+        assertEquals(Drivetrain.Type.LEGACY, Drivetrain.Type.parse("tank", Drivetrain.Type.LEGACY));
+        assertNull(Drivetrain.Type.parse(null, null));
+    }
+}
@@ -0,0 +1,115 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+
+/**
+ * Heap allocations of the simulated {@link SwerveDriveSubsystem}.
+ * <p>
+ * Runs the subsystem at the 20 ms robot loop and counts the bytes allocated by
+ * drive() + periodic() + simulationPeriodic() on the loop thread, and by the
+ * odometry thread per sample. The odometry figure includes the WPILib pose
+ * estimator's own per-update allocations, which this code cannot remove. The
+ * numbers are published as test report entries; the assertions are only budgets
+ * that catch a new per-call array or object.
+ * </p>
+ * <p>
+ * Runs in real time for several seconds, so it is tagged out of {@code test};
+ * run it with {@code ./gradlew benchmark}.
+ * </p>
+ */
+@Tag("benchmark")
+class SwerveDriveAllocationBenchmarkTest {
+    private static final double LOOP_PERIOD_SECONDS = 0.02;
+    private static final int WARMUP_LOOPS = 100;
+    private static final int MEASURED_LOOPS = 250;
+
+    private static final double MAX_BYTES_PER_LOOP = 16 * 1024;
+    private static final double MAX_BYTES_PER_SAMPLE = 4 * 1024;
+
+    private final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @BeforeAll
+    static void initHal() {
+        assertTrue(HAL.initialize(500, 0));
+    }
+
+    @Test
+    void driveAndOdometry_ShouldStayWithinAllocationBudget(TestReporter reporter) throws InterruptedException {
+        // Arrange
+        SwerveDriveSubsystem drive = new SwerveDriveSubsystem();
+        try {
+            drive.resetPose(new Pose2d());
+            long odometryThreadId = findThreadId("SwerveOdometry");
+            runLoops(drive, WARMUP_LOOPS);
+
+            // Act
+            long samplesBefore = drive.getOdometrySnapshot().sampleCount();
+            long odometryBytesBefore = threadBean.getThreadAllocatedBytes(odometryThreadId);
+            long loopBytes = runLoops(drive, MEASURED_LOOPS);
+            long odometryBytes = threadBean.getThreadAllocatedBytes(odometryThreadId) - odometryBytesBefore;
+            long samples = drive.getOdometrySnapshot().sampleCount() - samplesBefore;
+
+            double bytesPerLoop = (double) loopBytes / MEASURED_LOOPS;
+            double bytesPerSample = (double) odometryBytes / samples;
+            reporter.publishEntry("loop bytes per cycle", String.format("%.1f", bytesPerLoop));
+            reporter.publishEntry("odometry bytes per sample", String.format("%.1f", bytesPerSample));
+
+            // Assert
+            assertTrue(samples > MEASURED_LOOPS, "Odometry thread only took " + samples + " samples");
+            assertTrue(bytesPerLoop < MAX_BYTES_PER_LOOP, "Loop allocated " + bytesPerLoop + " bytes per cycle");
+            assertTrue(bytesPerSample < MAX_BYTES_PER_SAMPLE, "Odometry allocated " + bytesPerSample + " bytes per sample");
+        } finally {
+            drive.drive(0.0, 0.0, 0.0, false);
+            CommandScheduler.getInstance().unregisterSubsystem(drive);
+            drive.close();
+        }
+    }
+
+    /**
+     * Drive a slow spinning circle in real time
+     * @return Bytes allocated on this thread by the subsystem calls
+     */
+    private long runLoops(SwerveDriveSubsystem drive, int loops) throws InterruptedException {
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        double start = Timer.getFPGATimestamp();
+        for (int i = 0; i < loops; i++) {
+            double t = i * LOOP_PERIOD_SECONDS;
+
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            drive.drive(1.5 * Math.cos(t), 1.5 * Math.sin(t), 0.5, true);
+            drive.periodic();
+            drive.simulationPeriodic();
+            allocated += threadBean.getThreadAllocatedBytes(threadId) - before;
+
+            // Sleep out the rest of the loop so the odometry thread runs as on the robot
+            long remainingNanos = (long) ((start + (i + 1) * LOOP_PERIOD_SECONDS - Timer.getFPGATimestamp()) * 1e9);
+            if (remainingNanos > 0) {
+                Thread.sleep(remainingNanos / 1_000_000, (int) (remainingNanos % 1_000_000));
+            }
+        }
+        return allocated;
+    }
+
+    private static long findThreadId(String name) {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals(name)) {
+                return thread.getId();
+            }
+        }
+        return fail("No " + name + " thread running");
+    }
+}
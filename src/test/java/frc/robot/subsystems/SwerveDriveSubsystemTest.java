@@ -3,18 +3,16 @@ package frc.robot.subsystems;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
-import java.util.List;
-import java.util.Optional;
-
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.Constants.PIDConfig;
-import frc.robot.subsystems.VisionSubsystem.LimelightMeasurement;
+import frc.robot.subsystems.vision.VisionMeasurement;
 
 class SwerveDriveSubsystemTest {
     // Mocks
@@ -78,26 +76,47 @@ class SwerveDriveSubsystemTest {
     }
     
     @Test
-    void periodic_WithVisionEnabled_ShouldAddVisionMeasurements() {
+    void periodic_WithVisionEnabled_ShouldAddOneFusedVisionMeasurement() {
         // Arrange
         driveSubsystem.setVisionEnabled(true);
         
         Pose2d pose1 = new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(30));
-        Pose2d pose2 = new Pose2d(3.0, 4.0, Rotation2d.fromDegrees(60));
-        
-        LimelightMeasurement measurement1 = new LimelightMeasurement(pose1, 12345.0, 0.2, 2.0, 5.0);
-        LimelightMeasurement measurement2 = new LimelightMeasurement(pose2, 12346.0, 0.3, 1.0, 4.0);
+        Pose2d pose2 = new Pose2d(1.2, 2.2, Rotation2d.fromDegrees(32));
         
-        List<LimelightMeasurement> measurements = List.of(measurement1, measurement2);
+        VisionMeasurement measurement1 = measurement(pose1, 12345.0, 0.2, 2.0, 5.0);
+        VisionMeasurement measurement2 = measurement(pose2, 12345.01, 0.3, 1.0, 4.0);
         
-        when(mockVisionSubsystem.getAllVisionMeasurements()).thenReturn(measurements);
+        when(mockVisionSubsystem.getVisionMeasurementCount()).thenReturn(2);
+        when(mockVisionSubsystem.getVisionMeasurement(0)).thenReturn(measurement1);
+        when(mockVisionSubsystem.getVisionMeasurement(1)).thenReturn(measurement2);
+        when(mockPoseEstimator.getEstimatedPosition()).thenReturn(new Pose2d(1.1, 2.1, Rotation2d.fromDegrees(31)));
         when(SmartDashboard.getBoolean("Drive/Vision Enabled", true)).thenReturn(true);
         
         // Act
         driveSubsystem.periodic();
         
         // Assert
-        verify(mockPoseEstimator, times(2)).addVisionMeasurement(any(Pose2d.class), anyDouble(), any());
+        ArgumentCaptor<Pose2d> poseCaptor = ArgumentCaptor.forClass(Pose2d.class);
+        verify(mockPoseEstimator, times(1)).addVisionMeasurement(poseCaptor.capture(), anyDouble(), any());
+        assertTrue(poseCaptor.getValue().getX() > 1.0 && poseCaptor.getValue().getX() < 1.2);
+    }
+    
+    @Test
+    void periodic_WithVisionOutlier_ShouldNotAddVisionMeasurement() {
+        // Arrange
+        driveSubsystem.setVisionEnabled(true);
+        
+        VisionMeasurement outlier = measurement(new Pose2d(8.0, 4.0, new Rotation2d()), 12345.0, 0.2, 2.0, 5.0);
+        
+        when(mockVisionSubsystem.getVisionMeasurementCount()).thenReturn(1);
+        when(mockVisionSubsystem.getVisionMeasurement(0)).thenReturn(outlier);
+        when(mockPoseEstimator.getEstimatedPosition()).thenReturn(new Pose2d(1.0, 1.0, new Rotation2d()));
+        
+        // Act
+        driveSubsystem.periodic();
+        
+        // Assert
+        verify(mockPoseEstimator, never()).addVisionMeasurement(any(Pose2d.class), anyDouble(), any());
     }
     
     @Test
@@ -106,11 +125,10 @@ class SwerveDriveSubsystemTest {
         driveSubsystem.setVisionEnabled(false);
         
         Pose2d pose1 = new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(30));
-        LimelightMeasurement measurement1 = new LimelightMeasurement(pose1, 12345.0, 0.2, 2.0, 5.0);
+        VisionMeasurement measurement1 = measurement(pose1, 12345.0, 0.2, 2.0, 5.0);
         
-        List<LimelightMeasurement> measurements = List.of(measurement1);
-        
-        when(mockVisionSubsystem.getAllVisionMeasurements()).thenReturn(measurements);
+        when(mockVisionSubsystem.getVisionMeasurementCount()).thenReturn(1);
+        when(mockVisionSubsystem.getVisionMeasurement(0)).thenReturn(measurement1);
         when(SmartDashboard.getBoolean("Drive/Vision Enabled", true)).thenReturn(false);
         
         // Act
@@ -160,4 +178,12 @@ class SwerveDriveSubsystemTest {
         verify(SmartDashboard.class).putString("Drive/Drive PID", drivePID.toString());
         verify(SmartDashboard.class).putString("Drive/Turn PID", turnPID.toString());
     }
+    
+    // Helper methods
+    
+    private static VisionMeasurement measurement(Pose2d pose, double timestamp, double ambiguity, double tagCount, double targetArea) {
+        VisionMeasurement measurement = new VisionMeasurement();
+        measurement.set(0, pose.getX(), pose.getY(), pose.getRotation().getRadians(), timestamp, ambiguity, tagCount, targetArea);
+        return measurement;
+    }
 }
\ No newline at end of file
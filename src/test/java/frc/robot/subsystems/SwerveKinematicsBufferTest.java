@@ -0,0 +1,113 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.Constants;
+
+class SwerveKinematicsBufferTest {
+    private static final double EPSILON = 1e-9;
+
+    private static final Translation2d[] MODULES = {
+        Constants.FRONT_LEFT_MODULE_POSITION,
+        Constants.FRONT_RIGHT_MODULE_POSITION,
+        Constants.BACK_LEFT_MODULE_POSITION,
+        Constants.BACK_RIGHT_MODULE_POSITION
+    };
+
+    private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(MODULES);
+    private final SwerveKinematicsBuffer buffer = new SwerveKinematicsBuffer(MODULES);
+
+    @Test
+    void toModuleStates_ShouldMatchWpilibKinematics() {
+        // Arrange
+        SwerveModuleState[] expected = kinematics.toSwerveModuleStates(new ChassisSpeeds(1.5, -0.5, 2.0));
+
+        // Act
+        buffer.toModuleStates(1.5, -0.5, 2.0);
+
+        // Assert
+        for (int i = 0; i < MODULES.length; i++) {
+            assertEquals(expected[i].speedMetersPerSecond, buffer.getSpeed(i), EPSILON);
+            assertEquals(expected[i].angle.getRadians(), buffer.getAngle(i), EPSILON);
+        }
+    }
+
+    @Test
+    void toModuleStatesFieldRelative_ShouldMatchFromFieldRelativeSpeeds() {
+        // Arrange
+        Rotation2d heading = Rotation2d.fromDegrees(37.0);
+        SwerveModuleState[] expected = kinematics.toSwerveModuleStates(
+            ChassisSpeeds.fromFieldRelativeSpeeds(2.0, 1.0, -1.0, heading));
+
+        // Act
+        buffer.toModuleStatesFieldRelative(2.0, 1.0, -1.0, heading.getRadians());
+
+        // Assert
+        for (int i = 0; i < MODULES.length; i++) {
+            assertEquals(expected[i].speedMetersPerSecond, buffer.getSpeed(i), EPSILON);
+            assertEquals(expected[i].angle.getRadians(), buffer.getAngle(i), EPSILON);
+        }
+    }
+
+    @Test
+    void toModuleStates_WhenStopped_ShouldKeepPreviousAngles() {
+        // Arrange
+        buffer.toModuleStates(0.0, 1.0, 0.0);
+
+        // Act
+        buffer.toModuleStates(0.0, 0.0, 0.0);
+
+        // Assert
+        for (int i = 0; i < MODULES.length; i++) {
+            assertEquals(0.0, buffer.getSpeed(i));
+            assertEquals(Math.PI / 2.0, buffer.getAngle(i), EPSILON);
+        }
+    }
+
+    @Test
+    void desaturate_ShouldScaleEveryModuleTogether() {
+        // Arrange
+        SwerveModuleState[] expected = kinematics.toSwerveModuleStates(new ChassisSpeeds(4.0, 0.0, 6.0));
+        SwerveDriveKinematics.desaturateWheelSpeeds(expected, Constants.MAX_VELOCITY_METERS_PER_SECOND);
+        buffer.toModuleStates(4.0, 0.0, 6.0);
+
+        // Act
+        buffer.desaturate(Constants.MAX_VELOCITY_METERS_PER_SECOND);
+
+        // Assert
+        for (int i = 0; i < MODULES.length; i++) {
+            assertEquals(expected[i].speedMetersPerSecond, buffer.getSpeed(i), EPSILON);
+        }
+    }
+
+    @Test
+    void toChassisSpeeds_ShouldInvertModuleStates() {
+        // Arrange
+        buffer.toModuleStates(1.0, 0.5, -1.5);
+        for (int i = 0; i < MODULES.length; i++) {
+            buffer.setMeasured(i, buffer.getSpeed(i), buffer.getAngle(i));
+        }
+        ChassisSpeeds speeds = new ChassisSpeeds();
+
+        // Act
+        buffer.toChassisSpeeds(speeds);
+
+        // Assert
+        assertEquals(1.0, speeds.vxMetersPerSecond, EPSILON);
+        assertEquals(0.5, speeds.vyMetersPerSecond, EPSILON);
+        assertEquals(-1.5, speeds.omegaRadiansPerSecond, EPSILON);
+    }
+
+    @Test
+    void constructor_WithOneModule_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SwerveKinematicsBuffer(new Translation2d()));
+    }
+}
@@ -0,0 +1,99 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+class SwerveModuleSignalsTest {
+    private final SwerveModuleSignals signals = new SwerveModuleSignals();
+
+    @Test
+    void getTimestamp_BeforeRefresh_ShouldBeNaN() {
+        // Act & Assert
+        assertTrue(Double.isNaN(signals.getTimestamp()));
+        assertEquals(0, signals.getRefreshCount());
+    }
+
+    @Test
+    void update_ShouldStoreOneConsistentSet() {
+        // Act
+        signals.update(1.25, 2.5, 0.75, 10.0);
+
+        // Assert
+        assertEquals(1.25, signals.getDistanceMeters());
+        assertEquals(2.5, signals.getVelocityMetersPerSecond());
+        assertEquals(0.75, signals.getAngleRadians());
+        assertEquals(10.0, signals.getTimestamp());
+        assertEquals(1, signals.getRefreshCount());
+    }
+
+    @Test
+    void copyTo_WithSameAngle_ShouldReuseRotation() {
+        // Arrange
+        SwerveModulePosition position = new SwerveModulePosition();
+        signals.update(1.0, 0.0, 0.5, 1.0);
+        signals.copyTo(position);
+        Rotation2d firstAngle = position.angle;
+
+        // Act - Drove further without turning
+        signals.update(1.5, 0.0, 0.5, 1.02);
+        signals.copyTo(position);
+
+        // Assert
+        assertEquals(1.5, position.distanceMeters);
+        assertSame(firstAngle, position.angle);
+    }
+
+    @Test
+    void copyTo_AfterTurning_ShouldReplaceRotation() {
+        // Arrange
+        SwerveModulePosition position = new SwerveModulePosition();
+        signals.update(1.0, 0.0, 0.5, 1.0);
+        signals.copyTo(position);
+
+        // Act
+        signals.update(1.0, 0.0, 0.6, 1.02);
+        signals.copyTo(position);
+
+        // Assert
+        assertEquals(0.6, position.angle.getRadians());
+    }
+
+    @Test
+    void copyState_ShouldTakeSpeedAndAngleFromLastRefresh() {
+        // Arrange
+        SwerveModuleState state = new SwerveModuleState();
+        signals.update(1.0, 2.0, 0.5, 1.0);
+        signals.update(1.5, 3.0, 0.25, 1.02);
+
+        // Act
+        signals.copyState(state);
+
+        // Assert
+        assertEquals(3.0, state.speedMetersPerSecond);
+        assertEquals(0.25, state.angle.getRadians());
+    }
+
+    @Test
+    void copyMeasured_ShouldFillBufferSlot() {
+        // Arrange - Both modules driving sideways
+        SwerveKinematicsBuffer buffer = new SwerveKinematicsBuffer(new Translation2d(0.5, 0.0), new Translation2d(-0.5, 0.0));
+        ChassisSpeeds speeds = new ChassisSpeeds();
+        signals.update(0.0, 2.0, Math.PI / 2.0, 1.0);
+
+        // Act
+        signals.copyMeasured(buffer, 0);
+        signals.copyMeasured(buffer, 1);
+        buffer.toChassisSpeeds(speeds);
+
+        // Assert
+        assertEquals(0.0, speeds.vxMetersPerSecond, 1e-9);
+        assertEquals(2.0, speeds.vyMetersPerSecond, 1e-9);
+    }
+}
@@ -0,0 +1,52 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import frc.robot.Constants;
+import frc.robot.Constants.PIDConfig;
+
+class SwerveModuleTest {
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void continuousTarget_AcrossSeam_ShouldTakeShortWay() {
+        // Act - Module at 170 degrees asked for -170 degrees
+        double target = SwerveModule.continuousTarget(Math.toRadians(170.0), Math.toRadians(-170.0));
+
+        // Assert - Goes 20 degrees forward, not 340 back
+        assertEquals(Math.toRadians(190.0), target, EPSILON);
+    }
+
+    @Test
+    void continuousTarget_AfterManyTurns_ShouldStayNearCurrent() {
+        // Arrange - Unwrapped CANcoder angle after three full turns
+        double current = 3.0 * 2.0 * Math.PI + 0.1;
+
+        // Act
+        double target = SwerveModule.continuousTarget(current, 0.3);
+
+        // Assert
+        assertEquals(current + 0.2, target, EPSILON);
+    }
+
+    @Test
+    void toTalonTurnGains_ShouldGiveSameOutputForSameError() {
+        // Arrange
+        PIDConfig rioGains = new PIDConfig(0.6, 0.0, 0.01, 0.0);
+        double radiansPerUnit = Constants.CANCODER_POSITION_CONVERSION;
+        double loopPeriod = Constants.TURN_FEEDBACK_PERIOD_MS / 1000.0;
+
+        // Act
+        PIDConfig talonGains = SwerveModule.toTalonTurnGains(rioGains, radiansPerUnit, loopPeriod);
+
+        // Assert - 0.1 rad of error: roboRIO output 0.06, Talon output 0.06 * 1023
+        double errorUnits = 0.1 / radiansPerUnit;
+        assertEquals(0.06 * 1023.0, talonGains.kP * errorUnits, 1e-6);
+        // Error closing at 1 rad/s: roboRIO D output 0.01; the Talon sees the change over one loop
+        double errorChangePerLoop = 1.0 * loopPeriod / radiansPerUnit;
+        assertEquals(0.01 * 1023.0, talonGains.kD * errorChangePerLoop, 1e-6);
+        assertEquals(0.0, talonGains.kF);
+    }
+}
@@ -0,0 +1,170 @@
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+
+class SwerveOdometryThreadTest {
+    private static final int MODULE_COUNT = 4;
+
+    private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(
+        new Translation2d(0.3, 0.3),
+        new Translation2d(0.3, -0.3),
+        new Translation2d(-0.3, 0.3),
+        new Translation2d(-0.3, -0.3)
+    );
+
+    // Every module rolls straight ahead by the same distance
+    private volatile double distanceMeters = 0.0;
+    private SwerveOdometryThread odometry;
+
+    @BeforeEach
+    void setUp() {
+        SwerveModulePosition[] start = new SwerveModulePosition[MODULE_COUNT];
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            start[i] = new SwerveModulePosition();
+        }
+        SwerveDrivePoseEstimator estimator = new SwerveDrivePoseEstimator(kinematics, new Rotation2d(), start, new Pose2d());
+        odometry = new SwerveOdometryThread(estimator, this::read, MODULE_COUNT, 200.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        odometry.close();
+    }
+
+    private Rotation2d read(SwerveModulePosition[] positions) {
+        for (SwerveModulePosition position : positions) {
+            position.distanceMeters = distanceMeters;
+            position.angle = new Rotation2d();
+        }
+        return new Rotation2d();
+    }
+
+    @Test
+    void sample_ShouldIntegrateModulePositions() {
+        // Arrange
+        distanceMeters = 0.5;
+
+        // Act
+        odometry.sample();
+
+        // Assert
+        assertEquals(1, odometry.getSampleCount());
+        assertEquals(0.5, odometry.getPose().getX(), 1e-6);
+        assertEquals(0.0, odometry.getPose().getY(), 1e-6);
+    }
+
+    @Test
+    void sample_WithListener_ShouldReportEachUpdate() {
+        // Arrange
+        double[] logged = new double[3];
+        odometry.setSampleListener((positions, heading, pose, timestamp) -> {
+            logged[0] = positions[0].distanceMeters;
+            logged[1] = pose.getX();
+            logged[2] = timestamp;
+        });
+        distanceMeters = 0.5;
+
+        // Act
+        odometry.sample();
+
+        // Assert
+        assertEquals(0.5, logged[0], 1e-6);
+        assertEquals(0.5, logged[1], 1e-6);
+        assertEquals(odometry.getSnapshot().timestamp(), logged[2], 1e-9);
+    }
+
+    @Test
+    void sample_WithFeedbackFrameSlowerThanSamples_ShouldOnlyCountNewPositionsAsFresh() {
+        // Act - 20 ms feedback frames sampled at 200 Hz: a new position every 4th sample
+        for (int i = 0; i < 8; i++) {
+            distanceMeters = (i / 4 + 1) * 0.1;
+            odometry.sample();
+        }
+
+        // Assert
+        assertEquals(8, odometry.getSampleCount());
+        assertEquals(2, odometry.getFreshSampleCount());
+    }
+
+    @Test
+    void sample_WithFeedbackFrameEverySample_ShouldCountEverySampleAsFresh() {
+        // Act - Feedback frame period matched to the 5 ms sample period
+        for (int i = 0; i < 8; i++) {
+            distanceMeters = (i + 1) * 0.01;
+            odometry.sample();
+        }
+
+        // Assert
+        assertEquals(8, odometry.getFreshSampleCount());
+    }
+
+    @Test
+    void resetPosition_ShouldMoveSnapshotToNewPose() {
+        // Arrange
+        distanceMeters = 1.0;
+        odometry.sample();
+
+        // Act
+        odometry.resetPosition(new Pose2d(3.0, 2.0, new Rotation2d()));
+        distanceMeters = 1.25;
+        odometry.sample();
+
+        // Assert - Only the distance rolled after the reset counts
+        assertEquals(3.25, odometry.getPose().getX(), 1e-6);
+        assertEquals(2.0, odometry.getPose().getY(), 1e-6);
+    }
+
+    @Test
+    void withEstimator_ShouldRefreshSnapshot() {
+        // Act
+        odometry.withEstimator(estimator -> estimator.resetPose(new Pose2d(1.0, 1.0, new Rotation2d())));
+
+        // Assert
+        assertEquals(1.0, odometry.getSnapshot().pose().getX(), 1e-6);
+        assertEquals(0, odometry.getSnapshot().sampleCount());
+    }
+
+    @Test
+    void constructor_WithFrequencyOutOfRange_ShouldThrow() {
+        // Arrange
+        SwerveModulePosition[] start = new SwerveModulePosition[MODULE_COUNT];
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            start[i] = new SwerveModulePosition();
+        }
+        SwerveDrivePoseEstimator estimator = new SwerveDrivePoseEstimator(kinematics, new Rotation2d(), start, new Pose2d());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SwerveOdometryThread(estimator, this::read, MODULE_COUNT, 50.0));
+        assertThrows(IllegalArgumentException.class, () -> new SwerveOdometryThread(estimator, this::read, MODULE_COUNT, 500.0));
+    }
+
+    @Test
+    void start_ShouldSampleUntilClosed() throws InterruptedException {
+        // Arrange
+        distanceMeters = 0.2;
+
+        // Act
+        odometry.start();
+        Thread.sleep(100);
+        odometry.close();
+        long samples = odometry.getSampleCount();
+        Thread.sleep(20);
+
+        // Assert - About 20 samples at 200 Hz; leave room for a slow test machine
+        assertFalse(odometry.isRunning());
+        assertTrue(samples >= 5, "Expected several samples, got " + samples);
+        assertEquals(samples, odometry.getSampleCount());
+        assertEquals(0.2, odometry.getPose().getX(), 1e-6);
+    }
+}
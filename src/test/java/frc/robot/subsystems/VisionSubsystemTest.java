@@ -3,127 +3,62 @@ package frc.robot.subsystems;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.networktables.NetworkTable;
-import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.robot.Constants.VisionConstants;
+import frc.robot.shared.CameraRegistry;
 import frc.robot.subsystems.VisionSubsystem.LimelightMeasurement;
 
 class VisionSubsystemTest {
-    // Mocks
-    private NetworkTableInstance mockNtInstance;
-    private NetworkTable mockFrontTable;
-    private NetworkTable mockRightTable;
-    private NetworkTable mockBackTable;
-    private NetworkTable mockLeftTable;
-    
-    // Mock entries
-    private NetworkTableEntry mockTvEntry;
-    private NetworkTableEntry mockTaEntry;
-    private NetworkTableEntry mockTxEntry;
-    private NetworkTableEntry mockTyEntry;
-    private NetworkTableEntry mockTidEntry;
-    private NetworkTableEntry mockBotposeEntry;
-    private NetworkTableEntry mockPipelineEntry;
-    private NetworkTableEntry mockTargetposeEntry;
+    // Local NetworkTables instance the fake Limelights publish to
+    private NetworkTableInstance ntInstance;
+    private NetworkTable frontTable;
+    private NetworkTable rightTable;
+    private NetworkTable backTable;
+    private NetworkTable leftTable;
+    
+    // Static mocks
+    private MockedStatic<SmartDashboard> mockSmartDashboard;
     
     // System under test
     private VisionSubsystem visionSubsystem;
     
     @BeforeEach
     void setUp() {
-        // Arrange - Create mocks
-        mockNtInstance = mock(NetworkTableInstance.class);
-        mockFrontTable = mock(NetworkTable.class);
-        mockRightTable = mock(NetworkTable.class);
-        mockBackTable = mock(NetworkTable.class);
-        mockLeftTable = mock(NetworkTable.class);
-        
-        // Mock entries
-        mockTvEntry = mock(NetworkTableEntry.class);
-        mockTaEntry = mock(NetworkTableEntry.class);
-        mockTxEntry = mock(NetworkTableEntry.class);
-        mockTyEntry = mock(NetworkTableEntry.class);
-        mockTidEntry = mock(NetworkTableEntry.class);
-        mockBotposeEntry = mock(NetworkTableEntry.class);
-        mockPipelineEntry = mock(NetworkTableEntry.class);
-        mockTargetposeEntry = mock(NetworkTableEntry.class);
+        // Arrange - Create an isolated NetworkTables instance
+        ntInstance = NetworkTableInstance.create();
+        frontTable = ntInstance.getTable(VisionConstants.LIMELIGHT_FRONT_NAME);
+        rightTable = ntInstance.getTable(VisionConstants.LIMELIGHT_RIGHT_NAME);
+        backTable = ntInstance.getTable(VisionConstants.LIMELIGHT_BACK_NAME);
+        leftTable = ntInstance.getTable(VisionConstants.LIMELIGHT_LEFT_NAME);
         
         // Mock static methods
-        mockStatic(NetworkTableInstance.class);
-        mockStatic(Timer.class);
-        mockStatic(SmartDashboard.class);
-        
-        // Setup NetworkTableInstance mock
-        when(NetworkTableInstance.getDefault()).thenReturn(mockNtInstance);
-        
-        // Setup NetworkTable mocks
-        when(mockNtInstance.getTable(VisionConstants.LIMELIGHT_FRONT_NAME)).thenReturn(mockFrontTable);
-        when(mockNtInstance.getTable(VisionConstants.LIMELIGHT_RIGHT_NAME)).thenReturn(mockRightTable);
-        when(mockNtInstance.getTable(VisionConstants.LIMELIGHT_BACK_NAME)).thenReturn(mockBackTable);
-        when(mockNtInstance.getTable(VisionConstants.LIMELIGHT_LEFT_NAME)).thenReturn(mockLeftTable);
-        
-        // Setup NetworkTableEntry mocks for front table (others would be similar)
-        when(mockFrontTable.getEntry("tv")).thenReturn(mockTvEntry);
-        when(mockFrontTable.getEntry("ta")).thenReturn(mockTaEntry);
-        when(mockFrontTable.getEntry("tx")).thenReturn(mockTxEntry);
-        when(mockFrontTable.getEntry("ty")).thenReturn(mockTyEntry);
-        when(mockFrontTable.getEntry("tid")).thenReturn(mockTidEntry);
-        when(mockFrontTable.getEntry("botpose")).thenReturn(mockBotposeEntry);
-        when(mockFrontTable.getEntry("pipeline")).thenReturn(mockPipelineEntry);
-        when(mockFrontTable.getEntry("targetpose_cameraspace")).thenReturn(mockTargetposeEntry);
-        
-        // Setup Timer mock
-        when(Timer.getFPGATimestamp()).thenReturn(12345.0);
+        mockSmartDashboard = mockStatic(SmartDashboard.class);
         
         // Create the subsystem to test
-        visionSubsystem = new VisionSubsystem() {
-            // Override constructor to use our mocks
-            {
-                // This block replaces the constructor logic
-            }
-        };
-        
-        // Use reflection to set the private fields
-        try {
-            java.lang.reflect.Field limelightFrontField = VisionSubsystem.class.getDeclaredField("limelightFront");
-            limelightFrontField.setAccessible(true);
-            limelightFrontField.set(visionSubsystem, mockFrontTable);
-            
-            java.lang.reflect.Field limelightRightField = VisionSubsystem.class.getDeclaredField("limelightRight");
-            limelightRightField.setAccessible(true);
-            limelightRightField.set(visionSubsystem, mockRightTable);
-            
-            java.lang.reflect.Field limelightBackField = VisionSubsystem.class.getDeclaredField("limelightBack");
-            limelightBackField.setAccessible(true);
-            limelightBackField.set(visionSubsystem, mockBackTable);
-            
-            java.lang.reflect.Field limelightLeftField = VisionSubsystem.class.getDeclaredField("limelightLeft");
-            limelightLeftField.setAccessible(true);
-            limelightLeftField.set(visionSubsystem, mockLeftTable);
-            
-            java.lang.reflect.Field cameraMapField = VisionSubsystem.class.getDeclaredField("cameraMap");
-            cameraMapField.setAccessible(true);
-            Map<String, NetworkTable> cameraMap = (Map<String, NetworkTable>) cameraMapField.get(visionSubsystem);
-            cameraMap.put(VisionConstants.LIMELIGHT_FRONT_NAME, mockFrontTable);
-            cameraMap.put(VisionConstants.LIMELIGHT_RIGHT_NAME, mockRightTable);
-            cameraMap.put(VisionConstants.LIMELIGHT_BACK_NAME, mockBackTable);
-            cameraMap.put(VisionConstants.LIMELIGHT_LEFT_NAME, mockLeftTable);
-            
-        } catch (Exception e) {
-            fail("Failed to set up test: " + e.getMessage());
-        }
+        visionSubsystem = new VisionSubsystem(ntInstance, false, false);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        mockSmartDashboard.close();
+        ntInstance.close();
     }
     
     @Test
@@ -187,10 +122,9 @@ class VisionSubsystemTest {
     
     @Test
     void getAprilTagPose_WhenTagIsVisible_ShouldReturnPose() {
-        // Arrange
+        // Arrange - Tag 2 m away, 30 degrees to the left of the camera
         int testTagId = 3;
-        Pose2d expectedPose = new Pose2d(1.5, 2.5, Rotation2d.fromDegrees(45));
-        setupMockAprilTagDetection(testTagId, expectedPose);
+        setupMockAprilTagDetection(testTagId, new Translation2d(2.0, Rotation2d.fromDegrees(30)));
         
         // Force an update of the AprilTag poses
         visionSubsystem.periodic();
@@ -198,11 +132,77 @@ class VisionSubsystemTest {
         // Act
         Optional<Pose2d> result = visionSubsystem.getAprilTagPose(testTagId, VisionConstants.LIMELIGHT_FRONT_NAME);
         
+        // Assert - Rotation is the bearing to the tag
+        assertTrue(result.isPresent());
+        assertEquals(Math.sqrt(3.0), result.get().getX(), 0.001);
+        assertEquals(1.0, result.get().getY(), 0.001);
+        assertEquals(30.0, result.get().getRotation().getDegrees(), 0.001);
+    }
+    
+    @Test
+    void getAprilTagFieldPose_ShouldPlaceTagWithRobotPoseAndMount() {
+        // Arrange - Camera 0.5 m ahead of center, facing left; tag 2 m straight ahead of it
+        CameraRegistry registry = new CameraRegistry(List.of(new CameraRegistry.CameraConfig(
+            VisionConstants.LIMELIGHT_FRONT_NAME, "Front",
+            new Transform3d(0.5, 0.0, 0.0, new Rotation3d(0.0, 0.0, Math.PI / 2)),
+            EnumSet.of(CameraRegistry.Role.LOCALIZATION), CameraRegistry.Gains.FRONT, Map.of()
+        )));
+        VisionSubsystem mountedVision = new VisionSubsystem(ntInstance, registry, false, false);
+        setupMockAprilTagDetection(3, new Translation2d(2.0, 0.0));
+        mountedVision.periodic();
+        
+        // Act - Robot at (1, 1) facing +x
+        Optional<Pose2d> result = mountedVision.getAprilTagFieldPose(3, VisionConstants.LIMELIGHT_FRONT_NAME, new Pose2d(1.0, 1.0, Rotation2d.kZero));
+        
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(expectedPose.getX(), result.get().getX(), 0.001);
-        assertEquals(expectedPose.getY(), result.get().getY(), 0.001);
-        assertEquals(expectedPose.getRotation().getDegrees(), result.get().getRotation().getDegrees(), 0.001);
+        assertEquals(1.5, result.get().getX(), 0.001);
+        assertEquals(3.0, result.get().getY(), 0.001);
+        assertEquals(90.0, result.get().getRotation().getDegrees(), 0.001);
+        mountedVision.close();
+    }
+    
+    @Test
+    void getAprilTagFieldPose_WithoutMount_ShouldReturnEmpty() {
+        // Arrange
+        CameraRegistry registry = new CameraRegistry(List.of(new CameraRegistry.CameraConfig(
+            VisionConstants.LIMELIGHT_FRONT_NAME, "Front", null,
+            EnumSet.of(CameraRegistry.Role.LOCALIZATION), CameraRegistry.Gains.FRONT, Map.of()
+        )));
+        VisionSubsystem unmountedVision = new VisionSubsystem(ntInstance, registry, false, false);
+        setupMockAprilTagDetection(3, new Translation2d(2.0, 0.0));
+        unmountedVision.periodic();
+        
+        // Act
+        Optional<Pose2d> result = unmountedVision.getAprilTagFieldPose(3, VisionConstants.LIMELIGHT_FRONT_NAME, new Pose2d());
+        
+        // Assert
+        assertFalse(result.isPresent());
+        unmountedVision.close();
+    }
+    
+    @Test
+    void getAprilTagPose_WithMultipleTags_ShouldReturnEachTagsOwnPose() {
+        // Arrange - Two tags seen by the same camera in one frame
+        frontTable.getEntry("rawfiducials").setDoubleArray(new double[]{
+            6, 0.0, 0.0, 1.0, 1.0, 1.2, 0.1,
+            7, -90.0, 0.0, 0.5, 3.0, 3.2, 0.2
+        });
+        
+        // Force an update of the AprilTag poses
+        visionSubsystem.periodic();
+        
+        // Act
+        Optional<Pose2d> tag6 = visionSubsystem.getAprilTagPose(6, VisionConstants.LIMELIGHT_FRONT_NAME);
+        Optional<Pose2d> tag7 = visionSubsystem.getAprilTagPose(7, VisionConstants.LIMELIGHT_FRONT_NAME);
+        
+        // Assert
+        assertTrue(tag6.isPresent());
+        assertTrue(tag7.isPresent());
+        assertEquals(1.0, tag6.get().getX(), 0.001);
+        assertEquals(0.0, tag6.get().getY(), 0.001);
+        assertEquals(0.0, tag7.get().getX(), 0.001);
+        assertEquals(3.0, tag7.get().getY(), 0.001);
     }
     
     @Test
@@ -241,9 +241,9 @@ class VisionSubsystemTest {
     @Test
     void getAllVisibleAprilTags_ShouldReturnAllTags() {
         // Arrange
-        setupMockAprilTagDetection(1, new Pose2d(1, 1, new Rotation2d()), mockFrontTable);
-        setupMockAprilTagDetection(2, new Pose2d(2, 2, new Rotation2d()), mockRightTable);
-        setupMockAprilTagDetection(3, new Pose2d(3, 3, new Rotation2d()), mockBackTable);
+        setupMockAprilTagDetection(1, new Translation2d(1, 1), frontTable);
+        setupMockAprilTagDetection(2, new Translation2d(2, 2), rightTable);
+        setupMockAprilTagDetection(3, new Translation2d(3, 3), backTable);
         
         // Force an update of the AprilTag poses
         visionSubsystem.periodic();
@@ -258,10 +258,26 @@ class VisionSubsystemTest {
         assertTrue(result.containsKey(3));
     }
     
+    @Test
+    void visibleTagMask_ShouldSetBitForEachVisibleTag() {
+        // Arrange
+        setupMockAprilTagDetection(1, new Translation2d(1, 1), frontTable);
+        setupMockAprilTagDetection(5, new Translation2d(2, 2), leftTable);
+        
+        // Force an update of the AprilTag poses
+        visionSubsystem.periodic();
+        
+        // Act
+        long result = visionSubsystem.visibleTagMask();
+        
+        // Assert
+        assertEquals((1L << 1) | (1L << 5), result);
+    }
+    
     @Test
     void getAllVisionMeasurements_WhenNoValidTargets_ShouldReturnEmptyList() {
         // Arrange
-        when(mockTvEntry.getDouble(0)).thenReturn(0.0); // No valid target
+        frontTable.getEntry("tv").setDouble(0.0); // No valid target
         
         // Force an update
         visionSubsystem.periodic();
@@ -276,10 +292,10 @@ class VisionSubsystemTest {
     @Test
     void getAllVisionMeasurements_WithValidTargets_ShouldReturnMeasurements() {
         // Arrange
-        setupMockLimelightPoseEstimate(mockFrontTable, true);
-        setupMockLimelightPoseEstimate(mockRightTable, true);
-        setupMockLimelightPoseEstimate(mockBackTable, false); // No valid target
-        setupMockLimelightPoseEstimate(mockLeftTable, true);
+        setupMockLimelightPoseEstimate(frontTable, true);
+        setupMockLimelightPoseEstimate(rightTable, true);
+        setupMockLimelightPoseEstimate(backTable, false); // No valid target
+        setupMockLimelightPoseEstimate(leftTable, true);
         
         // Force an update
         visionSubsystem.periodic();
@@ -294,7 +310,7 @@ class VisionSubsystemTest {
     @Test
     void getBestVisionMeasurement_WhenNoValidTargets_ShouldReturnEmpty() {
         // Arrange
-        when(mockTvEntry.getDouble(0)).thenReturn(0.0); // No valid target
+        frontTable.getEntry("tv").setDouble(0.0); // No valid target
         
         // Force an update
         visionSubsystem.periodic();
@@ -309,9 +325,9 @@ class VisionSubsystemTest {
     @Test
     void getBestVisionMeasurement_WithValidTargets_ShouldReturnLowestAmbiguity() {
         // Arrange
-        setupMockLimelightPoseEstimate(mockFrontTable, true, 0.5); // Ambiguity 0.5
-        setupMockLimelightPoseEstimate(mockRightTable, true, 0.2); // Ambiguity 0.2 (best)
-        setupMockLimelightPoseEstimate(mockBackTable, true, 0.8); // Ambiguity 0.8
+        setupMockLimelightPoseEstimate(frontTable, true, 0.5); // Ambiguity 0.5
+        setupMockLimelightPoseEstimate(rightTable, true, 0.2); // Ambiguity 0.2 (best)
+        setupMockLimelightPoseEstimate(backTable, true, 0.8); // Ambiguity 0.8
         
         // Force an update
         visionSubsystem.periodic();
@@ -324,13 +340,200 @@ class VisionSubsystemTest {
         assertEquals(0.2, result.get().ambiguity(), 0.001); // Should select the one with lowest ambiguity
     }
     
+    @Test
+    void getAllVisionMeasurements_ShouldStampWithCaptureTimeMinusLatency() {
+        // Arrange
+        setupMockLimelightPoseEstimate(frontTable, true);
+        frontTable.getEntry("tl").setDouble(20.0);
+        frontTable.getEntry("cl").setDouble(10.0);
+        long lastChange = frontTable.getEntry("botpose").getLastChange();
+        
+        // Act
+        visionSubsystem.periodic();
+        List<LimelightMeasurement> result = visionSubsystem.getAllVisionMeasurements();
+        
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(lastChange / 1e6 - 0.030, result.get(0).timestamp(), 1e-9);
+    }
+    
+    @Test
+    void getAllVisionMeasurements_ShouldTakeLatencyAndTagCountFromBotpose() {
+        // Arrange - tl/cl/ta/tid already hold another frame's values
+        setupMockLimelightPoseEstimate(frontTable, true);
+        frontTable.getEntry("tl").setDouble(50.0);
+        frontTable.getEntry("cl").setDouble(50.0);
+        frontTable.getEntry("ta").setDouble(9.0);
+        frontTable.getEntry("tid").setDouble(17.0);
+        frontTable.getEntry("botpose").setDoubleArray(new double[]{1.0, 2.0, 0.0, 0.0, 0.0, 30.0, 25.0, 2.0, 0.5, 1.5, 3.0});
+        long lastChange = frontTable.getEntry("botpose").getLastChange();
+        
+        // Act
+        visionSubsystem.periodic();
+        
+        // Assert
+        assertEquals(1, visionSubsystem.getVisionMeasurementCount());
+        assertEquals(lastChange / 1e6 - 0.025, visionSubsystem.getVisionMeasurement(0).timestamp, 1e-9);
+        assertEquals(2.0, visionSubsystem.getVisionMeasurement(0).tagCount, 0.001);
+        assertEquals(3.0, visionSubsystem.getVisionMeasurement(0).targetArea, 0.001);
+    }
+    
+    @Test
+    void getAllVisionMeasurements_WhenFrameHasNoTags_ShouldSkipFrame() {
+        // Arrange
+        setupMockLimelightPoseEstimate(frontTable, true);
+        frontTable.getEntry("botpose").setDoubleArray(new double[]{0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0});
+        
+        // Act
+        visionSubsystem.periodic();
+        
+        // Assert
+        assertEquals(0, visionSubsystem.getVisionMeasurementCount());
+        assertFalse(visionSubsystem.hasPoseEstimate(VisionSubsystem.FRONT));
+    }
+    
+    @Test
+    void getAllVisionMeasurements_WhenFrameUnchanged_ShouldNotRepeatMeasurement() {
+        // Arrange
+        setupMockLimelightPoseEstimate(frontTable, true);
+        visionSubsystem.periodic();
+        
+        // Act - No new botpose published since the last loop
+        visionSubsystem.periodic();
+        
+        // Assert
+        assertTrue(visionSubsystem.getAllVisionMeasurements().isEmpty());
+        assertTrue(visionSubsystem.hasPoseEstimate(VisionSubsystem.FRONT));
+    }
+    
+    @Test
+    void eventDrivenIngest_ShouldKeepEveryFrameSinceLastLoop() {
+        // Arrange
+        VisionSubsystem eventVision = new VisionSubsystem(ntInstance, true, false);
+        frontTable.getEntry("botpose").setDoubleArray(new double[]{1.0, 2.0, 0.0, 0.0, 0.0, 30.0, 0.0, 1.0});
+        frontTable.getEntry("botpose").setDoubleArray(new double[]{1.5, 2.5, 0.0, 0.0, 0.0, 35.0, 0.0, 1.0});
+        rightTable.getEntry("botpose").setDoubleArray(new double[]{3.0, 4.0, 0.0, 0.0, 0.0, 40.0, 0.0, 2.0});
+        ntInstance.waitForListenerQueue(1.0);
+        
+        // Act
+        eventVision.periodic();
+        
+        // Assert
+        assertEquals(3, eventVision.getVisionMeasurementCount());
+        assertEquals(1.0, eventVision.getVisionMeasurement(0).x, 0.001);
+        assertEquals(1.5, eventVision.getVisionMeasurement(1).x, 0.001);
+        assertEquals(VisionSubsystem.RIGHT, eventVision.getVisionMeasurement(2).cameraIndex);
+    }
+    
+    @Test
+    void eventDrivenIngest_WhenFrameHasNoTags_ShouldSkipFrame() {
+        // Arrange
+        VisionSubsystem eventVision = new VisionSubsystem(ntInstance, true, false);
+        frontTable.getEntry("botpose").setDoubleArray(new double[]{0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0});
+        ntInstance.waitForListenerQueue(1.0);
+        
+        // Act
+        eventVision.periodic();
+        
+        // Assert
+        assertEquals(0, eventVision.getVisionMeasurementCount());
+    }
+    
+    @Test
+    void eventDrivenIngest_ShouldTakeAreaFromBotpose() {
+        // Arrange - ta topic already holds a different frame's area
+        VisionSubsystem eventVision = new VisionSubsystem(ntInstance, true, false);
+        frontTable.getEntry("ta").setDouble(9.0);
+        frontTable.getEntry("botpose").setDoubleArray(new double[]{1.0, 2.0, 0.0, 0.0, 0.0, 30.0, 25.0, 2.0, 0.5, 1.5, 3.0});
+        ntInstance.waitForListenerQueue(1.0);
+        
+        // Act
+        eventVision.periodic();
+        
+        // Assert
+        assertEquals(1, eventVision.getVisionMeasurementCount());
+        assertEquals(3.0, eventVision.getVisionMeasurement(0).targetArea, 0.001);
+        assertEquals(2.0, eventVision.getVisionMeasurement(0).tagCount, 0.001);
+    }
+    
+    @Test
+    void close_ShouldStopQueueingFrames() {
+        // Arrange
+        VisionSubsystem eventVision = new VisionSubsystem(ntInstance, true, false);
+        
+        // Act
+        eventVision.close();
+        frontTable.getEntry("botpose").setDoubleArray(new double[]{1.0, 2.0, 0.0, 0.0, 0.0, 30.0, 0.0, 1.0});
+        ntInstance.waitForListenerQueue(1.0);
+        eventVision.periodic();
+        
+        // Assert
+        assertEquals(0, eventVision.getVisionMeasurementCount());
+    }
+    
+    @Test
+    void setRobotOrientation_WithMegaTag2_ShouldPublishHeadingToEveryCamera() {
+        // Arrange
+        VisionSubsystem megaTag2Vision = new VisionSubsystem(ntInstance, false, true);
+        
+        // Act
+        megaTag2Vision.setRobotOrientation(90.0, 15.0);
+        
+        // Assert
+        for (NetworkTable table : new NetworkTable[]{frontTable, rightTable, backTable, leftTable}) {
+            double[] orientation = table.getEntry("robot_orientation_set").getDoubleArray(new double[0]);
+            assertArrayEquals(new double[]{90.0, 15.0, 0.0, 0.0, 0.0, 0.0}, orientation, 1e-9);
+        }
+    }
+    
+    @Test
+    void setRobotOrientation_WithoutMegaTag2_ShouldNotPublish() {
+        // Act
+        visionSubsystem.setRobotOrientation(90.0, 15.0);
+        
+        // Assert
+        assertFalse(frontTable.getEntry("robot_orientation_set").exists());
+    }
+    
+    @Test
+    void megaTag2Ingest_ShouldReadOrbPose() {
+        // Arrange
+        VisionSubsystem megaTag2Vision = new VisionSubsystem(ntInstance, false, true);
+        frontTable.getEntry("tv").setDouble(1.0);
+        frontTable.getEntry("botpose").setDoubleArray(new double[]{9.0, 9.0, 0.0, 0.0, 0.0, 0.0});
+        frontTable.getEntry("botpose_orb_wpiblue").setDoubleArray(new double[]{4.0, 5.0, 0.0, 0.0, 0.0, 90.0, 0.0, 2.0});
+        
+        // Act
+        megaTag2Vision.periodic();
+        
+        // Assert
+        assertEquals(1, megaTag2Vision.getVisionMeasurementCount());
+        assertEquals(4.0, megaTag2Vision.getVisionMeasurement(0).x, 0.001);
+        assertEquals(5.0, megaTag2Vision.getVisionMeasurement(0).y, 0.001);
+    }
+    
+    @Test
+    void megaTag2Ingest_WhenSpinningFast_ShouldDropMeasurements() {
+        // Arrange
+        VisionSubsystem megaTag2Vision = new VisionSubsystem(ntInstance, false, true);
+        megaTag2Vision.setRobotOrientation(0.0, 900.0);
+        frontTable.getEntry("tv").setDouble(1.0);
+        frontTable.getEntry("botpose_orb_wpiblue").setDoubleArray(new double[]{4.0, 5.0, 0.0, 0.0, 0.0, 90.0, 0.0, 2.0});
+        
+        // Act
+        megaTag2Vision.periodic();
+        
+        // Assert
+        assertEquals(0, megaTag2Vision.getVisionMeasurementCount());
+    }
+    
     @Test
     void periodic_ShouldUpdateSmartDashboard() {
         // Arrange
-        setupMockLimelightPoseEstimate(mockFrontTable, true);
-        setupMockLimelightPoseEstimate(mockRightTable, false);
-        setupMockLimelightPoseEstimate(mockBackTable, true);
-        setupMockLimelightPoseEstimate(mockLeftTable, false);
+        setupMockLimelightPoseEstimate(frontTable, true);
+        setupMockLimelightPoseEstimate(rightTable, false);
+        setupMockLimelightPoseEstimate(backTable, true);
+        setupMockLimelightPoseEstimate(leftTable, false);
         
         // Act
         visionSubsystem.periodic();
@@ -371,22 +574,19 @@ class VisionSubsystemTest {
     }
     
     private void setupMockAprilTagDetection(int tagId) {
-        setupMockAprilTagDetection(tagId, new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(30)));
+        setupMockAprilTagDetection(tagId, new Translation2d(1.0, 2.0));
     }
     
-    private void setupMockAprilTagDetection(int tagId, Pose2d pose) {
-        setupMockAprilTagDetection(tagId, pose, mockFrontTable);
+    private void setupMockAprilTagDetection(int tagId, Translation2d cameraToTag) {
+        setupMockAprilTagDetection(tagId, cameraToTag, frontTable);
     }
     
-    private void setupMockAprilTagDetection(int tagId, Pose2d pose, NetworkTable table) {
-        // Mock tag ID detection
-        when(table.getEntry("tid")).thenReturn(mockTidEntry);
-        when(mockTidEntry.getDoubleArray(any())).thenReturn(new double[]{tagId});
-        
-        // Mock tag pose
-        when(table.getEntry("targetpose_cameraspace")).thenReturn(mockTargetposeEntry);
-        when(mockTargetposeEntry.getDoubleArray(any())).thenReturn(new double[]{
-            pose.getX(), pose.getY(), 0.0, 0.0, 0.0, pose.getRotation().getDegrees()
+    private void setupMockAprilTagDetection(int tagId, Translation2d cameraToTag, NetworkTable table) {
+        // Publish a single rawfiducials entry: id, txnc, tync, ta, distToCamera, distToRobot, ambiguity
+        double txnc = -cameraToTag.getAngle().getDegrees(); // Limelight tx is positive to the right
+        double distance = cameraToTag.getNorm();
+        table.getEntry("rawfiducials").setDoubleArray(new double[]{
+            tagId, txnc, 0.0, 1.0, distance, distance, 0.1
         });
     }
     
@@ -395,32 +595,21 @@ class VisionSubsystemTest {
     }
     
     private void setupMockLimelightPoseEstimate(NetworkTable table, boolean hasTarget, double ambiguity) {
-        // Mock tv (target valid)
-        NetworkTableEntry tvEntry = mock(NetworkTableEntry.class);
-        when(table.getEntry("tv")).thenReturn(tvEntry);
-        when(tvEntry.getDouble(0)).thenReturn(hasTarget ? 1.0 : 0.0);
+        // Publish tv (target valid)
+        table.getEntry("tv").setDouble(hasTarget ? 1.0 : 0.0);
         
         if (hasTarget) {
-            // Mock botpose
-            NetworkTableEntry botposeEntry = mock(NetworkTableEntry.class);
-            when(table.getEntry("botpose")).thenReturn(botposeEntry);
-            when(botposeEntry.getDoubleArray(any())).thenReturn(new double[]{1.0, 2.0, 0.0, 0.0, 0.0, 30.0});
+            // Publish botpose
+            table.getEntry("botpose").setDoubleArray(new double[]{1.0, 2.0, 0.0, 0.0, 0.0, 30.0});
             
-            // Mock ta (target area)
-            NetworkTableEntry taEntry = mock(NetworkTableEntry.class);
-            when(table.getEntry("ta")).thenReturn(taEntry);
-            when(taEntry.getDouble(0)).thenReturn(5.0);
-            when(taEntry.getDouble(1.0)).thenReturn(ambiguity);
+            // Publish ta (target area, also used as ambiguity)
+            table.getEntry("ta").setDouble(ambiguity);
             
-            // Mock tx, ty (target x/y)
-            NetworkTableEntry txEntry = mock(NetworkTableEntry.class);
-            when(table.getEntry("tx")).thenReturn(txEntry);
-            when(txEntry.getDouble(0)).thenReturn(2.0);
+            // Publish tx (target x)
+            table.getEntry("tx").setDouble(2.0);
             
-            // Mock tid (tag ID)
-            NetworkTableEntry tidEntry = mock(NetworkTableEntry.class);
-            when(table.getEntry("tid")).thenReturn(tidEntry);
-            when(tidEntry.getDouble(-1)).thenReturn(1.0);
+            // Publish tid (tag ID)
+            table.getEntry("tid").setDouble(1.0);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package frc.robot.subsystems.vision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AprilTagStoreTest {
+
+    @Test
+    void decode_ShouldStoreEachTagUnderItsId() {
+        // Arrange
+        AprilTagStore store = new AprilTagStore(2, 22);
+
+        // Act
+        int stored = store.decode(1, new double[]{
+            4, 0.0, 0.0, 1.5, 2.0, 2.1, 0.1,
+            9, 90.0, 0.0, 0.5, 1.0, 1.1, 0.3
+        }, 12.5);
+
+        // Assert
+        assertEquals(2, stored);
+        assertTrue(store.isVisible(1, 4));
+        assertTrue(store.isVisible(1, 9));
+        assertFalse(store.isVisible(0, 4));
+        assertEquals(2.0, store.getX(1, 4), 0.001);
+        assertEquals(-1.0, store.getY(1, 9), 0.001);
+        assertEquals(1.5, store.getArea(1, 4), 0.001);
+        assertEquals(0.3, store.getAmbiguity(1, 9), 0.001);
+        assertEquals(12.5, store.getTimestamp(1, 9), 0.001);
+    }
+
+    @Test
+    void decode_ShouldClearTagsFromPreviousFrame() {
+        // Arrange
+        AprilTagStore store = new AprilTagStore(1, 22);
+        store.decode(0, new double[]{4, 0.0, 0.0, 1.5, 2.0, 2.1, 0.1}, 1.0);
+
+        // Act
+        store.decode(0, new double[0], 2.0);
+
+        // Assert
+        assertFalse(store.isVisible(0, 4));
+        assertEquals(0L, store.visibleTagMask());
+    }
+
+    @Test
+    void decode_WithIdOutsideStore_ShouldIgnoreTag() {
+        // Arrange
+        AprilTagStore store = new AprilTagStore(1, 22);
+
+        // Act
+        int stored = store.decode(0, new double[]{30, 0.0, 0.0, 1.5, 2.0, 2.1, 0.1}, 1.0);
+
+        // Assert
+        assertEquals(0, stored);
+        assertFalse(store.isVisible(0, 30));
+        assertFalse(store.isVisible(0, -1));
+    }
+
+    @Test
+    void visibleTagMask_ShouldCombineAllCameras() {
+        // Arrange
+        AprilTagStore store = new AprilTagStore(2, 22);
+        store.decode(0, new double[]{3, 0.0, 0.0, 1.0, 1.0, 1.0, 0.1}, 1.0);
+        store.decode(1, new double[]{7, 0.0, 0.0, 1.0, 1.0, 1.0, 0.1}, 1.0);
+
+        // Act
+        long mask = store.visibleTagMask();
+
+        // Assert
+        assertEquals((1L << 3) | (1L << 7), mask);
+        assertEquals(1L << 7, store.visibleTagMask(1));
+    }
+
+    @Test
+    void forEachVisible_ShouldVisitEachCameraTagPair() {
+        // Arrange
+        AprilTagStore store = new AprilTagStore(2, 22);
+        store.decode(0, new double[]{
+            8, 0.0, 0.0, 1.0, 1.0, 1.0, 0.1,
+            2, 0.0, 0.0, 1.0, 2.0, 2.0, 0.1
+        }, 1.0);
+        store.decode(1, new double[]{8, 0.0, 0.0, 1.0, 3.0, 3.0, 0.1}, 1.0);
+        List<String> visited = new ArrayList<>();
+
+        // Act
+        store.forEachVisible((camera, tagId, x, y, yaw, timestamp) -> visited.add(camera + ":" + tagId + ":" + x));
+
+        // Assert
+        assertEquals(List.of("0:2:2.0", "0:8:1.0", "1:8:3.0"), visited);
+    }
+
+    @Test
+    void constructor_WithTagIdAboveMaskWidth_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new AprilTagStore(1, 64));
+    }
+}
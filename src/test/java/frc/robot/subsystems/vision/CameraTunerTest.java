@@ -0,0 +1,261 @@
+package frc.robot.subsystems.vision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Pose3d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Rotation3d;
+import edu.wpi.first.math.geometry.Transform3d;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.Constants.VisionConstants;
+
+class CameraTunerTest {
+    private static final String CAMERA_NAME = "limelight-test";
+    private static final int TAG_ID = 7;
+
+    // Tag 7 at (3, 0) facing -x, toward a robot at the origin
+    private final AprilTagFieldLayout layout = new AprilTagFieldLayout(List.of(
+        new AprilTag(TAG_ID, new Pose3d(3.0, 0.0, 0.0, new Rotation3d(0, 0, Math.PI)))
+    ), 17.5, 8.0);
+
+    private NetworkTableInstance ntInstance;
+    private NetworkTable table;
+    private CameraTuner tuner;
+
+    @BeforeEach
+    void setUp() {
+        ntInstance = NetworkTableInstance.create();
+        table = ntInstance.getTable(CAMERA_NAME);
+        VisionCamera camera = new VisionCamera(ntInstance, CAMERA_NAME, new Pose2d());
+        tuner = new CameraTuner(ntInstance, new VisionCamera[] {camera}, new Transform3d[] {new Transform3d()}, layout);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ntInstance.close();
+    }
+
+    @Test
+    void update_WithNoTargetTag_ShouldStayFullFrame() {
+        // Act
+        tuner.update(new Pose2d(), 1.0);
+
+        // Assert
+        assertFalse(tuner.isCropped(0));
+        assertEquals(-1.0, tuner.getCrop(0, 0));
+        assertEquals(1.0, tuner.getCrop(0, 1));
+        assertEquals(0, tuner.getDownscaleSetting(0));
+        assertArrayEquals(new double[] {-1.0, 1.0, -1.0, 1.0},
+            table.getEntry("crop").getDoubleArray(new double[0]));
+    }
+
+    @Test
+    void update_WithTagAhead_ShouldCropAroundPrediction() {
+        // Arrange
+        tuner.setTargetTag(TAG_ID);
+
+        // Act
+        tuner.update(new Pose2d(), 1.0);
+
+        // Assert - Tag is centered; 3 m away it is small, so the minimum crop and full resolution are used
+        assertTrue(tuner.isCropped(0));
+        assertEquals(-VisionConstants.CROP_MIN_HALF_SIZE, tuner.getCrop(0, 0), 1e-9);
+        assertEquals(VisionConstants.CROP_MIN_HALF_SIZE, tuner.getCrop(0, 1), 1e-9);
+        assertEquals(1, tuner.getDownscaleSetting(0));
+        assertEquals(VisionConstants.CROP_MIN_HALF_SIZE,
+            table.getEntry("crop").getDoubleArray(new double[0])[1], 1e-9);
+    }
+
+    @Test
+    void update_WithTagClose_ShouldWidenCropAndDownscale() {
+        // Arrange - 0.5 m from the tag
+        tuner.setTargetTag(TAG_ID);
+
+        // Act
+        tuner.update(new Pose2d(2.5, 0.0, new Rotation2d()), 1.0);
+
+        // Assert
+        assertTrue(tuner.getCrop(0, 1) > 0.5);
+        assertEquals(3, tuner.getDownscaleSetting(0));
+        assertEquals(3.0, table.getEntry("fiducial_downscale_set").getDouble(0.0));
+    }
+
+    @Test
+    void update_WhenCameraTracksTag_ShouldCenterOnMeasurement() {
+        // Arrange - Camera sees the tag 10 degrees right of where the pose predicts
+        tuner.setTargetTag(TAG_ID);
+        table.getEntry("tv").setDouble(1.0);
+        table.getEntry("tid").setDouble(TAG_ID);
+        table.getEntry("tx").setDouble(10.0);
+        table.getEntry("ty").setDouble(0.0);
+
+        // Act
+        tuner.update(new Pose2d(), 1.0);
+
+        // Assert
+        double expectedX = Math.tan(Math.toRadians(10.0)) / Math.tan(Math.toRadians(VisionConstants.LIMELIGHT_HFOV_DEGREES / 2.0));
+        double center = (tuner.getCrop(0, 0) + tuner.getCrop(0, 1)) / 2.0;
+        assertEquals(expectedX, center, 1e-9);
+    }
+
+    @Test
+    void update_WhenCameraDoesNotReportTag_ShouldReturnToFullFrameAfterLostLoops() {
+        // Arrange - Crop on the predicted tag, which the camera never reports
+        tuner.setTargetTag(TAG_ID);
+        tuner.update(new Pose2d(), 1.0);
+
+        // Act
+        for (int i = 0; i < VisionConstants.CROP_LOST_LOOPS - 1; i++) {
+            tuner.update(new Pose2d(), 1.0);
+        }
+        boolean croppedBeforeTimeout = tuner.isCropped(0);
+        tuner.update(new Pose2d(), 1.0);
+
+        // Assert
+        assertTrue(croppedBeforeTimeout);
+        assertFalse(tuner.isCropped(0));
+        assertEquals(-1.0, tuner.getCrop(0, 2));
+        assertEquals(0, tuner.getDownscaleSetting(0));
+    }
+
+    @Test
+    void update_AfterLosingTag_ShouldOnlyCropAgainFromMeasurement() {
+        // Arrange - Fall back to full frame while the prediction still has the tag in view
+        tuner.setTargetTag(TAG_ID);
+        for (int i = 0; i <= VisionConstants.CROP_LOST_LOOPS; i++) {
+            tuner.update(new Pose2d(), 1.0);
+        }
+
+        // Act
+        tuner.update(new Pose2d(), 1.0);
+        boolean croppedFromPrediction = tuner.isCropped(0);
+        table.getEntry("tv").setDouble(1.0);
+        table.getEntry("tid").setDouble(TAG_ID);
+        tuner.update(new Pose2d(), 1.0);
+
+        // Assert
+        assertFalse(croppedFromPrediction);
+        assertTrue(tuner.isCropped(0));
+    }
+
+    @Test
+    void update_WhenCameraTracksTag_ShouldStayCropped() {
+        // Arrange
+        tuner.setTargetTag(TAG_ID);
+        table.getEntry("tv").setDouble(1.0);
+        table.getEntry("tid").setDouble(TAG_ID);
+
+        // Act
+        for (int i = 0; i < VisionConstants.CROP_LOST_LOOPS * 2; i++) {
+            tuner.update(new Pose2d(), 1.0);
+        }
+
+        // Assert
+        assertTrue(tuner.isCropped(0));
+    }
+
+    @Test
+    void update_WhenTargetCleared_ShouldReturnToFullFrame() {
+        // Arrange
+        tuner.setTargetTag(TAG_ID);
+        tuner.update(new Pose2d(), 1.0);
+
+        // Act
+        tuner.setTargetTag(-1);
+        for (int i = 0; i < VisionConstants.CROP_LOST_LOOPS; i++) {
+            tuner.update(new Pose2d(), 1.0);
+        }
+
+        // Assert
+        assertFalse(tuner.isCropped(0));
+    }
+
+    @Test
+    void update_WithUnknownMount_ShouldNotCropOnPrediction() {
+        // Arrange - Same camera, but the config does not say where it is mounted
+        VisionCamera camera = new VisionCamera(ntInstance, CAMERA_NAME, null);
+        CameraTuner unmounted = new CameraTuner(ntInstance, new VisionCamera[] {camera}, new Transform3d[] {null}, layout);
+        unmounted.setTargetTag(TAG_ID);
+
+        // Act
+        unmounted.update(new Pose2d(), 1.0);
+
+        // Assert
+        assertFalse(unmounted.isCropped(0));
+    }
+
+    @Test
+    void predict_WithTagBehindCamera_ShouldReturnFalse() {
+        // Arrange
+        double[] out = new double[3];
+        Pose3d camera = new Pose3d(0.0, 0.0, 0.0, new Rotation3d(0, 0, Math.PI));
+
+        // Act & Assert
+        assertFalse(tuner.predict(camera, layout.getTagPose(TAG_ID).orElseThrow(), out));
+    }
+
+    @Test
+    void predict_WithRaisedPitchedMount_ShouldPlaceTagVertically() {
+        // Arrange - Camera 0.5 m up looking level sees the floor-height tag below center;
+        // tilted down by the same angle, it sees it centered
+        double[] level = new double[3];
+        double[] pitched = new double[3];
+        Pose3d tag = layout.getTagPose(TAG_ID).orElseThrow();
+        double pitch = Math.atan2(0.5, 3.0);
+
+        // Act
+        boolean levelInView = tuner.predict(new Pose3d(0.0, 0.0, 0.5, new Rotation3d()), tag, level);
+        boolean pitchedInView = tuner.predict(new Pose3d(0.0, 0.0, 0.5, new Rotation3d(0, pitch, 0)), tag, pitched);
+
+        // Assert
+        assertTrue(levelInView);
+        assertTrue(pitchedInView);
+        assertEquals((-0.5 / 3.0) / Math.tan(Math.toRadians(VisionConstants.LIMELIGHT_VFOV_DEGREES / 2.0)), level[1], 1e-9);
+        assertEquals(0.0, pitched[1], 1e-9);
+    }
+
+    @Test
+    void predict_FromBehindTag_ShouldReturnFalse() {
+        // Arrange - Camera past the tag, looking back at its unprinted side
+        double[] out = new double[3];
+        Pose3d camera = new Pose3d(4.0, 0.0, 0.0, new Rotation3d(0, 0, Math.PI));
+
+        // Act & Assert
+        assertFalse(tuner.predict(camera, layout.getTagPose(TAG_ID).orElseThrow(), out));
+    }
+
+    @Test
+    void downscaleFor_ShouldUseHigherFactorsForLargerTags() {
+        // Act & Assert
+        assertEquals(1.0f, CameraTuner.downscaleFor(0.05));
+        assertEquals(1.5f, CameraTuner.downscaleFor(0.1));
+        assertEquals(2.0f, CameraTuner.downscaleFor(0.2));
+        assertEquals(3.0f, CameraTuner.downscaleFor(0.5));
+    }
+
+    @Test
+    void update_ShouldMeasureFpsFromHeartbeat() {
+        // Arrange
+        table.getEntry("hb").setDouble(100.0);
+        tuner.update(new Pose2d(), 10.0);
+        table.getEntry("hb").setDouble(130.0);
+
+        // Act
+        tuner.update(new Pose2d(), 10.0 + VisionConstants.METRICS_WINDOW_SECONDS);
+
+        // Assert
+        assertEquals(30.0 / VisionConstants.METRICS_WINDOW_SECONDS, tuner.getFps(0), 1e-9);
+        assertEquals(30.0 / VisionConstants.METRICS_WINDOW_SECONDS,
+            ntInstance.getEntry(VisionConstants.TUNING_FPS_TOPIC).getDoubleArray(new double[0])[0], 1e-9);
+    }
+}
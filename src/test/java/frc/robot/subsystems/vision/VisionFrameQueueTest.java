@@ -0,0 +1,86 @@
+package frc.robot.subsystems.vision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class VisionFrameQueueTest {
+    private static final double[] POSE = {1.0, 2.0, 0.0, 0.0, 0.0, 30.0};
+
+    @Test
+    void constructor_ShouldRoundCapacityToPowerOfTwo() {
+        // Act
+        VisionFrameQueue queue = new VisionFrameQueue(5);
+
+        // Assert
+        assertEquals(8, queue.capacity());
+    }
+
+    @Test
+    void drain_ShouldDeliverFramesOldestFirst() {
+        // Arrange
+        VisionFrameQueue queue = new VisionFrameQueue(4);
+        queue.offer(0, 1.0, POSE, 2.0, 1.0);
+        queue.offer(2, 2.0, POSE, 3.0, 1.0);
+        List<Integer> cameras = new ArrayList<>();
+
+        // Act
+        int drained = queue.drain(frame -> cameras.add(frame.cameraIndex));
+
+        // Assert
+        assertEquals(2, drained);
+        assertEquals(List.of(0, 2), cameras);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void offer_WhenFull_ShouldDropAndCountFrame() {
+        // Arrange
+        VisionFrameQueue queue = new VisionFrameQueue(2);
+        queue.offer(0, 1.0, POSE, 2.0, 1.0);
+        queue.offer(1, 2.0, POSE, 2.0, 1.0);
+
+        // Act
+        boolean accepted = queue.offer(2, 3.0, POSE, 2.0, 1.0);
+
+        // Assert
+        assertFalse(accepted);
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(2, queue.size());
+    }
+
+    @Test
+    void offer_FromProducerThread_ShouldNotLoseFrames() throws InterruptedException {
+        // Arrange
+        VisionFrameQueue queue = new VisionFrameQueue(64);
+        int frameCount = 100_000;
+        long[] received = {0};
+        double[] lastTimestamp = {-1.0};
+        boolean[] inOrder = {true};
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < frameCount; i++) {
+                while (!queue.offer(0, i, POSE, 2.0, 1.0)) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+
+        // Act
+        producer.start();
+        while (received[0] < frameCount) {
+            queue.drain(frame -> {
+                inOrder[0] &= frame.timestamp > lastTimestamp[0];
+                lastTimestamp[0] = frame.timestamp;
+                received[0]++;
+            });
+        }
+        producer.join();
+
+        // Assert
+        assertEquals(frameCount, received[0]);
+        assertTrue(inOrder[0]);
+    }
+}
@@ -0,0 +1,137 @@
+package frc.robot.subsystems.vision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import frc.robot.Constants;
+import frc.robot.Constants.VisionConstants;
+
+/**
+ * Micro-benchmark comparing per-loop pose estimator time when every camera's
+ * measurement is added on its own against fusing them into one update first.
+ * The timings are reported, not asserted, since wall-clock comparisons are not
+ * stable on shared build machines.
+ */
+@Tag("benchmark")
+class VisionFusionBenchmarkTest {
+    private static final int WARMUP_LOOPS = 5_000;
+    private static final int MEASURED_LOOPS = 5_000;
+    private static final int CAMERAS = 4;
+    private static final double LOOP_SECONDS = 0.02;
+
+    private final SwerveDriveKinematics kinematics = new SwerveDriveKinematics(
+        Constants.FRONT_LEFT_MODULE_POSITION,
+        Constants.FRONT_RIGHT_MODULE_POSITION,
+        Constants.BACK_LEFT_MODULE_POSITION,
+        Constants.BACK_RIGHT_MODULE_POSITION
+    );
+
+    private final SwerveModulePosition[] modulePositions = {
+        new SwerveModulePosition(),
+        new SwerveModulePosition(),
+        new SwerveModulePosition(),
+        new SwerveModulePosition()
+    };
+
+    private final VisionMeasurement[] measurements = new VisionMeasurement[CAMERAS];
+    private final Matrix<N3, N1> stdDevs = new Matrix<>(Nat.N3(), Nat.N1());
+
+    @Test
+    void fusedVision_ShouldReportEstimatorTimeAgainstPerCamera() {
+        // Arrange
+        for (int i = 0; i < CAMERAS; i++) {
+            measurements[i] = new VisionMeasurement();
+        }
+        SwerveDrivePoseEstimator perCameraEstimator = newEstimator();
+        SwerveDrivePoseEstimator fusedEstimator = newEstimator();
+        VisionFusion fusion = new VisionFusion(
+            CAMERAS,
+            VisionConstants.FUSION_WINDOW_SECONDS,
+            VisionConstants.FUSION_MAX_TRANSLATION_ERROR_METERS,
+            VisionConstants.FUSION_MAX_HEADING_ERROR_RADIANS,
+            VisionConstants.FUSION_MAX_REJECTED_LOOPS
+        );
+        runPerCamera(perCameraEstimator, 0, WARMUP_LOOPS);
+        runFused(fusedEstimator, fusion, 0, WARMUP_LOOPS);
+
+        // Act
+        long perCameraStart = System.nanoTime();
+        runPerCamera(perCameraEstimator, WARMUP_LOOPS, MEASURED_LOOPS);
+        long perCameraNanos = System.nanoTime() - perCameraStart;
+
+        long fusedStart = System.nanoTime();
+        runFused(fusedEstimator, fusion, WARMUP_LOOPS, MEASURED_LOOPS);
+        long fusedNanos = System.nanoTime() - fusedStart;
+
+        System.out.printf("Estimator time per loop: per-camera %.1f us, fused %.1f us%n",
+            perCameraNanos / 1e3 / MEASURED_LOOPS, fusedNanos / 1e3 / MEASURED_LOOPS);
+
+        // Assert
+        assertEquals(1.0, fusedEstimator.getEstimatedPosition().getX(), 0.1);
+        assertEquals(1.0, perCameraEstimator.getEstimatedPosition().getX(), 0.1);
+    }
+
+    private SwerveDrivePoseEstimator newEstimator() {
+        return new SwerveDrivePoseEstimator(kinematics, new Rotation2d(), modulePositions, new Pose2d(1.0, 2.0, new Rotation2d()));
+    }
+
+    /** Four cameras that all see the robot at (1, 2) with a little noise */
+    private void fillMeasurements(int loop, double time) {
+        for (int i = 0; i < CAMERAS; i++) {
+            double noise = 0.01 * ((loop + i) % 5 - 2);
+            measurements[i].set(i, 1.0 + noise, 2.0 - noise, noise, time - 0.03, 0.2, 1.0, 2.0 + i);
+        }
+    }
+
+    private void runPerCamera(SwerveDrivePoseEstimator estimator, int firstLoop, int loops) {
+        for (int loop = firstLoop; loop < firstLoop + loops; loop++) {
+            double time = loop * LOOP_SECONDS;
+            estimator.updateWithTime(time, new Rotation2d(), modulePositions);
+            fillMeasurements(loop, time);
+            for (VisionMeasurement measurement : measurements) {
+                double scale = VisionFusion.stdDevScale(measurement);
+                stdDevs.set(0, 0, VisionConstants.VISION_STD_DEV_X * scale);
+                stdDevs.set(1, 0, VisionConstants.VISION_STD_DEV_Y * scale);
+                stdDevs.set(2, 0, VisionConstants.VISION_STD_DEV_THETA * scale);
+                estimator.addVisionMeasurement(measurement.toPose2d(), measurement.timestamp, stdDevs);
+            }
+        }
+    }
+
+    private void runFused(SwerveDrivePoseEstimator estimator, VisionFusion fusion, int firstLoop, int loops) {
+        for (int loop = firstLoop; loop < firstLoop + loops; loop++) {
+            double time = loop * LOOP_SECONDS;
+            estimator.updateWithTime(time, new Rotation2d(), modulePositions);
+            fillMeasurements(loop, time);
+
+            fusion.reset();
+            for (VisionMeasurement measurement : measurements) {
+                fusion.add(measurement);
+            }
+            Pose2d odometry = estimator.getEstimatedPosition();
+            int estimates = fusion.fuse(odometry.getX(), odometry.getY(), odometry.getRotation().getRadians());
+            for (int i = 0; i < estimates; i++) {
+                double scale = fusion.getStdDevScale(i);
+                stdDevs.set(0, 0, VisionConstants.VISION_STD_DEV_X * scale);
+                stdDevs.set(1, 0, VisionConstants.VISION_STD_DEV_Y * scale);
+                stdDevs.set(2, 0, VisionConstants.VISION_STD_DEV_THETA * scale);
+                estimator.addVisionMeasurement(
+                    new Pose2d(fusion.getX(i), fusion.getY(i), new Rotation2d(fusion.getYawRadians(i))),
+                    fusion.getTimestamp(i),
+                    stdDevs
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package frc.robot.subsystems.vision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VisionFusionTest {
+    private VisionFusion fusion;
+
+    @BeforeEach
+    void setUp() {
+        fusion = new VisionFusion(8, 0.005, 1.0, Math.toRadians(30), 3);
+    }
+
+    @Test
+    void fuse_WithEqualQuality_ShouldAverageMeasurements() {
+        // Arrange
+        fusion.add(measurement(0, 1.0, 2.0, 0.1, 10.0, 0.2, 5.0));
+        fusion.add(measurement(1, 1.2, 2.2, -0.1, 10.0, 0.2, 5.0));
+
+        // Act
+        int estimates = fusion.fuse(1.1, 2.1, 0.0);
+
+        // Assert
+        assertEquals(1, estimates);
+        assertEquals(2, fusion.getFusedCount());
+        assertEquals(1.1, fusion.getX(0), 1e-9);
+        assertEquals(2.1, fusion.getY(0), 1e-9);
+        assertEquals(0.0, fusion.getYawRadians(0), 1e-9);
+        assertEquals(VisionFusion.stdDevScale(measurement(0, 0, 0, 0, 0, 0.2, 5.0)) / Math.sqrt(2.0), fusion.getStdDevScale(0), 1e-9);
+    }
+
+    @Test
+    void fuse_ShouldWeightBetterMeasurementHigher() {
+        // Arrange - Second measurement has a much larger target area
+        fusion.add(measurement(0, 1.0, 0.0, 0.0, 10.0, 0.2, 1.0));
+        fusion.add(measurement(1, 2.0, 0.0, 0.0, 10.0, 0.2, 10.0));
+
+        // Act
+        fusion.fuse(1.5, 0.0, 0.0);
+
+        // Assert
+        assertTrue(fusion.getX(0) > 1.5);
+    }
+
+    @Test
+    void fuse_ShouldRejectOutliersAgainstOdometry() {
+        // Arrange
+        fusion.add(measurement(0, 1.0, 1.0, 0.0, 10.0, 0.2, 5.0));
+        fusion.add(measurement(1, 6.0, 1.0, 0.0, 10.0, 0.2, 5.0));
+
+        // Act
+        fusion.fuse(1.0, 1.0, 0.0);
+
+        // Assert
+        assertEquals(1, fusion.getFusedCount());
+        assertEquals(1, fusion.getRejectedCount());
+        assertEquals(1.0, fusion.getX(0), 1e-9);
+    }
+
+    @Test
+    void fuse_WithDifferentCaptureTimes_ShouldKeepEstimatesSeparate() {
+        // Arrange - Added newest first
+        fusion.add(measurement(0, 1.5, 1.0, 0.0, 10.0, 0.2, 5.0));
+        fusion.add(measurement(1, 1.0, 1.0, 0.0, 9.9, 0.2, 5.0));
+
+        // Act
+        int estimates = fusion.fuse(1.0, 1.0, 0.0);
+
+        // Assert - Oldest first, each at its own capture time and confidence
+        assertEquals(2, estimates);
+        assertEquals(1.0, fusion.getX(0), 1e-9);
+        assertEquals(9.9, fusion.getTimestamp(0), 1e-9);
+        assertEquals(1.5, fusion.getX(1), 1e-9);
+        assertEquals(10.0, fusion.getTimestamp(1), 1e-9);
+        assertEquals(VisionFusion.stdDevScale(measurement(0, 0, 0, 0, 0, 0.2, 5.0)), fusion.getStdDevScale(1), 1e-9);
+    }
+
+    @Test
+    void add_WithSeveralFramesFromOneCamera_ShouldKeepNewest() {
+        // Arrange
+        fusion.add(measurement(0, 1.0, 1.0, 0.0, 10.0, 0.2, 5.0));
+        fusion.add(measurement(0, 1.2, 1.0, 0.0, 10.0, 0.2, 5.0));
+        fusion.add(measurement(0, 1.4, 1.0, 0.0, 10.1, 0.2, 5.0));
+        fusion.add(measurement(0, 9.0, 1.0, 0.0, 9.0, 0.2, 5.0));
+
+        // Act
+        int estimates = fusion.fuse(1.0, 1.0, 0.0);
+
+        // Assert - One camera never counts as several independent observations
+        assertEquals(1, estimates);
+        assertEquals(1, fusion.getFusedCount());
+        assertEquals(1.4, fusion.getX(0), 1e-9);
+        assertEquals(VisionFusion.stdDevScale(measurement(0, 0, 0, 0, 0, 0.2, 5.0)), fusion.getStdDevScale(0), 1e-9);
+    }
+
+    @Test
+    void fuse_AfterRepeatedRejections_ShouldTrustVisionAgain() {
+        // Arrange - Odometry is stuck far away from where every camera agrees the robot is
+        for (int loop = 0; loop < 3; loop++) {
+            fusion.reset();
+            fusion.add(measurement(0, 6.0, 1.0, 0.0, loop, 0.2, 5.0));
+            assertEquals(0, fusion.fuse(0.0, 0.0, 0.0));
+        }
+        fusion.reset();
+        fusion.add(measurement(0, 6.0, 1.0, 0.0, 3.0, 0.2, 5.0));
+
+        // Act
+        int estimates = fusion.fuse(0.0, 0.0, 0.0);
+
+        // Assert
+        assertEquals(1, estimates);
+        assertEquals(6.0, fusion.getX(0), 1e-9);
+    }
+
+    @Test
+    void fuse_WithNoMeasurements_ShouldReturnZero() {
+        // Act & Assert
+        assertEquals(0, fusion.fuse(0.0, 0.0, 0.0));
+    }
+
+    private static VisionMeasurement measurement(int cameraIndex, double x, double y, double yaw, double timestamp, double ambiguity, double area) {
+        VisionMeasurement measurement = new VisionMeasurement();
+        measurement.set(cameraIndex, x, y, yaw, timestamp, ambiguity, 1.0, area);
+        return measurement;
+    }
+}
@@ -0,0 +1,135 @@
+package frc.robot.subsystems.vision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.Constants.VisionConstants;
+
+/**
+ * Micro-benchmark comparing heap allocations per vision loop between the old
+ * string-keyed entry reads and the cached-subscriber / measurement-ring path.
+ */
+@Tag("benchmark")
+class VisionIngestBenchmarkTest {
+    private static final int WARMUP_LOOPS = 20_000;
+    private static final int MEASURED_LOOPS = 20_000;
+
+    private static final String[] CAMERA_NAMES = {
+        VisionConstants.LIMELIGHT_FRONT_NAME,
+        VisionConstants.LIMELIGHT_RIGHT_NAME,
+        VisionConstants.LIMELIGHT_BACK_NAME,
+        VisionConstants.LIMELIGHT_LEFT_NAME
+    };
+
+    private final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private NetworkTableInstance ntInstance;
+    private NetworkTable[] tables;
+    private VisionCamera[] cameras;
+    private VisionMeasurementRing ring;
+
+    // Keeps results reachable so the JIT cannot drop the work
+    private double sink;
+
+    @BeforeEach
+    void setUp() {
+        // Arrange - Four cameras that all see a target
+        ntInstance = NetworkTableInstance.create();
+        tables = new NetworkTable[CAMERA_NAMES.length];
+        cameras = new VisionCamera[CAMERA_NAMES.length];
+        for (int i = 0; i < CAMERA_NAMES.length; i++) {
+            tables[i] = ntInstance.getTable(CAMERA_NAMES[i]);
+            cameras[i] = new VisionCamera(ntInstance, CAMERA_NAMES[i], new Pose2d());
+            tables[i].getEntry("tv").setDouble(1.0);
+            tables[i].getEntry("ta").setDouble(2.5);
+            tables[i].getEntry("tid").setDouble(7.0);
+            tables[i].getEntry("botpose").setDoubleArray(new double[]{1.0, 2.0, 0.0, 0.0, 0.0, 30.0, 25.0, 1.0, 0.0, 2.0, 2.5});
+        }
+        ring = new VisionMeasurementRing(CAMERA_NAMES.length);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ntInstance.close();
+    }
+
+    @Test
+    void cachedIngest_ShouldNotAllocatePerLoop() {
+        // Arrange
+        for (int i = 0; i < WARMUP_LOOPS; i++) {
+            legacyLoop();
+            cachedLoop();
+        }
+
+        // Act
+        long legacyBytes = measureAllocatedBytes(this::legacyLoop);
+        long cachedBytes = measureAllocatedBytes(this::cachedLoop);
+
+        double legacyPerLoop = (double) legacyBytes / MEASURED_LOOPS;
+        double cachedPerLoop = (double) cachedBytes / MEASURED_LOOPS;
+        System.out.printf("Vision ingest allocations: legacy %.1f B/loop, cached %.3f B/loop%n", legacyPerLoop, cachedPerLoop);
+
+        // Assert
+        assertEquals(CAMERA_NAMES.length, ring.size());
+        assertTrue(legacyPerLoop > 0.0);
+        assertTrue(cachedPerLoop < 1.0, "Cached ingest allocated " + cachedPerLoop + " bytes per loop");
+    }
+
+    private long measureAllocatedBytes(Runnable loop) {
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_LOOPS; i++) {
+            loop.run();
+        }
+        return threadBean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    /** One loop of the current ingest path */
+    private void cachedLoop() {
+        ring.clear();
+        for (int i = 0; i < cameras.length; i++) {
+            VisionCamera camera = cameras[i];
+            camera.pollFrame();
+            if (camera.hasTarget() && camera.hasPose()) {
+                ring.claim().set(
+                    i,
+                    camera.getBotpose(0),
+                    camera.getBotpose(1),
+                    Math.toRadians(camera.getBotpose(5)),
+                    0.0,
+                    camera.getTa(),
+                    camera.getTid(),
+                    camera.getTa()
+                );
+            }
+        }
+        sink += ring.get(0).x;
+    }
+
+    /** One loop of the string-keyed entry path VisionSubsystem used to run */
+    private void legacyLoop() {
+        for (NetworkTable table : tables) {
+            Optional<Object[]> measurement = Optional.empty();
+            if (table.getEntry("tv").getDouble(0) >= 0.5) {
+                double[] botpose = table.getEntry("botpose").getDoubleArray(new double[6]);
+                if (botpose.length >= 6) {
+                    Pose2d pose = new Pose2d(botpose[0], botpose[1], Rotation2d.fromDegrees(botpose[5]));
+                    measurement = Optional.of(new Object[]{pose, table.getEntry("ta").getDouble(0), table.getEntry("tid").getDouble(-1)});
+                }
+            }
+            sink += measurement.isPresent() ? 1.0 : 0.0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package frc.robot.subsystems.vision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class VisionMeasurementRingTest {
+
+    @Test
+    void claim_WhenNotFull_ShouldAppendInOrder() {
+        // Arrange
+        VisionMeasurementRing ring = new VisionMeasurementRing(3);
+
+        // Act
+        ring.claim().x = 1.0;
+        ring.claim().x = 2.0;
+
+        // Assert
+        assertEquals(2, ring.size());
+        assertEquals(1.0, ring.get(0).x);
+        assertEquals(2.0, ring.get(1).x);
+    }
+
+    @Test
+    void claim_WhenFull_ShouldRecycleOldestSlot() {
+        // Arrange
+        VisionMeasurementRing ring = new VisionMeasurementRing(2);
+        VisionMeasurement first = ring.claim();
+        first.x = 1.0;
+        ring.claim().x = 2.0;
+
+        // Act
+        VisionMeasurement third = ring.claim();
+        third.x = 3.0;
+
+        // Assert
+        assertSame(first, third);
+        assertEquals(2, ring.size());
+        assertEquals(2.0, ring.get(0).x);
+        assertEquals(3.0, ring.get(1).x);
+    }
+
+    @Test
+    void clear_ShouldKeepSlotsForReuse() {
+        // Arrange
+        VisionMeasurementRing ring = new VisionMeasurementRing(2);
+        VisionMeasurement slot = ring.claim();
+
+        // Act
+        ring.clear();
+
+        // Assert
+        assertTrue(ring.isEmpty());
+        assertSame(slot, ring.claim());
+    }
+
+    @Test
+    void get_WithInvalidIndex_ShouldThrow() {
+        // Arrange
+        VisionMeasurementRing ring = new VisionMeasurementRing(2);
+        ring.claim();
+
+        // Act & Assert
+        assertThrows(IndexOutOfBoundsException.class, () -> ring.get(1));
+    }
+}
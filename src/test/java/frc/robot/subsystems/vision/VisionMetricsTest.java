@@ -0,0 +1,97 @@
+package frc.robot.subsystems.vision;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StructSubscriber;
+import frc.robot.shared.LatencyHistogram;
+
+class VisionMetricsTest {
+    private static final String TOPIC = "Vision/Health";
+
+    private NetworkTableInstance ntInstance;
+    private VisionMetrics metrics;
+    private LatencyHistogram limelightPeriodic;
+
+    @BeforeEach
+    void setUp() {
+        ntInstance = NetworkTableInstance.create();
+        metrics = new VisionMetrics(ntInstance, TOPIC, 2, 1.0);
+        limelightPeriodic = new LatencyHistogram(0.1, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ntInstance.close();
+    }
+
+    @Test
+    void publish_AfterWindow_ShouldReportFrameRateAndLatency() {
+        // Arrange - Camera 0 sends 20 frames in one second, camera 1 sends nothing
+        metrics.publish(10.0, limelightPeriodic, 0);
+        for (int i = 0; i < 20; i++) {
+            metrics.recordFrame(0, 10.0 + i * 0.05, i < 19 ? 20.0 : 80.0);
+            metrics.recordVisionPeriodic(1.5);
+        }
+        limelightPeriodic.record(0.8);
+
+        // Act
+        metrics.publish(11.0, limelightPeriodic, 3);
+
+        // Assert
+        VisionHealth health = metrics.getHealth();
+        assertEquals(20.0, health.cameras[0].frameRate, 1e-9);
+        assertEquals(20.0, health.cameras[0].latencyP50Ms, 1e-9);
+        assertEquals(80.0, health.cameras[0].latencyMaxMs, 1e-9);
+        assertEquals(0.0, health.cameras[1].frameRate, 1e-9);
+        assertEquals(1.5, health.visionPeriodicMeanMs, 1e-9);
+        assertEquals(0.8, health.limelightPeriodicMaxMs, 1e-9);
+        assertEquals(3, health.droppedFrames);
+        assertEquals(0, limelightPeriodic.getCount(), "Window should reset the shared histogram");
+    }
+
+    @Test
+    void publish_ShouldRefreshStalenessEveryCall() {
+        // Arrange
+        metrics.publish(10.0, limelightPeriodic, 0);
+        metrics.recordFrame(1, 10.0, 25.0);
+        metrics.recordRejected(1);
+
+        // Act
+        metrics.publish(10.2, limelightPeriodic, 0);
+
+        // Assert - Inside the window, so only staleness and counters move
+        VisionHealth health = metrics.getHealth();
+        assertEquals(200.0, health.cameras[1].stalenessMs, 1e-6);
+        assertEquals(-1.0, health.cameras[0].stalenessMs, 1e-9);
+        assertEquals(1, health.cameras[1].rejectedFrames);
+        assertEquals(0.0, health.cameras[1].frameRate, 1e-9);
+    }
+
+    @Test
+    void publish_ShouldSendStructOverNetworkTables() {
+        // Arrange
+        StructSubscriber<VisionHealth> sub = ntInstance.getStructTopic(TOPIC, VisionHealth.struct).subscribe(new VisionHealth());
+        metrics.recordRejected(0);
+        metrics.recordRejected(0);
+
+        // Act
+        metrics.publish(5.0, limelightPeriodic, 7);
+
+        // Assert
+        VisionHealth received = sub.get();
+        assertEquals(7, received.droppedFrames);
+        assertEquals(2, received.cameras[0].rejectedFrames);
+    }
+
+    @Test
+    void constructor_WithTooManyCameras_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> new VisionMetrics(ntInstance, TOPIC, VisionHealth.CAMERA_COUNT + 1, 1.0));
+    }
+}